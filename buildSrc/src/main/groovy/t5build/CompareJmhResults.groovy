@@ -0,0 +1,116 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package t5build
+
+import groovy.json.JsonSlurper
+import org.gradle.api.DefaultTask
+import org.gradle.api.GradleException
+import org.gradle.api.file.RegularFileProperty
+import org.gradle.api.provider.Property
+import org.gradle.api.tasks.Input
+import org.gradle.api.tasks.InputFile
+import org.gradle.api.tasks.Internal
+import org.gradle.api.tasks.TaskAction
+
+/**
+ * Compares the JSON output of a JMH run (the {@code -rf json} result format) against a checked-in baseline
+ * in the same format, and fails the build if any benchmark regressed by more than the allowed tolerance.
+ * <p>
+ * Benchmarks are matched by name plus parameters. For throughput modes a lower score is a regression,
+ * for all other modes (average time, sample time, single shot) a higher score is. Benchmarks missing
+ * from either file are reported but do not fail the build.
+ * <p>
+ * Usage in a build script:
+ * <pre>
+ * tasks.register('jmhCompare', CompareJmhResults) {
+ *     results = layout.buildDirectory.file('reports/jmh/results.json')
+ *     baseline = layout.projectDirectory.file('baselines/results.json')
+ *     tolerancePercent = 10
+ * }
+ * </pre>
+ */
+abstract class CompareJmhResults extends DefaultTask {
+
+    @InputFile
+    abstract RegularFileProperty getResults()
+
+    @Internal
+    abstract RegularFileProperty getBaseline()
+
+    @Input
+    abstract Property<Integer> getTolerancePercent()
+
+    CompareJmhResults() {
+        tolerancePercent.convention(10)
+    }
+
+    @TaskAction
+    void compare() {
+        def baselineFile = baseline.get().asFile
+
+        if (!baselineFile.exists()) {
+            logger.lifecycle "No JMH baseline at ${baselineFile}; record one with the jmhBaseline task."
+            return
+        }
+
+        def current = index(results.get().asFile)
+        def previous = index(baselineFile)
+
+        def tolerance = tolerancePercent.get()
+        def regressions = []
+
+        current.each { key, result ->
+            def base = previous[key]
+
+            if (base == null) {
+                logger.lifecycle "  NEW        ${key}: ${format(result)}"
+                return
+            }
+
+            def higherIsBetter = result.mode == 'thrpt'
+            def change = (result.score - base.score) / base.score * 100d
+            def worse = higherIsBetter ? -change : change
+
+            def status = worse > tolerance ? 'REGRESSED' : (worse < -tolerance ? 'IMPROVED' : 'ok')
+
+            logger.lifecycle String.format('  %-10s %s: %s (baseline %s, %+.1f%%)', status, key, format(result), format(base), change)
+
+            if (worse > tolerance) {
+                regressions << key
+            }
+        }
+
+        previous.keySet().findAll { !current.containsKey(it) }.each {
+            logger.lifecycle "  MISSING    ${it}"
+        }
+
+        if (regressions) {
+            throw new GradleException("${regressions.size()} benchmark(s) regressed by more than ${tolerance}% against ${baselineFile}: ${regressions.join(', ')}")
+        }
+    }
+
+    private static Map<String, Map> index(File file) {
+        def json = new JsonSlurper().parse(file)
+
+        json.collectEntries { entry ->
+            def params = entry.params ? entry.params.collect { k, v -> "${k}=${v}" }.sort().join(',') : ''
+            def key = params ? "${entry.benchmark}(${params})" : entry.benchmark
+
+            [(key): [mode: entry.mode, score: entry.primaryMetric.score as double, unit: entry.primaryMetric.scoreUnit]]
+        }
+    }
+
+    private static String format(Map result) {
+        String.format('%.3f %s', result.score, result.unit)
+    }
+}
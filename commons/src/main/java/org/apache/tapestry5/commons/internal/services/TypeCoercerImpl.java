@@ -19,11 +19,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.tapestry5.commons.internal.util.InheritanceSearch;
 import org.apache.tapestry5.commons.internal.util.InternalCommonsUtils;
-import org.apache.tapestry5.commons.internal.util.LockSupport;
 import org.apache.tapestry5.commons.services.Coercion;
 import org.apache.tapestry5.commons.services.CoercionTuple;
 import org.apache.tapestry5.commons.services.TypeCoercer;
@@ -36,8 +35,16 @@ import org.apache.tapestry5.commons.util.UnknownValueException;
 import org.apache.tapestry5.func.F;
 import org.apache.tapestry5.plastic.PlasticUtils;
 
+/**
+ * Coercions found (or assembled) for each pair of source and target types are cached. The lookup of a cached
+ * coercion is lock-free: the caches are concurrent maps, and {@link #clearCache()} discards them as a whole, by
+ * starting a new generation of caches, rather than clearing them under a lock.
+ *
+ * The caches are not held in {@link ClassValue}s: a value stored for a JDK class (such as String) would keep this
+ * coercer, and the class loader of the application, reachable after the application has been discarded.
+ */
 @SuppressWarnings("all")
-public class TypeCoercerImpl extends LockSupport implements TypeCoercer
+public class TypeCoercerImpl implements TypeCoercer
 {
     // Constructed from the service's configuration.
 
@@ -57,11 +64,6 @@ public class TypeCoercerImpl extends LockSupport implements TypeCoercer
             this.type = type;
         }
 
-        void clearCache()
-        {
-            cache.clear();
-        }
-
         Object coerce(Object input)
         {
             Class sourceType = input != null ? input.getClass() : Void.class;
@@ -102,9 +104,11 @@ public class TypeCoercerImpl extends LockSupport implements TypeCoercer
     }
 
     /**
-     * Map from a target type to a TargetCoercion for that type.
+     * Map from a target type to a TargetCoercion for that type; replaced with a new, empty map when the cache is
+     * cleared. A TargetCoercion obtained from a discarded map may still be used (and may cache coercions) by a thread
+     * that was in the middle of a coercion, but that cache is discarded along with the map.
      */
-    private final Map<Class, TargetCoercion> typeToTargetCoercion = new WeakHashMap<Class, TargetCoercion>();
+    private volatile ConcurrentMap<Class, TargetCoercion> typeToTargetCoercion = CollectionFactory.newConcurrentMap();
 
     private static final Coercion NO_COERCION = new Coercion<Object, Object>()
     {
@@ -198,64 +202,31 @@ public class TypeCoercerImpl extends LockSupport implements TypeCoercer
 
     private TargetCoercion getTargetCoercion(Class targetType)
     {
-        try
-        {
-            acquireReadLock();
+        ConcurrentMap<Class, TargetCoercion> generation = typeToTargetCoercion;
 
-            TargetCoercion tc = typeToTargetCoercion.get(targetType);
+        TargetCoercion tc = generation.get(targetType);
 
-            return tc != null ? tc : createAndStoreNewTargetCoercion(targetType);
-        } finally
+        if (tc != null)
         {
-            releaseReadLock();
+            return tc;
         }
-    }
 
-    private TargetCoercion createAndStoreNewTargetCoercion(Class targetType)
-    {
-        try
-        {
-            upgradeReadLockToWriteLock();
-
-            // Inner check since some other thread may have beat us to it.
+        // Some other thread may beat us to it.
 
-            TargetCoercion tc = typeToTargetCoercion.get(targetType);
+        tc = new TargetCoercion(targetType);
 
-            if (tc == null)
-            {
-                tc = new TargetCoercion(targetType);
-                typeToTargetCoercion.put(targetType, tc);
-            }
+        TargetCoercion existing = generation.putIfAbsent(targetType, tc);
 
-            return tc;
-        } finally
-        {
-            downgradeWriteLockToReadLock();
-        }
+        return existing != null ? existing : tc;
     }
 
     @Override
     public void clearCache()
     {
-        try
-        {
-            acquireReadLock();
-
-            // There's no need to clear the typeToTargetCoercion map, as it is a WeakHashMap and
-            // will release the keys for classes that are no longer in existence. On the other hand,
-            // there's likely all sorts of references to unloaded classes inside each TargetCoercion's
-            // individual cache, so clear all those.
+        // The caches likely contain all sorts of references to classes that are being unloaded (both as
+        // target types, and as source types within each TargetCoercion), so start over.
 
-            for (TargetCoercion tc : typeToTargetCoercion.values())
-            {
-                // Can tc ever be null?
-
-                tc.clearCache();
-            }
-        } finally
-        {
-            releaseReadLock();
-        }
+        typeToTargetCoercion = CollectionFactory.newConcurrentMap();
     }
 
     /**
@@ -18,6 +18,7 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 
 import org.apache.tapestry5.plastic.InstanceContext;
+import org.apache.tapestry5.plastic.MethodAdvice;
 import org.apache.tapestry5.plastic.MethodInvocation;
 
 public abstract class AbstractMethodInvocation implements MethodInvocation
@@ -83,6 +84,13 @@ public abstract class AbstractMethodInvocation implements MethodInvocation
         return instanceContext;
     }
 
+    /**
+     * Invokes each advice from this single call site, which is used by all advised methods. Normally, the
+     * runtime-generated subclass overrides this with a switch that invokes each advice from a call site of its own,
+     * which allows the JIT to inline the advice and, often, to eliminate the allocation of the invocation; this
+     * implementation is only used when {@link org.apache.tapestry5.plastic.TransformationOption#SHARED_ADVICE_DISPATCH}
+     * is enabled.
+     */
     @Override
     public MethodInvocation proceed()
     {
@@ -94,6 +102,14 @@ public abstract class AbstractMethodInvocation implements MethodInvocation
         return this;
     }
 
+    /**
+     * Returns the advice at the given index, for the runtime-generated implementation of {@link #proceed()}.
+     */
+    protected final MethodAdvice getAdvice(int index)
+    {
+        return bundle.advice[index];
+    }
+
     @Override
     public MethodInvocation setCheckedException(Exception exception)
     {
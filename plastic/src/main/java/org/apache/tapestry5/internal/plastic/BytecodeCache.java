@@ -0,0 +1,288 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.apache.tapestry5.internal.plastic;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * A persistent cache of the final bytecode of transformed classes, stored in a single append-only file. Transformed
+ * classes are written with {@linkplain org.apache.tapestry5.internal.plastic.asm.ClassWriter#COMPUTE_FRAMES computed
+ * stack map frames}, which is the most expensive part of writing a class (it requires analyzing every method, and
+ * loading classes to find common super-classes). The cache is keyed on a SHA-256 digest of the class written without
+ * computing frames, so any change to the original class, or to how it is transformed, results in a different key.
+ *
+ * The file starts with a header containing a version string; if the version doesn't match (or the file can't be read),
+ * the file is discarded and rewritten from scratch. Existing entries are read into memory when the cache is opened;
+ * new entries are appended to the file as they are created. A truncated final entry (for example, after a crash) is
+ * ignored. The file remains open until the cache is {@linkplain #close() closed}.
+ *
+ * All methods are synchronized.
+ */
+public class BytecodeCache
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(BytecodeCache.class);
+
+    private static final byte[] MAGIC = "PLASTIC-BYTECODE-CACHE\n".getBytes(StandardCharsets.UTF_8);
+
+    private static final int DIGEST_LENGTH = 32;
+
+    private final File file;
+
+    private final byte[] header;
+
+    /**
+     * Maps the hex digest to the bytecode, either a slice of the file's content, or a newly added entry.
+     */
+    private final Map<String, ByteBuffer> entries = PlasticInternalUtils.newMap();
+
+    private FileChannel channel;
+
+    /**
+     * @param file
+     *         file to store the cache in; it is created if necessary
+     * @param version
+     *         identifies the code that performs transformations; the cache is discarded when this changes
+     */
+    public BytecodeCache(File file, String version)
+    {
+        this.file = file;
+
+        byte[] versionBytes = (version + "\n").getBytes(StandardCharsets.UTF_8);
+
+        header = Arrays.copyOf(MAGIC, MAGIC.length + versionBytes.length);
+
+        System.arraycopy(versionBytes, 0, header, MAGIC.length, versionBytes.length);
+
+        try
+        {
+            open();
+        } catch (IOException ex)
+        {
+            LOGGER.warn(String.format("Unable to open bytecode cache %s, it will not be used: %s", file, PlasticInternalUtils.toMessage(ex)));
+
+            close();
+        }
+    }
+
+    private void open() throws IOException
+    {
+        File parent = file.getAbsoluteFile().getParentFile();
+
+        if (!parent.isDirectory() && !parent.mkdirs())
+        {
+            throw new IOException(String.format("Unable to create directory %s.", parent));
+        }
+
+        channel = new RandomAccessFile(file, "rw").getChannel();
+
+        long size = channel.size();
+
+        if (size >= header.length && size <= Integer.MAX_VALUE && hasCurrentHeader())
+        {
+            ByteBuffer content = read(size);
+
+            content.position(header.length);
+
+            long end = readEntries(content);
+
+            // Drop a truncated final entry, so that new entries are appended after the last complete one. The entries
+            // are slices of a heap buffer, so they are unaffected.
+
+            channel.truncate(end);
+            channel.position(end);
+
+            LOGGER.info(String.format("Loaded %,d cached classes from bytecode cache %s.", entries.size(), file));
+
+            return;
+        }
+
+        channel.truncate(0);
+        channel.write(ByteBuffer.wrap(header), 0);
+        channel.position(header.length);
+    }
+
+    private boolean hasCurrentHeader() throws IOException
+    {
+        ByteBuffer actual = ByteBuffer.allocate(header.length);
+
+        while (actual.hasRemaining())
+        {
+            if (channel.read(actual, actual.position()) < 0)
+            {
+                return false;
+            }
+        }
+
+        return Arrays.equals(header, actual.array());
+    }
+
+    private ByteBuffer read(long size) throws IOException
+    {
+        ByteBuffer content = ByteBuffer.allocate((int) size);
+
+        while (content.hasRemaining())
+        {
+            if (channel.read(content, content.position()) < 0)
+            {
+                break;
+            }
+        }
+
+        content.flip();
+
+        return content;
+    }
+
+    /**
+     * Reads entries (digest, length, bytecode) from the buffer, returning the position after the last complete entry.
+     */
+    private long readEntries(ByteBuffer content)
+    {
+        byte[] digest = new byte[DIGEST_LENGTH];
+
+        while (content.remaining() >= DIGEST_LENGTH + 4)
+        {
+            int start = content.position();
+
+            content.get(digest);
+
+            int length = content.getInt();
+
+            if (length < 0 || length > content.remaining())
+            {
+                return start;
+            }
+
+            ByteBuffer bytecode = content.slice();
+
+            bytecode.limit(length);
+
+            entries.put(toHex(digest), bytecode);
+
+            content.position(content.position() + length);
+        }
+
+        return content.position();
+    }
+
+    /**
+     * Computes the key for a class.
+     *
+     * @param unframedBytecode
+     *         the class, written without computing frames
+     */
+    public static byte[] digest(byte[] unframedBytecode)
+    {
+        try
+        {
+            return MessageDigest.getInstance("SHA-256").digest(unframedBytecode);
+        } catch (NoSuchAlgorithmException ex)
+        {
+            // Every Java runtime is required to support SHA-256.
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Returns the cached bytecode for the digest, or null if not in the cache.
+     */
+    public synchronized byte[] get(byte[] digest)
+    {
+        ByteBuffer buffer = entries.get(toHex(digest));
+
+        if (buffer == null)
+        {
+            return null;
+        }
+
+        byte[] result = new byte[buffer.remaining()];
+
+        buffer.duplicate().get(result);
+
+        return result;
+    }
+
+    /**
+     * Adds the bytecode to the cache, and appends it to the file.
+     */
+    public synchronized void put(byte[] digest, byte[] bytecode)
+    {
+        entries.put(toHex(digest), ByteBuffer.wrap(bytecode));
+
+        if (channel == null)
+        {
+            return;
+        }
+
+        ByteBuffer entry = ByteBuffer.allocate(DIGEST_LENGTH + 4 + bytecode.length);
+
+        entry.put(digest).putInt(bytecode.length).put(bytecode).flip();
+
+        try
+        {
+            while (entry.hasRemaining())
+            {
+                channel.write(entry);
+            }
+        } catch (IOException ex)
+        {
+            LOGGER.warn(String.format("Unable to write to bytecode cache %s, it will no longer be updated: %s", file, PlasticInternalUtils.toMessage(ex)));
+
+            close();
+        }
+    }
+
+    /**
+     * Closes the file; entries already read remain available.
+     */
+    public synchronized void close()
+    {
+        if (channel != null)
+        {
+            try
+            {
+                channel.close();
+            } catch (IOException ex)
+            {
+                // Nothing to do; entries are written as they are added.
+            }
+
+            channel = null;
+        }
+    }
+
+    private static String toHex(byte[] digest)
+    {
+        StringBuilder builder = new StringBuilder(digest.length * 2);
+
+        for (byte b : digest)
+        {
+            builder.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+
+        return builder.toString();
+    }
+}
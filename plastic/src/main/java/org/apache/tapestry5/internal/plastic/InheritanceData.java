@@ -50,6 +50,16 @@ public class InheritanceData
         return parent != null;
     }
 
+    /**
+     * Returns the number of transformed classes in the hierarchy, up to and including this one; zero for a base class.
+     *
+     * @since 5.10
+     */
+    public int getDepth()
+    {
+        return parent == null ? 0 : parent.getDepth() + 1;
+    }
+
     /**
      * Returns a new MethodBundle that represents the methods of a child class
      * of this bundle. The returned bundle will always be {@linkplain #isTransformed() transformed}.
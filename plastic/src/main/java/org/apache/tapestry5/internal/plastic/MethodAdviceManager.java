@@ -30,6 +30,8 @@ class MethodAdviceManager
 {
     private final static String RETURN_VALUE = "returnValue";
 
+    private final static String ADVICE_INDEX = "adviceIndex";
+
     private final MethodDescription description;
 
     /**
@@ -63,7 +65,7 @@ class MethodAdviceManager
         isVoid = description.returnType.equals("void");
 
         invocationClassName = String.format("%s$Invocation_%s_%s", plasticClass.className, description.methodName,
-                PlasticUtils.nextUID());
+                plasticClass.nextSupportClassUID());
 
         invocationClassNode = new ClassNode();
 
@@ -79,7 +81,7 @@ class MethodAdviceManager
 
         createGetParameter();
 
-        newMethodName = String.format("advised$%s_%s", description.methodName, PlasticUtils.nextUID());
+        newMethodName = String.format("advised$%s_%s", description.methodName, plasticClass.nextUID());
 
         createProceedToAdvisedMethod();
     }
@@ -361,6 +363,57 @@ class MethodAdviceManager
         });
     }
 
+    /**
+     * Implements {@link MethodInvocation#proceed()} as a switch on the index of the next advice, with one case per
+     * advice; each advice is invoked from a call site of its own, so the JIT sees a single advice type at each.
+     * Once all advice has been invoked, proceeding invokes the advised method (again).
+     */
+    private void createProceed(final int adviceCount)
+    {
+        invocationClassNode.visitField(Opcodes.ACC_PRIVATE, ADVICE_INDEX, "I", null, null);
+
+        InstructionBuilder builder = newMethod("proceed", MethodInvocation.class);
+
+        builder.loadThis().getField(invocationClassName, ADVICE_INDEX, int.class);
+
+        builder.startSwitch(0, adviceCount, new SwitchCallback()
+        {
+            @Override
+            public void doSwitch(SwitchBlock block)
+            {
+                for (int i = 0; i < adviceCount; i++)
+                {
+                    final int index = i;
+
+                    block.addCase(i, true, new InstructionBuilderCallback()
+                    {
+                        @Override
+                        public void doBuild(InstructionBuilder builder)
+                        {
+                            builder.loadThis().loadConstant(index + 1).putField(invocationClassName, ADVICE_INDEX,
+                                    int.class);
+
+                            builder.loadThis().loadConstant(index);
+                            builder.invoke(AbstractMethodInvocation.class, MethodAdvice.class, "getAdvice", int.class);
+                            builder.loadThis().invoke(MethodAdvice.class, void.class, "advise", MethodInvocation.class);
+                        }
+                    });
+                }
+
+                block.addCase(adviceCount, true, new InstructionBuilderCallback()
+                {
+                    @Override
+                    public void doBuild(InstructionBuilder builder)
+                    {
+                        builder.loadThis().invokeVirtual(invocationClassName, "void", "proceedToAdvisedMethod");
+                    }
+                });
+            }
+        });
+
+        builder.loadThis().returnResult();
+    }
+
     /**
      * Creates a new method containing the advised method's original implementation, then rewrites the
      * advised method to create the MethodInvocation subclass, invoke proceed() on it, and handle
@@ -370,10 +423,15 @@ class MethodAdviceManager
     {
         createNewMethod();
 
+        if (!plasticClass.pool.isEnabled(TransformationOption.SHARED_ADVICE_DISPATCH))
+        {
+            createProceed(advice.size());
+        }
+
         plasticClass.pool.realize(plasticClass.className, ClassType.METHOD_INVOCATION, invocationClassNode);
 
         String fieldName = String.format("methodinvocationbundle_%s_%s", description.methodName,
-                PlasticUtils.nextUID());
+                plasticClass.nextUID());
 
         MethodAdvice[] adviceArray = advice.toArray(new MethodAdvice[advice.size()]);
         MethodInvocationBundle bundle = new MethodInvocationBundle(plasticClass.className, description, adviceArray);
@@ -417,7 +475,9 @@ class MethodAdviceManager
             {
                 builder.dupe().storeVariable(invocation);
 
-                builder.invoke(AbstractMethodInvocation.class, MethodInvocation.class, "proceed");
+                // The invocation class is final, so the call is bound directly to its proceed()
+
+                builder.invokeVirtual(invocationClassName, MethodInvocation.class.getName(), "proceed");
 
                 if (description.checkedExceptionTypes.length > 0)
                 {
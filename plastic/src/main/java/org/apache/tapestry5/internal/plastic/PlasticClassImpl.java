@@ -171,6 +171,14 @@ public class PlasticClassImpl extends Lockable implements PlasticClass, Internal
 
     private ClassNode interfaceClassNode;
 
+    private int uidCounter;
+
+    /**
+     * Distinguishes this transformation of the class from earlier ones in the same pool, which were abandoned (to be
+     * started over) after defining some of their support classes; zero for the first transformation.
+     */
+    private final int transformationIndex;
+
     /**
      * @param classNode
      * @param implementationClassNode
@@ -187,6 +195,8 @@ public class PlasticClassImpl extends Lockable implements PlasticClass, Internal
         this.proxy = proxy;
         this.implementationClassNode = implementationClassNode;
 
+        transformationIndex = proxy ? 0 : pool.nextTransformationIndex(classNode.name);
+
         staticContext = parentStaticContext.dupe();
 
         className = PlasticInternalUtils.toClassName(classNode.name);
@@ -898,7 +908,30 @@ public class PlasticClassImpl extends Lockable implements PlasticClass, Internal
 
     String makeUnique(Set<String> values, String input)
     {
-        return values.contains(input) ? input + "$" + PlasticUtils.nextUID() : input;
+        return values.contains(input) ? input + "$" + nextUID() : input;
+    }
+
+    /**
+     * Returns a suffix used to make the names of introduced members and support classes unique. The suffix combines
+     * the depth of the class in the hierarchy of transformed classes with a counter, so that names never collide with
+     * names introduced into a super-class, and a class transformed the same way always gets the same names (which
+     * allows its bytecode to be {@linkplain BytecodeCache cached}).
+     */
+    String nextUID()
+    {
+        return inheritanceData.getDepth() + "_" + uidCounter++;
+    }
+
+    /**
+     * As {@link #nextUID()}, for the name of a support class (a shim or a method invocation): support classes are
+     * defined in the class loader as the class is transformed, so if the class is transformed again, its new support
+     * classes need names distinct from those already defined.
+     */
+    String nextSupportClassUID()
+    {
+        String uid = nextUID();
+
+        return transformationIndex == 0 ? uid : uid + "_" + transformationIndex;
     }
 
     @Override
@@ -1076,7 +1109,7 @@ public class PlasticClassImpl extends Lockable implements PlasticClass, Internal
 
     public PlasticClassHandleShim createShimInstance()
     {
-        String shimClassName = String.format("%s$Shim_%s", classNode.name, PlasticUtils.nextUID());
+        String shimClassName = String.format("%s$Shim_%s", classNode.name, nextSupportClassUID());
 
         ClassNode shimClassNode = new ClassNode();
 
@@ -21,6 +21,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -46,7 +48,81 @@ public class PlasticClassLoader extends ClassLoader
     private Map<String, Class<?>> cache;
     
     private static List<String> log = new ArrayList<>();
-    
+
+    /**
+     * A lock for each class name loaded (and transformed) by this class loader, so that different classes may be
+     * transformed in parallel.
+     */
+    private static final class ClassNameLock extends ReentrantLock
+    {
+        private static final long serialVersionUID = 1L;
+
+        final String className;
+
+        ClassNameLock(String className)
+        {
+            this.className = className;
+        }
+
+        Thread owner()
+        {
+            return getOwner();
+        }
+    }
+
+    /**
+     * Thrown, through whatever code is loading or transforming classes, when waiting for a class name lock would
+     * complete a cycle of threads each waiting for a lock held by the next. It is caught by the outermost locked
+     * operation of the thread which, once all its class name locks are released, waits for the other thread to be
+     * done with the class and starts over. This is an Error so that it passes through code catching Exception.
+     */
+    private static final class ClassNameLockDeadlock extends Error
+    {
+        private static final long serialVersionUID = 1L;
+
+        final transient ClassNameLock lock;
+
+        ClassNameLockDeadlock(ClassNameLock lock)
+        {
+            super(String.format("Waiting for the lock on class %s would deadlock.", lock.className), null, false, false);
+
+            this.lock = lock;
+        }
+
+        static ClassNameLockDeadlock find(Throwable t)
+        {
+            while (t != null && !(t instanceof ClassNameLockDeadlock))
+            {
+                t = t.getCause();
+            }
+
+            return (ClassNameLockDeadlock) t;
+        }
+    }
+
+    /**
+     * An operation performed while holding the lock for a class name.
+     */
+    @FunctionalInterface
+    interface ClassNameLockedOperation<T, E extends Exception>
+    {
+        T perform() throws E;
+    }
+
+    private final ConcurrentMap<String, ClassNameLock> classNameLocks = PlasticInternalUtils.newConcurrentMap();
+
+    /**
+     * Identifies the lock each thread (in any class loader) is waiting on, if any. Guarded by itself, so that
+     * recording a wait is atomic with checking it for a deadlock: of a cycle of waiting threads, the last one to
+     * wait is the one that sees the cycle.
+     */
+    private static final Map<Thread, ClassNameLock> waitingThreads = new HashMap<>();
+
+    /**
+     * The number of class name locks (in any class loader) held by each thread.
+     */
+    private static final ThreadLocal<int[]> heldLockCounts = ThreadLocal.withInitial(() -> new int[1]);
+
     public PlasticClassLoader(ClassLoader parent, ClassLoaderDelegate delegate) 
     {
         super(parent);
@@ -56,51 +132,176 @@ public class PlasticClassLoader extends ClassLoader
     @Override
     protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException
     {
-        synchronized(getClassLoadingLock(name))
+        if (!shouldInterceptClassLoading(name))
         {
-            Class<?> loadedClass = findLoadedClass(name);
+            return super.loadClass(name, resolve);
+        }
+
+        return withClassNameLock(name, () -> loadInterceptedClass(name, resolve));
+    }
+
+    private Class<?> loadInterceptedClass(String name, boolean resolve) throws ClassNotFoundException
+    {
+        Class<?> loadedClass = findLoadedClass(name);
 
-            if (loadedClass != null)
-                return loadedClass;
-            
-            if (shouldInterceptClassLoading(name))
+        if (loadedClass != null)
+            return loadedClass;
+
+        Class<?> c = getFromCache(name);
+
+        if (c == null)
+        {
+            if ((filter != null && filter.test(name)) || (filter == null && delegate.shouldInterceptClassLoading(name)))
+            {
+                c = delegate.loadAndTransformClass(name);
+            }
+            else if (alternativeClassloading != null)
+            {
+                c = alternativeClassloading.apply(name);
+            }
+
+            if (cache != null && c != null)
             {
-                
-                Class<?> c = getFromCache(name);
-                
-                if (c == null)
+                cache.put(name, c);
+            }
+        }
+
+        if (c == null)
+        {
+            return super.loadClass(name, resolve);
+        }
+
+        if (resolve)
+            resolveClass(c);
+
+        return c;
+    }
+
+    /**
+     * Performs an operation holding the lock used when loading the named class, first waiting for any other thread
+     * that holds it. When the other thread is itself, directly or indirectly, waiting for a lock held by the current
+     * thread, the current thread does not wait: instead, its outermost locked operation (holding no other class name
+     * lock) is abandoned, and performed again once the other thread has released the lock. The classes the other
+     * thread needed from this thread are then loaded, and transformed, by the other thread, exactly as if it had been
+     * alone.
+     *
+     * @since 5.10
+     */
+    <T, E extends Exception> T withClassNameLock(String className, ClassNameLockedOperation<T, E> operation) throws E
+    {
+        int[] heldLockCount = heldLockCounts.get();
+
+        boolean outermost = heldLockCount[0] == 0;
+
+        while (true)
+        {
+            try
+            {
+                ClassNameLock lock = lockFor(className);
+
+                lock(lock);
+
+                heldLockCount[0]++;
+
+                try
+                {
+                    return operation.perform();
+                } finally
                 {
-                
-                    if ((filter != null && filter.test(name)) || (filter == null && delegate.shouldInterceptClassLoading(name)))
-                    {
-                        c = delegate.loadAndTransformClass(name);
-                    }
-                    else if (alternativeClassloading != null)
-                    {
-                        c = alternativeClassloading.apply(name);
-                    }
-                    
-                    if (cache != null && c != null)
-                    {
-                        cache.put(name, c);
-                    }
-                    
+                    heldLockCount[0]--;
+
+                    lock.unlock();
                 }
-                
-                if (c == null)
+            } catch (Throwable t)
+            {
+                ClassNameLockDeadlock deadlock = outermost ? ClassNameLockDeadlock.find(t) : null;
+
+                if (deadlock == null)
                 {
-                    return super.loadClass(name, resolve);                    
+                    throw t;
                 }
-                
-                if (resolve)
-                    resolveClass(c);
 
-                return c;
-            } else
+                // Holding no class name lock, this thread can't be part of a deadlock: wait for the other thread
+                // to be done with the class before starting over.
+
+                deadlock.lock.lock();
+                deadlock.lock.unlock();
+            }
+        }
+    }
+
+    private ClassNameLock lockFor(String className)
+    {
+        ClassNameLock lock = classNameLocks.get(className);
+
+        if (lock == null)
+        {
+            ClassNameLock newLock = new ClassNameLock(className);
+
+            lock = classNameLocks.putIfAbsent(className, newLock);
+
+            if (lock == null)
             {
-                return super.loadClass(name, resolve);
+                lock = newLock;
             }
         }
+
+        return lock;
+    }
+
+    private void lock(ClassNameLock lock)
+    {
+        if (lock.tryLock())
+        {
+            return;
+        }
+
+        Thread current = Thread.currentThread();
+
+        synchronized (waitingThreads)
+        {
+            if (isWaitingFor(lock.owner(), current))
+            {
+                throw new ClassNameLockDeadlock(lock);
+            }
+
+            waitingThreads.put(current, lock);
+        }
+
+        try
+        {
+            lock.lock();
+        } finally
+        {
+            synchronized (waitingThreads)
+            {
+                waitingThreads.remove(current);
+            }
+        }
+    }
+
+    /**
+     * Follows the chain of threads waiting on locks held by other threads, starting from a lock's owner, to see if
+     * it leads back to the target thread. Invoked while synchronized on {@link #waitingThreads}.
+     */
+    private boolean isWaitingFor(Thread thread, Thread target)
+    {
+        // The chain can't be longer than the number of waiting threads, unless there is a cycle not including
+        // the target.
+
+        for (int i = waitingThreads.size() + 1; thread != null && i > 0; i--)
+        {
+            if (thread == target)
+            {
+                return true;
+            }
+
+            ClassNameLock lock = waitingThreads.get(thread);
+
+            thread = lock == null ? null : lock.owner();
+        }
+
+        return false;
     }
 
     private boolean shouldInterceptClassLoading(String name) {
@@ -108,12 +309,9 @@ public class PlasticClassLoader extends ClassLoader
                 PlasticUtils.getEnclosingClassName(name));
     }
 
-    public synchronized Class<?> defineClassWithBytecode(String className, byte[] bytecode)
+    public Class<?> defineClassWithBytecode(String className, byte[] bytecode)
     {
-        synchronized(getClassLoadingLock(className))
-        {
-            return defineClass(className, bytecode, 0, bytecode.length);
-        }
+        return withClassNameLock(className, () -> defineClass(className, bytecode, 0, bytecode.length));
     }
 
     /**
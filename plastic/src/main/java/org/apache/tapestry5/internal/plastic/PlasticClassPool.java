@@ -19,16 +19,18 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
 import java.util.Set;
-import java.util.Stack;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.tapestry5.internal.plastic.asm.ClassReader;
 import org.apache.tapestry5.internal.plastic.asm.ClassWriter;
@@ -68,16 +70,29 @@ public class PlasticClassPool implements ClassLoaderDelegate, Opcodes, PlasticCl
 
     private final Set<String> controlledPackages;
 
-    private final Map<String, Boolean> checkedExceptionCache = new HashMap<String, Boolean>();
+    private final Map<String, Boolean> checkedExceptionCache = PlasticInternalUtils.newConcurrentMap();
 
+    /**
+     * The names of the classes being transformed by the current thread, used to detect cycles. Different threads
+     * may transform different classes concurrently.
+     */
+    private final ThreadLocal<Deque<String>> activeInstrumentClassNames = new ThreadLocal<Deque<String>>()
+    {
+        @Override
+        protected Deque<String> initialValue()
+        {
+            return new ArrayDeque<String>();
+        }
+    };
 
-    // Would use Deque, but that's added in 1.6 and we're still striving for 1.5 code compatibility.
-
-    private final Stack<String> activeInstrumentClassNames = new Stack<String>();
+    /**
+     * Internal names of the classes whose transformation is in progress (in any thread); the field instrumentations
+     * of such classes are not yet complete.
+     */
+    private final Set<String> transformationsInProgress = Collections.newSetFromMap(PlasticInternalUtils.<String, Boolean>newConcurrentMap());
 
     /**
      * Maps class names to instantiators for that class name.
-     * Synchronized on the loader.
      */
     private final Map<String, ClassInstantiator> instantiators = PlasticInternalUtils.newConcurrentMap();
 
@@ -116,14 +131,20 @@ public class PlasticClassPool implements ClassLoaderDelegate, Opcodes, PlasticCl
     }
 
     /**
-     * Map from FQCN to BaseClassDef. Synchronized on the loader.
+     * Map from FQCN to BaseClassDef.
      */
-    private final Map<String, BaseClassDef> baseClassDefs = PlasticInternalUtils.newMap();
+    private final Map<String, BaseClassDef> baseClassDefs = PlasticInternalUtils.newConcurrentMap();
 
 
-    private final Map<String, FieldInstrumentations> instrumentations = PlasticInternalUtils.newMap();
+    private final Map<String, FieldInstrumentations> instrumentations = PlasticInternalUtils.newConcurrentMap();
 
-    private final Map<String, String> transformedClassNameToImplementationClassName = PlasticInternalUtils.newMap();
+    private final Map<String, String> transformedClassNameToImplementationClassName = PlasticInternalUtils.newConcurrentMap();
+
+    /**
+     * Counts the transformations of each class (by internal name); a class is transformed more than once when a
+     * transformation is abandoned and started over.
+     */
+    private final Map<String, AtomicInteger> transformationCounts = PlasticInternalUtils.newConcurrentMap();
 
 
     private final FieldInstrumentations placeholder = new FieldInstrumentations(null);
@@ -131,6 +152,8 @@ public class PlasticClassPool implements ClassLoaderDelegate, Opcodes, PlasticCl
 
     private final Set<TransformationOption> options;
 
+    private final BytecodeCache bytecodeCache;
+
     /**
      * Creates the pool with a set of controlled packages; all classes in the controlled packages are loaded by the
      * pool's class loader, and all top-level classes in the controlled packages are transformed via the delegate.
@@ -146,11 +169,25 @@ public class PlasticClassPool implements ClassLoaderDelegate, Opcodes, PlasticCl
      */
     public PlasticClassPool(ClassLoader parentLoader, PlasticManagerDelegate delegate, Set<String> controlledPackages,
                             Set<TransformationOption> options)
+    {
+        this(parentLoader, delegate, controlledPackages, options, null);
+    }
+
+    /**
+     * Creates the pool with a set of controlled packages, and a cache of the bytecode of transformed classes.
+     *
+     * @param bytecodeCache
+     *         stores bytecode of transformed classes, or null for no cache
+     * @since 5.10
+     */
+    public PlasticClassPool(ClassLoader parentLoader, PlasticManagerDelegate delegate, Set<String> controlledPackages,
+                            Set<TransformationOption> options, BytecodeCache bytecodeCache)
     {
         loader = new PlasticClassLoader(parentLoader, this);
         this.delegate = delegate;
         this.controlledPackages = controlledPackages;
         this.options = options;
+        this.bytecodeCache = bytecodeCache;
     }
 
     public ClassLoader getClassLoader()
@@ -158,34 +195,45 @@ public class PlasticClassPool implements ClassLoaderDelegate, Opcodes, PlasticCl
         return loader;
     }
 
-    public Class realizeTransformedClass(ClassNode classNode, InheritanceData inheritanceData,
-                                         StaticContext staticContext)
+    /**
+     * Closes the bytecode cache (if any).
+     */
+    public void close()
     {
-        synchronized (loader)
+        if (bytecodeCache != null)
         {
-            Class result = realize(PlasticInternalUtils.toClassName(classNode.name), ClassType.PRIMARY, classNode);
-            baseClassDefs.put(result.getName(), new BaseClassDef(inheritanceData, staticContext));
-
-            return result;
+            bytecodeCache.close();
         }
+    }
 
+    public Class realizeTransformedClass(ClassNode classNode, InheritanceData inheritanceData,
+                                         StaticContext staticContext)
+    {
+        Class result = realize(PlasticInternalUtils.toClassName(classNode.name), ClassType.PRIMARY, classNode);
+        baseClassDefs.put(result.getName(), new BaseClassDef(inheritanceData, staticContext));
+
+        return result;
     }
 
+    /**
+     * Generates the bytecode for the class and defines it. Different classes may be realized concurrently, so
+     * {@linkplain PlasticClassListener listeners} may be invoked from several threads at once.
+     */
     public Class realize(String primaryClassName, ClassType classType, ClassNode classNode)
     {
-        synchronized (loader)
+        if (!listeners.isEmpty())
         {
-            if (!listeners.isEmpty())
-            {
-                fire(toEvent(primaryClassName, classType, classNode));
-            }
+            fire(toEvent(primaryClassName, classType, classNode));
+        }
 
-            byte[] bytecode = toBytecode(classNode);
+        // Classes created from scratch (such as proxies) have unique names, so caching them would be pointless;
+        // only classes transformed from controlled packages (and their support classes) are cached.
 
-            String className = PlasticInternalUtils.toClassName(classNode.name);
+        byte[] bytecode = toBytecode(classNode, shouldInterceptClassLoading(primaryClassName));
 
-            return loader.defineClassWithBytecode(className, bytecode);
-        }
+        String className = PlasticInternalUtils.toClassName(classNode.name);
+
+        return loader.defineClassWithBytecode(className, bytecode);
     }
 
     private PlasticClassEvent toEvent(final String primaryClassName, final ClassType classType,
@@ -227,7 +275,35 @@ public class PlasticClassPool implements ClassLoaderDelegate, Opcodes, PlasticCl
         }
     }
 
-    private byte[] toBytecode(ClassNode classNode)
+    private byte[] toBytecode(ClassNode classNode, boolean cacheable)
+    {
+        if (bytecodeCache == null || !cacheable)
+        {
+            return computeBytecode(classNode);
+        }
+
+        // Writing the class without computing frames is cheap, and identifies exactly what would be
+        // computed.
+
+        ClassWriter unframed = new ClassWriter(0);
+
+        classNode.accept(unframed);
+
+        byte[] digest = BytecodeCache.digest(unframed.toByteArray());
+
+        byte[] result = bytecodeCache.get(digest);
+
+        if (result == null)
+        {
+            result = computeBytecode(classNode);
+
+            bytecodeCache.put(digest, result);
+        }
+
+        return result;
+    }
+
+    private static byte[] computeBytecode(ClassNode classNode)
     {
         ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
 
@@ -359,10 +435,12 @@ public class PlasticClassPool implements ClassLoaderDelegate, Opcodes, PlasticCl
         return false;
     }
 
-    // Hopefully the synchronized will not cause a deadlock
-
+    /**
+     * Invoked by the {@link PlasticClassLoader}, holding the lock for the class name; different classes may be
+     * transformed concurrently (a class is only transformed once its super-class has been).
+     */
     @Override
-    public synchronized Class<?> loadAndTransformClass(String className) throws ClassNotFoundException
+    public Class<?> loadAndTransformClass(String className) throws ClassNotFoundException
     {
         // Inner classes are not transformed, but they are loaded by the same class loader.
 
@@ -374,13 +452,17 @@ public class PlasticClassPool implements ClassLoaderDelegate, Opcodes, PlasticCl
         // TODO: What about interfaces, enums, annotations, etc. ... they shouldn't be in the package, but
         // we should generate a reasonable error message.
 
+        Deque<String> activeInstrumentClassNames = this.activeInstrumentClassNames.get();
+
         if (activeInstrumentClassNames.contains(className))
         {
             StringBuilder builder = new StringBuilder("");
             String sep = "";
 
-            for (String name : activeInstrumentClassNames)
+            for (Iterator<String> i = activeInstrumentClassNames.descendingIterator(); i.hasNext(); )
             {
+                String name = i.next();
+
                 builder.append(sep);
                 builder.append(name);
 
@@ -393,6 +475,12 @@ public class PlasticClassPool implements ClassLoaderDelegate, Opcodes, PlasticCl
 
         activeInstrumentClassNames.push(className);
 
+        String internalName = PlasticInternalUtils.toInternalName(className);
+
+        transformationsInProgress.add(internalName);
+
+        boolean realized = false;
+
         try
         {
 
@@ -401,6 +489,9 @@ public class PlasticClassPool implements ClassLoaderDelegate, Opcodes, PlasticCl
             delegate.transform(transformation.getPlasticClass());
 
             ClassInstantiator createInstantiator = transformation.createInstantiator();
+
+            realized = true;
+
             ClassInstantiator configuredInstantiator = delegate.configureInstantiator(className, createInstantiator);
 
             instantiators.put(className, configuredInstantiator);
@@ -408,6 +499,16 @@ public class PlasticClassPool implements ClassLoaderDelegate, Opcodes, PlasticCl
             return transformation.getTransformedClass();
         } finally
         {
+            if (!realized)
+            {
+                // Don't leave incomplete instrumentations for other classes to be transformed against; the class
+                // will be transformed again when next loaded.
+
+                instrumentations.remove(internalName);
+            }
+
+            transformationsInProgress.remove(internalName);
+
             activeInstrumentClassNames.pop();
         }
     }
@@ -751,6 +852,14 @@ public class PlasticClassPool implements ClassLoaderDelegate, Opcodes, PlasticCl
     }
 
 
+    /**
+     * Returns the number of earlier transformations of the class in this pool.
+     */
+    int nextTransformationIndex(String classInternalName)
+    {
+        return transformationCounts.computeIfAbsent(classInternalName, name -> new AtomicInteger()).getAndIncrement();
+    }
+
     private FieldInstrumentations getFieldInstrumentations(String classInternalName)
     {
         
@@ -762,6 +871,22 @@ public class PlasticClassPool implements ClassLoaderDelegate, Opcodes, PlasticCl
         do 
         {
             result = current.instrumentations.get(classInternalName);
+
+            if (result != null && current == this && transformationsInProgress.contains(classInternalName))
+            {
+                // Being transformed by this or another thread; wait for the complete instrumentations below.
+
+                result = null;
+                break;
+            }
+
+            if (result != null && current != this && current.transformationsInProgress.contains(classInternalName))
+            {
+                // Being transformed by the parent pool's class loader.
+
+                result = current.awaitFieldInstrumentations(classInternalName);
+            }
+
             current = current.parent;
         }
         while (current != null && result == null);
@@ -778,17 +903,7 @@ public class PlasticClassPool implements ClassLoaderDelegate, Opcodes, PlasticCl
         // in it.
         if (!className.contains("$") && shouldInterceptClassLoading(className))
         {
-            try
-            {
-                loadAndTransformClass(className);
-
-                // The key is written into the instrumentations map as a side-effect
-                // of loading the class.
-                return instrumentations.get(classInternalName);
-            } catch (Exception ex)
-            {
-                throw new RuntimeException(PlasticInternalUtils.toMessage(ex), ex);
-            }
+            return getFieldInstrumentationsForControlledClass(className, classInternalName);
         }
 
         // Either a class outside of controlled packages, or an inner class. Use a placeholder
@@ -800,6 +915,45 @@ public class PlasticClassPool implements ClassLoaderDelegate, Opcodes, PlasticCl
         return result;
     }
 
+    /**
+     * Returns the field instrumentations of a class once no other thread is transforming it; null if its
+     * transformation failed.
+     */
+    private FieldInstrumentations awaitFieldInstrumentations(String classInternalName)
+    {
+        return loader.withClassNameLock(PlasticInternalUtils.toClassName(classInternalName),
+                () -> instrumentations.get(classInternalName));
+    }
+
+    private FieldInstrumentations getFieldInstrumentationsForControlledClass(String className, String classInternalName)
+    {
+        try
+        {
+            return loader.withClassNameLock(className, () -> {
+
+                // The class may have been transformed by another thread while waiting (a failed transformation
+                // discards its instrumentations). If it is being transformed by this thread, there's a cycle of
+                // field accesses, and the instrumentations so far are used.
+
+                FieldInstrumentations result = instrumentations.get(classInternalName);
+
+                if (result != null)
+                {
+                    return result;
+                }
+
+                loadAndTransformClass(className);
+
+                // The key is written into the instrumentations map as a side-effect
+                // of loading the class.
+                return instrumentations.get(classInternalName);
+            });
+        } catch (Exception ex)
+        {
+            throw new RuntimeException(PlasticInternalUtils.toMessage(ex), ex);
+        }
+    }
+
     FieldInstrumentation getFieldInstrumentation(String ownerClassInternalName, String fieldName, boolean forRead)
     {
         String currentName = ownerClassInternalName;
@@ -12,11 +12,13 @@
 
 package org.apache.tapestry5.plastic;
 
+import org.apache.tapestry5.internal.plastic.BytecodeCache;
 import org.apache.tapestry5.internal.plastic.Lockable;
 import org.apache.tapestry5.internal.plastic.NoopDelegate;
 import org.apache.tapestry5.internal.plastic.PlasticClassPool;
 import org.apache.tapestry5.internal.plastic.PlasticInternalUtils;
 
+import java.io.File;
 import java.util.Collection;
 import java.util.EnumSet;
 import java.util.Set;
@@ -48,6 +50,8 @@ public class PlasticManager implements PlasticClassListenerHub
 
         private final Set<TransformationOption> options = EnumSet.noneOf(TransformationOption.class);
 
+        private BytecodeCache bytecodeCache;
+
         private PlasticManagerBuilder(ClassLoader loader)
         {
             assert loader != null;
@@ -92,6 +96,32 @@ public class PlasticManager implements PlasticClassListenerHub
             return this;
         }
 
+        /**
+         * Stores the bytecode of transformed classes in a file, so that it doesn't have to be generated again
+         * the next time the same classes are transformed in the same way (typically, when the application is
+         * restarted). The version identifies everything else that may affect the generated bytecode (such as the
+         * version of the application and its libraries); the file is discarded when the version changes. The file
+         * should only be used by one PlasticManager at a time, and is kept open until the manager is
+         * {@linkplain PlasticManager#close() closed}.
+         *
+         * @param file
+         *         file in which bytecode is stored; created if necessary
+         * @param version
+         *         identifies the code used to transform classes
+         * @since 5.10
+         */
+        public PlasticManagerBuilder bytecodeCache(File file, String version)
+        {
+            assert file != null;
+            assert version != null;
+
+            check();
+
+            bytecodeCache = new BytecodeCache(file, version);
+
+            return this;
+        }
+
         /**
          * Creates the PlasticManager with the current set of options.
          * 
@@ -101,7 +131,7 @@ public class PlasticManager implements PlasticClassListenerHub
         {
             lock();
 
-            return new PlasticManager(loader, delegate, packages, options);
+            return new PlasticManager(loader, delegate, packages, options, bytecodeCache);
         }
     }
 
@@ -132,15 +162,17 @@ public class PlasticManager implements PlasticClassListenerHub
      *            (or sub-packages) will be passed to the delegate for transformation
      * @param options
      *            used when transforming classes
+     * @param bytecodeCache
+     *            stores the bytecode of transformed classes, or null
      */
     private PlasticManager(ClassLoader parentClassLoader, PlasticManagerDelegate delegate,
-            Set<String> controlledPackageNames, Set<TransformationOption> options)
+            Set<String> controlledPackageNames, Set<TransformationOption> options, BytecodeCache bytecodeCache)
     {
         assert parentClassLoader != null;
         assert delegate != null;
         assert controlledPackageNames != null;
 
-        pool = new PlasticClassPool(parentClassLoader, delegate, controlledPackageNames, options);
+        pool = new PlasticClassPool(parentClassLoader, delegate, controlledPackageNames, options, bytecodeCache);
     }
 
     /**
@@ -364,5 +396,16 @@ public class PlasticManager implements PlasticClassListenerHub
     {
         return pool;
     }
+
+    /**
+     * Releases the resources held by this manager, such as the file of its
+     * {@linkplain PlasticManagerBuilder#bytecodeCache(File, String) bytecode cache}. Classes already
+     * transformed remain usable, but transformed bytecode is no longer stored.
+     * @since 5.10
+     */
+    public void close()
+    {
+        pool.close();
+    }
     
 }
@@ -29,5 +29,14 @@ public enum TransformationOption
      * @see PlasticField#setConduit(FieldConduit)
      * 
      */
-    FIELD_WRITEBEHIND;
+    FIELD_WRITEBEHIND,
+
+    /**
+     * When enabled, advised methods invoke all of their advice from the single, shared implementation of
+     * {@link MethodInvocation#proceed()}, as Plastic did before 5.10, rather than from a {@code proceed()} method
+     * generated for each advised method. This is only useful to measure the difference between the two.
+     *
+     * @since 5.10
+     */
+    SHARED_ADVICE_DISPATCH;
 }
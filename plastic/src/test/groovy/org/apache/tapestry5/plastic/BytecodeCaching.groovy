@@ -0,0 +1,168 @@
+package org.apache.tapestry5.plastic
+
+import org.apache.tapestry5.internal.plastic.BytecodeCache
+import org.apache.tapestry5.internal.plastic.StandardDelegate
+import spock.lang.TempDir
+import testsubjects.InjectionSubject
+import testsubjects.TestInjectTransformer
+
+import java.nio.file.Path
+
+class BytecodeCaching extends AbstractPlasticSpecification {
+
+    @TempDir
+    Path folder
+
+    PlasticManager createCachingMgr(File file, String version, PlasticClassTransformer... transformers) {
+        def delegate = new StandardDelegate(transformers)
+
+        return PlasticManager.withContextClassLoader().delegate(delegate).packages(["testsubjects"]).bytecodeCache(file, version).create()
+    }
+
+    def "entries survive reopening the cache"() {
+        setup:
+
+        def file = folder.resolve("bytecode.cache").toFile()
+        def digest = BytecodeCache.digest([1, 2, 3] as byte[])
+
+        def cache = new BytecodeCache(file, "1.0")
+        cache.put(digest, [4, 5, 6] as byte[])
+        cache.close()
+
+        when:
+
+        def reopened = new BytecodeCache(file, "1.0")
+
+        then:
+
+        reopened.get(digest) == [4, 5, 6] as byte[]
+        reopened.get(BytecodeCache.digest([7] as byte[])) == null
+    }
+
+    def "cache is discarded when the version changes"() {
+        setup:
+
+        def file = folder.resolve("bytecode.cache").toFile()
+        def digest = BytecodeCache.digest([1, 2, 3] as byte[])
+
+        def cache = new BytecodeCache(file, "1.0")
+        cache.put(digest, [4, 5, 6] as byte[])
+        cache.close()
+
+        when:
+
+        def reopened = new BytecodeCache(file, "2.0")
+
+        then:
+
+        reopened.get(digest) == null
+    }
+
+    def "truncated entry is ignored"() {
+        setup:
+
+        def file = folder.resolve("bytecode.cache").toFile()
+        def first = BytecodeCache.digest([1] as byte[])
+        def second = BytecodeCache.digest([2] as byte[])
+
+        def cache = new BytecodeCache(file, "1.0")
+        cache.put(first, [10, 11] as byte[])
+        cache.put(second, [20, 21, 22, 23] as byte[])
+        cache.close()
+
+        new RandomAccessFile(file, "rw").withCloseable { it.setLength(file.length() - 2) }
+
+        when:
+
+        def reopened = new BytecodeCache(file, "1.0")
+
+        then:
+
+        reopened.get(first) == [10, 11] as byte[]
+        reopened.get(second) == null
+    }
+
+    def "entries added after a truncated entry are kept"() {
+        setup:
+
+        def file = folder.resolve("bytecode.cache").toFile()
+        def first = BytecodeCache.digest([1] as byte[])
+        def second = BytecodeCache.digest([2] as byte[])
+        def third = BytecodeCache.digest([3] as byte[])
+
+        def cache = new BytecodeCache(file, "1.0")
+        cache.put(first, [10, 11] as byte[])
+        cache.put(second, [20, 21, 22, 23] as byte[])
+        cache.close()
+
+        new RandomAccessFile(file, "rw").withCloseable { it.setLength(file.length() - 2) }
+
+        def reopened = new BytecodeCache(file, "1.0")
+        reopened.put(third, [30] as byte[])
+        reopened.close()
+
+        when:
+
+        def last = new BytecodeCache(file, "1.0")
+
+        then:
+
+        last.get(first) == [10, 11] as byte[]
+        last.get(second) == null
+        last.get(third) == [30] as byte[]
+
+        cleanup:
+
+        last?.close()
+    }
+
+    def "closing the manager closes the cache file"() {
+        setup:
+
+        def file = folder.resolve("bytecode.cache").toFile()
+
+        def mgr = createCachingMgr(file, "1.0")
+
+        mgr.close()
+
+        def headerLength = file.length()
+
+        when:
+
+        mgr.getClassInstantiator(InjectionSubject.name).newInstance()
+
+        then:
+
+        // Nothing is written once closed
+        file.length() == headerLength
+    }
+
+    def "transformed class is loaded from cached bytecode"() {
+        setup:
+
+        def file = folder.resolve("bytecode.cache").toFile()
+        def runnable = Mock(Runnable)
+        def goHandle
+
+        def transformers = [new TestInjectTransformer(Runnable, runnable), {
+            goHandle = findHandle(it, "go")
+        } as PlasticClassTransformer] as PlasticClassTransformer[]
+
+        createCachingMgr(file, "1.0", transformers).getClassInstantiator(InjectionSubject.name).newInstance()
+
+        def cachedLength = file.length()
+
+        when:
+
+        def instance = createCachingMgr(file, "1.0", transformers).getClassInstantiator(InjectionSubject.name).newInstance()
+
+        goHandle.invoke instance
+
+        then:
+
+        1 * runnable.run()
+
+        // The class and its shim were transformed the same way, so nothing was added to the cache
+        file.length() == cachedLength
+    }
+}
@@ -0,0 +1,241 @@
+package org.apache.tapestry5.plastic
+
+import testannotations.KindaInject
+import testannotations.SimpleAnnotation
+import testsubjects.BaseClass
+import testsubjects.ChildClass
+import testsubjects.InjectionSubject
+import testsubjects.InjectionSubjectSubclass
+import testsubjects.MiddleClass
+import testsubjects.ProtectedField
+import testsubjects.ProtectedFieldCollaborator
+import testsubjects.ProtectedFieldSubclass
+
+import java.util.concurrent.Callable
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicReference
+
+/**
+ * Controlled classes may be loaded, and transformed, from several threads at once.
+ */
+class ConcurrentClassLoading extends AbstractPlasticSpecification {
+
+    def "controlled classes may be transformed concurrently"() {
+        def transformer = { PlasticClass pc ->
+            Thread.sleep(5)
+        } as PlasticClassTransformer
+
+        def mgr = createMgr(transformer)
+
+        def names = [ChildClass, MiddleClass, BaseClass, InjectionSubjectSubclass, InjectionSubject,
+            ProtectedFieldCollaborator, ProtectedFieldSubclass, ProtectedField]*.name
+
+        def executor = Executors.newFixedThreadPool(8)
+
+        when:
+
+        def futures = (1..8).collect { i ->
+            executor.submit({
+                // Each thread loads the classes in a different order
+                def ordered = names.drop(i % names.size()) + names.take(i % names.size())
+
+                ordered.collectEntries { [it, mgr.getClassInstantiator(it).newInstance().getClass()] }
+            } as Callable)
+        }
+
+        def loaded = futures*.get(30, TimeUnit.SECONDS)
+
+        then:
+
+        loaded.every { it == loaded.first() }
+
+        names.every { loaded.first()[it].name == it && loaded.first()[it].classLoader == mgr.classLoader }
+
+        cleanup:
+
+        executor?.shutdownNow()
+    }
+
+    def "a thread that would deadlock loading a subclass of the class it is transforming waits for the other thread"() {
+        def childThread = new AtomicReference<Thread>()
+        def middleLocked = new CountDownLatch(1)
+        PlasticManager mgr
+
+        def transformer = { PlasticClass pc ->
+            if (pc.className == MiddleClass.name && Thread.currentThread() != childThread.get()) {
+                middleLocked.countDown()
+
+                // The other thread holds the lock for ChildClass, and is waiting for its base class, MiddleClass.
+
+                waitUntilBlocked(childThread)
+
+                Class.forName(ChildClass.name, true, mgr.classLoader)
+            }
+        } as PlasticClassTransformer
+
+        mgr = createMgr(transformer)
+
+        def executor = Executors.newFixedThreadPool(2)
+
+        when:
+
+        def middle = executor.submit({
+            mgr.getClassInstantiator(MiddleClass.name).newInstance().getClass()
+        } as Callable)
+
+        middleLocked.await(10, TimeUnit.SECONDS)
+
+        def child = executor.submit({
+            childThread.set(Thread.currentThread())
+
+            mgr.getClassInstantiator(ChildClass.name).newInstance().getClass()
+        } as Callable)
+
+        def childClass = child.get(10, TimeUnit.SECONDS)
+        def middleClass = middle.get(10, TimeUnit.SECONDS)
+
+        then:
+
+        middleClass.classLoader == mgr.classLoader
+        childClass.superclass == middleClass
+
+        cleanup:
+
+        executor?.shutdownNow()
+    }
+
+    def "field accesses are not instrumented from the incomplete transformation of another thread"() {
+        def collaboratorThread = new AtomicReference<Thread>()
+        def fieldLocked = new CountDownLatch(1)
+        PlasticManager mgr
+
+        def conduit = [get: { instance, context -> "conduit" }, set: { instance, context, value -> }] as FieldConduit
+
+        def transformer = { PlasticClass pc ->
+            if (pc.className == ProtectedField.name) {
+                if (Thread.currentThread() != collaboratorThread.get()) {
+                    fieldLocked.countDown()
+
+                    // The other thread holds the lock for ProtectedFieldCollaborator, and is waiting for the field
+                    // instrumentations of ProtectedField.
+
+                    waitUntilBlocked(collaboratorThread)
+
+                    Class.forName(ProtectedFieldCollaborator.name, true, mgr.classLoader)
+                }
+
+                pc.getFieldsWithAnnotation(SimpleAnnotation).each { it.setConduit(conduit) }
+            }
+
+            if (pc.className == ProtectedFieldCollaborator.name) {
+                pc.getFieldsWithAnnotation(KindaInject).each {
+                    it.injectComputed({ mgr.getClassInstantiator(ProtectedField.name).newInstance() } as ComputedValue)
+                }
+            }
+        } as PlasticClassTransformer
+
+        mgr = createMgr(transformer)
+
+        def executor = Executors.newFixedThreadPool(2)
+
+        when:
+
+        def field = executor.submit({ mgr.getClassInstantiator(ProtectedField.name).newInstance() } as Callable)
+
+        fieldLocked.await(10, TimeUnit.SECONDS)
+
+        def collaborator = executor.submit({
+            collaboratorThread.set(Thread.currentThread())
+
+            mgr.getClassInstantiator(ProtectedFieldCollaborator.name).newInstance()
+        } as Callable).get(10, TimeUnit.SECONDS)
+
+        field.get(10, TimeUnit.SECONDS)
+
+        then:
+
+        // Had ProtectedFieldCollaborator been transformed before the conduit was set, it would read the field directly.
+
+        collaborator.protectedValue == "conduit"
+
+        cleanup:
+
+        executor?.shutdownNow()
+    }
+
+    def "a class transformed again, after its transformation is abandoned, gets new support classes"() {
+        def fieldThread = new AtomicReference<Thread>()
+        def collaboratorThread = new AtomicReference<Thread>()
+        def collaboratorLocked = new CountDownLatch(1)
+        def handle = new AtomicReference<FieldHandle>()
+        PlasticManager mgr
+
+        def transformer = { PlasticClass pc ->
+            if (pc.className == ProtectedField.name && Thread.currentThread() == fieldThread.get()) {
+                Class.forName(ProtectedFieldCollaborator.name, true, mgr.classLoader)
+            }
+
+            if (pc.className == ProtectedFieldCollaborator.name) {
+                pc.getFieldsWithAnnotation(KindaInject).each {
+                    it.injectComputed({ mgr.getClassInstantiator(ProtectedField.name).newInstance() } as ComputedValue)
+
+                    // The field handle requires a shim, which is defined before field accesses are instrumented
+                    handle.set(it.handle)
+                }
+
+                if (Thread.currentThread() == collaboratorThread.get()) {
+                    collaboratorLocked.countDown()
+
+                    // Once the other thread, holding the lock for ProtectedField, waits for ProtectedFieldCollaborator,
+                    // instrumenting the access to ProtectedField's field abandons this transformation.
+
+                    waitUntilBlocked(fieldThread)
+                }
+            }
+        } as PlasticClassTransformer
+
+        mgr = createMgr(transformer)
+
+        def executor = Executors.newFixedThreadPool(2)
+
+        when:
+
+        def collaborator = executor.submit({
+            collaboratorThread.set(Thread.currentThread())
+
+            mgr.getClassInstantiator(ProtectedFieldCollaborator.name).newInstance()
+        } as Callable)
+
+        collaboratorLocked.await(10, TimeUnit.SECONDS)
+
+        def field = executor.submit({
+            fieldThread.set(Thread.currentThread())
+
+            mgr.getClassInstantiator(ProtectedField.name).newInstance()
+        } as Callable)
+
+        def instance = collaborator.get(10, TimeUnit.SECONDS)
+
+        field.get(10, TimeUnit.SECONDS)
+
+        then:
+
+        handle.get().get(instance).getClass().name == ProtectedField.name
+
+        cleanup:
+
+        executor?.shutdownNow()
+    }
+
+    private static void waitUntilBlocked(AtomicReference<Thread> threadRef) {
+        def deadline = System.currentTimeMillis() + 10000
+
+        while (!(threadRef.get()?.state in [Thread.State.WAITING, Thread.State.TIMED_WAITING])) {
+            assert System.currentTimeMillis() < deadline
+
+            Thread.sleep(1)
+        }
+    }
+}
@@ -84,6 +84,85 @@ class MethodAdviceTests extends AbstractPlasticSpecification {
         o.dupe(2, "Fam") == "FAM FAM FAM FAM FAM FAM FAM FAM FAM FAM FAM FAM"
     }
 
+    def "advice that proceeds more than once re-invokes the advised method"() {
+
+        setup:
+
+        def outer = 0
+        def inner = 0
+
+        def mgr = createMgr({ PlasticClass pc ->
+            findMethod(pc, "maybeThrow").addAdvice({
+
+                outer++
+
+                it.proceed()
+
+                if (it.didThrowCheckedException()) {
+                    it.setCheckedException(null)
+                    it.setParameter(0, 5L)
+                    it.proceed()
+                }
+            } as MethodAdvice).addAdvice({
+
+                inner++
+
+                it.proceed()
+            } as MethodAdvice)
+        } as PlasticClassTransformer)
+
+        def o = mgr.getClassInstantiator(testsubjects.MethodAdviceTarget.name).newInstance()
+
+        expect:
+
+        o.maybeThrow(0L) == 5L
+
+        outer == 1
+        inner == 1
+    }
+
+    def "advice may be dispatched from the shared proceed() implementation"() {
+
+        setup:
+
+        def invocationClasses = []
+        def calls = []
+
+        def advise = { PlasticClass pc ->
+            findMethod(pc, "dupe").addAdvice({
+
+                invocationClasses << it.getClass()
+                calls << "outer"
+
+                it.setParameter(0, 2)
+                it.proceed()
+            } as MethodAdvice).addAdvice({
+
+                calls << "inner"
+
+                it.proceed()
+
+                it.setReturnValue(it.getReturnValue().toUpperCase())
+            } as MethodAdvice)
+        }
+
+        def generated = PlasticManager.withContextClassLoader().create().getPlasticClass(testsubjects.MethodAdviceTarget.name)
+        def shared = PlasticManager.withContextClassLoader().enable(TransformationOption.SHARED_ADVICE_DISPATCH).create().getPlasticClass(testsubjects.MethodAdviceTarget.name)
+
+        advise(generated)
+        advise(shared)
+
+        expect:
+
+        generated.createInstantiator().newInstance().dupe(5, "Fam") == "FAM FAM"
+        shared.createInstantiator().newInstance().dupe(5, "Fam") == "FAM FAM"
+
+        calls == ["outer", "inner", "outer", "inner"]
+
+        invocationClasses[0].declaredMethods.any { it.name == "proceed" }
+        !invocationClasses[1].declaredMethods.any { it.name == "proceed" }
+    }
+
     def "method that throws exceptions"() {
 
         setup:
@@ -0,0 +1,95 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package org.apache.tapestry5.benchmarks;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.tapestry5.services.ClientDataEncoder;
+import org.apache.tapestry5.services.ClientDataSink;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Encoding and decoding of client data (as used for a form's {@code t:formdata}) through {@link ClientDataEncoder}.
+ * The payload mimics a form containing a Loop: a component id and a small action object per row.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClientDataEncoderBenchmark
+{
+    @Param({"200"})
+    public int rows;
+
+    private ClientDataEncoder encoder;
+
+    private String clientData;
+
+    @Setup
+    public void setup(TapestryApplication application) throws IOException
+    {
+        encoder = application.getService(ClientDataEncoder.class);
+
+        clientData = encode();
+    }
+
+    @Benchmark
+    public String encode() throws IOException
+    {
+        ClientDataSink sink = encoder.createSink();
+
+        ObjectOutputStream stream = sink.getObjectOutputStream();
+
+        for (int i = 0; i < rows; i++)
+        {
+            stream.writeUTF("loop.textfield_" + i);
+            stream.writeObject(new String[]{"setup", "row_" + i});
+        }
+
+        stream.close();
+
+        return sink.getClientData();
+    }
+
+    @Benchmark
+    public int decode() throws IOException, ClassNotFoundException
+    {
+        ObjectInputStream stream = encoder.decodeClientData(clientData);
+
+        int length = 0;
+
+        for (int i = 0; i < rows; i++)
+        {
+            length += stream.readUTF().length();
+            length += ((String[]) stream.readObject()).length;
+        }
+
+        stream.close();
+
+        return length;
+    }
+}
@@ -0,0 +1,116 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package org.apache.tapestry5.benchmarks;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.tapestry5.ComponentAction;
+import org.apache.tapestry5.internal.services.ComponentActionCodecImpl;
+import org.apache.tapestry5.internal.services.ReflectiveComponentActionSerializer;
+import org.apache.tapestry5.services.ClientDataEncoder;
+import org.apache.tapestry5.services.ComponentActionCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Encoding and decoding of form actions (a form's {@code t:formdata}) through the {@link ComponentActionCodec}, in
+ * the compact format and in the Java serialization format. The payload mimics a form containing a Loop with a
+ * field on each row. The size of the encoded data, for each format, is printed during setup.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ComponentActionCodecBenchmark
+{
+    /**
+     * Similar to the action stored by each field inside the loop.
+     */
+    static class SetupField implements ComponentAction<Object>
+    {
+        private final String controlName;
+
+        SetupField(String controlName)
+        {
+            this.controlName = controlName;
+        }
+
+        public void execute(Object component)
+        {
+        }
+    }
+
+    @Param({"200"})
+    public int rows;
+
+    @Param({"true", "false"})
+    public boolean compact;
+
+    private ComponentActionCodec codec;
+
+    private String clientData;
+
+    @Setup
+    public void setup(TapestryApplication application) throws IOException
+    {
+        codec = new ComponentActionCodecImpl(application.getService(ClientDataEncoder.class),
+                Map.of(SetupField.class.getName(), new ReflectiveComponentActionSerializer("controlName")), compact);
+
+        clientData = encode();
+
+        System.out.printf("%n%s format, %d rows: %,d characters%n", compact ? "Compact" : "Serialized", rows, clientData.length());
+    }
+
+    @Benchmark
+    public String encode() throws IOException
+    {
+        ComponentActionCodec.Encoder encoder = codec.createEncoder();
+
+        for (int i = 0; i < rows; i++)
+        {
+            encoder.write("Index:loop.textfield", false, new SetupField("textfield_" + i));
+        }
+
+        return encoder.getClientData();
+    }
+
+    @Benchmark
+    public int decode() throws IOException, ClassNotFoundException
+    {
+        ComponentActionCodec.Decoder decoder = codec.createDecoder(clientData);
+
+        ClassLoader loader = getClass().getClassLoader();
+
+        int count = 0;
+
+        while (decoder.next())
+        {
+            decoder.readAction(loader);
+            count++;
+        }
+
+        return count;
+    }
+}
@@ -0,0 +1,87 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package org.apache.tapestry5.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.tapestry5.json.JSONArray;
+import org.apache.tapestry5.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parsing and printing of a document shaped like a typical Ajax partial response: a list of initialization
+ * entries, each a small object with nested arrays.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JSONBenchmark
+{
+    @Param({"100"})
+    public int entries;
+
+    private JSONObject document;
+
+    private String json;
+
+    @Setup
+    public void setup()
+    {
+        JSONArray inits = new JSONArray();
+
+        for (int i = 0; i < entries; i++)
+        {
+            inits.put(new JSONObject(
+                    "module", "t5/core/zone",
+                    "id", "zone_" + i,
+                    "url", "/listing.grid.pager/" + i + "?t:ac=admin%2Freports",
+                    "visible", i % 2 == 0,
+                    "weight", i * 0.5d,
+                    "args", new JSONArray("row", i, "label \"" + i + "\" é")));
+        }
+
+        document = new JSONObject("_tapestry", new JSONObject("inits", inits, "content", new JSONArray()));
+
+        json = document.toString();
+    }
+
+    @Benchmark
+    public JSONObject parse()
+    {
+        return new JSONObject(json);
+    }
+
+    @Benchmark
+    public String print()
+    {
+        return document.toString();
+    }
+
+    @Benchmark
+    public String printCompact()
+    {
+        return document.toCompactString();
+    }
+}
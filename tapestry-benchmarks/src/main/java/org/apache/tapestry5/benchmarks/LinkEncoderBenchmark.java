@@ -0,0 +1,130 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package org.apache.tapestry5.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.tapestry5.EventContext;
+import org.apache.tapestry5.commons.services.TypeCoercer;
+import org.apache.tapestry5.http.Link;
+import org.apache.tapestry5.internal.EmptyEventContext;
+import org.apache.tapestry5.internal.services.ArrayEventContext;
+import org.apache.tapestry5.internal.test.TestableRequest;
+import org.apache.tapestry5.services.ComponentEventLinkEncoder;
+import org.apache.tapestry5.services.ComponentEventRequestParameters;
+import org.apache.tapestry5.services.PageRenderRequestParameters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Encoding and decoding of page render and component event URLs by {@link ComponentEventLinkEncoder}, for a
+ * top level page and for a page nested in folders. The deep variants carry a long context, so that most of the
+ * path is not part of the page name.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LinkEncoderBenchmark
+{
+    private ComponentEventLinkEncoder encoder;
+
+    private TestableRequest request;
+
+    private PageRenderRequestParameters listingRender;
+
+    private PageRenderRequestParameters detailRender;
+
+    private ComponentEventRequestParameters detailEvent;
+
+    @Setup
+    public void setup(TapestryApplication application)
+    {
+        encoder = application.getService(ComponentEventLinkEncoder.class);
+        request = application.getService(TestableRequest.class);
+
+        EventContext context = new ArrayEventContext(application.getService(TypeCoercer.class), 42L);
+
+        listingRender = new PageRenderRequestParameters("Listing", new EmptyEventContext());
+        detailRender = new PageRenderRequestParameters("admin/reports/Detail", context);
+        detailEvent = new ComponentEventRequestParameters("admin/reports/Detail", "admin/reports/Detail",
+                "", "refresh", context, new EmptyEventContext());
+    }
+
+    @Benchmark
+    public Link encodePageRender()
+    {
+        return encoder.createPageRenderLink(listingRender);
+    }
+
+    @Benchmark
+    public Link encodeNestedPageRender()
+    {
+        return encoder.createPageRenderLink(detailRender);
+    }
+
+    @Benchmark
+    public Link encodeComponentEvent()
+    {
+        return encoder.createComponentEventLink(detailEvent, false);
+    }
+
+    @Benchmark
+    public PageRenderRequestParameters decodePageRender()
+    {
+        request.clear().setPath("/listing");
+
+        return encoder.decodePageRenderRequest(request);
+    }
+
+    @Benchmark
+    public PageRenderRequestParameters decodeNestedPageRender()
+    {
+        request.clear().setPath("/admin/reports/detail/42");
+
+        return encoder.decodePageRenderRequest(request);
+    }
+
+    @Benchmark
+    public ComponentEventRequestParameters decodeComponentEvent()
+    {
+        request.clear().setPath("/admin/reports/detail:refresh/42");
+
+        return encoder.decodeComponentEventRequest(request);
+    }
+
+    @Benchmark
+    public PageRenderRequestParameters decodeDeepPageRender()
+    {
+        request.clear().setPath("/admin/reports/detail/1/2/3/4/5/6/7/8");
+
+        return encoder.decodePageRenderRequest(request);
+    }
+
+    @Benchmark
+    public ComponentEventRequestParameters decodeDeepComponentEvent()
+    {
+        request.clear().setPath("/admin/reports/detail.grid.pager:action/1/2/3/4/5/6/7/8");
+
+        return encoder.decodeComponentEventRequest(request);
+    }
+}
@@ -0,0 +1,106 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package org.apache.tapestry5.benchmarks;
+
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.tapestry5.MarkupWriter;
+import org.apache.tapestry5.dom.Document;
+import org.apache.tapestry5.dom.Html5MarkupModel;
+import org.apache.tapestry5.internal.services.MarkupWriterImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Building a DOM through {@link MarkupWriterImpl}, and serializing it with {@link Document#toMarkup(PrintWriter)}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MarkupBenchmark
+{
+    @Param({"250"})
+    public int rows;
+
+    private Document document;
+
+    private final PrintWriter sink = new PrintWriter(Writer.nullWriter());
+
+    @Setup
+    public void setup()
+    {
+        document = buildDocument().getDocument();
+    }
+
+    @Benchmark
+    public MarkupWriter buildDocument()
+    {
+        MarkupWriter writer = new MarkupWriterImpl(new Html5MarkupModel());
+
+        writer.element("html");
+        writer.element("head");
+        writer.element("title");
+        writer.write("Listing");
+        writer.end();
+        writer.end();
+
+        writer.element("body");
+        writer.element("table", "class", "table");
+
+        for (int i = 0; i < rows; i++)
+        {
+            writer.element("tr", "class", i % 2 == 0 ? "even" : "odd");
+
+            writer.element("td");
+            writer.write(Integer.toString(i));
+            writer.end();
+
+            writer.element("td");
+            writer.element("a", "href", "/admin/reports/detail/" + i);
+            writer.write("Item #" + i + " & more");
+            writer.end();
+            writer.end();
+
+            writer.element("td");
+            writer.writeRaw("&nbsp;");
+            writer.end();
+
+            writer.end();
+        }
+
+        writer.end();
+        writer.end();
+        writer.end();
+
+        return writer;
+    }
+
+    @Benchmark
+    public void toMarkup()
+    {
+        document.toMarkup(sink);
+    }
+}
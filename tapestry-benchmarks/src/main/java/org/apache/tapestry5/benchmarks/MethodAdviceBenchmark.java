@@ -0,0 +1,187 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.apache.tapestry5.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.tapestry5.beanmodel.services.PlasticProxyFactoryImpl;
+import org.apache.tapestry5.ioc.internal.services.AspectDecoratorImpl;
+import org.apache.tapestry5.ioc.services.AspectDecorator;
+import org.apache.tapestry5.ioc.services.AspectInterceptorBuilder;
+import org.apache.tapestry5.plastic.MethodAdvice;
+import org.apache.tapestry5.plastic.MethodInvocation;
+import org.apache.tapestry5.plastic.PlasticManager;
+import org.apache.tapestry5.plastic.PlasticManager.PlasticManagerBuilder;
+import org.apache.tapestry5.plastic.TransformationOption;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Invokes a service method through interceptors built by the {@link AspectDecorator}, with a single advice, with
+ * three advice, and with an advice that reads the (boxed) parameters, compared to invoking the service directly.
+ * Each benchmark runs with advice dispatched from the {@code proceed()} method generated for each advised method,
+ * and from the single, shared {@code proceed()} used before 5.10
+ * ({@link TransformationOption#SHARED_ADVICE_DISPATCH}), so that both can be compared in the same run.
+ * Run with {@code -Pjmh.args="-prof gc"} to see the allocations for each invocation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MethodAdviceBenchmark
+{
+    public interface Adder
+    {
+        int add(int left, int right);
+    }
+
+    public static class AdderImpl implements Adder
+    {
+        @Override
+        public int add(int left, int right)
+        {
+            return left + right;
+        }
+    }
+
+    private static class ProceedAdvice implements MethodAdvice
+    {
+        @Override
+        public void advise(MethodInvocation invocation)
+        {
+            invocation.proceed();
+        }
+    }
+
+    private static class CheckedProceedAdvice implements MethodAdvice
+    {
+        @Override
+        public void advise(MethodInvocation invocation)
+        {
+            invocation.proceed();
+
+            if (invocation.didThrowCheckedException())
+            {
+                invocation.rethrow();
+            }
+        }
+    }
+
+    private static class TimedAdvice implements MethodAdvice
+    {
+        private long elapsed;
+
+        @Override
+        public void advise(MethodInvocation invocation)
+        {
+            long start = System.nanoTime();
+
+            invocation.proceed();
+
+            elapsed += System.nanoTime() - start;
+        }
+    }
+
+    private static class ParameterAdvice implements MethodAdvice
+    {
+        @Override
+        public void advise(MethodInvocation invocation)
+        {
+            if ((Integer) invocation.getParameter(0) < 0)
+            {
+                throw new IllegalArgumentException();
+            }
+
+            invocation.proceed();
+        }
+    }
+
+    @Param({"generated", "shared"})
+    public String dispatch;
+
+    private final Adder direct = new AdderImpl();
+
+    private Adder singleAdvice;
+
+    private Adder threeAdvice;
+
+    private Adder parameterAdvice;
+
+    private int left = 17, right = 25;
+
+    @Setup
+    public void setup()
+    {
+        PlasticManagerBuilder builder = PlasticManager.withClassLoader(getClass().getClassLoader());
+
+        if (dispatch.equals("shared"))
+        {
+            builder.enable(TransformationOption.SHARED_ADVICE_DISPATCH);
+        }
+
+        AspectDecorator decorator = new AspectDecoratorImpl(
+                new PlasticProxyFactoryImpl(builder.create(), LoggerFactory.getLogger(MethodAdviceBenchmark.class)));
+
+        singleAdvice = advise(decorator, new ProceedAdvice());
+        threeAdvice = advise(decorator, new ProceedAdvice(), new CheckedProceedAdvice(), new TimedAdvice());
+        parameterAdvice = advise(decorator, new ParameterAdvice());
+    }
+
+    private Adder advise(AspectDecorator decorator, MethodAdvice... advice)
+    {
+        AspectInterceptorBuilder<Adder> builder = decorator.createBuilder(Adder.class, direct, "<Adder>");
+
+        for (MethodAdvice a : advice)
+        {
+            builder.adviseAllMethods(a);
+        }
+
+        return builder.build();
+    }
+
+    @Benchmark
+    public int direct()
+    {
+        return direct.add(left, right);
+    }
+
+    @Benchmark
+    public int singleAdvice()
+    {
+        return singleAdvice.add(left, right);
+    }
+
+    @Benchmark
+    public int threeAdvice()
+    {
+        return threeAdvice.add(left, right);
+    }
+
+    @Benchmark
+    public int parameterAdvice()
+    {
+        return parameterAdvice.add(left, right);
+    }
+}
@@ -0,0 +1,49 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package org.apache.tapestry5.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.tapestry5.internal.test.TestableResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Complete page render requests, through the request handler pipeline, the render queue, the DOM and
+ * the response markup. The listing page renders a 250 row table.
+ *
+ * Run with <code>-Pjmh.args="-prof gc"</code> to also report the bytes allocated per render.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageRenderBenchmark
+{
+    @Benchmark
+    public TestableResponse renderListing(TapestryApplication application)
+    {
+        return application.tester.renderPageAndReturnResponse("Listing");
+    }
+
+    @Benchmark
+    public TestableResponse renderNestedPage(TapestryApplication application)
+    {
+        return application.tester.renderPageAndReturnResponse("admin/reports/Detail");
+    }
+}
@@ -0,0 +1,83 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package org.apache.tapestry5.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.tapestry5.beanmodel.PropertyConduit;
+import org.apache.tapestry5.beanmodel.services.PropertyConduitSource;
+import org.apache.tapestry5.benchmarks.app.data.Row;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Reads and writes through conduits generated by {@code PropertyConduitSourceImpl}, for a simple property,
+ * a property path and a method call.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PropertyConduitBenchmark
+{
+    private final Row row = new Row(42);
+
+    private PropertyConduit name;
+
+    private PropertyConduit categoryName;
+
+    private PropertyConduit categoryNameLength;
+
+    @Setup
+    public void setup(TapestryApplication application)
+    {
+        PropertyConduitSource source = application.getService(PropertyConduitSource.class);
+
+        name = source.create(Row.class, "name");
+        categoryName = source.create(Row.class, "category.name");
+        categoryNameLength = source.create(Row.class, "category.name.length()");
+    }
+
+    @Benchmark
+    public Object readProperty()
+    {
+        return name.get(row);
+    }
+
+    @Benchmark
+    public void writeProperty()
+    {
+        name.set(row, "Item #42");
+    }
+
+    @Benchmark
+    public Object readPropertyPath()
+    {
+        return categoryName.get(row);
+    }
+
+    @Benchmark
+    public Object readMethodCall()
+    {
+        return categoryNameLength.get(row);
+    }
+}
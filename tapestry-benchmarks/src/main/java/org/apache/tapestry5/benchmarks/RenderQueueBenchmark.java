@@ -0,0 +1,112 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package org.apache.tapestry5.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.tapestry5.MarkupWriter;
+import org.apache.tapestry5.internal.services.MarkupWriterImpl;
+import org.apache.tapestry5.internal.services.RenderQueueImpl;
+import org.apache.tapestry5.runtime.RenderCommand;
+import org.apache.tapestry5.runtime.RenderQueue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link RenderQueueImpl#run(MarkupWriter)} driving a tree of render commands shaped like a component tree: each
+ * command opens an element, then pushes a command to close it followed by commands for its children, the same
+ * way component render phases push their follow-up commands.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenderQueueBenchmark
+{
+    @Param({"4"})
+    public int depth;
+
+    @Param({"8"})
+    public int breadth;
+
+    private RenderCommand root;
+
+    private static final RenderCommand END = new RenderCommand()
+    {
+        public void render(MarkupWriter writer, RenderQueue queue)
+        {
+            writer.end();
+        }
+    };
+
+    @Setup
+    public void setup()
+    {
+        root = node(0);
+    }
+
+    private RenderCommand node(int level)
+    {
+        final RenderCommand[] children = new RenderCommand[level < depth ? breadth : 0];
+
+        for (int i = 0; i < children.length; i++)
+        {
+            children[i] = node(level + 1);
+        }
+
+        return new RenderCommand()
+        {
+            public void render(MarkupWriter writer, RenderQueue queue)
+            {
+                writer.element("div", "class", "node");
+
+                queue.push(END);
+
+                for (int i = children.length - 1; i >= 0; i--)
+                {
+                    queue.push(children[i]);
+                }
+
+                if (children.length == 0)
+                {
+                    writer.write("leaf");
+                }
+            }
+        };
+    }
+
+    @Benchmark
+    public MarkupWriter run()
+    {
+        MarkupWriter writer = new MarkupWriterImpl();
+
+        RenderQueueImpl queue = new RenderQueueImpl(LoggerFactory.getLogger(RenderQueueImpl.class));
+
+        queue.push(root);
+
+        queue.run(writer);
+
+        return writer;
+    }
+}
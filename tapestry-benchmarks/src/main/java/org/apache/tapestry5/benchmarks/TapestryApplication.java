@@ -0,0 +1,51 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package org.apache.tapestry5.benchmarks;
+
+import org.apache.tapestry5.test.PageTester;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Shared JMH state that starts the benchmark application (package {@code org.apache.tapestry5.benchmarks.app}) in a
+ * {@link PageTester}, and renders each page once so that page loading and stack assembly are not part of the
+ * measurements.
+ */
+@State(Scope.Benchmark)
+public class TapestryApplication
+{
+    public static final String APP_PACKAGE = "org.apache.tapestry5.benchmarks.app";
+
+    public PageTester tester;
+
+    @Setup
+    public void startup()
+    {
+        tester = new PageTester(APP_PACKAGE, "app");
+
+        tester.renderPage("Listing");
+        tester.renderPage("admin/reports/Detail");
+    }
+
+    @TearDown
+    public void shutdown()
+    {
+        tester.shutdown();
+    }
+
+    public <T> T getService(Class<T> serviceInterface)
+    {
+        return tester.getService(serviceInterface);
+    }
+}
@@ -0,0 +1,103 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package org.apache.tapestry5.benchmarks;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.tapestry5.commons.services.TypeCoercer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link TypeCoercer#coerce(Object, Class)} for the coercions seen most often at runtime: a no-op, a direct
+ * coercion, and coercions that are compiled from several steps. The contended variants run on as many threads as
+ * there are processors, to show how the cached coercion lookup scales.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TypeCoercerBenchmark
+{
+    private TypeCoercer typeCoercer;
+
+    private final List<String> list = Arrays.asList("a", "b", "c");
+
+    @Setup
+    public void setup(TapestryApplication application)
+    {
+        typeCoercer = application.getService(TypeCoercer.class);
+    }
+
+    @Benchmark
+    public Object stringToString()
+    {
+        return typeCoercer.coerce("tapestry", String.class);
+    }
+
+    @Benchmark
+    public Object stringToLong()
+    {
+        return typeCoercer.coerce("12345", Long.class);
+    }
+
+    @Benchmark
+    public Object longToString()
+    {
+        return typeCoercer.coerce(12345L, String.class);
+    }
+
+    @Benchmark
+    public Object stringToBoolean()
+    {
+        return typeCoercer.coerce("true", Boolean.class);
+    }
+
+    @Benchmark
+    public Object integerToDouble()
+    {
+        return typeCoercer.coerce(42, Double.class);
+    }
+
+    @Benchmark
+    public Object listToObjectArray()
+    {
+        return typeCoercer.coerce(list, Object[].class);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Object stringToLongContended()
+    {
+        return typeCoercer.coerce("12345", Long.class);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Object integerToDoubleContended()
+    {
+        return typeCoercer.coerce(42, Double.class);
+    }
+}
@@ -0,0 +1,89 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.apache.tapestry5.benchmarks.app.data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A row of the listing page, and the bean used by the property conduit benchmarks.
+ */
+public class Row
+{
+    private static final Category[] CATEGORIES = {new Category("Books"), new Category("Music"), new Category("Garden")};
+
+    private long id;
+
+    private String name;
+
+    private double price;
+
+    private boolean active;
+
+    private Category category;
+
+    public Row(long id)
+    {
+        this.id = id;
+        this.name = "Item #" + id;
+        this.price = id * 1.25d;
+        this.active = id % 3 != 0;
+        this.category = CATEGORIES[(int) (id % CATEGORIES.length)];
+    }
+
+    /**
+     * Returns an unmodifiable list of rows, with ids starting at 1.
+     */
+    public static List<Row> rows(int count)
+    {
+        List<Row> result = new ArrayList<Row>(count);
+
+        for (int i = 1; i <= count; i++)
+        {
+            result.add(new Row(i));
+        }
+
+        return Collections.unmodifiableList(result);
+    }
+
+    public long getId()
+    {
+        return id;
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    public void setName(String name)
+    {
+        this.name = name;
+    }
+
+    public double getPrice()
+    {
+        return price;
+    }
+
+    public boolean isActive()
+    {
+        return active;
+    }
+
+    public Category getCategory()
+    {
+        return category;
+    }
+}
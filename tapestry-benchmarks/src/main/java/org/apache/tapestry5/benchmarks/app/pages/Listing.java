@@ -0,0 +1,50 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.apache.tapestry5.benchmarks.app.pages;
+
+import java.text.DecimalFormat;
+import java.text.Format;
+import java.util.List;
+
+import org.apache.tapestry5.annotations.Property;
+import org.apache.tapestry5.benchmarks.app.data.Row;
+
+/**
+ * A representative listing page: a table of rows rendered by a Loop, with expansions, an If, an Output
+ * and a PageLink per row.
+ */
+public class Listing
+{
+    private static final List<Row> ROWS = Row.rows(250);
+
+    @Property
+    private Row row;
+
+    @Property
+    private int index;
+
+    public List<Row> getRows()
+    {
+        return ROWS;
+    }
+
+    public String getRowClass()
+    {
+        return index % 2 == 0 ? "even" : "odd";
+    }
+
+    public Format getPriceFormat()
+    {
+        return new DecimalFormat("#,##0.00");
+    }
+}
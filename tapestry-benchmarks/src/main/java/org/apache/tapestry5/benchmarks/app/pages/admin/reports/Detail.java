@@ -0,0 +1,34 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.apache.tapestry5.benchmarks.app.pages.admin.reports;
+
+import org.apache.tapestry5.annotations.Property;
+
+/**
+ * A nested page, used as a link target from the listing and for URL encoding/decoding of deep page names.
+ */
+public class Detail
+{
+    @Property
+    private long rowId;
+
+    void onActivate(long rowId)
+    {
+        this.rowId = rowId;
+    }
+
+    long onPassivate()
+    {
+        return rowId;
+    }
+}
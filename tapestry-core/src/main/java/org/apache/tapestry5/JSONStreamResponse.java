@@ -0,0 +1,46 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.apache.tapestry5;
+
+import java.io.IOException;
+
+import org.apache.tapestry5.json.JSONWriter;
+
+/**
+ * An alternate response from a component event handler method, used to write a JSON reply directly to the client as
+ * it is produced, rather than building a complete {@link org.apache.tapestry5.json.JSONObject} or
+ * {@link org.apache.tapestry5.json.JSONArray} first. The writer prints compactly or not according to the
+ * {@link SymbolConstants#COMPACT_JSON} symbol. Typically implemented as a lambda:
+ * <pre>
+ * JSONStreamResponse onSearch(String query)
+ * {
+ *     return writer -&gt; {
+ *         writer.array();
+ *         for (Item item : itemDAO.search(query))
+ *         {
+ *             writer.value(item.toJSON());
+ *         }
+ *         writer.endArray();
+ *     };
+ * }</pre>
+ *
+ * @since 5.10
+ */
+@FunctionalInterface
+public interface JSONStreamResponse
+{
+    /**
+     * Writes the complete JSON document. The writer is closed afterwards.
+     */
+    void write(JSONWriter writer) throws IOException;
+}
@@ -50,4 +50,16 @@ public class MetaDataConstants
      * @since 5.4
      */
     public static final String UNKNOWN_ACTIVATION_CONTEXT_CHECK = "tapestry.unknwon-activation-context-check";
+
+    /**
+     * Meta data key applied to pages that should be rendered in streaming markup mode: as each region of the
+     * {@code <body>} finishes rendering, its DOM is collapsed into raw markup, so that large pages do not keep
+     * the entire element tree in memory until the response is written. The meta-default is "false"; it may be
+     * enabled for the whole application by overriding this key as a symbol.
+     *
+     * @see org.apache.tapestry5.annotations.StreamingMarkup
+     * @see org.apache.tapestry5.dom.Element#collapse()
+     * @since 5.10
+     */
+    public static final String STREAMING_MARKUP = "tapestry.streaming-markup";
 }
@@ -658,6 +658,35 @@ public class SymbolConstants
      */
     public static final String PRELOADER_MODE = "tapestry.page-preload-mode";
 
+    /**
+     * Number of threads used to preload pages. Defaults to the number of available processors. Only one thread
+     * is used when {@linkplain #MULTIPLE_CLASSLOADERS multiple classloaders} are enabled, as the page classloader
+     * contexts depend on the order in which pages are loaded.
+     *
+     * @see org.apache.tapestry5.services.pageload.PagePreloader
+     * @since 5.10.0
+     */
+    public static final String PRELOADER_THREADS = "tapestry.page-preload-threads";
+
+    /**
+     * If true, pages are preloaded in each of the {@linkplain #SUPPORTED_LOCALES supported locales}; if false (the
+     * default), only in the first supported locale.
+     *
+     * @see org.apache.tapestry5.services.pageload.PagePreloader
+     * @since 5.10.0
+     */
+    public static final String PRELOADER_ALL_LOCALES = "tapestry.page-preload-all-locales";
+
+    /**
+     * Path of a file recording the pages, and locales, requested while the application runs. The file is
+     * written when the application shuts down, and the pages it lists are preloaded at the next start (in addition
+     * to the pages contributed to the {@link org.apache.tapestry5.services.pageload.PagePreloader}). The default is
+     * empty, which disables the manifest.
+     *
+     * @since 5.10.0
+     */
+    public static final String PRELOADER_MANIFEST = "tapestry.page-preload-manifest";
+
     /**
      * Defines the OpenAPI version to be used in the generated OpenAPI description.
      * Default value is <code>3.0.0</code>.
@@ -825,4 +854,68 @@ public class SymbolConstants
      */
     public static final String REQUIRE_JS_ENABLED = "tapestry.require-js-enabled";
 
+    /**
+     * The maximum size, in bytes, of the in-memory cache of asset content (after minification and, when enabled,
+     * compression). When the cache is full, the least recently used assets are evicted. The default is
+     * 33554432 (32 MB).
+     *
+     * @see org.apache.tapestry5.services.assets.AssetCacheMetrics
+     * @since 5.10.0
+     */
+    public static final String ASSET_CACHE_MAX_SIZE = "tapestry.asset-cache-max-size";
+
+    /**
+     * Classpath location of the manifest of assets precompiled at build time (by
+     * {@link org.apache.tapestry5.util.AssetPrecompiler}). In production mode, when the manifest exists, the assets and
+     * combined JavaScript stacks it lists are served from it, instead of being transformed and minified on first
+     * access. An empty value disables the manifest. The default is {@code META-INF/tapestry/asset-manifest.json}.
+     *
+     * @since 5.10.0
+     */
+    public static final String ASSET_MANIFEST = "tapestry.asset-manifest";
+
+    /**
+     * Minimum size, in bytes, of an asset file for it to be streamed from the file system, instead of being read
+     * into memory (and cached). Only applies to assets that are stored as files (rather than packaged inside JARs)
+     * and that don't need to be transformed; those assets are copied using a {@link java.nio.channels.FileChannel},
+     * and handed to the servlet container when it supports sending files directly (as Tomcat does), or written
+     * asynchronously when the request supports asynchronous processing. A negative value disables streaming from
+     * files. The default is 262144 (256 KB).
+     *
+     * @since 5.10.0
+     */
+    public static final String ASSET_FILE_STREAMING_THRESHOLD = "tapestry.asset-file-streaming-threshold";
+
+    /**
+     * Path of a file used, in production mode, to store the bytecode of transformed component classes, so that it
+     * doesn't need to be generated again when the application is restarted. The component classes are still
+     * transformed at each start (the transformation creates the objects the classes depend on), but writing the final
+     * bytecode, the most expensive step, is skipped for classes that are transformed exactly as before. The file is
+     * discarded when {@link #TAPESTRY_VERSION} or {@link #APPLICATION_VERSION} changes, or when any JAR or class file
+     * on the classpath is added, removed or modified. The default is empty, which disables the cache.
+     *
+     * @since 5.10.0
+     */
+    public static final String COMPONENT_BYTECODE_CACHE = "tapestry.component-bytecode-cache";
+
+    /**
+     * Path of a directory in which parsed component templates are stored in a binary format, so that templates whose
+     * content hasn't changed are loaded without parsing their XML again (on restart, or when templates are reloaded).
+     * The directory may be populated ahead of time, for example by starting the application once while building it.
+     * The default is empty, which disables the cache.
+     *
+     * @since 5.10.0
+     */
+    public static final String TEMPLATE_PARSE_CACHE = "tapestry.template-parse-cache";
+
+    /**
+     * If true (the default), the actions stored by forms (in the {@code t:formdata} hidden field) are written by the
+     * {@link org.apache.tapestry5.services.ComponentActionCodec} in a compact binary format, rather than as a
+     * compressed Java serialization stream. Both formats are always accepted when a form is submitted; setting this
+     * to false is only useful while servers running earlier releases may receive the submission.
+     *
+     * @since 5.10.0
+     */
+    public static final String COMPACT_FORM_DATA = "tapestry.compact-form-data";
+
 }
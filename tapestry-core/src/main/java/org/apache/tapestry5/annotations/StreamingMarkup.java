@@ -0,0 +1,45 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.apache.tapestry5.annotations;
+
+import org.apache.tapestry5.ioc.annotations.AnnotationUseContext;
+import org.apache.tapestry5.ioc.annotations.UseWith;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Identifies a page that should be rendered in streaming markup mode. Finished regions of the page's
+ * {@code <body>} are collapsed into raw markup as soon as they (and any enclosing
+ * {@link org.apache.tapestry5.services.Heartbeat}) complete, rather than being kept as DOM nodes until the
+ * page has finished rendering. Only the {@code <html>}, {@code <head>} and {@code <body>} elements, which
+ * are still updated by the {@link org.apache.tapestry5.services.javascript.JavaScriptSupport} post-processing,
+ * are retained.
+ *
+ * Components on such pages should not search for, or modify, elements that have already been closed outside
+ * of a heartbeat (for example, a Label outside of any Form).
+ *
+ * @see org.apache.tapestry5.MetaDataConstants#STREAMING_MARKUP
+ * @since 5.10
+ */
+@Target(TYPE)
+@Retention(RUNTIME)
+@Documented
+@UseWith(AnnotationUseContext.PAGE)
+public @interface StreamingMarkup
+{
+}
@@ -41,7 +41,7 @@ import org.apache.tapestry5.ioc.internal.util.InternalUtils;
 import org.apache.tapestry5.ioc.util.IdAllocator;
 import org.apache.tapestry5.json.JSONArray;
 import org.apache.tapestry5.runtime.Component;
-import org.apache.tapestry5.services.ClientDataEncoder;
+import org.apache.tapestry5.services.ComponentActionCodec;
 import org.apache.tapestry5.services.ComponentSource;
 import org.apache.tapestry5.services.Environment;
 import org.apache.tapestry5.services.FormSupport;
@@ -51,9 +51,7 @@ import org.apache.tapestry5.services.compatibility.DeprecationWarning;
 import org.apache.tapestry5.services.javascript.JavaScriptSupport;
 import org.slf4j.Logger;
 
-import java.io.EOFException;
 import java.io.IOException;
-import java.io.ObjectInputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
 
@@ -278,7 +276,7 @@ public class Form implements ClientElement, FormValidationControl
     private TrackableComponentEventCallback eventCallback;
 
     @Inject
-    private ClientDataEncoder clientDataEncoder;
+    private ComponentActionCodec componentActionCodec;
 
     @Inject
     private PropertyAccess propertyAccess;
@@ -348,7 +346,7 @@ public class Form implements ClientElement, FormValidationControl
 
         String actionURL = secure && secureEnabled ? link.toAbsoluteURI(true) : link.toURI();
 
-        actionSink = new ComponentActionSink(logger, clientDataEncoder);
+        actionSink = new ComponentActionSink(logger, componentActionCodec);
 
         clientId = javascriptSupport.allocateClientId(resources);
 
@@ -737,46 +735,43 @@ public class Form implements ClientElement, FormValidationControl
 
             logger.debug("Processing actions: {}", clientEncodedActions);
 
-            ObjectInputStream ois = null;
-
             Component component = null;
 
             try
             {
-                ois = clientDataEncoder.decodeClientData(clientEncodedActions);
+                ComponentActionCodec.Decoder decoder = componentActionCodec.createDecoder(clientEncodedActions);
 
-                while (!eventCallback.isAborted())
+                while (!eventCallback.isAborted() && decoder.next())
                 {
-                    String componentId = ois.readUTF();
-                    boolean cancelAction = ois.readBoolean();
-                    ComponentAction action = (ComponentAction) ois.readObject();
+                    String componentId = decoder.getComponentId();
+                    boolean cancelAction = decoder.isCancel();
+
+                    // The component is needed to read the action, as the action class is
+                    // loaded by the component's class loader.
+
+                    component = source.getComponent(componentId);
+
+                    ComponentAction action = decoder.readAction(component.getClass().getClassLoader());
 
                     // Actions are a mix of ordinary actions and cancel actions.  Filter out one set or the other
                     // based on whether the form was submitted or cancelled.
                     if (forFormCancel != cancelAction)
                     {
+                        component = null;
                         continue;
                     }
 
-                    component = source.getComponent(componentId);
-
                     logger.debug("Processing: {} {}", componentId, action);
 
                     action.execute(component);
 
                     component = null;
                 }
-            } catch (EOFException ex)
-            {
-                // Expected
             } catch (Exception ex)
             {
                 Location location = component == null ? null : component.getComponentResources().getLocation();
 
                 throw new TapestryException(ex.getMessage(), location, ex);
-            } finally
-            {
-                InternalUtils.close(ois);
             }
         }
     }
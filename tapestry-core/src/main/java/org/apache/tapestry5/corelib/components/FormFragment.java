@@ -28,7 +28,7 @@ import org.apache.tapestry5.corelib.mixins.TriggerFragment;
 import org.apache.tapestry5.dom.Element;
 import org.apache.tapestry5.internal.services.ajax.RequireJsModeHelper;
 import org.apache.tapestry5.ioc.annotations.Inject;
-import org.apache.tapestry5.services.ClientDataEncoder;
+import org.apache.tapestry5.services.ComponentActionCodec;
 import org.apache.tapestry5.services.Environment;
 import org.apache.tapestry5.services.FormSupport;
 import org.apache.tapestry5.services.HiddenFieldLocationRules;
@@ -151,7 +151,7 @@ public class FormFragment implements ClientElement
     private HiddenFieldPositioner hiddenFieldPositioner;
 
     @Inject
-    private ClientDataEncoder clientDataEncoder;
+    private ComponentActionCodec componentActionCodec;
     
     String defaultElement()
     {
@@ -192,7 +192,7 @@ public class FormFragment implements ClientElement
             }
         }
 
-        componentActions = new ComponentActionSink(logger, clientDataEncoder);
+        componentActions = new ComponentActionSink(logger, componentActionCodec);
 
         // Here's the magic of environmentals ... we can create a wrapper around
         // the normal FormSupport environmental that intercepts some of the behavior.
@@ -335,7 +335,7 @@ public class Grid implements GridModel, ClientElement
                     empty = false;
                     emptyCached = true;
                 }
-                if (result < limit) {
+                if (result < limit && delegate.isAvailableRowsExact()) {
                     availableRows = result;
                     availableRowsCached = true;
                 }
@@ -349,9 +349,8 @@ public class Grid implements GridModel, ClientElement
         {
             if (!availableRowsCached)
             {
-                availableRows = delegate.getAvailableRows();
-                availableRowsCached = true;
-                if (availableRows == 0)
+                int result = delegate.getAvailableRows();
+                if (result == 0)
                 {
                     empty = true;
                     emptyCached = true;
@@ -359,11 +358,28 @@ public class Grid implements GridModel, ClientElement
                   empty = false;
                   emptyCached = true;
               }
+
+                // An estimated count may be refined once the rows have been prepared,
+                // so only exact counts are cached.
+
+                if (!delegate.isAvailableRowsExact())
+                {
+                    return result;
+                }
+
+                availableRows = result;
+                availableRowsCached = true;
             }
 
             return availableRows;
         }
 
+        @Override
+        public boolean isAvailableRowsExact()
+        {
+            return delegate.isAvailableRowsExact();
+        }
+
         public void prepare(int startIndex, int endIndex, List<SortConstraint> sortConstraints)
         {
             delegate.prepare(startIndex, endIndex, sortConstraints);
@@ -40,7 +40,9 @@ public class GridPager
 {
     /**
      * The source of the data displayed by the grid (this is used to determine {@link GridDataSource#getAvailableRows()
-     * how many rows are available}, which in turn determines the page count).
+     * how many rows are available}, which in turn determines the page count). When the source only
+     * {@linkplain GridDataSource#isAvailableRowsExact() estimates} the number of rows, the pager links to the
+     * previous and next pages rather than to numbered pages.
      */
     @Parameter(required = true)
     private GridDataSource source;
@@ -95,6 +97,12 @@ public class GridPager
 
     void beginRender(MarkupWriter writer)
     {
+        if (!source.isAvailableRowsExact())
+        {
+            writePreviousNextLinks(writer);
+            return;
+        }
+
         int availableRows = source.getAvailableRows();
 
         maxPages = ((availableRows - 1) / rowsPerPage) + 1;
@@ -138,6 +146,81 @@ public class GridPager
         writer.end();    // ul
     }
 
+    /**
+     * When the number of rows is only an estimate, the pages can't be numbered reliably; instead, there's a
+     * link to the previous page and, if there are rows after the current page, to the next page.
+     */
+    private void writePreviousNextLinks(MarkupWriter writer)
+    {
+        int rowsThroughCurrentPage = currentPage * rowsPerPage;
+
+        boolean hasNext = source.getAvailableRows(rowsThroughCurrentPage + 1) > rowsThroughCurrentPage;
+
+        if (currentPage < 2 && !hasNext) return;
+
+        writer.element("ul", "class", "pagination");
+
+        if (zone != null)
+        {
+            writer.attributes("data-inplace-grid-links", true);
+        }
+
+        writeRelativePageLink(writer, currentPage - 1, currentPage > 1, "core-pager-previous");
+
+        writer.element("li", "aria-current", "page", "class", bootstrap4 ? "active page-item" : "active");
+        writer.element("a", "href", "#", "aria-disabled", "true");
+        addClassAttributeToPageLinkIfNeeded(writer, bootstrap4);
+        writer.write(Integer.toString(currentPage));
+        writer.end();
+        writer.end();
+
+        writeRelativePageLink(writer, currentPage + 1, hasNext, "core-pager-next");
+
+        writer.end();    // ul
+    }
+
+    private void writeRelativePageLink(MarkupWriter writer, int pageIndex, boolean enabled, String labelKey)
+    {
+        String label = messages.get(labelKey);
+
+        if (!enabled)
+        {
+            writer.element("li", "class", bootstrap4 ? "disabled page-item" : "disabled");
+            writer.element("a", "href", "#", "aria-disabled", "true");
+            addClassAttributeToPageLinkIfNeeded(writer, bootstrap4);
+            writer.write(label);
+            writer.end();
+            writer.end();
+            return;
+        }
+
+        writer.element("li");
+        if (bootstrap4)
+        {
+            writer.getElement().attribute("class", "page-item");
+        }
+
+        Link link = resources.createEventLink(EventConstants.ACTION, pageIndex);
+
+        if (zone != null)
+        {
+            link.addParameter("t:inplace", "true");
+        }
+
+        writer.element("a",
+                "href", link,
+                "data-update-zone", zone,
+                "title", messages.format("core-goto-page", pageIndex));
+
+        addClassAttributeToPageLinkIfNeeded(writer, bootstrap4);
+
+        writer.write(label);
+
+        writer.end();
+
+        writer.end();   // li
+    }
+
     private void writePageLink(MarkupWriter writer, int pageIndex)
     {
         if (pageIndex < 1 || pageIndex > maxPages) return;
@@ -33,7 +33,7 @@ import org.apache.tapestry5.internal.services.ajax.RequireJsModeHelper;
 import org.apache.tapestry5.ioc.annotations.Inject;
 import org.apache.tapestry5.ioc.annotations.Symbol;
 import org.apache.tapestry5.json.JSONObject;
-import org.apache.tapestry5.services.ClientDataEncoder;
+import org.apache.tapestry5.services.ComponentActionCodec;
 import org.apache.tapestry5.services.Environment;
 import org.apache.tapestry5.services.FormSupport;
 import org.apache.tapestry5.services.Heartbeat;
@@ -152,7 +152,7 @@ public class Zone implements ClientBodyElement
     private Logger logger;
 
     @Inject
-    private ClientDataEncoder clientDataEncoder;
+    private ComponentActionCodec componentActionCodec;
 
     @Inject
     private HiddenFieldLocationRules rules;
@@ -218,7 +218,7 @@ public class Zone implements ClientBodyElement
 
             hiddenFieldPositioner = new HiddenFieldPositioner(writer, rules);
 
-            actionSink = new ComponentActionSink(logger, clientDataEncoder);
+            actionSink = new ComponentActionSink(logger, componentActionCodec);
 
             environment.push(FormSupport.class, new FormSupportAdapter(formSupport)
             {
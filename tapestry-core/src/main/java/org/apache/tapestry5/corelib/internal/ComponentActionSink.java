@@ -15,12 +15,13 @@
 package org.apache.tapestry5.corelib.internal;
 
 import java.io.IOException;
-import java.io.ObjectOutputStream;
+import java.util.Collections;
 
 import org.apache.tapestry5.ComponentAction;
+import org.apache.tapestry5.internal.services.ComponentActionCodecImpl;
 import org.apache.tapestry5.runtime.Component;
 import org.apache.tapestry5.services.ClientDataEncoder;
-import org.apache.tapestry5.services.ClientDataSink;
+import org.apache.tapestry5.services.ComponentActionCodec;
 import org.slf4j.Logger;
 
 /**
@@ -31,19 +32,30 @@ public class ComponentActionSink
 {
     private final Logger logger;
 
-    private final ObjectOutputStream stream;
-
-    private final ClientDataSink sink;
+    private final ComponentActionCodec.Encoder encoder;
 
     private boolean empty = true;
 
+    /**
+     * Writes actions using the {@linkplain ClientDataEncoder#createSink() Java serialization format}.
+     */
     public ComponentActionSink(Logger logger, ClientDataEncoder encoder)
     {
-        this.logger = logger;
+        this(logger, new ComponentActionCodecImpl(encoder, Collections.emptyMap(), false).createEncoder());
+    }
 
-        sink = encoder.createSink();
+    /**
+     * @since 5.10
+     */
+    public ComponentActionSink(Logger logger, ComponentActionCodec codec)
+    {
+        this(logger, codec.createEncoder());
+    }
 
-        stream = sink.getObjectOutputStream();
+    private ComponentActionSink(Logger logger, ComponentActionCodec.Encoder encoder)
+    {
+        this.logger = logger;
+        this.encoder = encoder;
     }
 
     public <T> void store(T component, ComponentAction<T> action)
@@ -67,11 +79,7 @@ public class ComponentActionSink
 
         try
         {
-            // Writing the complete id is not very efficient, but the GZip filter
-            // should help out there.
-            stream.writeUTF(completeId);
-            stream.writeBoolean(cancel);
-            stream.writeObject(action);
+            encoder.write(completeId, cancel, action);
         }
         catch (IOException ex)
         {
@@ -89,6 +97,6 @@ public class ComponentActionSink
 
     public String getClientData()
     {
-        return sink.getClientData();
+        return encoder.getClientData();
     }
 }
@@ -1110,6 +1110,32 @@ public final class Element extends Node
         return (Element) super.detach();
     }
 
+    /**
+     * Replaces this element, and everything inside it, with a single {@link Raw} node containing the element's
+     * markup (rendered using the document's {@link MarkupModel}). The element's own subtree can then be
+     * garbage collected. This is used when streaming markup, to release finished regions of a large
+     * document before the rest of the document has rendered.
+     *
+     * Once collapsed, the element's content can no longer be found or modified via the DOM.
+     *
+     * @return the raw node now occupying this element's position
+     * @throws IllegalStateException if this element is the root element or is detached
+     * @since 5.10
+     */
+    public Raw collapse()
+    {
+        if (container == null)
+        {
+            throw new IllegalStateException("Cannot collapse a root or detached element");
+        }
+
+        PrintOutCollector collector = new PrintOutCollector();
+
+        toMarkup(getDocument(), collector.getPrintWriter(), container.getNamespaceURIToPrefix());
+
+        return (Raw) replaceWith(new Raw(null, collector.getPrintOut()));
+    }
+
     /**
      * Copies this element's namespace mappings, attributes, and children (recursively deep-cloned)
      * into {@code target}. Used internally by {@link #deepClone()} and
@@ -0,0 +1,105 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.apache.tapestry5.grid;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+/**
+ * A {@link RowCountStrategy} that performs an exact count, then reuses it for a period of time. Counts are stored per
+ * key, so a single instance is meant to be shared (for example, as a service or a constant) by all the data
+ * sources displaying the same rows. The counts are approximate, since rows may be added or removed while they are
+ * cached.
+ *
+ * This class is thread-safe.
+ *
+ * @since 5.10
+ */
+public class CachingRowCountStrategy implements RowCountStrategy
+{
+    private static final class CachedCount
+    {
+        final int count;
+
+        final long expiresAt;
+
+        CachedCount(int count, long expiresAt)
+        {
+            this.count = count;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final long timeToLive;
+
+    private final Map<Object, CachedCount> counts = new ConcurrentHashMap<>();
+
+    /**
+     * @param duration
+     *         how long a count is kept before being computed again
+     * @param unit
+     *         unit of the duration
+     */
+    public CachingRowCountStrategy(long duration, TimeUnit unit)
+    {
+        assert duration > 0;
+
+        timeToLive = unit.toNanos(duration);
+    }
+
+    @Override
+    public int getRowCount(Object key, IntSupplier counter)
+    {
+        long now = System.nanoTime();
+
+        CachedCount cached = counts.get(key);
+
+        if (cached != null && now - cached.expiresAt < 0)
+        {
+            return cached.count;
+        }
+
+        // Several threads may count at the same time; that's no worse than not caching at all, and avoids
+        // holding a lock while the query executes.
+
+        int count = counter.getAsInt();
+
+        counts.put(key, new CachedCount(count, now + timeToLive));
+
+        return count;
+    }
+
+    @Override
+    public boolean isExact()
+    {
+        return false;
+    }
+
+    /**
+     * Discards the cached count for the key, for example after rows have been added or removed.
+     */
+    public void invalidate(Object key)
+    {
+        counts.remove(key);
+    }
+
+    /**
+     * Discards all cached counts.
+     */
+    public void invalidateAll()
+    {
+        counts.clear();
+    }
+}
@@ -57,6 +57,19 @@ public interface GridDataSource
      */
     int getAvailableRows();
 
+    /**
+     * Returns true if {@link #getAvailableRows()} is the exact number of rows, false if it is only an estimate (for
+     * example, a count cached for some time). When the count is an estimate, the
+     * {@link org.apache.tapestry5.corelib.components.GridPager} only offers links to the previous and next pages,
+     * using {@link #getAvailableRows(int)} to determine whether there is a next page.
+     *
+     * @since 5.10
+     */
+    default public boolean isAvailableRowsExact()
+    {
+        return true;
+    }
+
     /**
      * Invoked to allow the source to prepare to present values. This gives the source a chance to pre-fetch data (when
      * appropriate) and informs the source of the desired sort order.  Sorting comes first, then extraction by range.
@@ -0,0 +1,104 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.apache.tapestry5.grid;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Remembers the keys of some of the rows displayed by a {@link KeysetGridDataSource}, by row index, so that the
+ * neighbouring pages can later be located by key rather than by offset. Since a data source is normally created for
+ * each request, the bookmarks should be kept between requests (for example, in a {@linkplain
+ * org.apache.tapestry5.annotations.Persist persistent} field of the page); the key values must then be serializable.
+ *
+ * The bookmarks are discarded whenever the sort order changes. Only a limited number of bookmarks are kept; those
+ * furthest from the most recently displayed page are discarded first.
+ *
+ * This class is <em>not</em> thread-safe.
+ *
+ * @since 5.10
+ */
+public class KeysetBookmarks implements Serializable
+{
+    private static final long serialVersionUID = 1L;
+
+    private final int maxBookmarks;
+
+    private final TreeMap<Integer, Object[]> keys = new TreeMap<>();
+
+    private String sortOrder;
+
+    public KeysetBookmarks()
+    {
+        this(64);
+    }
+
+    /**
+     * @param maxBookmarks
+     *         the number of row keys kept (two are recorded for each page displayed)
+     */
+    public KeysetBookmarks(int maxBookmarks)
+    {
+        assert maxBookmarks >= 2;
+
+        this.maxBookmarks = maxBookmarks;
+    }
+
+    /**
+     * Discards the bookmarks if they were recorded for a different sort order.
+     */
+    void useSortOrder(String sortOrder)
+    {
+        if (!sortOrder.equals(this.sortOrder))
+        {
+            keys.clear();
+
+            this.sortOrder = sortOrder;
+        }
+    }
+
+    Object[] get(int index)
+    {
+        return keys.get(index);
+    }
+
+    /**
+     * Returns the closest bookmark at or before the index, or null.
+     */
+    Map.Entry<Integer, Object[]> floor(int index)
+    {
+        return keys.floorEntry(index);
+    }
+
+    void put(int index, Object[] key)
+    {
+        keys.put(index, key);
+
+        while (keys.size() > maxBookmarks)
+        {
+            int first = keys.firstKey();
+            int last = keys.lastKey();
+
+            keys.remove(index - first > last - index ? first : last);
+        }
+    }
+
+    /**
+     * Discards all bookmarks, for example after rows have been added or removed.
+     */
+    public void clear()
+    {
+        keys.clear();
+    }
+}
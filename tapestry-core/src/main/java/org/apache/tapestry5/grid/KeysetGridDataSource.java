@@ -0,0 +1,268 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.apache.tapestry5.grid;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Base class for {@link GridDataSource}s that page through a database using keyset (or "seek") pagination. Rather than
+ * skipping over the rows of the previous pages (which costs as much as reading them), the query for a page starts
+ * right after the last row of the previous page (or right before the first row of the next page), located by the
+ * values of the sorted columns. Those values are kept in {@link KeysetBookmarks}. Rows are always sorted by a unique
+ * key after the sort constraints, so that this order is total. When no bookmark is available for the page
+ * (for example, when jumping to the last page), the query seeks to the closest bookmark and skips the remaining rows.
+ *
+ * Rows with a null value in a sorted property are not used as bookmarks.
+ *
+ * The total number of rows is obtained from a {@link RowCountStrategy}. When the strategy is not {@linkplain
+ * RowCountStrategy#isExact() exact}, the Grid's pager only links to the previous and next pages; one extra row is
+ * read with each page to find out if there is a next page.
+ *
+ * This class is <em>not</em> thread-safe; it maintains internal state.
+ *
+ * @param <T>
+ *         type of row
+ * @since 5.10
+ */
+public abstract class KeysetGridDataSource<T> implements GridDataSource
+{
+    private final Class<T> rowType;
+
+    private final RowCountStrategy rowCountStrategy;
+
+    private final KeysetBookmarks bookmarks;
+
+    private int rowCount = -1;
+
+    private int startIndex;
+
+    private List<T> preparedResults;
+
+    /**
+     * True if there are rows after the prepared results.
+     */
+    private boolean moreRows;
+
+    /**
+     * @param rowType
+     *         type of row
+     * @param rowCountStrategy
+     *         determines how rows are counted
+     * @param bookmarks
+     *         the bookmarks kept between requests, or null to only use bookmarks within this instance
+     */
+    protected KeysetGridDataSource(Class<T> rowType, RowCountStrategy rowCountStrategy, KeysetBookmarks bookmarks)
+    {
+        assert rowType != null;
+        assert rowCountStrategy != null;
+
+        this.rowType = rowType;
+        this.rowCountStrategy = rowCountStrategy;
+        this.bookmarks = bookmarks == null ? new KeysetBookmarks() : bookmarks;
+    }
+
+    /**
+     * Reads rows from the database. Rows are ordered by the sort constraints, then by their unique key (ascending), or
+     * in the exact opposite order when reverse is true.
+     *
+     * @param sortConstraints
+     *         the sort constraints, each either {@link ColumnSort#ASCENDING} or {@link ColumnSort#DESCENDING}
+     * @param seekKey
+     *         if not null, only rows strictly after this key (in the order of the query) are returned; the key
+     *         contains the value of each sorted property followed by the unique key
+     * @param reverse
+     *         if true, the order of every sort constraint and of the unique key is reversed
+     * @param firstResult
+     *         number of rows to skip
+     * @param maxResults
+     *         maximum number of rows to return
+     * @return the rows
+     */
+    protected abstract List<T> fetch(List<SortConstraint> sortConstraints, Object[] seekKey, boolean reverse,
+                                     int firstResult, int maxResults);
+
+    /**
+     * Returns the unique key (usually the primary key) of a row returned by {@link #fetch(List, Object[], boolean,
+     * int, int)}.
+     */
+    protected abstract Object getUniqueKey(T row);
+
+    /**
+     * Performs an exact count of the rows.
+     */
+    protected abstract int countRows();
+
+    /**
+     * Returns the key under which a {@link RowCountStrategy} caches the count. This implementation returns the row
+     * type; subclasses that only display some of the rows should include the constraints.
+     */
+    protected Object getRowCountKey()
+    {
+        return rowType;
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        if (preparedResults != null && !preparedResults.isEmpty())
+        {
+            return false;
+        }
+
+        return fetch(Collections.emptyList(), null, false, 0, 1).isEmpty();
+    }
+
+    @Override
+    public int getAvailableRows()
+    {
+        if (preparedResults != null && !moreRows)
+        {
+            return startIndex + preparedResults.size();
+        }
+
+        if (rowCount < 0)
+        {
+            rowCount = rowCountStrategy.getRowCount(getRowCountKey(), this::countRows);
+        }
+
+        return Math.max(rowCount, getKnownRows());
+    }
+
+    @Override
+    public int getAvailableRows(int limit)
+    {
+        if (limit <= getKnownRows())
+        {
+            return limit;
+        }
+
+        return Math.min(limit, getAvailableRows());
+    }
+
+    private int getKnownRows()
+    {
+        return preparedResults == null ? 0 : startIndex + preparedResults.size() + (moreRows ? 1 : 0);
+    }
+
+    @Override
+    public boolean isAvailableRowsExact()
+    {
+        return rowCountStrategy.isExact() || (preparedResults != null && !moreRows);
+    }
+
+    @Override
+    public void prepare(int startIndex, int endIndex, List<SortConstraint> sortConstraints)
+    {
+        List<SortConstraint> constraints = new ArrayList<>();
+        StringBuilder sortOrder = new StringBuilder();
+
+        for (SortConstraint constraint : sortConstraints)
+        {
+            if (constraint.getColumnSort() != ColumnSort.UNSORTED)
+            {
+                constraints.add(constraint);
+                sortOrder.append(constraint.getPropertyModel().getPropertyName()).append(' ')
+                        .append(constraint.getColumnSort()).append(',');
+            }
+        }
+
+        bookmarks.useSortOrder(sortOrder.toString());
+
+        int count = endIndex - startIndex + 1;
+
+        Object[] previous = startIndex == 0 ? null : bookmarks.get(startIndex - 1);
+        Object[] next = bookmarks.get(endIndex + 1);
+
+        List<T> rows;
+
+        // The row after the page (if any) is only read to find out whether there are more rows; when reading
+        // backwards from the next page, it is already known to exist.
+
+        moreRows = false;
+
+        if (startIndex == 0 || previous != null)
+        {
+            rows = fetch(constraints, previous, false, 0, count + 1);
+        } else if (next != null)
+        {
+            rows = new ArrayList<>(fetch(constraints, next, true, 0, count));
+
+            Collections.reverse(rows);
+
+            moreRows = true;
+        } else
+        {
+            Map.Entry<Integer, Object[]> closest = bookmarks.floor(startIndex - 1);
+
+            rows = closest == null
+                    ? fetch(constraints, null, false, startIndex, count + 1)
+                    : fetch(constraints, closest.getValue(), false, startIndex - 1 - closest.getKey(), count + 1);
+        }
+
+        if (rows.size() > count)
+        {
+            moreRows = true;
+            rows = rows.subList(0, count);
+        }
+
+        this.startIndex = startIndex;
+        preparedResults = rows;
+
+        if (!rows.isEmpty())
+        {
+            bookmark(startIndex, rows.get(0), constraints);
+            bookmark(startIndex + rows.size() - 1, rows.get(rows.size() - 1), constraints);
+        }
+    }
+
+    private void bookmark(int index, T row, List<SortConstraint> constraints)
+    {
+        Object[] key = new Object[constraints.size() + 1];
+
+        for (int i = 0; i < constraints.size(); i++)
+        {
+            key[i] = constraints.get(i).getPropertyModel().getConduit().get(row);
+
+            // Rows can't be located from a null value; the neighbouring pages will be located by offset.
+
+            if (key[i] == null)
+            {
+                return;
+            }
+        }
+
+        key[constraints.size()] = getUniqueKey(row);
+
+        bookmarks.put(index, key);
+    }
+
+    /**
+     * Returns the row at the index, or null if that row has not been read.
+     */
+    @Override
+    public Object getRowValue(int index)
+    {
+        int offset = index - startIndex;
+
+        return offset >= 0 && offset < preparedResults.size() ? preparedResults.get(offset) : null;
+    }
+
+    @Override
+    public Class<T> getRowType()
+    {
+        return rowType;
+    }
+}
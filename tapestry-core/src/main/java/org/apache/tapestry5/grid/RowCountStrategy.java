@@ -0,0 +1,60 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.apache.tapestry5.grid;
+
+import java.util.function.IntSupplier;
+
+/**
+ * Determines how a {@link KeysetGridDataSource} obtains the total number of rows. Counting every row of a large table
+ * on each render can be as expensive as the query for the rows themselves; a strategy may instead return a cached or
+ * estimated count (for example, one obtained from the database's statistics).
+ *
+ * @see CachingRowCountStrategy
+ * @since 5.10
+ */
+public interface RowCountStrategy
+{
+    /**
+     * Always performs an exact count.
+     */
+    RowCountStrategy EXACT = new RowCountStrategy()
+    {
+        @Override
+        public int getRowCount(Object key, IntSupplier counter)
+        {
+            return counter.getAsInt();
+        }
+
+        @Override
+        public boolean isExact()
+        {
+            return true;
+        }
+    };
+
+    /**
+     * Returns the number of rows.
+     *
+     * @param key
+     *         identifies the rows being counted (the entity type, plus any additional constraints)
+     * @param counter
+     *         performs an exact count of the rows
+     * @return the number of rows, or an estimate
+     */
+    int getRowCount(Object key, IntSupplier counter);
+
+    /**
+     * Returns true if {@link #getRowCount(Object, IntSupplier)} always returns the exact number of rows.
+     */
+    boolean isExact();
+}
@@ -20,6 +20,7 @@ import org.apache.tapestry5.internal.services.PersistentFieldManager;
 import org.apache.tapestry5.internal.structure.Page;
 import org.apache.tapestry5.internal.structure.PageResetListener;
 import org.apache.tapestry5.internal.transform.ParameterConduit;
+import org.apache.tapestry5.ioc.services.PerThreadValue;
 import org.apache.tapestry5.runtime.PageLifecycleListener;
 import org.apache.tapestry5.runtime.RenderCommand;
 import org.apache.tapestry5.runtime.RenderQueue;
@@ -96,4 +97,13 @@ public interface InternalComponentResources extends ComponentResources,
      * @since 5.2.0
      */
     String getPropertyName(String parameterName);
+
+    /**
+     * Creates a value specific to the current request, stored in the per-request state of the containing page.
+     * This is used to store the values of the component's mutable fields.
+     *
+     * @see Page#createPerThreadValue()
+     * @since 5.10
+     */
+    <T> PerThreadValue<T> createPerThreadValue();
 }
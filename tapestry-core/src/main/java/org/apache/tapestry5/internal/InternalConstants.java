@@ -102,6 +102,13 @@ public final class InternalConstants
      */
     public static final String JSON_MIME_TYPE = "application/json";
 
+    /**
+     * MIME type for newline delimited JSON, used for streamed sequences when the client accepts it.
+     *
+     * @since 5.10
+     */
+    public static final String NDJSON_MIME_TYPE = "application/x-ndjson";
+
     /**
      * Request attribute key; if non-null, then automatic GZIP compression of response stream is
      * suppressed. This is
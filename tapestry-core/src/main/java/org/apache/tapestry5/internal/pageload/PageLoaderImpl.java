@@ -244,7 +244,7 @@ public class PageLoaderImpl implements PageLoader, ComponentAssemblerSource
 
         final long startTime = System.nanoTime();
 
-        return tracker.invoke("Constructing instance of page class " + pageClassName, new Invokable<Page>()
+        return tracker.invoke(() -> "Constructing instance of page class " + pageClassName, new Invokable<Page>()
         {
             public Page invoke()
             {
@@ -305,7 +305,7 @@ public class PageLoaderImpl implements PageLoader, ComponentAssemblerSource
 
     private ComponentAssembler createAssembler(final String className, final ComponentResourceSelector selector)
     {
-        return tracker.invoke("Creating ComponentAssembler for " + className, new Invokable<ComponentAssembler>()
+        return tracker.invoke(() -> "Creating ComponentAssembler for " + className, new Invokable<ComponentAssembler>()
         {
             public ComponentAssembler invoke()
             {
@@ -0,0 +1,56 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.apache.tapestry5.internal.pageload;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Records the pages (and the locales they were requested in) that are actually used while the application runs,
+ * and writes them to a file at shutdown, so that the {@link org.apache.tapestry5.services.pageload.PagePreloader}
+ * can load exactly those pages on the next start.
+ *
+ * @see org.apache.tapestry5.SymbolConstants#PRELOADER_MANIFEST
+ * @since 5.10
+ */
+public interface PagePreloadManifest
+{
+    /**
+     * Returns true if a manifest file has been configured.
+     */
+    boolean isEnabled();
+
+    /**
+     * Returns the pages recorded in the manifest file by the previous run, in the order they were first used,
+     * or an empty map if there is no file.
+     */
+    Map<String, Set<Locale>> getRecordedPages();
+
+    /**
+     * Records that a page has been requested.
+     *
+     * @param pageName
+     *         canonical page name
+     * @param locale
+     *         locale of the request
+     */
+    void pageUsed(String pageName, Locale locale);
+
+    /**
+     * Writes the pages used during this run (plus those recorded by the previous run) to the manifest file.
+     * Invoked automatically when the registry shuts down.
+     */
+    void write();
+}
@@ -0,0 +1,54 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.apache.tapestry5.internal.pageload;
+
+import org.apache.tapestry5.ioc.services.ThreadLocale;
+import org.apache.tapestry5.services.ComponentEventRequestParameters;
+import org.apache.tapestry5.services.ComponentRequestFilter;
+import org.apache.tapestry5.services.ComponentRequestHandler;
+import org.apache.tapestry5.services.PageRenderRequestParameters;
+
+import java.io.IOException;
+
+/**
+ * Records the active page of each successfully handled request in the {@link PagePreloadManifest}.
+ *
+ * @since 5.10
+ */
+public class PagePreloadManifestFilter implements ComponentRequestFilter
+{
+    private final PagePreloadManifest manifest;
+
+    private final ThreadLocale threadLocale;
+
+    public PagePreloadManifestFilter(PagePreloadManifest manifest, ThreadLocale threadLocale)
+    {
+        this.manifest = manifest;
+        this.threadLocale = threadLocale;
+    }
+
+    public void handleComponentEvent(ComponentEventRequestParameters parameters, ComponentRequestHandler handler) throws IOException
+    {
+        handler.handleComponentEvent(parameters);
+
+        manifest.pageUsed(parameters.getActivePageName(), threadLocale.getLocale());
+    }
+
+    public void handlePageRender(PageRenderRequestParameters parameters, ComponentRequestHandler handler) throws IOException
+    {
+        handler.handlePageRender(parameters);
+
+        manifest.pageUsed(parameters.getLogicalPageName(), threadLocale.getLocale());
+    }
+}
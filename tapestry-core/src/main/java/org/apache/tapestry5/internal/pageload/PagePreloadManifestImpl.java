@@ -0,0 +1,172 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.apache.tapestry5.internal.pageload;
+
+import org.apache.tapestry5.SymbolConstants;
+import org.apache.tapestry5.commons.util.CollectionFactory;
+import org.apache.tapestry5.ioc.annotations.PostInjection;
+import org.apache.tapestry5.ioc.annotations.Symbol;
+import org.apache.tapestry5.ioc.services.RegistryShutdownHub;
+import org.apache.tapestry5.json.JSONArray;
+import org.apache.tapestry5.json.JSONObject;
+import org.apache.tapestry5.services.ComponentClassResolver;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Stores the manifest as a JSON object, mapping each page name to an array of locales (as language tags).
+ */
+public class PagePreloadManifestImpl implements PagePreloadManifest
+{
+    private final Path file;
+
+    private final ComponentClassResolver resolver;
+
+    private final Logger logger;
+
+    private final Map<String, Set<Locale>> recordedPages;
+
+    private final ConcurrentMap<String, Set<Locale>> usedPages = CollectionFactory.newConcurrentMap();
+
+    public PagePreloadManifestImpl(@Symbol(SymbolConstants.PRELOADER_MANIFEST) String manifestFile,
+                                   ComponentClassResolver resolver, Logger logger) throws IOException
+    {
+        this.resolver = resolver;
+        this.logger = logger;
+
+        file = manifestFile.isEmpty() ? null : Paths.get(manifestFile);
+
+        recordedPages = file != null && Files.exists(file)
+                ? read(file)
+                : Collections.emptyMap();
+    }
+
+    @PostInjection
+    public void listenForShutdown(RegistryShutdownHub hub)
+    {
+        if (file != null)
+        {
+            hub.addRegistryWillShutdownListener(this::write);
+        }
+    }
+
+    private static Map<String, Set<Locale>> read(Path file) throws IOException
+    {
+        JSONObject manifest = new JSONObject(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+
+        Map<String, Set<Locale>> result = new LinkedHashMap<>();
+
+        for (String pageName : manifest.keys())
+        {
+            Set<Locale> locales = new LinkedHashSet<>();
+
+            for (Object tag : manifest.getJSONArray(pageName))
+            {
+                locales.add(Locale.forLanguageTag((String) tag));
+            }
+
+            result.put(pageName, locales);
+        }
+
+        return Collections.unmodifiableMap(result);
+    }
+
+    public boolean isEnabled()
+    {
+        return file != null;
+    }
+
+    public Map<String, Set<Locale>> getRecordedPages()
+    {
+        return recordedPages;
+    }
+
+    public void pageUsed(String pageName, Locale locale)
+    {
+        Set<Locale> locales = usedPages.get(pageName);
+
+        if (locales == null)
+        {
+            locales = usedPages.computeIfAbsent(pageName, name -> ConcurrentHashMap.newKeySet());
+        }
+
+        locales.add(locale);
+    }
+
+    public void write()
+    {
+        if (file == null)
+        {
+            return;
+        }
+
+        // Pages that were preloaded but not requested during a short run are kept, so that the manifest doesn't
+        // shrink each time the application is restarted.
+
+        Map<String, Set<Locale>> pages = new LinkedHashMap<>();
+
+        recordedPages.forEach((pageName, locales) -> pages.put(pageName, new LinkedHashSet<>(locales)));
+        usedPages.forEach((pageName, locales) -> pages.computeIfAbsent(pageName, name -> new LinkedHashSet<>()).addAll(locales));
+
+        // Pages that have been renamed or removed since they were recorded are dropped.
+
+        pages.keySet().removeIf(pageName -> !resolver.isPageName(pageName));
+
+        JSONObject manifest = new JSONObject();
+
+        pages.forEach((pageName, locales) -> {
+            JSONArray tags = new JSONArray();
+
+            for (Locale locale : locales)
+            {
+                tags.add(locale.toLanguageTag());
+            }
+
+            manifest.put(pageName, tags);
+        });
+
+        try
+        {
+            Path parent = file.toAbsolutePath().getParent();
+
+            Files.createDirectories(parent);
+
+            // Write to a temporary file first, so that a crash while writing doesn't leave a truncated manifest.
+
+            Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+
+            Files.write(temp, manifest.toString(false).getBytes(StandardCharsets.UTF_8));
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+
+            logger.info("Wrote {} page names to page preload manifest {}.", pages.size(), file.toAbsolutePath());
+        } catch (IOException ex)
+        {
+            logger.error(String.format("Unable to write page preload manifest %s: %s", file.toAbsolutePath(), ex.getMessage()), ex);
+        }
+    }
+}
@@ -15,16 +15,31 @@ package org.apache.tapestry5.internal.pageload;
 import org.apache.tapestry5.SymbolConstants;
 import org.apache.tapestry5.commons.util.CollectionFactory;
 import org.apache.tapestry5.commons.util.ExceptionUtils;
+import org.apache.tapestry5.http.TapestryHttpSymbolConstants;
 import org.apache.tapestry5.ioc.OperationTracker;
 import org.apache.tapestry5.ioc.annotations.Symbol;
+import org.apache.tapestry5.ioc.services.PerthreadManager;
 import org.apache.tapestry5.ioc.services.ThreadLocale;
+import org.apache.tapestry5.services.ComponentClassResolver;
 import org.apache.tapestry5.services.ComponentSource;
 import org.apache.tapestry5.services.LocalizationSetter;
 import org.apache.tapestry5.services.pageload.PagePreloader;
 import org.slf4j.Logger;
 
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class PagePreloaderImpl implements PagePreloader
 {
@@ -36,21 +51,47 @@ public class PagePreloaderImpl implements PagePreloader
 
     private final ComponentSource componentSource;
 
+    private final ComponentClassResolver resolver;
+
     private final ThreadLocale threadLocale;
 
     private final LocalizationSetter localizationSetter;
 
+    private final PerthreadManager perthreadManager;
+
+    private final PagePreloadManifest manifest;
+
+    private final int threads;
+
+    private final boolean allLocales;
+
     public PagePreloaderImpl(Logger logger,
                              OperationTracker tracker,
                              ComponentSource componentSource, Collection<String> configuration,
+                             ComponentClassResolver resolver,
                              ThreadLocale threadLocale,
-                             LocalizationSetter localizationSetter)
+                             LocalizationSetter localizationSetter,
+                             PerthreadManager perthreadManager,
+                             PagePreloadManifest manifest,
+                             @Symbol(SymbolConstants.PRELOADER_THREADS) int threads,
+                             @Symbol(SymbolConstants.PRELOADER_ALL_LOCALES) boolean allLocales,
+                             @Symbol(TapestryHttpSymbolConstants.PRODUCTION_MODE) boolean productionMode,
+                             @Symbol(SymbolConstants.MULTIPLE_CLASSLOADERS) boolean multipleClassLoaders)
     {
         this.tracker = tracker;
         this.componentSource = componentSource;
+        this.resolver = resolver;
         this.logger = logger;
         this.threadLocale = threadLocale;
         this.localizationSetter = localizationSetter;
+        this.perthreadManager = perthreadManager;
+        this.manifest = manifest;
+        this.allLocales = allLocales;
+
+        // With multiple classloaders, PageSourceImpl loads the pages a page depends on before the page itself,
+        // creating their page classloader contexts in that order; that must not happen concurrently.
+
+        this.threads = multipleClassLoaders && !productionMode ? 1 : Math.max(1, threads);
 
         pageNames.addAll(configuration);
     }
@@ -58,30 +99,48 @@ public class PagePreloaderImpl implements PagePreloader
     @Override
     public void preloadPages()
     {
-        if (pageNames.isEmpty())
+        Map<String, Set<Locale>> pages = collectPages();
+
+        if (pages.isEmpty())
         {
             return;
         }
 
-        logger.info(String.format("Preloading %,d pages.", pageNames.size()));
+        // Loading the first locale of a page does most of the work (class transformation, template
+        // parsing, and so forth); loading it in another locale is relatively inexpensive. All pages are
+        // loaded once before any is loaded a second time, so that the threads don't wait on each other.
+
+        List<Runnable> firstLoads = CollectionFactory.newList();
+        List<Runnable> otherLoads = CollectionFactory.newList();
+
+        for (Map.Entry<String, Set<Locale>> entry : pages.entrySet())
+        {
+            Iterator<Locale> locales = entry.getValue().iterator();
+
+            firstLoads.add(preload(entry.getKey(), locales.next()));
+
+            while (locales.hasNext())
+            {
+                otherLoads.add(preload(entry.getKey(), locales.next()));
+            }
+        }
+
+        int total = firstLoads.size() + otherLoads.size();
 
-        threadLocale.setLocale(localizationSetter.getSupportedLocales().get(0));
+        logger.info(String.format("Preloading %,d pages (%,d page/locale combinations) using %d thread(s).",
+                pages.size(), total, threads));
 
         final long startNanos = System.nanoTime();
 
         try
         {
-            for (final String pageName : pageNames)
+            if (threads == 1)
             {
-                tracker.run(String.format("Preloading page '%s'.", pageName), new Runnable()
-                        {
-                            @Override
-                            public void run()
-                            {
-                                componentSource.getPage(pageName);
-                            }
-                        }
-                );
+                firstLoads.forEach(Runnable::run);
+                otherLoads.forEach(Runnable::run);
+            } else
+            {
+                runInParallel(firstLoads, otherLoads);
             }
         } catch (Exception ex)
         {
@@ -94,7 +153,124 @@ public class PagePreloaderImpl implements PagePreloader
         final double elapsedNanos = System.nanoTime() - startNanos;
 
         logger.info(String.format("Preloaded %,d pages in %.2f seconds.",
-                pageNames.size(),
+                total,
                 elapsedNanos * 10E-10d));
     }
+
+    /**
+     * Returns the pages to load, each with the locales to load it in.
+     */
+    private Map<String, Set<Locale>> collectPages()
+    {
+        Map<String, Set<Locale>> result = new LinkedHashMap<>();
+
+        List<Locale> supportedLocales = localizationSetter.getSupportedLocales();
+
+        List<Locale> locales = allLocales ? supportedLocales : supportedLocales.subList(0, 1);
+
+        for (String pageName : pageNames)
+        {
+            result.put(pageName, new LinkedHashSet<>(locales));
+        }
+
+        for (Map.Entry<String, Set<Locale>> entry : manifest.getRecordedPages().entrySet())
+        {
+            // The page may have been renamed or removed since the manifest was written.
+
+            if (!resolver.isPageName(entry.getKey()))
+            {
+                logger.info("Skipping page '{}' from the page preload manifest, as it no longer exists.", entry.getKey());
+
+                continue;
+            }
+
+            Set<Locale> pageLocales = result.computeIfAbsent(entry.getKey(), name -> new LinkedHashSet<>());
+
+            for (Locale locale : entry.getValue())
+            {
+                // The supported locales may have changed since the manifest was written.
+
+                if (supportedLocales.contains(locale))
+                {
+                    pageLocales.add(locale);
+                }
+            }
+
+            if (pageLocales.isEmpty())
+            {
+                result.remove(entry.getKey());
+            }
+        }
+
+        return result;
+    }
+
+    private Runnable preload(final String pageName, final Locale locale)
+    {
+        return () -> {
+            threadLocale.setLocale(locale);
+
+            tracker.run(() -> String.format("Preloading page '%s' (%s).", pageName, locale), () -> componentSource.getPage(pageName));
+        };
+    }
+
+    private void runInParallel(List<Runnable> firstLoads, List<Runnable> otherLoads) throws Exception
+    {
+        final AtomicInteger threadCount = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "tapestry-page-preloader-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // Once a page fails to load, the remaining pages are skipped.
+
+        final AtomicBoolean failed = new AtomicBoolean();
+
+        try
+        {
+            for (List<Runnable> loads : List.of(firstLoads, otherLoads))
+            {
+                List<Future<?>> futures = CollectionFactory.newList();
+
+                for (final Runnable load : loads)
+                {
+                    futures.add(executor.submit(() -> {
+                        if (failed.get())
+                        {
+                            return;
+                        }
+
+                        try
+                        {
+                            load.run();
+                        } catch (RuntimeException ex)
+                        {
+                            failed.set(true);
+
+                            throw ex;
+                        } finally
+                        {
+                            perthreadManager.cleanup();
+                        }
+                    }));
+                }
+
+                for (Future<?> future : futures)
+                {
+                    try
+                    {
+                        future.get();
+                    } catch (ExecutionException ex)
+                    {
+                        throw ex.getCause() instanceof Exception ? (Exception) ex.getCause() : ex;
+                    }
+                }
+            }
+        } finally
+        {
+            executor.shutdownNow();
+        }
+    }
 }
@@ -0,0 +1,404 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.apache.tapestry5.internal.parser;
+
+import org.apache.tapestry5.commons.Location;
+import org.apache.tapestry5.commons.Resource;
+import org.apache.tapestry5.commons.util.CollectionFactory;
+import org.apache.tapestry5.ioc.internal.util.LocationImpl;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes a parsed {@link ComponentTemplate} in a compact binary format, and reads it back without any XML parsing.
+ * Strings are written once and then referenced by index, and the locations (which always refer to the
+ * template's own resource) are written as line and column.
+ *
+ * @since 5.10
+ */
+public final class ComponentTemplateSerializer
+{
+    /**
+     * Identifies the format; changed whenever the format, or the tokens, change.
+     */
+    public static final int FORMAT_VERSION = 1;
+
+    private static final int NO_LOCATION = Integer.MIN_VALUE;
+
+    private static final TokenType[] TOKEN_TYPES = TokenType.values();
+
+    private ComponentTemplateSerializer()
+    {
+    }
+
+    public static void write(ComponentTemplate template, DataOutput output) throws IOException
+    {
+        new Writer(output).write(template);
+    }
+
+    /**
+     * Reads a template written by {@link #write(ComponentTemplate, DataOutput)}.
+     *
+     * @param resource
+     *         the template resource, used as the resource of the template and of all its locations
+     * @param input
+     *         from which the template is read
+     */
+    public static ComponentTemplate read(Resource resource, DataInput input) throws IOException
+    {
+        return new Reader(resource, input).read();
+    }
+
+    private static final class Writer
+    {
+        private final DataOutput output;
+
+        private final Map<String, Integer> strings = CollectionFactory.newMap();
+
+        Writer(DataOutput output)
+        {
+            this.output = output;
+        }
+
+        void write(ComponentTemplate template) throws IOException
+        {
+            output.writeBoolean(template.isExtension());
+            output.writeBoolean(template.usesStrictMixinParameters());
+
+            writeTokens(template.getTokens());
+
+            Map<String, Location> componentIds = template.getComponentIds();
+
+            output.writeInt(componentIds.size());
+
+            for (Map.Entry<String, Location> e : componentIds.entrySet())
+            {
+                writeString(e.getKey());
+                writeLocation(e.getValue());
+            }
+
+            Set<String> extensionPointIds = template.getExtensionPointIds();
+
+            output.writeInt(extensionPointIds.size());
+
+            for (String id : extensionPointIds)
+            {
+                writeString(id);
+                writeTokens(template.getExtensionPointTokens(id));
+            }
+        }
+
+        private void writeTokens(List<TemplateToken> tokens) throws IOException
+        {
+            output.writeInt(tokens.size());
+
+            for (TemplateToken token : tokens)
+            {
+                writeToken(token);
+            }
+        }
+
+        private void writeToken(TemplateToken token) throws IOException
+        {
+            output.writeByte(token.getTokenType().ordinal());
+
+            writeLocation(token.getLocation());
+
+            switch (token.getTokenType())
+            {
+                case ATTRIBUTE:
+                    AttributeToken attribute = (AttributeToken) token;
+                    writeString(attribute.namespaceURI);
+                    writeString(attribute.name);
+                    writeString(attribute.value);
+                    break;
+
+                case CDATA:
+                    writeString(((CDATAToken) token).content);
+                    break;
+
+                case COMMENT:
+                    writeString(((CommentToken) token).comment);
+                    break;
+
+                case START_COMPONENT:
+                    StartComponentToken component = (StartComponentToken) token;
+                    writeString(component.getElementName());
+                    writeString(component.getId());
+                    writeString(component.getComponentType());
+                    writeString(component.getMixins());
+                    break;
+
+                case START_ELEMENT:
+                    StartElementToken element = (StartElementToken) token;
+                    writeString(element.namespaceURI);
+                    writeString(element.name);
+                    break;
+
+                case TEXT:
+                    writeString(((TextToken) token).text);
+                    break;
+
+                case EXPANSION:
+                    writeString(((ExpansionToken) token).getExpression());
+                    break;
+
+                case PARAMETER:
+                    writeString(((ParameterToken) token).name);
+                    break;
+
+                case BLOCK:
+                    writeString(((BlockToken) token).getId());
+                    break;
+
+                case DTD:
+                    DTDToken dtd = (DTDToken) token;
+                    writeString(dtd.name);
+                    writeString(dtd.publicId);
+                    writeString(dtd.systemId);
+                    break;
+
+                case DEFINE_NAMESPACE_PREFIX:
+                    DefineNamespacePrefixToken prefix = (DefineNamespacePrefixToken) token;
+                    writeString(prefix.namespaceURI);
+                    writeString(prefix.namespacePrefix);
+                    break;
+
+                case EXTENSION_POINT:
+                    writeString(((ExtensionPointToken) token).getExtensionPointId());
+                    break;
+
+                default:
+                    // END_ELEMENT and BODY have no content
+                    break;
+            }
+        }
+
+        private void writeLocation(Location location) throws IOException
+        {
+            if (location == null)
+            {
+                output.writeInt(NO_LOCATION);
+                return;
+            }
+
+            output.writeInt(location.getLine());
+            output.writeInt(location.getColumn());
+        }
+
+        /**
+         * Writes -1 for null, the index of a string already written, or the next index followed by the
+         * string's UTF-8 bytes (unlike {@link DataOutput#writeUTF(String)}, this isn't limited to 64K).
+         */
+        private void writeString(String value) throws IOException
+        {
+            if (value == null)
+            {
+                output.writeInt(-1);
+                return;
+            }
+
+            Integer index = strings.get(value);
+
+            if (index != null)
+            {
+                output.writeInt(index);
+                return;
+            }
+
+            output.writeInt(strings.size());
+            strings.put(value, strings.size());
+
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+
+            output.writeInt(bytes.length);
+            output.write(bytes);
+        }
+    }
+
+    private static final class Reader
+    {
+        private final Resource resource;
+
+        private final DataInput input;
+
+        private final List<String> strings = CollectionFactory.newList();
+
+        /**
+         * Tokens on the same line share a location, as they do when the template is parsed.
+         */
+        private final Map<Long, Location> locations = CollectionFactory.newMap();
+
+        Reader(Resource resource, DataInput input)
+        {
+            this.resource = resource;
+            this.input = input;
+        }
+
+        ComponentTemplate read() throws IOException
+        {
+            boolean extension = input.readBoolean();
+            boolean strictMixinParameters = input.readBoolean();
+
+            List<TemplateToken> tokens = readTokens();
+
+            int count = input.readInt();
+
+            Map<String, Location> componentIds = CollectionFactory.newCaseInsensitiveMap();
+
+            for (int i = 0; i < count; i++)
+            {
+                String id = readString();
+
+                componentIds.put(id, readLocation());
+            }
+
+            count = input.readInt();
+
+            Map<String, List<TemplateToken>> overrides = count == 0 ? null : CollectionFactory.newMap();
+
+            for (int i = 0; i < count; i++)
+            {
+                String id = readString();
+
+                overrides.put(id, readTokens());
+            }
+
+            return new ComponentTemplateImpl(resource, tokens, componentIds, extension, strictMixinParameters, overrides);
+        }
+
+        private List<TemplateToken> readTokens() throws IOException
+        {
+            int count = input.readInt();
+
+            List<TemplateToken> result = CollectionFactory.newList();
+
+            for (int i = 0; i < count; i++)
+            {
+                result.add(readToken());
+            }
+
+            return result;
+        }
+
+        private TemplateToken readToken() throws IOException
+        {
+            TokenType type = TOKEN_TYPES[input.readUnsignedByte()];
+
+            Location location = readLocation();
+
+            switch (type)
+            {
+                case ATTRIBUTE:
+                    return new AttributeToken(readString(), readString(), readString(), location);
+
+                case CDATA:
+                    return new CDATAToken(readString(), location);
+
+                case COMMENT:
+                    return new CommentToken(readString(), location);
+
+                case END_ELEMENT:
+                    return new EndElementToken(location);
+
+                case START_COMPONENT:
+                    return new StartComponentToken(readString(), readString(), readString(), readString(), location);
+
+                case START_ELEMENT:
+                    return new StartElementToken(readString(), readString(), location);
+
+                case TEXT:
+                    return new TextToken(readString(), location);
+
+                case BODY:
+                    return new BodyToken(location);
+
+                case EXPANSION:
+                    return new ExpansionToken(readString(), location);
+
+                case PARAMETER:
+                    return new ParameterToken(readString(), location);
+
+                case BLOCK:
+                    return new BlockToken(readString(), location);
+
+                case DTD:
+                    return new DTDToken(readString(), readString(), readString(), location);
+
+                case DEFINE_NAMESPACE_PREFIX:
+                    return new DefineNamespacePrefixToken(readString(), readString(), location);
+
+                case EXTENSION_POINT:
+                    return new ExtensionPointToken(readString(), location);
+
+                default:
+                    throw new IOException(String.format("Unexpected token type %s.", type));
+            }
+        }
+
+        private Location readLocation() throws IOException
+        {
+            int line = input.readInt();
+
+            if (line == NO_LOCATION)
+            {
+                return null;
+            }
+
+            int column = input.readInt();
+
+            long key = ((long) line << 32) | (column & 0xffffffffL);
+
+            Location result = locations.get(key);
+
+            if (result == null)
+            {
+                result = new LocationImpl(resource, line, column);
+                locations.put(key, result);
+            }
+
+            return result;
+        }
+
+        private String readString() throws IOException
+        {
+            int index = input.readInt();
+
+            if (index == -1)
+            {
+                return null;
+            }
+
+            if (index < strings.size())
+            {
+                return strings.get(index);
+            }
+
+            byte[] bytes = new byte[input.readInt()];
+
+            input.readFully(bytes);
+
+            String result = new String(bytes, StandardCharsets.UTF_8);
+
+            strings.add(result);
+
+            return result;
+        }
+    }
+}
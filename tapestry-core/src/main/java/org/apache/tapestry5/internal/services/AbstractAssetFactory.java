@@ -19,11 +19,11 @@ import java.io.IOException;
 import org.apache.tapestry5.Asset;
 import org.apache.tapestry5.commons.Resource;
 import org.apache.tapestry5.commons.util.ExceptionUtils;
-import org.apache.tapestry5.http.services.ResponseCompressionAnalyzer;
 import org.apache.tapestry5.internal.services.assets.ResourceChangeTracker;
 import org.apache.tapestry5.ioc.internal.util.InternalUtils;
 import org.apache.tapestry5.services.AssetFactory;
 import org.apache.tapestry5.services.assets.AssetPathConstructor;
+import org.apache.tapestry5.services.assets.CompressionCodecSource;
 import org.apache.tapestry5.services.assets.StreamableResource;
 import org.apache.tapestry5.services.assets.StreamableResourceProcessing;
 import org.apache.tapestry5.services.assets.StreamableResourceSource;
@@ -32,7 +32,7 @@ public abstract class AbstractAssetFactory implements AssetFactory
 {
     private final AssetPathConstructor assetPathConstructor;
 
-    private final ResponseCompressionAnalyzer compressionAnalyzer;
+    private final CompressionCodecSource codecSource;
 
     private final StreamableResourceSource streamableResourceSource;
 
@@ -40,13 +40,13 @@ public abstract class AbstractAssetFactory implements AssetFactory
 
     private final Resource rootResource;
 
-    public AbstractAssetFactory(ResponseCompressionAnalyzer compressionAnalyzer,
+    public AbstractAssetFactory(CompressionCodecSource codecSource,
                                 ResourceChangeTracker resourceChangeTracker,
                                 StreamableResourceSource streamableResourceSource,
                                 AssetPathConstructor assetPathConstructor,
                                 Resource rootResource)
     {
-        this.compressionAnalyzer = compressionAnalyzer;
+        this.codecSource = codecSource;
         this.resourceChangeTracker = resourceChangeTracker;
         this.streamableResourceSource = streamableResourceSource;
         this.assetPathConstructor = assetPathConstructor;
@@ -55,7 +55,7 @@ public abstract class AbstractAssetFactory implements AssetFactory
 
     protected boolean isCompressable(StreamableResource resource)
     {
-        return compressionAnalyzer.isGZipEnabled(resource.getContentType());
+        return codecSource.isCompressionEnabled(resource.getContentType());
     }
 
     /**
@@ -0,0 +1,42 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.apache.tapestry5.internal.services;
+
+import org.apache.tapestry5.http.services.AsyncRequestSupport;
+import org.apache.tapestry5.http.services.RequestGlobals;
+import org.apache.tapestry5.json.JSONObject;
+import org.apache.tapestry5.services.Ajax;
+import org.apache.tapestry5.services.ComponentEventResultProcessor;
+import org.apache.tapestry5.services.RequestExceptionHandler;
+
+/**
+ * A {@link CompletionStageResultProcessor}, used for Ajax requests; a null value sends an empty JSON reply.
+ *
+ * @since 5.10
+ */
+public class AjaxCompletionStageResultProcessor extends CompletionStageResultProcessor
+{
+    public AjaxCompletionStageResultProcessor(@Ajax ComponentEventResultProcessor masterProcessor,
+                                              AsyncRequestSupport asyncRequestSupport,
+                                              RequestExceptionHandler requestExceptionHandler,
+                                              RequestGlobals requestGlobals)
+    {
+        super(masterProcessor, asyncRequestSupport, requestExceptionHandler, requestGlobals);
+    }
+
+    @Override
+    protected Object defaultResult()
+    {
+        return new JSONObject();
+    }
+}
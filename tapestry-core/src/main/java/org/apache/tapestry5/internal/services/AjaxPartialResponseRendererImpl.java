@@ -24,11 +24,11 @@ import org.apache.tapestry5.ioc.IOOperation;
 import org.apache.tapestry5.ioc.annotations.Inject;
 import org.apache.tapestry5.ioc.annotations.Symbol;
 import org.apache.tapestry5.json.JSONObject;
+import org.apache.tapestry5.json.JSONWriter;
 import org.apache.tapestry5.services.MarkupWriterFactory;
 import org.apache.tapestry5.services.PartialMarkupRenderer;
 
 import java.io.IOException;
-import java.io.PrintWriter;
 
 public class AjaxPartialResponseRendererImpl implements AjaxPartialResponseRenderer
 {
@@ -93,11 +93,9 @@ public class AjaxPartialResponseRendererImpl implements AjaxPartialResponseRende
 
                 partialMarkupRenderer.renderMarkup(writer, reply);
 
-                PrintWriter pw = response.getPrintWriter(contentType.toString());
+                JSONWriter jsonWriter = new JSONWriter(response.getPrintWriter(contentType.toString()), compactJSON);
 
-                reply.print(pw, compactJSON);
-
-                pw.close();
+                jsonWriter.value(reply).close();
 
                 return null;
             }
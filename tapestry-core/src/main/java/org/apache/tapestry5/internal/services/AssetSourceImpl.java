@@ -167,7 +167,7 @@ public class AssetSourceImpl extends LockSupport implements AssetSource
 
         assert InternalUtils.isNonBlank(path);
 
-        return tracker.invoke(String.format("Resolving '%s' for component %s", path, resources.getCompleteId()),
+        return tracker.invoke(() -> String.format("Resolving '%s' for component %s", path, resources.getCompleteId()),
                 new Invokable<Asset>()
                 {
                     public Asset invoke()
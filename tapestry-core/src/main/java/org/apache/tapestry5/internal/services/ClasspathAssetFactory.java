@@ -16,7 +16,6 @@ package org.apache.tapestry5.internal.services;
 
 import org.apache.tapestry5.Asset;
 import org.apache.tapestry5.commons.Resource;
-import org.apache.tapestry5.http.services.ResponseCompressionAnalyzer;
 import org.apache.tapestry5.internal.services.assets.ResourceChangeTracker;
 import org.apache.tapestry5.ioc.annotations.Marker;
 import org.apache.tapestry5.ioc.internal.util.ClasspathResource;
@@ -24,6 +23,7 @@ import org.apache.tapestry5.services.AssetAlias;
 import org.apache.tapestry5.services.ClasspathAssetAliasManager;
 import org.apache.tapestry5.services.ClasspathProvider;
 import org.apache.tapestry5.services.assets.AssetPathConstructor;
+import org.apache.tapestry5.services.assets.CompressionCodecSource;
 import org.apache.tapestry5.services.assets.StreamableResourceSource;
 
 /**
@@ -36,13 +36,13 @@ public class ClasspathAssetFactory extends AbstractAssetFactory
 {
     private final ClasspathAssetAliasManager aliasManager;
 
-    public ClasspathAssetFactory(ResponseCompressionAnalyzer compressionAnalyzer,
+    public ClasspathAssetFactory(CompressionCodecSource codecSource,
                                  ResourceChangeTracker resourceChangeTracker,
                                  StreamableResourceSource streamableResourceSource,
                                  AssetPathConstructor assetPathConstructor,
                                  ClasspathAssetAliasManager aliasManager)
     {
-        super(compressionAnalyzer, resourceChangeTracker, streamableResourceSource, assetPathConstructor,
+        super(codecSource, resourceChangeTracker, streamableResourceSource, assetPathConstructor,
                 new ClasspathResource(""));
 
         this.aliasManager = aliasManager;
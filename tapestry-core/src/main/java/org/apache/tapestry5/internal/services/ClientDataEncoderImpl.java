@@ -19,6 +19,7 @@ import org.apache.tapestry5.SymbolConstants;
 import org.apache.tapestry5.alerts.AlertManager;
 import org.apache.tapestry5.internal.TapestryInternalUtils;
 import org.apache.tapestry5.internal.util.Base64InputStream;
+import org.apache.tapestry5.internal.util.Base64OutputStream;
 import org.apache.tapestry5.internal.util.MacOutputStream;
 import org.apache.tapestry5.ioc.annotations.Symbol;
 import org.apache.tapestry5.services.ClientDataEncoder;
@@ -95,6 +96,49 @@ public class ClientDataEncoderImpl implements ClientDataEncoder
         // The clientData is Base64 that's been gzip'ed (i.e., this matches
         // what ClientDataSinkImpl does).
 
+        try
+        {
+            Base64InputStream b64in = validatedStream(clientData);
+
+            BufferedInputStream buffered = new BufferedInputStream(new GZIPInputStream(b64in));
+
+            return new ObjectInputStream(buffered);
+        } catch (IOException ex)
+        {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    public String encodeBytes(byte[] data)
+    {
+        try
+        {
+            MacOutputStream macOs = MacOutputStream.streamFor(hmacKey);
+
+            macOs.write(data);
+            macOs.close();
+
+            Base64OutputStream base64 = new Base64OutputStream();
+
+            base64.write(data);
+
+            return macOs.getResult() + ":" + base64.toBase64();
+        } catch (IOException ex)
+        {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    public byte[] decodeBytes(String clientData) throws IOException
+    {
+        return validatedStream(clientData).readAllBytes();
+    }
+
+    /**
+     * Returns a stream of the decoded client data, after validating its HMAC code.
+     */
+    private Base64InputStream validatedStream(String clientData) throws IOException
+    {
         int colonx = clientData.indexOf(':');
 
         if (colonx < 0)
@@ -108,23 +152,15 @@ public class ClientDataEncoderImpl implements ClientDataEncoder
 
         String clientStream = clientData.substring(colonx + 1);
 
-        try
-        {
-            Base64InputStream b64in = new Base64InputStream(clientStream);
+        Base64InputStream b64in = new Base64InputStream(clientStream);
 
-            validateHMAC(storedHmacResult, b64in);
+        validateHMAC(storedHmacResult, b64in);
 
-            // After reading it once to validate, reset it for the actual read (which includes the GZip decompression).
+        // After reading it once to validate, reset it for the actual read.
 
-            b64in.reset();
+        b64in.reset();
 
-            BufferedInputStream buffered = new BufferedInputStream(new GZIPInputStream(b64in));
-
-            return new ObjectInputStream(buffered);
-        } catch (IOException ex)
-        {
-            throw new RuntimeException(ex);
-        }
+        return b64in;
     }
 
     private void validateHMAC(String storedHmacResult, Base64InputStream b64in) throws IOException
@@ -0,0 +1,90 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.apache.tapestry5.internal.services;
+
+import org.apache.tapestry5.http.services.AsyncRequestSupport;
+import org.apache.tapestry5.http.services.RequestGlobals;
+import org.apache.tapestry5.ioc.annotations.Primary;
+import org.apache.tapestry5.services.ComponentEventResultProcessor;
+import org.apache.tapestry5.services.RequestExceptionHandler;
+import org.apache.tapestry5.services.Traditional;
+
+import java.io.IOException;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Handles a {@link CompletionStage} returned from an event handler method. When the servlet container supports it,
+ * the request is {@linkplain AsyncRequestSupport#suspend(CompletionStage,
+ * org.apache.tapestry5.http.services.AsyncContinuation) suspended} so that no thread is held while the stage
+ * completes; its value is then processed as if it had been returned from the event handler method (a null value
+ * redirects to the active page). A failure of the stage is handled by the {@link RequestExceptionHandler}. Otherwise,
+ * the current thread waits for the stage to complete.
+ *
+ * @see AjaxCompletionStageResultProcessor
+ * @since 5.10
+ */
+@SuppressWarnings("unchecked")
+public class CompletionStageResultProcessor implements ComponentEventResultProcessor<CompletionStage<?>>
+{
+    private final ComponentEventResultProcessor masterProcessor;
+
+    private final AsyncRequestSupport asyncRequestSupport;
+
+    private final RequestExceptionHandler requestExceptionHandler;
+
+    private final RequestGlobals requestGlobals;
+
+    public CompletionStageResultProcessor(@Traditional @Primary ComponentEventResultProcessor masterProcessor,
+                                          AsyncRequestSupport asyncRequestSupport,
+                                          RequestExceptionHandler requestExceptionHandler,
+                                          RequestGlobals requestGlobals)
+    {
+        this.masterProcessor = masterProcessor;
+        this.asyncRequestSupport = asyncRequestSupport;
+        this.requestExceptionHandler = requestExceptionHandler;
+        this.requestGlobals = requestGlobals;
+    }
+
+    public void processResultValue(CompletionStage<?> value) throws IOException
+    {
+        if (!asyncRequestSupport.isAsyncSupported())
+        {
+            process(value.toCompletableFuture().join());
+
+            return;
+        }
+
+        asyncRequestSupport.suspend(value, (result, failure) -> {
+            if (failure != null)
+            {
+                requestExceptionHandler.handleRequestException(failure);
+            } else
+            {
+                process(result);
+            }
+        });
+    }
+
+    private void process(Object result) throws IOException
+    {
+        masterProcessor.processResultValue(result == null ? defaultResult() : result);
+    }
+
+    /**
+     * Returns the value to process when the stage completes with null.
+     */
+    protected Object defaultResult()
+    {
+        return requestGlobals.getActivePageName();
+    }
+}
@@ -0,0 +1,603 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.apache.tapestry5.internal.services;
+
+import org.apache.tapestry5.ComponentAction;
+import org.apache.tapestry5.SymbolConstants;
+import org.apache.tapestry5.commons.util.CollectionFactory;
+import org.apache.tapestry5.ioc.annotations.Symbol;
+import org.apache.tapestry5.services.ClientDataEncoder;
+import org.apache.tapestry5.services.ClientDataSink;
+import org.apache.tapestry5.services.ComponentActionCodec;
+import org.apache.tapestry5.services.ComponentActionSerializer;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInput;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutput;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.ObjectStreamException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+
+/**
+ * The compact format is a marker byte followed by the length of the actions, the actions, and then (only if needed) a
+ * single Java serialization stream holding every object written by the actions; all but the marker byte are deflated
+ * when that makes the data smaller. Each action is written as its component id,
+ * a flags byte, its class name, and then whatever its {@link ComponentActionSerializer} writes; component ids and
+ * class names are written in full the first time, then by index. Actions without a serializer are written to the
+ * Java serialization stream as a whole.
+ *
+ * Data from a {@link ClientDataSink} starts with the GZip header instead of the marker byte, and is decoded as in
+ * earlier releases.
+ */
+public class ComponentActionCodecImpl implements ComponentActionCodec
+{
+    /**
+     * First byte of the compact format; GZip data always starts with 0x1f.
+     */
+    static final byte FORMAT = 'T', DEFLATED_FORMAT = 'Z';
+
+    /**
+     * Smaller data is never deflated.
+     */
+    private static final int DEFLATE_THRESHOLD = 256;
+
+    private static final int CANCEL = 1;
+
+    private static final int SERIALIZED = 2;
+
+    private final ClientDataEncoder clientDataEncoder;
+
+    private final Map<String, ComponentActionSerializer> serializers;
+
+    private final boolean compact;
+
+    public ComponentActionCodecImpl(ClientDataEncoder clientDataEncoder,
+                                    Map<String, ComponentActionSerializer> serializers,
+                                    @Symbol(SymbolConstants.COMPACT_FORM_DATA)
+                                    boolean compact)
+    {
+        this.clientDataEncoder = clientDataEncoder;
+        this.serializers = serializers;
+        this.compact = compact;
+    }
+
+    public Encoder createEncoder()
+    {
+        return compact ? new CompactEncoder() : new SerializingEncoder(clientDataEncoder.createSink());
+    }
+
+    public Decoder createDecoder(String clientData) throws IOException
+    {
+        byte[] data;
+
+        try
+        {
+            data = clientDataEncoder.decodeBytes(clientData);
+        } catch (ObjectStreamException ex)
+        {
+            // Serialized data, from a ClientDataEncoder that relies on the default implementation of decodeBytes().
+
+            return new SerializedDecoder(clientDataEncoder.decodeClientData(clientData));
+        }
+
+        if (data.length > 0 && data[0] == FORMAT)
+        {
+            return new CompactDecoder(Arrays.copyOfRange(data, 1, data.length));
+        }
+
+        if (data.length > 0 && data[0] == DEFLATED_FORMAT)
+        {
+            return new CompactDecoder(inflate(data));
+        }
+
+        return new SerializedDecoder(new GZIPInputStream(new ByteArrayInputStream(data)));
+    }
+
+    private static byte[] deflate(byte[] body)
+    {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+
+        try
+        {
+            deflater.setInput(body);
+            deflater.finish();
+
+            ByteArrayOutputStream bos = new ByteArrayOutputStream(body.length / 2 + 1);
+
+            bos.write(DEFLATED_FORMAT);
+
+            byte[] buffer = new byte[4096];
+
+            while (!deflater.finished())
+            {
+                bos.write(buffer, 0, deflater.deflate(buffer));
+            }
+
+            return bos.toByteArray();
+        } finally
+        {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] data) throws IOException
+    {
+        Inflater inflater = new Inflater(true);
+
+        try
+        {
+            inflater.setInput(data, 1, data.length - 1);
+
+            ByteArrayOutputStream bos = new ByteArrayOutputStream(data.length * 3);
+
+            byte[] buffer = new byte[4096];
+
+            while (!inflater.finished())
+            {
+                int count = inflater.inflate(buffer);
+
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+                {
+                    throw new IOException("Client data is truncated.");
+                }
+
+                bos.write(buffer, 0, count);
+            }
+
+            return bos.toByteArray();
+        } catch (DataFormatException ex)
+        {
+            throw new IOException(ex);
+        } finally
+        {
+            inflater.end();
+        }
+    }
+
+    private static void writeLength(DataOutput output, int value) throws IOException
+    {
+        // Unsigned variable-length integer: seven bits per byte, high bit set on all but the last byte.
+
+        while ((value & ~0x7f) != 0)
+        {
+            output.writeByte((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+
+        output.writeByte(value);
+    }
+
+    private static int readLength(DataInput input) throws IOException
+    {
+        int result = 0;
+
+        for (int shift = 0; shift < 32; shift += 7)
+        {
+            int b = input.readUnsignedByte();
+
+            result |= (b & 0x7f) << shift;
+
+            if ((b & 0x80) == 0)
+            {
+                return result;
+            }
+        }
+
+        throw new IOException("Malformed length in client data.");
+    }
+
+    /**
+     * Resolves classes using the class loader of the component whose action is being read, as component classes
+     * may not be visible from this class's loader.
+     */
+    private static final class ComponentObjectInputStream extends ObjectInputStream
+    {
+        private ClassLoader loader;
+
+        ComponentObjectInputStream(InputStream in) throws IOException
+        {
+            super(in);
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException
+        {
+            if (loader != null)
+            {
+                try
+                {
+                    return Class.forName(desc.getName(), false, loader);
+                } catch (ClassNotFoundException ex)
+                {
+                    // Fall through to the default, which handles primitive types.
+                }
+            }
+
+            return super.resolveClass(desc);
+        }
+    }
+
+    /**
+     * The format produced by earlier releases (and when the compact format is disabled).
+     */
+    private static final class SerializingEncoder implements Encoder
+    {
+        private final ClientDataSink sink;
+
+        private final ObjectOutputStream stream;
+
+        SerializingEncoder(ClientDataSink sink)
+        {
+            this.sink = sink;
+            this.stream = sink.getObjectOutputStream();
+        }
+
+        public void write(String componentId, boolean cancel, ComponentAction<?> action) throws IOException
+        {
+            stream.writeUTF(componentId);
+            stream.writeBoolean(cancel);
+            stream.writeObject(action);
+        }
+
+        public String getClientData()
+        {
+            return sink.getClientData();
+        }
+    }
+
+    private static final class SerializedDecoder implements Decoder
+    {
+        private final InputStream input;
+
+        private ObjectInputStream stream;
+
+        private String componentId;
+
+        private boolean cancel;
+
+        SerializedDecoder(InputStream input)
+        {
+            this.input = input;
+        }
+
+        /**
+         * Reads from a stream provided by the {@link ClientDataEncoder}, which resolves classes in its own way.
+         */
+        SerializedDecoder(ObjectInputStream stream)
+        {
+            this.input = null;
+            this.stream = stream;
+        }
+
+        public boolean next() throws IOException
+        {
+            try
+            {
+                if (stream == null)
+                {
+                    stream = new ComponentObjectInputStream(new BufferedInputStream(input));
+                }
+
+                componentId = stream.readUTF();
+                cancel = stream.readBoolean();
+
+                return true;
+            } catch (EOFException ex)
+            {
+                return false;
+            }
+        }
+
+        public String getComponentId()
+        {
+            return componentId;
+        }
+
+        public boolean isCancel()
+        {
+            return cancel;
+        }
+
+        public ComponentAction<?> readAction(ClassLoader loader) throws IOException, ClassNotFoundException
+        {
+            if (stream instanceof ComponentObjectInputStream)
+            {
+                ((ComponentObjectInputStream) stream).loader = loader;
+            }
+
+            return (ComponentAction<?>) stream.readObject();
+        }
+    }
+
+    /**
+     * Primitive values go to the actions, objects to a separate Java serialization stream, only created
+     * if needed.
+     */
+    private static final class CompactOutput extends DataOutputStream implements ObjectOutput
+    {
+        private final ByteArrayOutputStream objects = new ByteArrayOutputStream();
+
+        private ObjectOutputStream objectStream;
+
+        CompactOutput(OutputStream actions)
+        {
+            super(actions);
+        }
+
+        public void writeObject(Object obj) throws IOException
+        {
+            if (objectStream == null)
+            {
+                objectStream = new ObjectOutputStream(objects);
+            }
+
+            objectStream.writeObject(obj);
+        }
+
+        byte[] getObjects() throws IOException
+        {
+            if (objectStream == null)
+            {
+                return new byte[0];
+            }
+
+            objectStream.close();
+
+            return objects.toByteArray();
+        }
+    }
+
+    private final class CompactEncoder implements Encoder
+    {
+        private final ByteArrayOutputStream actions = new ByteArrayOutputStream();
+
+        private final CompactOutput output = new CompactOutput(actions);
+
+        private final Map<String, Integer> strings = CollectionFactory.newMap();
+
+        private String clientData;
+
+        public void write(String componentId, boolean cancel, ComponentAction<?> action) throws IOException
+        {
+            if (clientData != null)
+            {
+                throw new IllegalStateException("Component actions have already been encoded.");
+            }
+
+            String className = action.getClass().getName();
+
+            ComponentActionSerializer serializer = serializers.get(className);
+
+            writeString(componentId);
+
+            output.writeByte((cancel ? CANCEL : 0) | (serializer == null ? SERIALIZED : 0));
+
+            if (serializer == null)
+            {
+                output.writeObject(action);
+                return;
+            }
+
+            writeString(className);
+
+            serializer.write(action, output);
+        }
+
+        private void writeString(String value) throws IOException
+        {
+            Integer index = strings.get(value);
+
+            if (index != null)
+            {
+                writeLength(output, index + 1);
+                return;
+            }
+
+            strings.put(value, strings.size());
+
+            writeLength(output, 0);
+            output.writeUTF(value);
+        }
+
+        public String getClientData()
+        {
+            if (clientData == null)
+            {
+                try
+                {
+                    output.flush();
+
+                    byte[] objects = output.getObjects();
+
+                    ByteArrayOutputStream bos = new ByteArrayOutputStream(actions.size() + objects.length + 6);
+                    DataOutputStream data = new DataOutputStream(bos);
+
+                    data.writeByte(FORMAT);
+                    writeLength(data, actions.size());
+                    actions.writeTo(data);
+                    data.write(objects);
+                    data.flush();
+
+                    byte[] result = bos.toByteArray();
+
+                    if (result.length > DEFLATE_THRESHOLD)
+                    {
+                        byte[] deflated = deflate(Arrays.copyOfRange(result, 1, result.length));
+
+                        if (deflated.length < result.length)
+                        {
+                            result = deflated;
+                        }
+                    }
+
+                    clientData = clientDataEncoder.encodeBytes(result);
+                } catch (IOException ex)
+                {
+                    throw new RuntimeException(ex);
+                }
+            }
+
+            return clientData;
+        }
+    }
+
+    private static final class CompactInput extends DataInputStream implements ObjectInput
+    {
+        private final byte[] data;
+
+        private final int objectsOffset;
+
+        private ComponentObjectInputStream objectStream;
+
+        private ClassLoader loader;
+
+        CompactInput(byte[] data, int actionsOffset, int actionsLength)
+        {
+            super(new ByteArrayInputStream(data, actionsOffset, actionsLength));
+
+            this.data = data;
+            this.objectsOffset = actionsOffset + actionsLength;
+        }
+
+        public Object readObject() throws ClassNotFoundException, IOException
+        {
+            if (objectStream == null)
+            {
+                objectStream = new ComponentObjectInputStream(
+                        new ByteArrayInputStream(data, objectsOffset, data.length - objectsOffset));
+            }
+
+            objectStream.loader = loader;
+
+            return objectStream.readObject();
+        }
+    }
+
+    private final class CompactDecoder implements Decoder
+    {
+        private final CompactInput input;
+
+        private final List<String> strings = CollectionFactory.newList();
+
+        private String componentId;
+
+        private int flags;
+
+        private String className;
+
+        /**
+         * @param data
+         *         the data following the marker byte, inflated if necessary
+         */
+        CompactDecoder(byte[] data) throws IOException
+        {
+            DataInputStream header = new DataInputStream(new ByteArrayInputStream(data));
+
+            int actionsLength = readLength(header);
+
+            int actionsOffset = data.length - header.available();
+
+            if (actionsLength > header.available())
+            {
+                throw new IOException("Client data is truncated.");
+            }
+
+            input = new CompactInput(data, actionsOffset, actionsLength);
+        }
+
+        public boolean next() throws IOException
+        {
+            if (input.available() == 0)
+            {
+                return false;
+            }
+
+            componentId = readString();
+            flags = input.readUnsignedByte();
+            className = (flags & SERIALIZED) == 0 ? readString() : null;
+
+            return true;
+        }
+
+        private String readString() throws IOException
+        {
+            int index = readLength(input);
+
+            if (index == 0)
+            {
+                String value = input.readUTF();
+
+                strings.add(value);
+
+                return value;
+            }
+
+            if (index > strings.size())
+            {
+                throw new IOException("Malformed string reference in client data.");
+            }
+
+            return strings.get(index - 1);
+        }
+
+        public String getComponentId()
+        {
+            return componentId;
+        }
+
+        public boolean isCancel()
+        {
+            return (flags & CANCEL) != 0;
+        }
+
+        public ComponentAction<?> readAction(ClassLoader loader) throws IOException, ClassNotFoundException
+        {
+            input.loader = loader;
+
+            if (className == null)
+            {
+                return (ComponentAction<?>) input.readObject();
+            }
+
+            ComponentActionSerializer serializer = serializers.get(className);
+
+            if (serializer == null)
+            {
+                throw new IOException(String.format("No ComponentActionSerializer has been contributed for %s.", className));
+            }
+
+            Class<?> actionType = Class.forName(className, false,
+                    loader == null ? Thread.currentThread().getContextClassLoader() : loader);
+
+            return serializer.read(actionType, input);
+        }
+    }
+}
@@ -32,6 +32,7 @@ import org.apache.tapestry5.ioc.internal.util.InternalUtils;
 import org.apache.tapestry5.ioc.services.ClassNameLocator;
 import org.apache.tapestry5.services.ComponentClassResolver;
 import org.apache.tapestry5.services.LibraryMapping;
+import org.apache.tapestry5.services.PageNameTrie;
 import org.apache.tapestry5.services.transform.ControlledPackageType;
 import org.slf4j.Logger;
 
@@ -124,6 +125,8 @@ public class ComponentClassResolverImpl implements ComponentClassResolver, Inval
 
         private boolean invalid = false;
 
+        private PageNameTrie pageNameTrie;
+
         private void rebuild(String pathPrefix, String rootPackage)
         {
             fill(pathPrefix, rootPackage, InternalConstants.PAGES_SUBPACKAGE, pageToClassName, pageToClassNames);
@@ -433,6 +436,8 @@ public class ComponentClassResolverImpl implements ComponentClassResolver, Inval
 
         newData.validate();
 
+        newData.pageNameTrie = buildPageNameTrie(newData.pageNameToCanonicalPageName);
+
         showChanges("pages", data.pageToClassName, newData.pageToClassName);
         showChanges("components", data.componentToClassName, newData.componentToClassName);
         showChanges("mixins", data.mixinToClassName, newData.mixinToClassName);
@@ -444,6 +449,34 @@ public class ComponentClassResolverImpl implements ComponentClassResolver, Inval
         return data;
     }
 
+    /**
+     * Builds the trie from the page names, adding the pages of the core library without their prefix (as with
+     * {@link #locate(String, Map)}) unless the same name is used by another page.
+     */
+    private static PageNameTrie buildPageNameTrie(Map<String, String> pageNameToCanonicalPageName)
+    {
+        Map<String, String> pageNames = CollectionFactory.newCaseInsensitiveMap();
+
+        pageNames.putAll(pageNameToCanonicalPageName);
+
+        for (Map.Entry<String, String> entry : pageNameToCanonicalPageName.entrySet())
+        {
+            String name = entry.getKey();
+
+            if (name.startsWith(CORE_LIBRARY_PREFIX))
+            {
+                String unprefixed = name.substring(CORE_LIBRARY_PREFIX.length());
+
+                if (!pageNameToCanonicalPageName.containsKey(unprefixed))
+                {
+                    pageNames.put(unprefixed, entry.getValue());
+                }
+            }
+        }
+
+        return new PageNameTrie(pageNames);
+    }
+
     private static int countUnique(Map<String, String> map)
     {
         return CollectionFactory.newSet(map.values()).size();
@@ -553,6 +586,11 @@ public class ComponentClassResolverImpl implements ComponentClassResolver, Inval
         return locate(pageName, getData().pageToClassName) != null;
     }
 
+    public PageNameTrie getPageNameTrie()
+    {
+        return getData().pageNameTrie;
+    }
+
     public boolean isPage(final String pageClassName)
     {
         return locate(pageClassName, getData().pageClassNameToLogicalName) != null;
@@ -31,6 +31,7 @@ import org.apache.tapestry5.services.ComponentEventLinkEncoder;
 import org.apache.tapestry5.services.ComponentEventRequestParameters;
 import org.apache.tapestry5.services.ContextPathEncoder;
 import org.apache.tapestry5.services.LocalizationSetter;
+import org.apache.tapestry5.services.PageNameTrie;
 import org.apache.tapestry5.services.MetaDataLocator;
 import org.apache.tapestry5.services.PageRenderRequestParameters;
 import org.apache.tapestry5.services.PersistentLocale;
@@ -269,40 +270,49 @@ public class ComponentEventLinkEncoderImpl implements ComponentEventLinkEncoder
     {
         String explicitLocale = null;
 
-        // Split the path around slashes into a mutable list of terms, which will be consumed term by term.
-
-        String requestPath = request.getPath();
+        String path = request.getPath();
 
         if (applicationFolderPrefix != null)
         {
-            requestPath = removeApplicationPrefix(requestPath);
+            path = removeApplicationPrefix(path);
         }
 
-        List<String> path = splitPath(requestPath);
+        // The path is scanned term by term, in place; only paths with empty terms (doubled or trailing slashes)
+        // are rebuilt first.
 
+        if (path.indexOf("//") >= 0 || (path.length() > 1 && path.endsWith("/")))
+        {
+            path = SLASH + joinPath(splitPath(path));
+        }
 
+        int start = path.startsWith("/") ? 1 : 0;
+        int length = path.length();
 
-        if (path.isEmpty())
+        if (start == length)
         {
             return null;
         }
 
         // Next up: the locale (which is optional)
 
-        String potentialLocale = path.get(0);
+        int slashx = path.indexOf(SLASH, start);
+
+        String potentialLocale = path.substring(start, slashx < 0 ? length : slashx);
 
         if (localizationSetter.isSupportedLocaleName(potentialLocale))
         {
             explicitLocale = potentialLocale;
-            path.remove(0);
+            start = slashx < 0 ? length : slashx + 1;
         }
 
-        StringBuilder pageName = new StringBuilder(100);
-        String sep = "";
+        int termStart = start;
 
-        while (!path.isEmpty())
+        while (termStart < length)
         {
-            String name = path.remove(0);
+            slashx = path.indexOf(SLASH, termStart);
+
+            int termEnd = slashx < 0 ? length : slashx;
+            int nameEnd = termEnd;
             String eventType = EventConstants.ACTION;
             String nestedComponentId = "";
 
@@ -310,29 +320,38 @@ public class ComponentEventLinkEncoderImpl implements ComponentEventLinkEncoder
 
             // First, look for an explicit action name.
 
-            int colonx = name.lastIndexOf(':');
+            int colonx = path.lastIndexOf(':', termEnd - 1);
 
-            if (colonx > 0)
+            if (colonx > termStart)
             {
                 found = true;
-                eventType = name.substring(colonx + 1);
-                name = name.substring(0, colonx);
+                eventType = path.substring(colonx + 1, termEnd);
+                nameEnd = colonx;
             }
 
-            int dotx = name.indexOf('.');
+            int dotx = path.indexOf('.', termStart);
 
-            if (dotx > 0)
+            if (dotx > termStart && dotx < nameEnd)
             {
                 found = true;
-                nestedComponentId = name.substring(dotx + 1);
-                name = name.substring(0, dotx);
+                nestedComponentId = path.substring(dotx + 1, nameEnd);
+                nameEnd = dotx;
             }
 
-            pageName.append(sep).append(name);
-
             if (found)
             {
-                ComponentEventRequestParameters result = validateAndConstructComponentEventRequest(request, pageName.toString(), nestedComponentId, eventType, path);
+                // The page name is everything from after the locale through the current term.
+
+                PageNameTrie.Match page = componentClassResolver.getPageNameTrie().find(path, start, nameEnd);
+
+                if (page == null)
+                {
+                    return null;
+                }
+
+                String remainingPath = termEnd < length ? path.substring(termEnd + 1) : "";
+
+                ComponentEventRequestParameters result = validateAndConstructComponentEventRequest(request, page.getCanonicalPageName(), nestedComponentId, eventType, remainingPath);
 
                 if (result == null)
                 {
@@ -350,8 +369,8 @@ public class ComponentEventLinkEncoderImpl implements ComponentEventLinkEncoder
                 return result;
             }
 
-            // Continue on to the next name in the path
-            sep = "/";
+            // Continue on to the next term in the path
+            termStart = termEnd + 1;
         }
 
         // Path empty before finding something that looks like a component id or event name, so
@@ -360,15 +379,8 @@ public class ComponentEventLinkEncoderImpl implements ComponentEventLinkEncoder
         return null;
     }
 
-    private ComponentEventRequestParameters validateAndConstructComponentEventRequest(Request request, String pageName, String nestedComponentId, String eventType, List<String> remainingPath)
+    private ComponentEventRequestParameters validateAndConstructComponentEventRequest(Request request, String activePageName, String nestedComponentId, String eventType, String remainingPath)
     {
-        if (!componentClassResolver.isPageName(pageName))
-        {
-            return null;
-        }
-
-        String activePageName = componentClassResolver.canonicalizePageName(pageName);
-
         if (isWhitelistOnlyAndNotValid(activePageName))
         {
             return null;
@@ -380,7 +392,7 @@ public class ComponentEventLinkEncoderImpl implements ComponentEventLinkEncoder
                 ? activePageName
                 : componentClassResolver.canonicalizePageName(value);
 
-        EventContext eventContext = contextPathEncoder.decodePath(joinPath(remainingPath));
+        EventContext eventContext = contextPathEncoder.decodePath(remainingPath);
         EventContext activationContext = contextPathEncoder.decodePath(request.getParameter(InternalConstants.PAGE_CONTEXT_NAME));
 
         return new ComponentEventRequestParameters(activePageName, containingPageName, nestedComponentId, eventType,
@@ -432,30 +444,39 @@ public class ComponentEventLinkEncoderImpl implements ComponentEventLinkEncoder
             explicitLocale = true;
         }
 
-        slashx = extendedName.length();
-        boolean atEnd = true;
+        PageNameTrie pageNames = componentClassResolver.getPageNameTrie();
+
+        int end = extendedName.length();
 
-        while (slashx > 0)
+        while (end > 0)
         {
-            String pageName = extendedName.substring(0, slashx);
-            String pageActivationContext = atEnd ? "" : extendedName.substring(slashx + 1);
+            // The longest page name that prefixes the path, found in a single pass.
 
-            PageRenderRequestParameters parameters = checkIfPage(request, pageName, pageActivationContext);
+            PageNameTrie.Match page = pageNames.findLongestPrefix(extendedName, 0, end);
+
+            if (page == null)
+            {
+                break;
+            }
+
+            int pageNameLength = page.getLength();
+
+            String pageActivationContext = pageNameLength == extendedName.length() ? "" : extendedName.substring(pageNameLength + 1);
+
+            PageRenderRequestParameters parameters = checkIfPage(request, page, pageActivationContext);
 
             if (parameters != null)
             {
                 return parameters;
             }
 
-            // Work backwards, splitting at the next slash.
-            slashx = extendedName.lastIndexOf('/', slashx - 1);
-
-            atEnd = false;
+            // Try again with a shorter page name, splitting at the previous slash.
+            end = extendedName.lastIndexOf('/', pageNameLength - 1);
         }
 
         // OK, maybe its all page activation context for the root Index page.
 
-        PageRenderRequestParameters result = checkIfPage(request, "", extendedName);
+        PageRenderRequestParameters result = checkIfPage(request, pageNames.find(extendedName, 0, 0), extendedName);
 
         if (result != null && !explicitLocale)
         {
@@ -484,13 +505,13 @@ public class ComponentEventLinkEncoderImpl implements ComponentEventLinkEncoder
         return path;
     }
 
-    private PageRenderRequestParameters checkIfPage(Request request, String pageName, String pageActivationContext)
+    private PageRenderRequestParameters checkIfPage(Request request, PageNameTrie.Match page, String pageActivationContext)
     {
-        if (!componentClassResolver.isPageName(pageName))
+        if (page == null)
         {
             return null;
         }
-        String canonicalized = componentClassResolver.canonicalizePageName(pageName);
+        String canonicalized = page.getCanonicalPageName();
 
         // If the page is only visible to the whitelist, but the request is not on the whitelist, then
         // pretend the page doesn't exist!
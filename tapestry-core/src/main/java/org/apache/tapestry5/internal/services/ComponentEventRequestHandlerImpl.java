@@ -15,6 +15,7 @@ package org.apache.tapestry5.internal.services;
 import org.apache.tapestry5.TrackableComponentEventCallback;
 import org.apache.tapestry5.beanmodel.services.*;
 import org.apache.tapestry5.commons.internal.util.TapestryException;
+import org.apache.tapestry5.http.services.AsyncRequestSupport;
 import org.apache.tapestry5.http.services.Response;
 import org.apache.tapestry5.internal.structure.ComponentPageElement;
 import org.apache.tapestry5.internal.structure.Page;
@@ -40,6 +41,8 @@ public class ComponentEventRequestHandlerImpl implements ComponentEventRequestHa
 
     private final Environment environment;
 
+    private final AsyncRequestSupport asyncRequestSupport;
+
     public ComponentEventRequestHandlerImpl(@Traditional
                                             @Primary
                                             ComponentEventResultProcessor resultProcessor,
@@ -48,13 +51,16 @@ public class ComponentEventRequestHandlerImpl implements ComponentEventRequestHa
 
                                             PageActivator pageActivator,
 
-                                            Environment environment)
+                                            Environment environment,
+
+                                            AsyncRequestSupport asyncRequestSupport)
     {
         this.resultProcessor = resultProcessor;
         this.cache = cache;
         this.response = response;
         this.pageActivator = pageActivator;
         this.environment = environment;
+        this.asyncRequestSupport = asyncRequestSupport;
     }
 
     public void handle(ComponentEventRequestParameters parameters) throws IOException
@@ -95,8 +101,9 @@ public class ComponentEventRequestHandlerImpl implements ComponentEventRequestHa
 
         // If we get this far without generating a response, the default behavior is to
         // generate a redirect back to the active page; we can let the ComponentEventResultProcessor handle that.
+        // A suspended request will generate its response once resumed.
 
-        if (!response.isCommitted())
+        if (!response.isCommitted() && !asyncRequestSupport.isSuspended())
         {
             resultProcessor.processResultValue(activePage.getName());
         }
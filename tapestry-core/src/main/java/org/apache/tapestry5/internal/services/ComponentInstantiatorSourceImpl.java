@@ -12,17 +12,30 @@
 
 package org.apache.tapestry5.internal.services;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.tapestry5.ComponentResources;
 import org.apache.tapestry5.SymbolConstants;
@@ -50,6 +63,7 @@ import org.apache.tapestry5.ioc.internal.util.InternalUtils;
 import org.apache.tapestry5.ioc.internal.util.URLChangeTracker;
 import org.apache.tapestry5.ioc.services.Builtin;
 import org.apache.tapestry5.ioc.services.ClasspathURLConverter;
+import org.apache.tapestry5.ioc.services.RegistryShutdownHub;
 import org.apache.tapestry5.ioc.services.UpdateListener;
 import org.apache.tapestry5.ioc.services.UpdateListenerHub;
 import org.apache.tapestry5.model.ComponentModel;
@@ -111,6 +125,13 @@ public final class ComponentInstantiatorSourceImpl implements ComponentInstantia
     private final InternalComponentInvalidationEventHub invalidationHub;
 
     private final boolean productionMode;
+
+    private final String bytecodeCacheFile, bytecodeCacheVersion;
+
+    /**
+     * The bytecode cache file is only used by the first PlasticManager created, which is closed at registry shutdown.
+     */
+    private volatile PlasticManager bytecodeCacheManager;
     
     private final boolean multipleClassLoaders;
 
@@ -131,7 +152,7 @@ public final class ComponentInstantiatorSourceImpl implements ComponentInstantia
      */
     private final Map<String, Instantiator> classToInstantiator = CollectionFactory.newConcurrentMap();
 
-    private final Map<String, ComponentModel> classToModel = CollectionFactory.newMap();
+    private final Map<String, ComponentModel> classToModel = CollectionFactory.newConcurrentMap();
 
     private final MethodDescription GET_COMPONENT_RESOURCES = PlasticUtils.getMethodDescription(
             ComponentResourcesAware.class, "getComponentResources");
@@ -174,7 +195,16 @@ public final class ComponentInstantiatorSourceImpl implements ComponentInstantia
                                            
                                            PageClassLoaderContextManager pageClassLoaderContextManager,
                                            
-                                           ComponentDependencyRegistry componentDependencyRegistry
+                                           ComponentDependencyRegistry componentDependencyRegistry,
+
+                                           @Symbol(SymbolConstants.COMPONENT_BYTECODE_CACHE)
+                                           String bytecodeCacheFile,
+
+                                           @Symbol(TapestryHttpSymbolConstants.TAPESTRY_VERSION)
+                                           String tapestryVersion,
+
+                                           @Symbol(TapestryHttpSymbolConstants.APPLICATION_VERSION)
+                                           String applicationVersion
             )
     {
         this.parent = proxyFactory.getClassLoader();
@@ -189,6 +219,8 @@ public final class ComponentInstantiatorSourceImpl implements ComponentInstantia
         this.resolver = resolver;
         this.pageClassLoaderContextManager = pageClassLoaderContextManager;
         this.componentDependencyRegistry = componentDependencyRegistry;
+        this.bytecodeCacheFile = bytecodeCacheFile;
+        this.bytecodeCacheVersion = tapestryVersion + "/" + applicationVersion;
 
         // For now, we just need the keys of the configuration. When there are more types of controlled
         // packages, we'll need to do more.
@@ -204,10 +236,22 @@ public final class ComponentInstantiatorSourceImpl implements ComponentInstantia
     }
 
     @PostInjection
-    public void listenForUpdates(UpdateListenerHub hub)
+    public void listenForUpdates(UpdateListenerHub hub, RegistryShutdownHub shutdownHub)
     {
         invalidationHub.addInvalidationCallback(this::invalidate);
         hub.addUpdateListener(this);
+        shutdownHub.addRegistryShutdownListener(new Runnable()
+        {
+            public void run()
+            {
+                PlasticManager manager = bytecodeCacheManager;
+
+                if (manager != null)
+                {
+                    manager.close();
+                }
+            }
+        });
     }
 
     public synchronized void checkForUpdates()
@@ -348,12 +392,116 @@ public final class ComponentInstantiatorSourceImpl implements ComponentInstantia
         {
             builder.enable(TransformationOption.FIELD_WRITEBEHIND);
         }
+        boolean useBytecodeCache = productionMode && !bytecodeCacheFile.isEmpty() && bytecodeCacheManager == null;
+        if (useBytecodeCache)
+        {
+            builder.bytecodeCache(new File(bytecodeCacheFile),
+                    bytecodeCacheVersion + "/" + classpathFingerprint(parentClassloader));
+        }
         PlasticManager plasticManager = builder.create();
+        if (useBytecodeCache)
+        {
+            bytecodeCacheManager = plasticManager;
+        }
         plasticManager.addPlasticClassListener(this);
         PlasticProxyFactory proxyFactory = new PlasticProxyFactoryImpl(plasticManager, logger);
         return proxyFactory;
     }
 
+    /**
+     * Computes a digest of the classpath visible to the class loader: the path, size and modification time of each
+     * JAR, and of each class file inside classpath directories. The stack map frames of a transformed class depend on
+     * the hierarchy of the classes it references, not just on the class itself, so cached bytecode is only reused
+     * with the exact same classpath.
+     */
+    static String classpathFingerprint(ClassLoader classLoader)
+    {
+        Set<File> entries = new LinkedHashSet<>();
+
+        for (ClassLoader loader = classLoader; loader != null; loader = loader.getParent())
+        {
+            if (loader instanceof URLClassLoader)
+            {
+                for (URL url : ((URLClassLoader) loader).getURLs())
+                {
+                    if (url.getProtocol().equals("file"))
+                    {
+                        try
+                        {
+                            entries.add(new File(url.toURI()));
+                        } catch (URISyntaxException ex)
+                        {
+                            entries.add(new File(url.getPath()));
+                        }
+                    }
+                }
+            }
+        }
+
+        for (String path : System.getProperty("java.class.path", "").split(File.pathSeparator))
+        {
+            if (!path.isEmpty())
+            {
+                entries.add(new File(path));
+            }
+        }
+
+        MessageDigest digest;
+
+        try
+        {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex)
+        {
+            throw new RuntimeException(ex);
+        }
+
+        StringBuilder builder = new StringBuilder();
+
+        for (File entry : entries)
+        {
+            builder.append(entry.getAbsolutePath());
+
+            if (entry.isDirectory())
+            {
+                Path root = entry.toPath();
+
+                try (Stream<Path> paths = Files.walk(root))
+                {
+                    paths.filter(path -> path.toString().endsWith(".class"))
+                            .sorted()
+                            .forEach(path -> {
+                                File file = path.toFile();
+
+                                builder.append(' ').append(root.relativize(path)).append(' ').append(file.length())
+                                        .append(' ').append(file.lastModified());
+                            });
+                } catch (IOException | UncheckedIOException ex)
+                {
+                    builder.append(" unreadable");
+                }
+            } else
+            {
+                builder.append(' ').append(entry.length()).append(' ').append(entry.lastModified());
+            }
+
+            builder.append('\n');
+
+            digest.update(builder.toString().getBytes(StandardCharsets.UTF_8));
+
+            builder.setLength(0);
+        }
+
+        StringBuilder result = new StringBuilder();
+
+        for (byte b : digest.digest())
+        {
+            result.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+
+        return result.toString();
+    }
+
     public Instantiator getInstantiator(final String className)
     {
         Instantiator instantiator;
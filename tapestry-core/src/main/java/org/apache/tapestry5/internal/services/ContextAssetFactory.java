@@ -17,10 +17,10 @@ package org.apache.tapestry5.internal.services;
 import org.apache.tapestry5.Asset;
 import org.apache.tapestry5.commons.Resource;
 import org.apache.tapestry5.http.services.Context;
-import org.apache.tapestry5.http.services.ResponseCompressionAnalyzer;
 import org.apache.tapestry5.internal.services.assets.ResourceChangeTracker;
 import org.apache.tapestry5.services.AssetFactory;
 import org.apache.tapestry5.services.assets.AssetPathConstructor;
+import org.apache.tapestry5.services.assets.CompressionCodecSource;
 import org.apache.tapestry5.services.assets.StreamableResourceSource;
 
 /**
@@ -31,13 +31,13 @@ import org.apache.tapestry5.services.assets.StreamableResourceSource;
 public class ContextAssetFactory extends AbstractAssetFactory
 {
 
-    public ContextAssetFactory(ResponseCompressionAnalyzer compressionAnalyzer,
+    public ContextAssetFactory(CompressionCodecSource codecSource,
                                ResourceChangeTracker resourceChangeTracker,
                                StreamableResourceSource streamableResourceSource,
                                AssetPathConstructor assetPathConstructor,
                                Context context)
     {
-        super(compressionAnalyzer, resourceChangeTracker, streamableResourceSource, assetPathConstructor,
+        super(codecSource, resourceChangeTracker, streamableResourceSource, assetPathConstructor,
                 new ContextResource(context, "/"));
     }
 
@@ -43,8 +43,24 @@ public class EventImpl implements Event
      */
     public EventImpl(ComponentEventCallback handler, Logger logger, OperationTracker tracker)
     {
-        this.tracker = tracker;
+        this(logger, tracker, handler);
+
         assert handler != null;
+    }
+
+    /**
+     * For subclasses that handle the results themselves, by overriding {@link #handleResult(Object)}.
+     *
+     * @since 5.10
+     */
+    protected EventImpl(Logger logger, OperationTracker tracker)
+    {
+        this(logger, tracker, null);
+    }
+
+    private EventImpl(Logger logger, OperationTracker tracker, ComponentEventCallback handler)
+    {
+        this.tracker = tracker;
         this.handler = handler;
         this.logger = logger;
 
@@ -81,12 +97,14 @@ public class EventImpl implements Event
 
         if (result != null)
         {
+            final String description = methodDescription;
+
             boolean handleResult =
-                    tracker.invoke("Handling result from method " + methodDescription + '.', new Invokable<Boolean>()
+                    tracker.invoke(() -> "Handling result from method " + description + '.', new Invokable<Boolean>()
                     {
                         public Boolean invoke()
                         {
-                            return handler.handleResult(result);
+                            return handleResult(result);
                         }
                     });
 
@@ -96,6 +114,17 @@ public class EventImpl implements Event
         return aborted;
     }
 
+    /**
+     * Passes a non-null result to the handler.
+     *
+     * @return true if the event is aborted
+     * @since 5.10
+     */
+    protected boolean handleResult(Object result)
+    {
+        return handler.handleResult(result);
+    }
+
     protected String getMethodDescription()
     {
         return methodDescription;
@@ -19,10 +19,10 @@ import org.apache.tapestry5.http.services.Response;
 import org.apache.tapestry5.internal.InternalConstants;
 import org.apache.tapestry5.ioc.annotations.Symbol;
 import org.apache.tapestry5.json.JSONCollection;
+import org.apache.tapestry5.json.JSONWriter;
 import org.apache.tapestry5.services.ComponentEventResultProcessor;
 
 import java.io.IOException;
-import java.io.PrintWriter;
 
 public class JSONCollectionEventResultProcessor implements ComponentEventResultProcessor<JSONCollection>
 {
@@ -48,10 +48,8 @@ public class JSONCollectionEventResultProcessor implements ComponentEventResultP
 
     public void processResultValue(JSONCollection value) throws IOException
     {
-        PrintWriter pw = response.getPrintWriter(contentType.toString());
+        JSONWriter writer = new JSONWriter(response.getPrintWriter(contentType.toString()), compactJSON);
 
-        value.print(pw, compactJSON);
-
-        pw.close();
+        writer.value(value).close();
     }
 }
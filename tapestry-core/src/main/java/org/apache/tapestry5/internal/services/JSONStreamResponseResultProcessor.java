@@ -0,0 +1,62 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.apache.tapestry5.internal.services;
+
+import org.apache.tapestry5.JSONStreamResponse;
+import org.apache.tapestry5.SymbolConstants;
+import org.apache.tapestry5.http.ContentType;
+import org.apache.tapestry5.http.TapestryHttpSymbolConstants;
+import org.apache.tapestry5.http.services.Response;
+import org.apache.tapestry5.internal.InternalConstants;
+import org.apache.tapestry5.ioc.annotations.Symbol;
+import org.apache.tapestry5.json.JSONWriter;
+import org.apache.tapestry5.services.ComponentEventResultProcessor;
+
+import java.io.IOException;
+
+/**
+ * Writes a {@link JSONStreamResponse} directly to the response.
+ *
+ * @since 5.10
+ */
+public class JSONStreamResponseResultProcessor implements ComponentEventResultProcessor<JSONStreamResponse>
+{
+    private final Response response;
+
+    private final boolean compactJSON;
+
+    private final ContentType contentType;
+
+    public JSONStreamResponseResultProcessor(Response response,
+
+                                             @Symbol(TapestryHttpSymbolConstants.CHARSET)
+                                             String outputEncoding,
+
+                                             @Symbol(SymbolConstants.COMPACT_JSON)
+                                             boolean compactJSON)
+    {
+        this.response = response;
+        this.compactJSON = compactJSON;
+
+        contentType = new ContentType(InternalConstants.JSON_MIME_TYPE).withCharset(outputEncoding);
+    }
+
+    public void processResultValue(JSONStreamResponse value) throws IOException
+    {
+        JSONWriter writer = new JSONWriter(response.getPrintWriter(contentType.toString()), compactJSON);
+
+        value.write(writer);
+
+        writer.close();
+    }
+}
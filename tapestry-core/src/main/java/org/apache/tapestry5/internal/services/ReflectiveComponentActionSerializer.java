@@ -0,0 +1,200 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.apache.tapestry5.internal.services;
+
+import org.apache.tapestry5.ComponentAction;
+import org.apache.tapestry5.services.ComponentActionSerializer;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Serializes actions whose state is held in a few fields, and that have a constructor taking the values of those
+ * fields, in the same order (as is the case for the actions of the built-in form components). Strings and primitive
+ * values are written directly; other values are written as objects.
+ *
+ * The fields and constructor are looked up for each action class, as the class is loaded by the component class loader
+ * (which changes when component classes are reloaded).
+ */
+public class ReflectiveComponentActionSerializer implements ComponentActionSerializer
+{
+    private static final int NULL = 0, STRING = 1, OBJECT = 2;
+
+    /**
+     * {@link ObjectOutput#writeUTF(String)} is limited to 65535 bytes of modified UTF-8; a string with at most
+     * this many characters is guaranteed to fit.
+     */
+    private static final int MAX_UTF_LENGTH = 65535 / 3;
+
+    private final String[] fieldNames;
+
+    private final ClassValue<Accessor> accessors = new ClassValue<Accessor>()
+    {
+        @Override
+        protected Accessor computeValue(Class<?> type)
+        {
+            return new Accessor(type);
+        }
+    };
+
+    /**
+     * @param fieldNames
+     *         names of the fields holding the state of the action, in the order of the constructor parameters
+     */
+    public ReflectiveComponentActionSerializer(String... fieldNames)
+    {
+        this.fieldNames = fieldNames;
+    }
+
+    private final class Accessor
+    {
+        final Field[] fields = new Field[fieldNames.length];
+
+        final Constructor<?> constructor;
+
+        Accessor(Class<?> type)
+        {
+            Class<?>[] parameterTypes = new Class<?>[fieldNames.length];
+
+            try
+            {
+                for (int i = 0; i < fieldNames.length; i++)
+                {
+                    fields[i] = type.getDeclaredField(fieldNames[i]);
+                    fields[i].setAccessible(true);
+
+                    parameterTypes[i] = fields[i].getType();
+                }
+
+                constructor = type.getDeclaredConstructor(parameterTypes);
+                constructor.setAccessible(true);
+            } catch (NoSuchFieldException | NoSuchMethodException ex)
+            {
+                throw new RuntimeException(String.format("Class %s can not be serialized from fields %s: %s",
+                        type.getName(), String.join(", ", fieldNames), ex), ex);
+            }
+        }
+    }
+
+    public void write(ComponentAction<?> action, ObjectOutput output) throws IOException
+    {
+        Accessor accessor = accessors.get(action.getClass());
+
+        try
+        {
+            for (Field field : accessor.fields)
+            {
+                writeValue(field.getType(), field.get(action), output);
+            }
+        } catch (IllegalAccessException ex)
+        {
+            throw new IOException(ex);
+        }
+    }
+
+    public ComponentAction<?> read(Class<?> actionType, ObjectInput input) throws IOException, ClassNotFoundException
+    {
+        Accessor accessor = accessors.get(actionType);
+
+        Object[] values = new Object[accessor.fields.length];
+
+        for (int i = 0; i < values.length; i++)
+        {
+            values[i] = readValue(accessor.fields[i].getType(), input);
+        }
+
+        try
+        {
+            return (ComponentAction<?>) accessor.constructor.newInstance(values);
+        } catch (InstantiationException | IllegalAccessException | InvocationTargetException ex)
+        {
+            throw new IOException(String.format("Unable to instantiate %s: %s", actionType.getName(), ex), ex);
+        }
+    }
+
+    private static void writeValue(Class<?> type, Object value, ObjectOutput output) throws IOException
+    {
+        if (type == int.class)
+        {
+            output.writeInt((Integer) value);
+            return;
+        }
+
+        if (type == long.class)
+        {
+            output.writeLong((Long) value);
+            return;
+        }
+
+        if (type == boolean.class)
+        {
+            output.writeBoolean((Boolean) value);
+            return;
+        }
+
+        if (value == null)
+        {
+            output.writeByte(NULL);
+            return;
+        }
+
+        if (value instanceof String && ((String) value).length() <= MAX_UTF_LENGTH)
+        {
+            output.writeByte(STRING);
+            output.writeUTF((String) value);
+            return;
+        }
+
+        output.writeByte(OBJECT);
+        output.writeObject(value);
+    }
+
+    private static Object readValue(Class<?> type, ObjectInput input) throws IOException, ClassNotFoundException
+    {
+        if (type == int.class)
+        {
+            return input.readInt();
+        }
+
+        if (type == long.class)
+        {
+            return input.readLong();
+        }
+
+        if (type == boolean.class)
+        {
+            return input.readBoolean();
+        }
+
+        int tag = input.readUnsignedByte();
+
+        switch (tag)
+        {
+            case NULL:
+                return null;
+
+            case STRING:
+                return input.readUTF();
+
+            case OBJECT:
+                return input.readObject();
+
+            default:
+                throw new IOException(String.format("Unexpected value tag %d in client data.", tag));
+        }
+    }
+}
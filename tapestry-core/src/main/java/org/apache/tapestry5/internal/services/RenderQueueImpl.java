@@ -24,11 +24,19 @@ import org.apache.tapestry5.runtime.RenderCommand;
 import org.apache.tapestry5.runtime.RenderQueue;
 import org.slf4j.Logger;
 
+import java.util.Arrays;
+
+/**
+ * The queue is a plain array used as a stack, as pushing and popping commands is the innermost loop of every render;
+ * an instance is only ever used by a single thread.
+ */
 public class RenderQueueImpl implements RenderQueue
 {
     private static final int INITIAL_QUEUE_DEPTH = 200;
 
-    private final Stack<RenderCommand> queue = new Stack<RenderCommand>(INITIAL_QUEUE_DEPTH);
+    private RenderCommand[] queue = new RenderCommand[INITIAL_QUEUE_DEPTH];
+
+    private int depth;
 
     private final Stack<ComponentResources> renderingComponents = CollectionFactory.newStack();
 
@@ -42,7 +50,13 @@ public class RenderQueueImpl implements RenderQueue
     public void push(RenderCommand command)
     {
         assert command != null;
-        queue.push(command);
+
+        if (depth == queue.length)
+        {
+            queue = Arrays.copyOf(queue, depth * 2);
+        }
+
+        queue[depth++] = command;
     }
 
     public void run(MarkupWriter writer)
@@ -66,11 +80,16 @@ public class RenderQueueImpl implements RenderQueue
 
         try
         {
-            while (!queue.isEmpty())
+            while (depth > 0)
             {
-                maxDepth = Math.max(maxDepth, queue.getDepth());
+                if (debugEnabled && depth > maxDepth)
+                {
+                    maxDepth = depth;
+                }
+
+                command = queue[--depth];
 
-                command = queue.pop();
+                queue[depth] = null;
 
                 commandCount++;
 
@@ -49,7 +49,7 @@ public class RequestOperationTracker implements ComponentRequestFilter
                 ? parameters.getContainingPageName()
                 : parameters.getContainingPageName() + ":" + parameters.getNestedComponentId();
 
-        tracker.perform(String.format("Handling %s '%s' component event request for %s.",
+        tracker.perform(() -> String.format("Handling %s '%s' component event request for %s.",
                 request.isXHR() ? "Ajax" : "traditional",
                 parameters.getEventType(),
                 componentId),
@@ -68,7 +68,7 @@ public class RequestOperationTracker implements ComponentRequestFilter
     {
         final Holder<IOException> holder = Holder.create();
 
-        tracker.run("Handling page render request for page " + parameters.getLogicalPageName(),
+        tracker.run(() -> "Handling page render request for page " + parameters.getLogicalPageName(),
                 new Runnable()
                 {
                     public void run()
@@ -18,8 +18,11 @@ import org.apache.tapestry5.commons.Resource;
 import org.apache.tapestry5.http.TapestryHttpSymbolConstants;
 import org.apache.tapestry5.http.internal.TapestryHttpInternalConstants;
 import org.apache.tapestry5.http.services.Request;
+import org.apache.tapestry5.http.services.RequestGlobals;
 import org.apache.tapestry5.http.services.Response;
 import org.apache.tapestry5.internal.InternalConstants;
+import org.apache.tapestry5.internal.services.assets.FileStreamableResource;
+import org.apache.tapestry5.internal.services.assets.FileWriteListener;
 import org.apache.tapestry5.internal.services.assets.ResourceChangeTracker;
 import org.apache.tapestry5.ioc.IOOperation;
 import org.apache.tapestry5.ioc.OperationTracker;
@@ -28,21 +31,47 @@ import org.apache.tapestry5.ioc.annotations.Symbol;
 import org.apache.tapestry5.services.AssetFactory;
 import org.apache.tapestry5.services.assets.*;
 
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 public class ResourceStreamerImpl implements ResourceStreamer
 {
     static final String IF_MODIFIED_SINCE_HEADER = "If-Modified-Since";
 
+    static final String RANGE_HEADER = "Range";
+
+    static final String IF_RANGE_HEADER = "If-Range";
+
+    // Request attributes used by Tomcat to send a file itself, rather than have it written by the application.
+
+    static final String SENDFILE_SUPPORT_ATTRIBUTE = "org.apache.tomcat.sendfile.support";
+
+    static final String SENDFILE_FILENAME_ATTRIBUTE = "org.apache.tomcat.sendfile.filename";
+
+    static final String SENDFILE_START_ATTRIBUTE = "org.apache.tomcat.sendfile.start";
+
+    static final String SENDFILE_END_ATTRIBUTE = "org.apache.tomcat.sendfile.end";
+
+    private static final Pattern RANGE_PATTERN = Pattern.compile("bytes\\s*=\\s*(\\d*)\\s*-\\s*(\\d*)");
+
     private static final String QUOTE = "\"";
 
     private final Request request;
 
     private final Response response;
 
+    private final RequestGlobals requestGlobals;
+
     private final StreamableResourceSource streamableResourceSource;
 
     private final boolean productionMode;
@@ -61,6 +90,8 @@ public class ResourceStreamerImpl implements ResourceStreamer
 
                                 Response response,
 
+                                RequestGlobals requestGlobals,
+
                                 StreamableResourceSource streamableResourceSource,
 
                                 OperationTracker tracker,
@@ -81,6 +112,7 @@ public class ResourceStreamerImpl implements ResourceStreamer
     {
         this.request = request;
         this.response = response;
+        this.requestGlobals = requestGlobals;
         this.streamableResourceSource = streamableResourceSource;
 
         this.tracker = tracker;
@@ -106,7 +138,7 @@ public class ResourceStreamerImpl implements ResourceStreamer
 
         final boolean compress = providedChecksum != null && providedChecksum.startsWith("z");
 
-        return tracker.perform("Streaming " + resource + (compress ? " (compressed)" : ""), new IOOperation<Boolean>()
+        return tracker.perform(() -> "Streaming " + resource + (compress ? " (compressed)" : ""), new IOOperation<Boolean>()
         {
             public Boolean perform() throws IOException
             {
@@ -153,14 +185,25 @@ public class ResourceStreamerImpl implements ResourceStreamer
         }
 
 
-        // ETag should be surrounded with quotes.
-        String token = QUOTE + actualChecksum + QUOTE;
+        String contentEncoding = streamable.getContentEncoding();
+
+        // ETag should be surrounded with quotes. The checksum is of the uncompressed content, so each
+        // encoding of it needs a distinct ETag.
+        String token = contentEncoding == null
+                ? QUOTE + actualChecksum + QUOTE
+                : QUOTE + actualChecksum + "-" + contentEncoding + QUOTE;
 
         // Even when sending a 304, we want the ETag associated with the request.
         // In most cases (except JavaScript modules), the checksum is also embedded into the URL.
         // However, E-Tags are also useful for enabling caching inside intermediate servers, CDNs, etc.
         response.setHeader("ETag", token);
 
+        // The content encoding is negotiated, so caches must take the Accept-Encoding request header into account.
+        if (streamable.getCompression() != CompressionStatus.NOT_COMPRESSABLE)
+        {
+            response.setHeader("Vary", "Accept-Encoding");
+        }
+
         // If the client can send the correct ETag token, then its cache already contains the correct
         // content.
         String providedToken = request.getHeader("If-None-Match");
@@ -213,9 +256,9 @@ public class ResourceStreamerImpl implements ResourceStreamer
             response.setHeader("Cache-Control", omitExpirationCacheControlHeader);
         }
 
-        if (streamable.getCompression() == CompressionStatus.COMPRESSED)
+        if (contentEncoding != null)
         {
-            response.setHeader(TapestryHttpInternalConstants.CONTENT_ENCODING_HEADER, TapestryHttpInternalConstants.GZIP_CONTENT_ENCODING);
+            response.setHeader(TapestryHttpInternalConstants.CONTENT_ENCODING_HEADER, contentEncoding);
         }
 
         ResponseCustomizer responseCustomizer = streamable.getResponseCustomizer();
@@ -225,18 +268,216 @@ public class ResourceStreamerImpl implements ResourceStreamer
             responseCustomizer.customizeResponse(streamable, response);
         }
 
+        response.setHeader("Accept-Ranges", "bytes");
+
+        long size = streamable.getSize();
+
+        ByteRange range = getRequestedRange(token, lastModified, size);
+
+        if (range == ByteRange.UNSATISFIABLE)
+        {
+            response.setHeader("Content-Range", "bytes */" + size);
+            response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            return true;
+        }
+
+        if (range != null)
+        {
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader("Content-Range", String.format("bytes %d-%d/%d", range.start, range.end, size));
+        }
+
         if (!request.getMethod().equals("HEAD"))
         {
-            response.setContentLength(streamable.getSize());
-            
-            OutputStream os = response.getOutputStream(streamable.getContentType().toString());
-            streamable.streamTo(os);
-            os.close();
+            long offset = range == null ? 0 : range.start;
+            long length = range == null ? size : range.end - range.start + 1;
+
+            response.setContentLength((int) length);
+
+            writeContent(streamable, offset, length);
         }
 
         return true;
     }
 
+    private void writeContent(StreamableResource streamable, long offset, long length) throws IOException
+    {
+        OutputStream os = response.getOutputStream(streamable.getContentType().toString());
+
+        if (streamable instanceof FileStreamableResource)
+        {
+            Path file = ((FileStreamableResource) streamable).getFile();
+
+            // In both cases, the content is written once this thread has finished with the request.
+
+            if (sendFile(file, offset, length)
+                    || (os instanceof ServletOutputStream && writeAsync(file, (ServletOutputStream) os, offset, length)))
+            {
+                return;
+            }
+        }
+
+        streamable.streamTo(os, offset, length);
+        os.close();
+    }
+
+    /**
+     * Asks the servlet container to send the file itself, when it supports that (as Tomcat does, using the
+     * operating system's sendfile where possible).
+     */
+    private boolean sendFile(Path file, long offset, long length)
+    {
+        if (!Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTRIBUTE)))
+        {
+            return false;
+        }
+
+        request.setAttribute(SENDFILE_FILENAME_ATTRIBUTE, file.toAbsolutePath().toString());
+        request.setAttribute(SENDFILE_START_ATTRIBUTE, Long.valueOf(offset));
+        request.setAttribute(SENDFILE_END_ATTRIBUTE, Long.valueOf(offset + length));
+
+        return true;
+    }
+
+    /**
+     * Writes the file using non-blocking output, when the request supports asynchronous processing.
+     */
+    private boolean writeAsync(Path file, ServletOutputStream os, long offset, long length) throws IOException
+    {
+        HttpServletRequest servletRequest = requestGlobals.getHTTPServletRequest();
+
+        if (servletRequest == null || !servletRequest.isAsyncSupported() || servletRequest.isAsyncStarted())
+        {
+            return false;
+        }
+
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+
+        AsyncContext context = servletRequest.startAsync();
+
+        // A large file may take a long time to reach a slow client; the connector's own timeouts still apply.
+
+        context.setTimeout(0);
+
+        os.setWriteListener(new FileWriteListener(channel, offset, length, os, context));
+
+        return true;
+    }
+
+    /**
+     * Returns the range requested by a GET request, or null if the whole content should be sent.
+     */
+    private ByteRange getRequestedRange(String token, long lastModified, long size)
+    {
+        String rangeHeader = request.getHeader(RANGE_HEADER);
+
+        if (rangeHeader == null || !request.getMethod().equals("GET"))
+        {
+            return null;
+        }
+
+        // If-Range means "send the range only if the content hasn't changed, otherwise send everything".
+
+        String ifRange = request.getHeader(IF_RANGE_HEADER);
+
+        if (ifRange != null && !ifRange.equals(token) && !matchesLastModified(lastModified))
+        {
+            return null;
+        }
+
+        return parseRange(rangeHeader, size);
+    }
+
+    private boolean matchesLastModified(long lastModified)
+    {
+        try
+        {
+            long date = request.getDateHeader(IF_RANGE_HEADER);
+
+            // HTTP dates have an accuracy of one second.
+
+            return date >= 0 && date / 1000 == lastModified / 1000;
+        } catch (IllegalArgumentException ex)
+        {
+            // An entity tag, rather than a date.
+
+            return false;
+        }
+    }
+
+    /**
+     * Parses a Range header with a single byte range. Returns null if the header is invalid, or specifies more than
+     * one range (a multipart/byteranges response isn't supported, the whole content is sent instead); returns
+     * {@link ByteRange#UNSATISFIABLE} if the range doesn't overlap the content.
+     */
+    static ByteRange parseRange(String header, long size)
+    {
+        Matcher matcher = RANGE_PATTERN.matcher(header.trim());
+
+        if (!matcher.matches())
+        {
+            return null;
+        }
+
+        String first = matcher.group(1);
+        String last = matcher.group(2);
+
+        try
+        {
+            if (first.isEmpty())
+            {
+                if (last.isEmpty())
+                {
+                    return null;
+                }
+
+                // A suffix range: the last N bytes.
+
+                long suffixLength = Long.parseLong(last);
+
+                if (suffixLength == 0 || size == 0)
+                {
+                    return ByteRange.UNSATISFIABLE;
+                }
+
+                return new ByteRange(Math.max(0, size - suffixLength), size - 1);
+            }
+
+            long start = Long.parseLong(first);
+
+            if (!last.isEmpty() && Long.parseLong(last) < start)
+            {
+                return null;
+            }
+
+            if (start >= size)
+            {
+                return ByteRange.UNSATISFIABLE;
+            }
+
+            return new ByteRange(start, last.isEmpty() ? size - 1 : Math.min(Long.parseLong(last), size - 1));
+        } catch (NumberFormatException ex)
+        {
+            return null;
+        }
+    }
+
+    /**
+     * A range of bytes, from start to end inclusive.
+     */
+    static final class ByteRange
+    {
+        static final ByteRange UNSATISFIABLE = new ByteRange(-1, -1);
+
+        final long start, end;
+
+        ByteRange(long start, long end)
+        {
+            this.start = start;
+            this.end = end;
+        }
+    }
+
     private Asset findAssetInsideWebapp(Resource resource)
     {
         Asset asset;
@@ -0,0 +1,142 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.apache.tapestry5.internal.services;
+
+import org.apache.tapestry5.SymbolConstants;
+import org.apache.tapestry5.func.Flow;
+import org.apache.tapestry5.http.ContentType;
+import org.apache.tapestry5.http.TapestryHttpSymbolConstants;
+import org.apache.tapestry5.http.services.Request;
+import org.apache.tapestry5.http.services.Response;
+import org.apache.tapestry5.internal.InternalConstants;
+import org.apache.tapestry5.ioc.annotations.Symbol;
+import org.apache.tapestry5.json.JSONWriter;
+import org.apache.tapestry5.services.ComponentEventResultProcessor;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Iterator;
+import java.util.stream.BaseStream;
+
+/**
+ * Handles an {@link Iterator}, a {@link java.util.stream.Stream} or a {@link Flow} returned from an event handler
+ * method, writing each element to the response as it is read: as a JSON array or, when the request's
+ * <code>Accept</code> header includes {@value InternalConstants#NDJSON_MIME_TYPE}, as newline delimited JSON. The
+ * elements must be JSON values (see {@link JSONWriter#value(Object)}). Streams are closed once written.
+ *
+ * The response is flushed every {@value #FLUSH_INTERVAL} elements, so that a slow client holds up reading further
+ * elements, rather than the output accumulating in a buffer. As the response is committed once flushed, a failure
+ * part way through can no longer be reported with an error page.
+ *
+ * @since 5.10
+ */
+public class SequenceResultProcessor implements ComponentEventResultProcessor<Object>
+{
+    /**
+     * Number of elements written between flushes of the response.
+     */
+    protected static final int FLUSH_INTERVAL = 100;
+
+    private final Request request;
+
+    private final Response response;
+
+    private final String outputEncoding;
+
+    private final boolean compactJSON;
+
+    public SequenceResultProcessor(Request request, Response response,
+
+                                   @Symbol(TapestryHttpSymbolConstants.CHARSET)
+                                   String outputEncoding,
+
+                                   @Symbol(SymbolConstants.COMPACT_JSON)
+                                   boolean compactJSON)
+    {
+        this.request = request;
+        this.response = response;
+        this.outputEncoding = outputEncoding;
+        this.compactJSON = compactJSON;
+    }
+
+    public void processResultValue(Object value) throws IOException
+    {
+        try
+        {
+            Iterator<?> iterator = value instanceof Iterator ? (Iterator<?>) value
+                    : value instanceof BaseStream ? ((BaseStream<?, ?>) value).iterator()
+                    : ((Iterable<?>) value).iterator();
+
+            String accept = request.getHeader("Accept");
+
+            boolean delimited = accept != null && accept.contains(InternalConstants.NDJSON_MIME_TYPE);
+
+            ContentType contentType = new ContentType(delimited ? InternalConstants.NDJSON_MIME_TYPE
+                    : InternalConstants.JSON_MIME_TYPE).withCharset(outputEncoding);
+
+            PrintWriter pw = response.getPrintWriter(contentType.toString());
+
+            write(pw, iterator, delimited);
+
+            pw.close();
+        } finally
+        {
+            if (value instanceof BaseStream)
+            {
+                ((BaseStream<?, ?>) value).close();
+            }
+        }
+    }
+
+    /**
+     * Writes the elements; the writer is closed afterwards.
+     *
+     * @param pw
+     *         writer for the response
+     * @param iterator
+     *         provides the elements
+     * @param delimited
+     *         if true, each element is written on its own line (newline delimited JSON), otherwise as a JSON array
+     */
+    protected void write(PrintWriter pw, Iterator<?> iterator, boolean delimited) throws IOException
+    {
+        JSONWriter writer = new JSONWriter(pw, delimited || compactJSON);
+
+        if (!delimited)
+        {
+            writer.array();
+        }
+
+        int count = 0;
+
+        while (iterator.hasNext())
+        {
+            writer.value(iterator.next());
+
+            if (delimited)
+            {
+                writer.nextDocument();
+            }
+
+            if (++count % FLUSH_INTERVAL == 0)
+            {
+                writer.flush();
+            }
+        }
+
+        if (!delimited)
+        {
+            writer.endArray();
+        }
+    }
+}
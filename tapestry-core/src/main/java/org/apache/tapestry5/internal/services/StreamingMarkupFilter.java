@@ -0,0 +1,297 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.apache.tapestry5.internal.services;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.tapestry5.MarkupWriter;
+import org.apache.tapestry5.MarkupWriterListener;
+import org.apache.tapestry5.MetaDataConstants;
+import org.apache.tapestry5.commons.util.CollectionFactory;
+import org.apache.tapestry5.commons.util.Stack;
+import org.apache.tapestry5.dom.Element;
+import org.apache.tapestry5.http.services.RequestGlobals;
+import org.apache.tapestry5.services.Environment;
+import org.apache.tapestry5.services.Heartbeat;
+import org.apache.tapestry5.services.MarkupRenderer;
+import org.apache.tapestry5.services.MarkupRendererFilter;
+import org.apache.tapestry5.services.MetaDataLocator;
+
+/**
+ * Implements streaming markup for pages where {@link MetaDataConstants#STREAMING_MARKUP} is enabled. Elements inside
+ * the {@code <body>} are {@linkplain Element#collapse() collapsed} into raw markup once they have been closed,
+ * so that the DOM only holds the elements still being rendered (plus {@code <html>}, {@code <head>} and
+ * {@code <body>}, which the {@link DocumentLinker} updates once rendering completes).
+ *
+ * Elements are only collapsed once no deferred command (for example, a Label updating its {@code for} attribute)
+ * may still update them. Elements closed inside a nested {@link Heartbeat} (such as the one started by a Form, or by
+ * each iteration of a Loop) are collapsed when that heartbeat ends, after its deferred commands have executed.
+ * Elements closed outside of any nested heartbeat are collapsed once the writer moves on to the next element, unless
+ * a command was deferred to the page's heartbeat while they were open, or just after they were closed: those are
+ * collapsed by a command deferred to the page's heartbeat, which runs after all the other commands deferred to it.
+ *
+ * @since 5.10
+ */
+public class StreamingMarkupFilter implements MarkupRendererFilter
+{
+    private final RequestGlobals globals;
+
+    private final MetaDataLocator metaDataLocator;
+
+    private final Environment environment;
+
+    public StreamingMarkupFilter(RequestGlobals globals, MetaDataLocator metaDataLocator, Environment environment)
+    {
+        this.globals = globals;
+        this.metaDataLocator = metaDataLocator;
+        this.environment = environment;
+    }
+
+    public void renderMarkup(MarkupWriter writer, MarkupRenderer delegate)
+    {
+        String pageName = globals.getActivePageName();
+
+        if (pageName == null || !metaDataLocator.findMeta(MetaDataConstants.STREAMING_MARKUP, pageName, Boolean.class))
+        {
+            delegate.renderMarkup(writer);
+            return;
+        }
+
+        Collapser collapser = new Collapser(environment.peekRequired(Heartbeat.class));
+
+        environment.push(Heartbeat.class, collapser);
+
+        writer.addListener(collapser);
+
+        delegate.renderMarkup(writer);
+
+        writer.removeListener(collapser);
+
+        environment.pop(Heartbeat.class);
+
+        // This filter runs inside the page's heartbeat, so this is the last command deferred to it.
+
+        collapser.deferCollapsePending();
+    }
+
+    /**
+     * Wraps the page's Heartbeat to track nested heartbeats and the commands deferred to the page's heartbeat, and
+     * listens to the writer to collapse closed elements.
+     */
+    static class Collapser implements Heartbeat, MarkupWriterListener
+    {
+        private final Heartbeat delegate;
+
+        /**
+         * Elements inside the body that were open (or had just been closed) when a command was deferred to the page's
+         * heartbeat, and which the command may therefore update.
+         */
+        private final Set<Element> pinned = Collections.newSetFromMap(new IdentityHashMap<Element, Boolean>());
+
+        /**
+         * Pinned elements closed outside of any nested heartbeat (but not those inside another such element). These
+         * are collapsed once the page's heartbeat has executed its deferred commands.
+         */
+        private final List<Element> pending = CollectionFactory.newList();
+
+        /**
+         * Elements closed outside of any nested heartbeat, and not pinned, since the writer last started or ended an
+         * element.
+         */
+        private final List<Element> closed = CollectionFactory.newList();
+
+        /**
+         * For each nested heartbeat, the elements closed while it was the innermost heartbeat.
+         */
+        private final Stack<List<Element>> heartbeats = CollectionFactory.newStack();
+
+        private boolean insideBody;
+
+        /**
+         * The innermost open element.
+         */
+        private Element current;
+
+        Collapser(Heartbeat delegate)
+        {
+            this.delegate = delegate;
+        }
+
+        public void begin()
+        {
+            delegate.begin();
+
+            heartbeats.push(CollectionFactory.<Element>newList());
+        }
+
+        public void end()
+        {
+            List<Element> closedInHeartbeat = heartbeats.pop();
+
+            // Deferred commands (such as a Label updating its element, and the element of its field)
+            // run first, while the elements are still part of the DOM.
+
+            delegate.end();
+
+            // Elements are closed before their containers; working backwards means each container is
+            // collapsed first, and the elements inside it are then skipped.
+
+            for (int i = closedInHeartbeat.size() - 1; i >= 0; i--)
+            {
+                collapse(closedInHeartbeat.get(i));
+            }
+        }
+
+        public void defer(Runnable command)
+        {
+            if (heartbeats.isEmpty() && insideBody)
+            {
+                // The command may update any element that is open now, or that was just closed (elements pinned
+                // already are inside one of those).
+
+                for (Element e = current; e != null && !isBody(e); e = e.getContainer())
+                {
+                    pinned.add(e);
+                }
+
+                for (Element e : closed)
+                {
+                    pinned.add(e);
+                    pending.add(e);
+                }
+
+                closed.clear();
+            }
+
+            delegate.defer(command);
+        }
+
+        public void elementDidStart(Element element)
+        {
+            collapseClosed();
+
+            current = element;
+
+            if (isBody(element))
+            {
+                insideBody = true;
+            }
+        }
+
+        public void elementDidEnd(Element element)
+        {
+            collapseClosed();
+
+            current = element.getContainer();
+
+            if (isBody(element))
+            {
+                insideBody = false;
+
+                return;
+            }
+
+            if (!insideBody)
+            {
+                return;
+            }
+
+            if (pinned.contains(element))
+            {
+                // Children still pending will be collapsed as part of their parent.
+
+                for (int i = pending.size() - 1; i >= 0; i--)
+                {
+                    if (pending.get(i).getContainer() == element)
+                    {
+                        pending.remove(i);
+                    }
+                }
+
+                pending.add(element);
+
+                return;
+            }
+
+            if (!heartbeats.isEmpty())
+            {
+                heartbeats.peek().add(element);
+
+                return;
+            }
+
+            // No command deferred to the page's heartbeat can reach this element so far, and it doesn't contain any
+            // pinned element (the containers of a pinned element are pinned too). It is collapsed once the writer
+            // moves on, as the element is still the writer's current element.
+
+            closed.add(element);
+        }
+
+        private void collapseClosed()
+        {
+            for (Element e : closed)
+            {
+                collapse(e);
+            }
+
+            closed.clear();
+        }
+
+        /**
+         * Defers collapsing the pinned elements to the end of the page's heartbeat.
+         */
+        void deferCollapsePending()
+        {
+            delegate.defer(new Runnable()
+            {
+                public void run()
+                {
+                    collapsePending();
+                }
+            });
+        }
+
+        void collapsePending()
+        {
+            collapseClosed();
+
+            for (Element e : pending)
+            {
+                collapse(e);
+            }
+
+            pending.clear();
+            pinned.clear();
+        }
+
+        private static boolean isBody(Element element)
+        {
+            Element container = element.getContainer();
+
+            return element.getName().equals("body") && container != null && container.getContainer() == null;
+        }
+
+        private static void collapse(Element element)
+        {
+            // The element may have already been removed, or collapsed as part of an enclosing element.
+
+            if (element.getContainer() != null && element.getDocument() != null)
+            {
+                element.collapse();
+            }
+        }
+    }
+}
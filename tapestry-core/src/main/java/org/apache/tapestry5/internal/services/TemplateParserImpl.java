@@ -16,12 +16,29 @@ package org.apache.tapestry5.internal.services;
 
 import org.apache.tapestry5.SymbolConstants;
 import org.apache.tapestry5.commons.Resource;
+import org.apache.tapestry5.http.TapestryHttpSymbolConstants;
 import org.apache.tapestry5.internal.parser.ComponentTemplate;
+import org.apache.tapestry5.internal.parser.ComponentTemplateSerializer;
 import org.apache.tapestry5.ioc.Invokable;
 import org.apache.tapestry5.ioc.OperationTracker;
 import org.apache.tapestry5.ioc.annotations.Symbol;
+import org.slf4j.Logger;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Map;
 
 /**
@@ -29,6 +46,10 @@ import java.util.Map;
  * A new instance of {@link SaxTemplateParser} is created for each document
  * parsed.
  *
+ * When {@link SymbolConstants#TEMPLATE_PARSE_CACHE} is set, each parsed template is also
+ * {@linkplain ComponentTemplateSerializer serialized} into that directory, keyed by a digest of the template's content,
+ * and later read back from there instead of being parsed again.
+ *
  * @since 5.1.0.0
  */
 public class TemplateParserImpl implements TemplateParser
@@ -39,14 +60,37 @@ public class TemplateParserImpl implements TemplateParser
 
     private final OperationTracker tracker;
 
+    private final Path cacheDirectory;
+
+    private final String tapestryVersion;
+
+    private final Logger logger;
+
+    public TemplateParserImpl(Map<String, URL> configuration, boolean defaultCompressWhitespace,
+                              OperationTracker tracker)
+    {
+        this(configuration, defaultCompressWhitespace, tracker, "", null, null);
+    }
+
     public TemplateParserImpl(Map<String, URL> configuration,
 
                               @Symbol(SymbolConstants.COMPRESS_WHITESPACE)
-                              boolean defaultCompressWhitespace, OperationTracker tracker)
+                              boolean defaultCompressWhitespace, OperationTracker tracker,
+
+                              @Symbol(SymbolConstants.TEMPLATE_PARSE_CACHE)
+                              String cacheDirectory,
+
+                              @Symbol(TapestryHttpSymbolConstants.TAPESTRY_VERSION)
+                              String tapestryVersion,
+
+                              Logger logger)
     {
         this.configuration = configuration;
         this.defaultCompressWhitespace = defaultCompressWhitespace;
         this.tracker = tracker;
+        this.cacheDirectory = cacheDirectory.isEmpty() ? null : Paths.get(cacheDirectory);
+        this.tapestryVersion = tapestryVersion;
+        this.logger = logger;
     }
 
     public ComponentTemplate parseTemplate(final Resource templateResource)
@@ -58,11 +102,96 @@ public class TemplateParserImpl implements TemplateParser
         {
             public ComponentTemplate invoke()
             {
-                return new SaxTemplateParser(templateResource, configuration).parse(defaultCompressWhitespace);
+                return cacheDirectory == null ? parse(templateResource) : parseCached(templateResource);
             }
         });
     }
 
+    private ComponentTemplate parse(Resource templateResource)
+    {
+        return new SaxTemplateParser(templateResource, configuration).parse(defaultCompressWhitespace);
+    }
+
+    private ComponentTemplate parseCached(Resource templateResource)
+    {
+        Path file;
+
+        try
+        {
+            file = cacheDirectory.resolve(toCacheKey(templateResource) + ".template");
+        } catch (IOException ex)
+        {
+            // Let the parser report the problem.
+            return parse(templateResource);
+        }
+
+        if (Files.exists(file))
+        {
+            try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file))))
+            {
+                return ComponentTemplateSerializer.read(templateResource, input);
+            } catch (IOException | RuntimeException ex)
+            {
+                logger.warn("Unable to read cached template {} for {}: {}", file, templateResource, ex.getMessage());
+            }
+        }
+
+        ComponentTemplate template = parse(templateResource);
+
+        write(file, template);
+
+        return template;
+    }
+
+    /**
+     * The key covers everything the parsed template depends on: the content of the template, the default for
+     * whitespace compression, and the version of Tapestry (and of the serialized format).
+     */
+    private String toCacheKey(Resource templateResource) throws IOException
+    {
+        MessageDigest digest;
+
+        try
+        {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex)
+        {
+            throw new RuntimeException(ex);
+        }
+
+        digest.update(String.format("%d/%s/%s/", ComponentTemplateSerializer.FORMAT_VERSION, tapestryVersion,
+                defaultCompressWhitespace).getBytes(StandardCharsets.UTF_8));
+
+        try (InputStream input = templateResource.openStream())
+        {
+            digest.update(input.readAllBytes());
+        }
+
+        return String.format("%064x", new BigInteger(1, digest.digest()));
+    }
+
+    private void write(Path file, ComponentTemplate template)
+    {
+        try
+        {
+            Files.createDirectories(cacheDirectory);
+
+            // Write to a temporary file first, so that a concurrent reader never sees a partial template.
+
+            Path temp = Files.createTempFile(cacheDirectory, file.getFileName().toString(), ".tmp");
+
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp))))
+            {
+                ComponentTemplateSerializer.write(template, output);
+            }
+
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex)
+        {
+            logger.warn("Unable to write cached template {} for {}: {}", file, template.getResource(), ex.getMessage());
+        }
+    }
+
     public Map<String, URL> getDTDURLMappings()
     {
         return configuration;
@@ -26,7 +26,7 @@ import org.apache.tapestry5.ioc.ScopeConstants;
 import org.apache.tapestry5.ioc.annotations.Scope;
 import org.apache.tapestry5.ioc.util.IdAllocator;
 import org.apache.tapestry5.runtime.Component;
-import org.apache.tapestry5.services.ClientDataEncoder;
+import org.apache.tapestry5.services.ComponentActionCodec;
 import org.apache.tapestry5.services.ComponentSource;
 import org.apache.tapestry5.services.Environment;
 import org.apache.tapestry5.services.FormSupport;
@@ -45,7 +45,7 @@ public class AjaxFormUpdateControllerImpl implements AjaxFormUpdateController
 
     private final Heartbeat heartbeat;
 
-    private final ClientDataEncoder clientDataEncoder;
+    private final ComponentActionCodec componentActionCodec;
 
     private final Logger logger;
 
@@ -60,13 +60,13 @@ public class AjaxFormUpdateControllerImpl implements AjaxFormUpdateController
     private InternalFormSupport formSupport;
 
     public AjaxFormUpdateControllerImpl(ComponentSource componentSource, HiddenFieldLocationRules rules,
-            Environment environment, Heartbeat heartbeat, ClientDataEncoder clientDataEncoder, Logger logger)
+            Environment environment, Heartbeat heartbeat, ComponentActionCodec componentActionCodec, Logger logger)
     {
         this.componentSource = componentSource;
         this.rules = rules;
         this.environment = environment;
         this.heartbeat = heartbeat;
-        this.clientDataEncoder = clientDataEncoder;
+        this.componentActionCodec = componentActionCodec;
         this.logger = logger;
     }
 
@@ -83,7 +83,7 @@ public class AjaxFormUpdateControllerImpl implements AjaxFormUpdateController
 
         hiddenFieldPositioner = new HiddenFieldPositioner(writer, rules);
 
-        actionSink = new ComponentActionSink(logger, clientDataEncoder);
+        actionSink = new ComponentActionSink(logger, componentActionCodec);
 
         formSupport = createInternalFormSupport(formClientId, formComponentId, actionSink);
 
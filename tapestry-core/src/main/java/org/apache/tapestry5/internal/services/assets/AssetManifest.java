@@ -0,0 +1,52 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.apache.tapestry5.internal.services.assets;
+
+import org.apache.tapestry5.SymbolConstants;
+import org.apache.tapestry5.commons.Resource;
+import org.apache.tapestry5.services.assets.StreamableResource;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Provides assets, and assembled JavaScript stacks, that were processed (transformed, minified, CSS URLs rewritten)
+ * at build time, as recorded in the manifest identified by {@link SymbolConstants#ASSET_MANIFEST}. The manifest is
+ * only used in production mode.
+ *
+ * @see AssetManifestWriter
+ * @since 5.10
+ */
+public interface AssetManifest
+{
+    /**
+     * Default value for {@link SymbolConstants#ASSET_MANIFEST}.
+     */
+    String DEFAULT_PATH = "META-INF/tapestry/asset-manifest.json";
+
+    /**
+     * Returns true if there is no manifest, or it is empty.
+     */
+    boolean isEmpty();
+
+    /**
+     * Returns the processed, uncompressed content of the resource, or null if the resource is not in the manifest.
+     */
+    StreamableResource getAsset(Resource resource) throws IOException;
+
+    /**
+     * Returns the assembled, uncompressed JavaScript for a stack and locale, or null if not in the manifest.
+     */
+    StreamableResource getStack(String stackName, Locale locale) throws IOException;
+}
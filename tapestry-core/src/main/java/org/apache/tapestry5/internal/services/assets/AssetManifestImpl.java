@@ -0,0 +1,130 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.apache.tapestry5.internal.services.assets;
+
+import org.apache.tapestry5.SymbolConstants;
+import org.apache.tapestry5.commons.Resource;
+import org.apache.tapestry5.http.ContentType;
+import org.apache.tapestry5.http.TapestryHttpSymbolConstants;
+import org.apache.tapestry5.ioc.annotations.Symbol;
+import org.apache.tapestry5.ioc.internal.util.ClasspathResource;
+import org.apache.tapestry5.json.JSONObject;
+import org.apache.tapestry5.services.assets.CompressionStatus;
+import org.apache.tapestry5.services.assets.StreamableResource;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+public class AssetManifestImpl implements AssetManifest
+{
+    static final String ASSETS = "assets";
+
+    static final String STACKS = "stacks";
+
+    static final String FILE = "file";
+
+    static final String CHECKSUM = "checksum";
+
+    static final String CONTENT_TYPE = "contentType";
+
+    static final String COMPRESSION = "compression";
+
+    static final String LAST_MODIFIED = "lastModified";
+
+    private final Resource manifestResource;
+
+    private final JSONObject assets, stacks;
+
+    public AssetManifestImpl(@Symbol(SymbolConstants.ASSET_MANIFEST) String manifestPath,
+                             @Symbol(TapestryHttpSymbolConstants.PRODUCTION_MODE) boolean productionMode,
+                             Logger logger) throws IOException
+    {
+        manifestResource = productionMode && !manifestPath.isEmpty() ? new ClasspathResource(manifestPath) : null;
+
+        if (manifestResource == null || !manifestResource.exists())
+        {
+            assets = stacks = new JSONObject();
+            return;
+        }
+
+        JSONObject manifest = new JSONObject(read(manifestResource));
+
+        assets = manifest.getJSONObjectOrDefault(ASSETS, new JSONObject());
+        stacks = manifest.getJSONObjectOrDefault(STACKS, new JSONObject());
+
+        logger.info("Using {} precompiled assets and {} precompiled JavaScript stacks from {}.",
+                assets.length(), stacks.length(), manifestResource);
+    }
+
+    static String toStackKey(String stackName, Locale locale)
+    {
+        return stackName + ":" + locale;
+    }
+
+    private static String read(Resource resource) throws IOException
+    {
+        try (InputStream stream = resource.openStream())
+        {
+            return new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    public boolean isEmpty()
+    {
+        return assets.length() == 0 && stacks.length() == 0;
+    }
+
+    public StreamableResource getAsset(Resource resource) throws IOException
+    {
+        return toStreamable(resource.toString(), assets.getJSONObjectOrDefault(resource.toString(), null));
+    }
+
+    public StreamableResource getStack(String stackName, Locale locale) throws IOException
+    {
+        String key = toStackKey(stackName, locale);
+
+        return toStreamable(String.format("'%s' JavaScript stack, for locale %s (precompiled)", stackName, locale),
+                stacks.getJSONObjectOrDefault(key, null));
+    }
+
+    private StreamableResource toStreamable(String description, JSONObject entry) throws IOException
+    {
+        if (entry == null)
+        {
+            return null;
+        }
+
+        Resource content = manifestResource.forFile(entry.getString(FILE));
+
+        // Fall back to processing the resource at runtime if the manifest is incomplete.
+
+        if (!content.exists())
+        {
+            return null;
+        }
+
+        try (InputStream stream = content.openStream())
+        {
+            return new PrecompiledStreamableResource(description,
+                    new ContentType(entry.getString(CONTENT_TYPE)),
+                    CompressionStatus.valueOf(entry.getString(COMPRESSION)),
+                    entry.getLong(LAST_MODIFIED),
+                    new BytestreamCache(stream.readAllBytes()),
+                    entry.getString(CHECKSUM));
+        }
+    }
+}
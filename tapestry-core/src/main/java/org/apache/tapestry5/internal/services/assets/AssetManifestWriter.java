@@ -0,0 +1,185 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.apache.tapestry5.internal.services.assets;
+
+import org.apache.tapestry5.SymbolConstants;
+import org.apache.tapestry5.commons.Resource;
+import org.apache.tapestry5.commons.util.CollectionFactory;
+import org.apache.tapestry5.http.ContentType;
+import org.apache.tapestry5.internal.TapestryInternalUtils;
+import org.apache.tapestry5.ioc.internal.util.ClasspathResource;
+import org.apache.tapestry5.ioc.services.ClasspathScanner;
+import org.apache.tapestry5.json.JSONObject;
+import org.apache.tapestry5.services.LocalizationSetter;
+import org.apache.tapestry5.services.assets.StreamableResource;
+import org.apache.tapestry5.services.assets.StreamableResourceProcessing;
+import org.apache.tapestry5.services.assets.StreamableResourceSource;
+import org.apache.tapestry5.services.javascript.JavaScriptStack;
+import org.apache.tapestry5.services.javascript.JavaScriptStackSource;
+import org.slf4j.Logger;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Builds an {@link AssetManifest}: runs classpath assets, and combined JavaScript stacks, through the
+ * {@link StreamableResourceSource} (with its transformation, minification and URL rewriting interceptors),
+ * and writes the results and the manifest to a directory, to be packaged on the application's classpath.
+ *
+ * The registry must be in production mode (so that minification is enabled), with the manifest itself disabled.
+ *
+ * @see org.apache.tapestry5.util.AssetPrecompiler
+ * @since 5.10
+ */
+public class AssetManifestWriter
+{
+    private final Logger logger;
+
+    private final StreamableResourceSource streamableResourceSource;
+
+    private final ResourceChangeTracker resourceChangeTracker;
+
+    private final ClasspathScanner classpathScanner;
+
+    private final JavaScriptStackSource stackSource;
+
+    private final JavaScriptStackAssembler stackAssembler;
+
+    private final LocalizationSetter localizationSetter;
+
+    private final boolean combineScripts;
+
+    private final JSONObject assets = new JSONObject(), stacks = new JSONObject();
+
+    public AssetManifestWriter(Logger logger, StreamableResourceSource streamableResourceSource, ResourceChangeTracker resourceChangeTracker,
+                               ClasspathScanner classpathScanner, JavaScriptStackSource stackSource, JavaScriptStackAssembler stackAssembler,
+                               LocalizationSetter localizationSetter, boolean combineScripts)
+    {
+        this.logger = logger;
+        this.streamableResourceSource = streamableResourceSource;
+        this.resourceChangeTracker = resourceChangeTracker;
+        this.classpathScanner = classpathScanner;
+        this.stackSource = stackSource;
+        this.stackAssembler = stackAssembler;
+        this.localizationSetter = localizationSetter;
+        this.combineScripts = combineScripts;
+    }
+
+    /**
+     * Processes all JavaScript and CSS files (including files with extensions that are transformed to JavaScript or
+     * CSS, such as "ts" or "less") under the given classpath folders, and all combined JavaScript stacks in each
+     * supported locale.
+     *
+     * @param outputDirectory
+     *         root of the classpath folder to write to
+     * @param manifestPath
+     *         path of the manifest, relative to the output directory; should match {@link SymbolConstants#ASSET_MANIFEST}
+     * @param packagePaths
+     *         classpath folders to search, such as "META-INF/assets/"
+     */
+    public void write(File outputDirectory, String manifestPath, String... packagePaths) throws IOException
+    {
+        final Set<String> extensions = CollectionFactory.newSet("js", "css");
+
+        extensions.addAll(streamableResourceSource.fileExtensionsForContentType(new ContentType("text/javascript")));
+        extensions.addAll(streamableResourceSource.fileExtensionsForContentType(new ContentType("text/css")));
+
+        File manifestFile = new File(outputDirectory, manifestPath);
+        File contentDirectory = manifestFile.getParentFile();
+
+        for (String packagePath : packagePaths)
+        {
+            Set<String> paths = classpathScanner.scan(packagePath, (folder, fileName) ->
+                    extensions.contains(TapestryInternalUtils.toFileSuffix(fileName)));
+
+            for (String path : paths)
+            {
+                Resource resource = new ClasspathResource(path);
+
+                try
+                {
+                    StreamableResource streamable = streamableResourceSource.getStreamableResource(resource,
+                            StreamableResourceProcessing.COMPRESSION_DISABLED, resourceChangeTracker);
+
+                    assets.put(resource.toString(), writeContent(contentDirectory, path, streamable));
+                } catch (Exception ex)
+                {
+                    logger.warn("Unable to precompile {}; it will be processed at runtime: {}", resource, ex.getMessage());
+                }
+            }
+        }
+
+        for (String stackName : stackSource.getStackNames())
+        {
+            JavaScriptStack stack = stackSource.getStack(stackName);
+
+            if (!combineScripts || !stack.getJavaScriptAggregationStrategy().enablesCombine())
+            {
+                continue;
+            }
+
+            for (Locale locale : localizationSetter.getSupportedLocales())
+            {
+                localizationSetter.setNonPersistentLocaleFromLocaleName(locale.toString());
+
+                StreamableResource streamable = stackAssembler.assembleJavaScriptResourceForStack(stackName, false,
+                        stack.getJavaScriptAggregationStrategy());
+
+                stacks.put(AssetManifestImpl.toStackKey(stackName, locale),
+                        writeContent(contentDirectory, "stacks/" + locale + "/" + stackName + ".js", streamable));
+            }
+        }
+
+        JSONObject manifest = new JSONObject(AssetManifestImpl.ASSETS, assets, AssetManifestImpl.STACKS, stacks);
+
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(manifestFile), StandardCharsets.UTF_8))
+        {
+            writer.write(manifest.toString(false));
+        }
+
+        logger.info("Wrote {} precompiled assets and {} precompiled JavaScript stacks to {}.", assets.length(), stacks.length(), manifestFile);
+    }
+
+    /**
+     * Writes the content to a file (in a folder named for the content's checksum) and returns the manifest entry.
+     */
+    private static JSONObject writeContent(File contentDirectory, String path, StreamableResource streamable) throws IOException
+    {
+        String checksum = streamable.getChecksum();
+        String file = checksum + "/" + path;
+
+        File output = new File(contentDirectory, file);
+
+        output.getParentFile().mkdirs();
+
+        try (OutputStream stream = new FileOutputStream(output))
+        {
+            streamable.streamTo(stream);
+        }
+
+        return new JSONObject(
+                AssetManifestImpl.FILE, file,
+                AssetManifestImpl.CHECKSUM, checksum,
+                AssetManifestImpl.CONTENT_TYPE, streamable.getContentType().toString(),
+                AssetManifestImpl.COMPRESSION, streamable.getCompression().name(),
+                AssetManifestImpl.LAST_MODIFIED, streamable.getLastModified());
+    }
+}
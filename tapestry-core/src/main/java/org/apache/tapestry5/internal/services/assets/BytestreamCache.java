@@ -46,6 +46,16 @@ public class BytestreamCache
         os.write(streamData, 0, streamData.length);
     }
 
+    /**
+     * Writes part of the content.
+     *
+     * @since 5.10
+     */
+    public void writeTo(OutputStream os, int offset, int length) throws IOException
+    {
+        os.write(streamData, offset, length);
+    }
+
     public int size()
     {
         return streamData.length;
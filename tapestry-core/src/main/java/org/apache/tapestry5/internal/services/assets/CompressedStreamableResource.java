@@ -12,34 +12,73 @@
 
 package org.apache.tapestry5.internal.services.assets;
 
+import org.apache.tapestry5.http.ContentType;
 import org.apache.tapestry5.services.assets.AssetChecksumGenerator;
+import org.apache.tapestry5.services.assets.CompressionCodec;
 import org.apache.tapestry5.services.assets.CompressionStatus;
+import org.apache.tapestry5.services.assets.ResponseCustomizer;
 import org.apache.tapestry5.services.assets.StreamableResource;
 
-import java.io.BufferedOutputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.util.zip.GZIPOutputStream;
 
 /**
- * GZip compressed representation of a {@link StreamableResource}.
+ * Compressed representation of a {@link StreamableResource}, either compressed by a {@link CompressionCodec}, or
+ * read from a pre-compressed file. The checksum is that of the uncompressed content, so that asset URLs do not
+ * depend on which encoding is negotiated with the client.
  *
  * @since 5.4
  */
 public class CompressedStreamableResource extends StreamableResourceImpl
 {
+    private final StreamableResource base;
+
+    private final String contentEncoding;
+
+    /**
+     * Compresses the base resource using GZip.
+     */
     public CompressedStreamableResource(StreamableResource base, AssetChecksumGenerator assetChecksumGenerator) throws IOException
     {
-        super(base.getDescription(), base.getContentType(), CompressionStatus.COMPRESSED, base.getLastModified(), compressContent(base), assetChecksumGenerator, base.getResponseCustomizer());
+        this(base, new GZipCompressionCodec(), assetChecksumGenerator);
+    }
+
+    /**
+     * Compresses the base resource using the codec.
+     *
+     * @since 5.10
+     */
+    public CompressedStreamableResource(StreamableResource base, CompressionCodec codec, AssetChecksumGenerator assetChecksumGenerator) throws IOException
+    {
+        this(base, codec.getContentEncoding(), compressContent(base, codec), assetChecksumGenerator, base.getContentType(), base.getResponseCustomizer());
+    }
+
+    /**
+     * Uses already compressed content (such as a pre-compressed file) for the base resource.
+     *
+     * @since 5.10
+     */
+    public CompressedStreamableResource(StreamableResource base, String contentEncoding, BytestreamCache compressed, AssetChecksumGenerator assetChecksumGenerator)
+    {
+        this(base, contentEncoding, compressed, assetChecksumGenerator, base.getContentType(), base.getResponseCustomizer());
+    }
+
+    private CompressedStreamableResource(StreamableResource base, String contentEncoding, BytestreamCache compressed, AssetChecksumGenerator assetChecksumGenerator,
+                                         ContentType contentType, ResponseCustomizer responseCustomizer)
+    {
+        super(base.getDescription(), contentType, CompressionStatus.COMPRESSED, base.getLastModified(), compressed, assetChecksumGenerator, responseCustomizer);
 
         assert base.getCompression() == CompressionStatus.COMPRESSABLE;
+
+        this.base = base;
+        this.contentEncoding = contentEncoding;
     }
 
-    private static BytestreamCache compressContent(StreamableResource resource) throws IOException
+    private static BytestreamCache compressContent(StreamableResource resource, CompressionCodec codec) throws IOException
     {
         ByteArrayOutputStream compressed = new ByteArrayOutputStream(resource.getSize());
-        OutputStream compressor = new BufferedOutputStream(new GZIPOutputStream(compressed));
+        OutputStream compressor = codec.createCompressor(compressed);
 
         resource.streamTo(compressor);
 
@@ -47,4 +86,29 @@ public class CompressedStreamableResource extends StreamableResourceImpl
 
         return new BytestreamCache(compressed);
     }
+
+    @Override
+    public String getContentEncoding()
+    {
+        return contentEncoding;
+    }
+
+    @Override
+    public String getChecksum() throws IOException
+    {
+        return base.getChecksum();
+    }
+
+    @Override
+    protected StreamableResource copy(ContentType contentType, ResponseCustomizer responseCustomizer)
+    {
+        return new CompressedStreamableResource(base, contentEncoding, bytestreamCache, assetChecksumGenerator, contentType, responseCustomizer);
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("StreamableResource<%s %s %s(%s) lastModified: %tc size: %d>", getContentType(), description, compression.name(),
+                contentEncoding, lastModified, getSize());
+    }
 }
@@ -0,0 +1,146 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.apache.tapestry5.internal.services.assets;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import org.apache.tapestry5.commons.util.CollectionFactory;
+import org.apache.tapestry5.commons.util.CommonsUtils;
+import org.apache.tapestry5.http.ContentType;
+import org.apache.tapestry5.http.TapestryHttpConstants;
+import org.apache.tapestry5.http.TapestryHttpSymbolConstants;
+import org.apache.tapestry5.http.services.CompressionAnalyzer;
+import org.apache.tapestry5.http.services.RequestGlobals;
+import org.apache.tapestry5.ioc.annotations.Symbol;
+import org.apache.tapestry5.services.assets.CompressionCodec;
+import org.apache.tapestry5.services.assets.CompressionCodecSource;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+public class CompressionCodecSourceImpl implements CompressionCodecSource
+{
+    private final List<CompressionCodec> codecs;
+
+    private final RequestGlobals requestGlobals;
+
+    private final boolean compressionEnabled;
+
+    private final CompressionAnalyzer compressionAnalyzer;
+
+    public CompressionCodecSourceImpl(List<CompressionCodec> configuration, RequestGlobals requestGlobals,
+                                      @Symbol(TapestryHttpSymbolConstants.GZIP_COMPRESSION_ENABLED)
+                                      boolean compressionEnabled, CompressionAnalyzer compressionAnalyzer)
+    {
+        this.codecs = Collections.unmodifiableList(configuration);
+        this.requestGlobals = requestGlobals;
+        this.compressionEnabled = compressionEnabled;
+        this.compressionAnalyzer = compressionAnalyzer;
+    }
+
+    public List<CompressionCodec> getCodecs()
+    {
+        return codecs;
+    }
+
+    public List<CompressionCodec> getAcceptedCodecs()
+    {
+        HttpServletRequest request = requestGlobals.getHTTPServletRequest();
+
+        // Same rules as ResponseCompressionAnalyzer: TAP5-1880 and TAP5-2264
+
+        if (request == null
+                || "HTTP/1.0".equals(request.getProtocol())
+                || request.getAttribute(TapestryHttpConstants.SUPPRESS_COMPRESSION) != null)
+        {
+            return Collections.emptyList();
+        }
+
+        return getAcceptedCodecs(request.getHeader("Accept-Encoding"));
+    }
+
+    public boolean isCompressionSupported()
+    {
+        return compressionEnabled && !getAcceptedCodecs().isEmpty();
+    }
+
+    public boolean isCompressionEnabled(ContentType contentType)
+    {
+        return isCompressionSupported() && compressionAnalyzer.isCompressable(contentType.getMimeType());
+    }
+
+    List<CompressionCodec> getAcceptedCodecs(String acceptEncoding)
+    {
+        String[] entries = CommonsUtils.splitAtCommas(acceptEncoding);
+
+        if (entries.length == 0)
+        {
+            return Collections.emptyList();
+        }
+
+        // Maps content coding (or "*") to its quality value.
+        Map<String, Float> qualities = CollectionFactory.newMap();
+
+        for (String entry : entries)
+        {
+            String[] parts = entry.split(";");
+
+            qualities.put(parts[0].trim().toLowerCase(Locale.ENGLISH), toQuality(parts));
+        }
+
+        Float wildcard = qualities.get("*");
+
+        List<CompressionCodec> result = CollectionFactory.newList();
+
+        for (CompressionCodec codec : codecs)
+        {
+            Float quality = qualities.get(codec.getContentEncoding());
+
+            if (quality == null)
+            {
+                quality = wildcard;
+            }
+
+            if (quality != null && quality > 0)
+            {
+                result.add(codec);
+            }
+        }
+
+        return result;
+    }
+
+    private static float toQuality(String[] parts)
+    {
+        for (int i = 1; i < parts.length; i++)
+        {
+            String parameter = parts[i].trim();
+
+            if (parameter.startsWith("q="))
+            {
+                try
+                {
+                    return Float.parseFloat(parameter.substring(2));
+                } catch (NumberFormatException ex)
+                {
+                    return 0;
+                }
+            }
+        }
+
+        return 1;
+    }
+}
@@ -0,0 +1,214 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.apache.tapestry5.internal.services.assets;
+
+import org.apache.tapestry5.http.ContentType;
+import org.apache.tapestry5.http.services.Response;
+import org.apache.tapestry5.services.assets.AssetChecksumGenerator;
+import org.apache.tapestry5.services.assets.CompressionStatus;
+import org.apache.tapestry5.services.assets.ResponseCustomizer;
+import org.apache.tapestry5.services.assets.StreamableResource;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * A StreamableResource whose content is read from a file each time it is streamed, rather than being held in memory.
+ * Used for large resources that don't need to be transformed. The content is copied using
+ * {@link FileChannel#transferTo(long, long, WritableByteChannel)}, and {@link org.apache.tapestry5.services.assets.ResourceStreamer}
+ * may hand the file to the servlet container to be sent directly.
+ *
+ * @since 5.10
+ */
+public class FileStreamableResource implements StreamableResource
+{
+    private final String description;
+
+    private final ContentType contentType;
+
+    private final CompressionStatus compression;
+
+    private final long lastModified;
+
+    private final Path file;
+
+    private final int size;
+
+    private final AssetChecksumGenerator assetChecksumGenerator;
+
+    private final ResponseCustomizer responseCustomizer;
+
+    public FileStreamableResource(String description, ContentType contentType, CompressionStatus compression, long lastModified,
+                                  Path file, int size, AssetChecksumGenerator assetChecksumGenerator, ResponseCustomizer responseCustomizer)
+    {
+        this.description = description;
+        this.contentType = contentType;
+        this.compression = compression;
+        this.lastModified = lastModified;
+        this.file = file;
+        this.size = size;
+        this.assetChecksumGenerator = assetChecksumGenerator;
+        this.responseCustomizer = responseCustomizer;
+    }
+
+    /**
+     * Returns the file containing the content.
+     */
+    public Path getFile()
+    {
+        return file;
+    }
+
+    public String getDescription()
+    {
+        return description;
+    }
+
+    public CompressionStatus getCompression()
+    {
+        return compression;
+    }
+
+    public ContentType getContentType()
+    {
+        return contentType;
+    }
+
+    public int getSize()
+    {
+        return size;
+    }
+
+    public long getLastModified()
+    {
+        return lastModified;
+    }
+
+    public void streamTo(OutputStream os) throws IOException
+    {
+        streamTo(os, 0, size);
+    }
+
+    @Override
+    public void streamTo(OutputStream os, long offset, long length) throws IOException
+    {
+        // The channel wrapping the stream is not closed, as that would close the stream.
+
+        WritableByteChannel target = Channels.newChannel(os);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            long position = offset;
+            long end = offset + length;
+
+            while (position < end)
+            {
+                long count = channel.transferTo(position, end - position, target);
+
+                if (count <= 0 && position >= channel.size())
+                {
+                    throw new EOFException(String.format("File %s was truncated while being streamed.", file));
+                }
+
+                position += count;
+            }
+        }
+    }
+
+    public InputStream openStream() throws IOException
+    {
+        return Files.newInputStream(file);
+    }
+
+    public String getChecksum() throws IOException
+    {
+        return assetChecksumGenerator.generateChecksum(this);
+    }
+
+    @Override
+    public StreamableResource addResponseCustomizer(final ResponseCustomizer customizer)
+    {
+        final ResponseCustomizer oldCustomizer = responseCustomizer;
+
+        if (oldCustomizer == null)
+        {
+            return copy(contentType, customizer);
+        }
+
+        return copy(contentType, new ResponseCustomizer()
+        {
+            @Override
+            public void customizeResponse(StreamableResource resource, Response response) throws IOException
+            {
+                oldCustomizer.customizeResponse(resource, response);
+                customizer.customizeResponse(resource, response);
+            }
+        });
+    }
+
+    @Override
+    public ResponseCustomizer getResponseCustomizer()
+    {
+        return responseCustomizer;
+    }
+
+    @Override
+    public StreamableResource withContentType(ContentType newContentType)
+    {
+        return copy(newContentType, responseCustomizer);
+    }
+
+    private StreamableResource copy(ContentType contentType, ResponseCustomizer responseCustomizer)
+    {
+        return new FileStreamableResource(description, contentType, compression, lastModified, file, size, assetChecksumGenerator, responseCustomizer);
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("StreamableResource<%s %s %s lastModified: %tc size: %d file: %s>", contentType, description, compression.name(),
+                lastModified, size, file);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(size, compression, contentType, description, lastModified, file);
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (this == obj)
+        {
+            return true;
+        }
+        if (!(obj instanceof FileStreamableResource))
+        {
+            return false;
+        }
+        FileStreamableResource other = (FileStreamableResource) obj;
+        return size == other.size && compression == other.compression && Objects.equals(contentType, other.contentType)
+                && Objects.equals(description, other.description) && lastModified == other.lastModified && file.equals(other.file);
+    }
+}
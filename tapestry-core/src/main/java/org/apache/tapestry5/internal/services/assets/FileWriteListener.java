@@ -0,0 +1,104 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.apache.tapestry5.internal.services.assets;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Writes part of a file to a response using non-blocking output: content is only written while
+ * {@link ServletOutputStream#isReady()}, and the container invokes the listener again once the client can accept
+ * more. The request thread is not tied up while the client receives a large file. The {@link AsyncContext} is completed,
+ * and the channel closed, once all the content has been written or on error.
+ *
+ * @since 5.10
+ */
+public class FileWriteListener implements WriteListener
+{
+    private static final int BUFFER_SIZE = 32 * 1024;
+
+    private final FileChannel channel;
+
+    private final ServletOutputStream os;
+
+    private final AsyncContext context;
+
+    private final long end;
+
+    private final byte[] buffer;
+
+    private long position;
+
+    public FileWriteListener(FileChannel channel, long offset, long length, ServletOutputStream os, AsyncContext context)
+    {
+        this.channel = channel;
+        this.os = os;
+        this.context = context;
+
+        position = offset;
+        end = offset + length;
+        buffer = new byte[(int) Math.min(BUFFER_SIZE, Math.max(length, 1))];
+    }
+
+    public void onWritePossible() throws IOException
+    {
+        while (os.isReady())
+        {
+            if (position >= end)
+            {
+                finish();
+                return;
+            }
+
+            ByteBuffer wrapper = ByteBuffer.wrap(buffer, 0, (int) Math.min(buffer.length, end - position));
+
+            int count = channel.read(wrapper, position);
+
+            if (count < 0)
+            {
+                throw new EOFException(String.format("File was truncated while being streamed; %d bytes were not sent.", end - position));
+            }
+
+            position += count;
+
+            os.write(buffer, 0, count);
+        }
+    }
+
+    public void onError(Throwable t)
+    {
+        // Usually, the client has closed the connection; there's nobody left to report the error to.
+
+        finish();
+    }
+
+    private void finish()
+    {
+        try
+        {
+            channel.close();
+        } catch (IOException ex)
+        {
+            // Ignore it; nothing was written to the file.
+        }
+
+        context.complete();
+    }
+}
@@ -0,0 +1,50 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.apache.tapestry5.internal.services.assets;
+
+import org.apache.tapestry5.http.internal.TapestryHttpInternalConstants;
+import org.apache.tapestry5.services.assets.CompressionCodec;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The standard "gzip" codec; also serves pre-compressed ".gz" files.
+ *
+ * @since 5.10
+ */
+public class GZipCompressionCodec implements CompressionCodec
+{
+    public String getContentEncoding()
+    {
+        return TapestryHttpInternalConstants.GZIP_CONTENT_ENCODING;
+    }
+
+    public String getFileExtension()
+    {
+        return "gz";
+    }
+
+    public boolean isCompressionSupported()
+    {
+        return true;
+    }
+
+    public OutputStream createCompressor(OutputStream output) throws IOException
+    {
+        return new BufferedOutputStream(new GZIPOutputStream(output));
+    }
+}
@@ -52,6 +52,10 @@ public class JavaScriptStackAssemblerImpl implements JavaScriptStackAssembler
 
     private final boolean minificationEnabled;
 
+    private final CompressionCodecSource codecSource;
+
+    private final AssetManifest manifest;
+
     private final Map<String, StreamableResource> cache = Collections.synchronizedMap(CollectionFactory.<StreamableResource>newCaseInsensitiveMap());
 
     private class Parameters
@@ -60,21 +64,24 @@ public class JavaScriptStackAssemblerImpl implements JavaScriptStackAssembler
 
         final String stackName;
 
-        final boolean compress;
+        /**
+         * Codec used to compress the stack, or null for no compression.
+         */
+        final CompressionCodec codec;
 
         final JavaScriptAggregationStrategy javascriptAggregationStrategy;
 
-        private Parameters(Locale locale, String stackName, boolean compress, JavaScriptAggregationStrategy javascriptAggregationStrategy)
+        private Parameters(Locale locale, String stackName, CompressionCodec codec, JavaScriptAggregationStrategy javascriptAggregationStrategy)
         {
             this.locale = locale;
             this.stackName = stackName;
-            this.compress = compress;
+            this.codec = codec;
             this.javascriptAggregationStrategy = javascriptAggregationStrategy;
         }
 
         Parameters disableCompress()
         {
-            return new Parameters(locale, stackName, false, javascriptAggregationStrategy);
+            return new Parameters(locale, stackName, null, javascriptAggregationStrategy);
         }
     }
 
@@ -84,7 +91,8 @@ public class JavaScriptStackAssemblerImpl implements JavaScriptStackAssembler
                                         JavaScriptStackSource stackSource, AssetChecksumGenerator checksumGenerator, ModuleManager moduleManager,
                                         ResourceMinimizer resourceMinimizer,
                                         @Symbol(SymbolConstants.MINIFICATION_ENABLED)
-                                        boolean minificationEnabled)
+                                        boolean minificationEnabled,
+                                        CompressionCodecSource codecSource, AssetManifest manifest)
     {
         this.threadLocale = threadLocale;
         this.resourceChangeTracker = resourceChangeTracker;
@@ -94,6 +102,8 @@ public class JavaScriptStackAssemblerImpl implements JavaScriptStackAssembler
         this.moduleManager = moduleManager;
         this.resourceMinimizer = resourceMinimizer;
         this.minificationEnabled = minificationEnabled;
+        this.codecSource = codecSource;
+        this.manifest = manifest;
 
         resourceChangeTracker.clearOnInvalidation(cache);
     }
@@ -102,7 +112,24 @@ public class JavaScriptStackAssemblerImpl implements JavaScriptStackAssembler
     {
         Locale locale = threadLocale.getLocale();
 
-        return assembleJavascriptResourceForStack(new Parameters(locale, stackName, compress, javascriptAggregationStrategy));
+        return assembleJavascriptResourceForStack(new Parameters(locale, stackName, compress ? selectCodec() : null, javascriptAggregationStrategy));
+    }
+
+    /**
+     * Stacks are assembled on the fly, so there are no pre-compressed files; the first accepted codec that can compress
+     * is used.
+     */
+    private CompressionCodec selectCodec()
+    {
+        for (CompressionCodec codec : codecSource.getAcceptedCodecs())
+        {
+            if (codec.isCompressionSupported())
+            {
+                return codec;
+            }
+        }
+
+        return null;
     }
 
     private StreamableResource assembleJavascriptResourceForStack(Parameters parameters) throws IOException
@@ -110,7 +137,7 @@ public class JavaScriptStackAssemblerImpl implements JavaScriptStackAssembler
         String key =
                 String.format("%s[%s] %s",
                         parameters.stackName,
-                        parameters.compress ? "COMPRESS" : "UNCOMPRESSED",
+                        parameters.codec == null ? "UNCOMPRESSED" : parameters.codec.getContentEncoding(),
                         parameters.locale.toString());
 
         StreamableResource result = cache.get(key);
@@ -126,11 +153,18 @@ public class JavaScriptStackAssemblerImpl implements JavaScriptStackAssembler
 
     private StreamableResource assemble(Parameters parameters) throws IOException
     {
-        if (parameters.compress)
+        if (parameters.codec != null)
         {
             StreamableResource uncompressed = assembleJavascriptResourceForStack(parameters.disableCompress());
 
-            return new CompressedStreamableResource(uncompressed, checksumGenerator);
+            return new CompressedStreamableResource(uncompressed, parameters.codec, checksumGenerator);
+        }
+
+        StreamableResource precompiled = manifest.getStack(parameters.stackName, parameters.locale);
+
+        if (precompiled != null)
+        {
+            return precompiled;
         }
 
         JavaScriptStack stack = stackSource.getStack(parameters.stackName);
@@ -0,0 +1,55 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.apache.tapestry5.internal.services.assets;
+
+import org.apache.tapestry5.http.ContentType;
+import org.apache.tapestry5.services.assets.CompressionStatus;
+import org.apache.tapestry5.services.assets.ResponseCustomizer;
+import org.apache.tapestry5.services.assets.StreamableResource;
+
+/**
+ * Content read from the {@link AssetManifest}; the checksum was computed when the manifest was built.
+ *
+ * @since 5.10
+ */
+public class PrecompiledStreamableResource extends StreamableResourceImpl
+{
+    private final String checksum;
+
+    public PrecompiledStreamableResource(String description, ContentType contentType, CompressionStatus compression, long lastModified,
+                                         BytestreamCache bytestreamCache, String checksum)
+    {
+        this(description, contentType, compression, lastModified, bytestreamCache, checksum, null);
+    }
+
+    private PrecompiledStreamableResource(String description, ContentType contentType, CompressionStatus compression, long lastModified,
+                                          BytestreamCache bytestreamCache, String checksum, ResponseCustomizer responseCustomizer)
+    {
+        super(description, contentType, compression, lastModified, bytestreamCache, null, responseCustomizer);
+
+        this.checksum = checksum;
+    }
+
+    @Override
+    public String getChecksum()
+    {
+        return checksum;
+    }
+
+    @Override
+    protected StreamableResource copy(ContentType contentType, ResponseCustomizer responseCustomizer)
+    {
+        return new PrecompiledStreamableResource(description, contentType, compression, lastModified, bytestreamCache, checksum, responseCustomizer);
+    }
+}
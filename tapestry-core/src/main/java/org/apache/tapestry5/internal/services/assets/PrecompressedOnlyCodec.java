@@ -0,0 +1,62 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.apache.tapestry5.internal.services.assets;
+
+import org.apache.tapestry5.services.assets.CompressionCodec;
+
+import java.io.OutputStream;
+
+/**
+ * A codec for an encoding that the JDK can't produce, used only to serve pre-compressed files.
+ *
+ * @since 5.10
+ */
+public class PrecompressedOnlyCodec implements CompressionCodec
+{
+    private final String contentEncoding;
+
+    private final String fileExtension;
+
+    public PrecompressedOnlyCodec(String contentEncoding, String fileExtension)
+    {
+        this.contentEncoding = contentEncoding;
+        this.fileExtension = fileExtension;
+    }
+
+    public String getContentEncoding()
+    {
+        return contentEncoding;
+    }
+
+    public String getFileExtension()
+    {
+        return fileExtension;
+    }
+
+    public boolean isCompressionSupported()
+    {
+        return false;
+    }
+
+    public OutputStream createCompressor(OutputStream output)
+    {
+        throw new UnsupportedOperationException(String.format("Content encoding '%s' is only supported for pre-compressed files.", contentEncoding));
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("PrecompressedOnlyCodec[%s]", contentEncoding);
+    }
+}
@@ -0,0 +1,56 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.apache.tapestry5.internal.services.assets;
+
+import org.apache.tapestry5.commons.Resource;
+import org.apache.tapestry5.services.assets.ResourceDependencies;
+import org.apache.tapestry5.services.assets.StreamableResource;
+import org.apache.tapestry5.services.assets.StreamableResourceProcessing;
+import org.apache.tapestry5.services.assets.StreamableResourceSource;
+
+import java.io.IOException;
+
+/**
+ * Returns content from the {@link AssetManifest} when available, bypassing the transformation, minification
+ * and URL rewriting interceptors (the manifest's content has already been through them).
+ *
+ * @since 5.10
+ */
+public class SRSAssetManifestInterceptor extends DelegatingSRS
+{
+    private final AssetManifest manifest;
+
+    public SRSAssetManifestInterceptor(StreamableResourceSource delegate, AssetManifest manifest)
+    {
+        super(delegate);
+
+        this.manifest = manifest;
+    }
+
+    public StreamableResource getStreamableResource(Resource baseResource, StreamableResourceProcessing processing, ResourceDependencies dependencies)
+            throws IOException
+    {
+        if (processing != StreamableResourceProcessing.FOR_AGGREGATION)
+        {
+            StreamableResource precompiled = manifest.getAsset(baseResource);
+
+            if (precompiled != null)
+            {
+                return precompiled;
+            }
+        }
+
+        return delegate.getStreamableResource(baseResource, processing, dependencies);
+    }
+}
@@ -15,29 +15,26 @@
 package org.apache.tapestry5.internal.services.assets;
 
 import org.apache.tapestry5.commons.Resource;
-import org.apache.tapestry5.commons.util.CollectionFactory;
-import org.apache.tapestry5.internal.TapestryInternalUtils;
 import org.apache.tapestry5.services.assets.ResourceDependencies;
 import org.apache.tapestry5.services.assets.StreamableResource;
 import org.apache.tapestry5.services.assets.StreamableResourceProcessing;
 import org.apache.tapestry5.services.assets.StreamableResourceSource;
 
 import java.io.IOException;
-import java.lang.ref.SoftReference;
-import java.util.Map;
 
 /**
  * An interceptor for the {@link StreamableResourceSource} service that handles caching of content.
+ * Content is stored in the shared, size-limited {@link StreamableResourceCache}.
  */
 public class SRSCachingInterceptor extends DelegatingSRS
 {
-    private final Map<Resource, SoftReference<StreamableResource>> cache = CollectionFactory.newConcurrentMap();
+    protected final StreamableResourceCache cache;
 
-    public SRSCachingInterceptor(StreamableResourceSource delegate, ResourceChangeTracker tracker)
+    public SRSCachingInterceptor(StreamableResourceSource delegate, StreamableResourceCache cache)
     {
         super(delegate);
 
-        tracker.clearOnInvalidation(cache);
+        this.cache = cache;
     }
 
     public StreamableResource getStreamableResource(Resource baseResource, StreamableResourceProcessing processing, ResourceDependencies dependencies)
@@ -48,7 +45,7 @@ public class SRSCachingInterceptor extends DelegatingSRS
             return delegate.getStreamableResource(baseResource, processing, dependencies);
         }
 
-        StreamableResource result = TapestryInternalUtils.getAndDeref(cache, baseResource);
+        StreamableResource result = getCached(baseResource);
 
         if (result == null)
         {
@@ -58,13 +55,33 @@ public class SRSCachingInterceptor extends DelegatingSRS
             {
                 dependencies.addDependency(baseResource);
 
-                cache.put(baseResource, new SoftReference<StreamableResource>(result));
+                putCached(baseResource, result);
             }
         }
 
         return result;
     }
 
+    /**
+     * Returns the uncompressed version of the resource from the cache, or null if not cached. Subclasses may override.
+     *
+     * @since 5.10
+     */
+    protected StreamableResource getCached(Resource baseResource)
+    {
+        return cache.get(baseResource, null);
+    }
+
+    /**
+     * Stores the uncompressed version of the resource in the cache. Subclasses may override.
+     *
+     * @since 5.10
+     */
+    protected void putCached(Resource baseResource, StreamableResource streamable)
+    {
+        cache.put(baseResource, null, streamable);
+    }
+
     /**
      * Always returns true; a subclass may extend this to only cache the resource in some circumstances.
      *
@@ -14,20 +14,81 @@
 
 package org.apache.tapestry5.internal.services.assets;
 
+import org.apache.tapestry5.commons.Resource;
+import org.apache.tapestry5.commons.util.CollectionFactory;
+import org.apache.tapestry5.services.assets.CompressionCodec;
+import org.apache.tapestry5.services.assets.CompressionCodecSource;
 import org.apache.tapestry5.services.assets.CompressionStatus;
 import org.apache.tapestry5.services.assets.StreamableResource;
 import org.apache.tapestry5.services.assets.StreamableResourceProcessing;
 import org.apache.tapestry5.services.assets.StreamableResourceSource;
 
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * Specialization of {@link SRSCachingInterceptor} that only attempts to cache
- * compressed resources.
+ * compressed resources. One compressed version is cached per content encoding; the version returned
+ * is the one for the most preferred {@link CompressionCodec} accepted by the client.
  */
 public class SRSCompressedCachingInterceptor extends SRSCachingInterceptor
 {
-    public SRSCompressedCachingInterceptor(StreamableResourceSource delegate, ResourceChangeTracker tracker)
+    private final CompressionCodecSource codecSource;
+
+    /**
+     * For each resource, the content encodings that can't be used for it (because the codec only supports
+     * pre-compressed files, and there isn't one), and are skipped in favor of the next accepted encoding.
+     */
+    private final Map<Resource, Set<String>> unavailable = CollectionFactory.newConcurrentMap();
+
+    public SRSCompressedCachingInterceptor(StreamableResourceSource delegate, StreamableResourceCache cache,
+                                           CompressionCodecSource codecSource, ResourceChangeTracker tracker)
+    {
+        super(delegate, cache);
+
+        this.codecSource = codecSource;
+
+        tracker.clearOnInvalidation(unavailable);
+    }
+
+    @Override
+    protected StreamableResource getCached(Resource baseResource)
     {
-        super(delegate, tracker);
+        Set<String> skipped = unavailable.get(baseResource);
+
+        for (CompressionCodec codec : codecSource.getAcceptedCodecs())
+        {
+            String encoding = codec.getContentEncoding();
+
+            if (skipped == null || !skipped.contains(encoding))
+            {
+                return cache.get(baseResource, encoding);
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    protected void putCached(Resource baseResource, StreamableResource streamable)
+    {
+        String encoding = streamable.getContentEncoding();
+
+        // The accepted codecs preferred to the one actually used were not usable for this resource.
+
+        for (CompressionCodec codec : codecSource.getAcceptedCodecs())
+        {
+            if (codec.getContentEncoding().equals(encoding))
+            {
+                break;
+            }
+
+            unavailable.computeIfAbsent(baseResource, r -> ConcurrentHashMap.newKeySet())
+                    .add(codec.getContentEncoding());
+        }
+
+        cache.put(baseResource, encoding, streamable);
     }
 
     /**
@@ -15,21 +15,35 @@
 package org.apache.tapestry5.internal.services.assets;
 
 import org.apache.tapestry5.commons.Resource;
+import org.apache.tapestry5.internal.TapestryInternalUtils;
 import org.apache.tapestry5.services.assets.*;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
 
+/**
+ * Compresses content using the most preferred {@link CompressionCodec} accepted by the client. A pre-compressed
+ * file alongside the resource (for example, {@code app.js.br} for {@code app.js}) is used in preference to
+ * compressing on the fly, as long as nothing (such as minification or CSS URL rewriting) changed the content
+ * of the resource.
+ */
 public class SRSCompressingInterceptor extends DelegatingSRS
 {
     private final int compressionCutoff;
 
     private final AssetChecksumGenerator checksumGenerator;
 
-    public SRSCompressingInterceptor(StreamableResourceSource delegate, int compressionCutoff, AssetChecksumGenerator checksumGenerator)
+    private final CompressionCodecSource codecSource;
+
+    public SRSCompressingInterceptor(StreamableResourceSource delegate, int compressionCutoff, AssetChecksumGenerator checksumGenerator,
+                                     CompressionCodecSource codecSource)
     {
         super(delegate);
         this.compressionCutoff = compressionCutoff;
         this.checksumGenerator = checksumGenerator;
+        this.codecSource = codecSource;
     }
 
     public StreamableResource getStreamableResource(Resource baseResource, StreamableResourceProcessing processing, ResourceDependencies dependencies)
@@ -37,10 +51,10 @@ public class SRSCompressingInterceptor extends DelegatingSRS
     {
         StreamableResource streamable = delegate.getStreamableResource(baseResource, processing, dependencies);
 
-        return processing == StreamableResourceProcessing.COMPRESSION_ENABLED ? compress(streamable) : streamable;
+        return processing == StreamableResourceProcessing.COMPRESSION_ENABLED ? compress(baseResource, streamable) : streamable;
     }
 
-    private StreamableResource compress(StreamableResource uncompressed) throws IOException
+    private StreamableResource compress(Resource baseResource, StreamableResource uncompressed) throws IOException
     {
         if (uncompressed.getCompression() != CompressionStatus.COMPRESSABLE)
         {
@@ -57,6 +71,60 @@ public class SRSCompressingInterceptor extends DelegatingSRS
             return uncompressed;
         }
 
-        return new CompressedStreamableResource(uncompressed, checksumGenerator);
+        Boolean unmodified = null;
+
+        for (CompressionCodec codec : codecSource.getAcceptedCodecs())
+        {
+            Resource precompressed = baseResource.forFile(baseResource.getFile() + "." + codec.getFileExtension());
+
+            if (precompressed.exists())
+            {
+                if (unmodified == null)
+                {
+                    unmodified = isUnmodified(baseResource, uncompressed);
+                }
+
+                if (unmodified)
+                {
+                    return new CompressedStreamableResource(uncompressed, codec.getContentEncoding(), read(precompressed), checksumGenerator);
+                }
+            }
+
+            if (codec.isCompressionSupported())
+            {
+                return new CompressedStreamableResource(uncompressed, codec, checksumGenerator);
+            }
+        }
+
+        return uncompressed;
+    }
+
+    /**
+     * Pre-compressed files are created from the resource's file, so they can only be used when the streamable content
+     * is the file's content.
+     */
+    private static boolean isUnmodified(Resource baseResource, StreamableResource streamable) throws IOException
+    {
+        return Arrays.equals(read(baseResource.openStream()), read(streamable.openStream()));
+    }
+
+    private static BytestreamCache read(Resource resource) throws IOException
+    {
+        return new BytestreamCache(read(resource.openStream()));
+    }
+
+    private static byte[] read(InputStream stream) throws IOException
+    {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+
+        try
+        {
+            TapestryInternalUtils.copy(stream, bos);
+        } finally
+        {
+            stream.close();
+        }
+
+        return bos.toByteArray();
     }
 }
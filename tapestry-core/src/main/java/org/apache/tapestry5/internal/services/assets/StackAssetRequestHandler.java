@@ -63,7 +63,7 @@ public class StackAssetRequestHandler implements AssetRequestHandler
 
     public boolean handleAssetRequest(Request request, Response response, final String extraPath) throws IOException
     {
-        return tracker.perform(String.format("Streaming JavaScript asset stack %s", extraPath),
+        return tracker.perform(() -> String.format("Streaming JavaScript asset stack %s", extraPath),
                 new IOOperation<Boolean>()
                 {
                     public Boolean perform() throws IOException
@@ -110,7 +110,7 @@ public class StackAssetRequestHandler implements AssetRequestHandler
         localizationSetter.setNonPersistentLocaleFromLocaleName(localeName);
 
         StreamableResource resource =
-                tracker.perform(String.format("Assembling JavaScript asset stack '%s' (%s)",
+                tracker.perform(() -> String.format("Assembling JavaScript asset stack '%s' (%s)",
                                 stackName, localeName),
                         new IOOperation<StreamableResource>()
                         {
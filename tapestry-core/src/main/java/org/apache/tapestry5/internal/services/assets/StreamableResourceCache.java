@@ -0,0 +1,52 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.apache.tapestry5.internal.services.assets;
+
+import org.apache.tapestry5.commons.Resource;
+import org.apache.tapestry5.services.assets.AssetCacheMetrics;
+import org.apache.tapestry5.services.assets.StreamableResource;
+
+/**
+ * A size-limited cache of {@link StreamableResource}s, shared by {@link SRSCachingInterceptor} and
+ * {@link SRSCompressedCachingInterceptor}. Each resource may be cached in several versions (uncompressed, and
+ * compressed with each {@linkplain org.apache.tapestry5.services.assets.CompressionCodec content encoding});
+ * these are stored in a single entry, so they are evicted together.
+ *
+ * @since 5.10
+ */
+public interface StreamableResourceCache extends AssetCacheMetrics
+{
+    /**
+     * Returns the cached version of the resource, or null if not cached. Updates the hit or miss count.
+     *
+     * @param resource
+     *         the underlying resource
+     * @param contentEncoding
+     *         the content encoding of the compressed version to return, or null for the uncompressed version
+     */
+    StreamableResource get(Resource resource, String contentEncoding);
+
+    /**
+     * Stores a version of the resource, possibly evicting the least recently used entries to make room.
+     * Content larger than the cache's maximum size is not stored.
+     *
+     * @param resource
+     *         the underlying resource
+     * @param contentEncoding
+     *         the content encoding of the compressed version, or null for the uncompressed version
+     * @param streamable
+     *         the content to cache
+     */
+    void put(Resource resource, String contentEncoding, StreamableResource streamable);
+}
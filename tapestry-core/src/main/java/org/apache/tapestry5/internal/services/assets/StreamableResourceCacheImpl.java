@@ -0,0 +1,192 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.apache.tapestry5.internal.services.assets;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.tapestry5.SymbolConstants;
+import org.apache.tapestry5.commons.Resource;
+import org.apache.tapestry5.ioc.annotations.Symbol;
+import org.apache.tapestry5.services.assets.StreamableResource;
+
+/**
+ * Least recently used cache, limited by the total size of the cached content. All access to the entries is
+ * synchronized; the work done while holding the lock is small compared to reading or processing the content.
+ */
+public class StreamableResourceCacheImpl implements StreamableResourceCache
+{
+    private final long maxSize;
+
+    private final Map<Resource, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long size;
+
+    private final AtomicLong hits = new AtomicLong(), misses = new AtomicLong(), evictions = new AtomicLong();
+
+    /**
+     * Holds the versions of one resource, keyed on content encoding (null for the uncompressed version).
+     */
+    private static final class Entry
+    {
+        final Map<String, StreamableResource> versions = new HashMap<>(4);
+
+        int size()
+        {
+            int result = 0;
+
+            for (StreamableResource streamable : versions.values())
+            {
+                result += contentSize(streamable);
+            }
+
+            return result;
+        }
+    }
+
+    /**
+     * Returns the memory used by the content; content streamed from a file is not held in memory.
+     */
+    private static int contentSize(StreamableResource streamable)
+    {
+        return streamable instanceof FileStreamableResource ? 0 : streamable.getSize();
+    }
+
+    public StreamableResourceCacheImpl(@Symbol(SymbolConstants.ASSET_CACHE_MAX_SIZE) long maxSize,
+                                       ResourceChangeTracker tracker)
+    {
+        this.maxSize = maxSize;
+
+        tracker.addInvalidationCallback(this::clear);
+    }
+
+    public StreamableResource get(Resource resource, String contentEncoding)
+    {
+        StreamableResource result = null;
+
+        synchronized (entries)
+        {
+            Entry entry = entries.get(resource);
+
+            if (entry != null)
+            {
+                result = entry.versions.get(contentEncoding);
+            }
+        }
+
+        (result == null ? misses : hits).incrementAndGet();
+
+        return result;
+    }
+
+    public void put(Resource resource, String contentEncoding, StreamableResource streamable)
+    {
+        if (contentSize(streamable) > maxSize)
+        {
+            return;
+        }
+
+        synchronized (entries)
+        {
+            Entry entry = entries.get(resource);
+
+            if (entry == null)
+            {
+                entry = new Entry();
+                entries.put(resource, entry);
+            }
+
+            size -= entry.size();
+
+            entry.versions.put(contentEncoding, streamable);
+
+            size += entry.size();
+
+            evict(entry);
+        }
+    }
+
+    /**
+     * Evicts least recently used entries (other than the one just updated) until the cache fits within its
+     * maximum size.
+     */
+    private void evict(Entry updated)
+    {
+        Iterator<Entry> iterator = entries.values().iterator();
+
+        while (size > maxSize && iterator.hasNext())
+        {
+            Entry entry = iterator.next();
+
+            if (entry == updated)
+            {
+                continue;
+            }
+
+            iterator.remove();
+
+            size -= entry.size();
+
+            evictions.incrementAndGet();
+        }
+    }
+
+    private void clear()
+    {
+        synchronized (entries)
+        {
+            entries.clear();
+            size = 0;
+        }
+    }
+
+    public long getHitCount()
+    {
+        return hits.get();
+    }
+
+    public long getMissCount()
+    {
+        return misses.get();
+    }
+
+    public long getEvictionCount()
+    {
+        return evictions.get();
+    }
+
+    public int getEntryCount()
+    {
+        synchronized (entries)
+        {
+            return entries.size();
+        }
+    }
+
+    public long getSize()
+    {
+        synchronized (entries)
+        {
+            return size;
+        }
+    }
+
+    public long getMaxSize()
+    {
+        return maxSize;
+    }
+}
@@ -81,6 +81,12 @@ public class StreamableResourceImpl implements StreamableResource
         bytestreamCache.writeTo(os);
     }
 
+    @Override
+    public void streamTo(OutputStream os, long offset, long length) throws IOException
+    {
+        bytestreamCache.writeTo(os, (int) offset, (int) length);
+    }
+
     public InputStream openStream() throws IOException
     {
         return bytestreamCache.openStream();
@@ -130,12 +136,23 @@ public class StreamableResourceImpl implements StreamableResource
     @Override
     public StreamableResource withContentType(ContentType newContentType)
     {
-        return new StreamableResourceImpl(description, newContentType, compression, lastModified, bytestreamCache, assetChecksumGenerator, responseCustomizer);
+        return copy(newContentType, responseCustomizer);
+    }
+
+    private StreamableResource withNewResourceCustomizer(ResponseCustomizer customizer)
+    {
+        return copy(contentType, customizer);
     }
 
-    private StreamableResourceImpl withNewResourceCustomizer(ResponseCustomizer customizer)
+    /**
+     * Creates a copy of this resource, with the same content but a different content type or customizer.
+     * Subclasses that add state must override this.
+     *
+     * @since 5.10
+     */
+    protected StreamableResource copy(ContentType contentType, ResponseCustomizer responseCustomizer)
     {
-        return new StreamableResourceImpl(description, contentType, compression, lastModified, bytestreamCache, assetChecksumGenerator, customizer);
+        return new StreamableResourceImpl(description, contentType, compression, lastModified, bytestreamCache, assetChecksumGenerator, responseCustomizer);
     }
 
     @Override
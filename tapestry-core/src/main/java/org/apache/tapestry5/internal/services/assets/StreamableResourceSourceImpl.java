@@ -12,16 +12,22 @@
 
 package org.apache.tapestry5.internal.services.assets;
 
+import org.apache.tapestry5.SymbolConstants;
 import org.apache.tapestry5.commons.Resource;
 import org.apache.tapestry5.commons.util.CollectionFactory;
 import org.apache.tapestry5.http.ContentType;
 import org.apache.tapestry5.http.services.CompressionAnalyzer;
 import org.apache.tapestry5.internal.TapestryInternalUtils;
+import org.apache.tapestry5.ioc.annotations.Symbol;
+import org.apache.tapestry5.ioc.internal.util.URLChangeTracker;
 import org.apache.tapestry5.services.assets.*;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Map;
 import java.util.Set;
 
@@ -37,15 +43,19 @@ public class StreamableResourceSourceImpl implements StreamableResourceSource
 
     private final AssetChecksumGenerator checksumGenerator;
 
+    private final int fileStreamingThreshold;
+
     public StreamableResourceSourceImpl(Map<String, ResourceTransformer> configuration,
                                         ContentTypeAnalyzer contentTypeAnalyzer, CompressionAnalyzer compressionAnalyzer,
-                                        ResourceChangeTracker resourceChangeTracker, AssetChecksumGenerator checksumGenerator)
+                                        ResourceChangeTracker resourceChangeTracker, AssetChecksumGenerator checksumGenerator,
+                                        @Symbol(SymbolConstants.ASSET_FILE_STREAMING_THRESHOLD) int fileStreamingThreshold)
     {
         this.configuration = configuration;
         this.contentTypeAnalyzer = contentTypeAnalyzer;
         this.compressionAnalyzer = compressionAnalyzer;
         this.resourceChangeTracker = resourceChangeTracker;
         this.checksumGenerator = checksumGenerator;
+        this.fileStreamingThreshold = fileStreamingThreshold;
     }
 
     public Set<String> fileExtensionsForContentType(ContentType contentType)
@@ -80,6 +90,19 @@ public class StreamableResourceSourceImpl implements StreamableResourceSource
         // http://jashkenas.github.com/coffee-script/
         ResourceTransformer rt = configuration.get(fileSuffix);
 
+        if (rt == null)
+        {
+            Path file = toStreamableFile(baseResource);
+
+            if (file != null)
+            {
+                ContentType contentType = new ContentType(contentTypeAnalyzer.getContentType(baseResource));
+
+                return new FileStreamableResource(baseResource.toString(), contentType, toCompressionStatus(contentType),
+                        resourceChangeTracker.trackResource(baseResource), file, (int) Files.size(file), checksumGenerator, null);
+            }
+        }
+
         InputStream transformed = rt == null ? baseResource.openStream() : rt.transform(baseResource, dependencies);
 
         assert transformed != null;
@@ -92,12 +115,46 @@ public class StreamableResourceSourceImpl implements StreamableResourceSource
                 ? new ContentType(contentTypeAnalyzer.getContentType(baseResource))
                 : rt.getTransformedContentType();
 
-        boolean compressable = compressionAnalyzer.isCompressable(contentType.getMimeType());
-
         long lastModified = resourceChangeTracker.trackResource(baseResource);
 
-        return new StreamableResourceImpl(baseResource.toString(), contentType, compressable ? CompressionStatus.COMPRESSABLE
-                : CompressionStatus.NOT_COMPRESSABLE, lastModified, bytestreamCache, checksumGenerator, null);
+        return new StreamableResourceImpl(baseResource.toString(), contentType, toCompressionStatus(contentType),
+                lastModified, bytestreamCache, checksumGenerator, null);
+    }
+
+    private CompressionStatus toCompressionStatus(ContentType contentType)
+    {
+        return compressionAnalyzer.isCompressable(contentType.getMimeType())
+                ? CompressionStatus.COMPRESSABLE
+                : CompressionStatus.NOT_COMPRESSABLE;
+    }
+
+    /**
+     * Returns the file for the resource, if it is stored as a file at least as large as the threshold.
+     */
+    private Path toStreamableFile(Resource resource) throws IOException
+    {
+        if (fileStreamingThreshold < 0)
+        {
+            return null;
+        }
+
+        URL url = resource.toURL();
+
+        if (url == null || !url.getProtocol().equals("file"))
+        {
+            return null;
+        }
+
+        Path file = URLChangeTracker.toFileFromFileProtocolURL(url).toPath();
+
+        if (!Files.isRegularFile(file))
+        {
+            return null;
+        }
+
+        long size = Files.size(file);
+
+        return size >= fileStreamingThreshold && size <= Integer.MAX_VALUE ? file : null;
     }
 
     private BytestreamCache readStream(InputStream stream) throws IOException
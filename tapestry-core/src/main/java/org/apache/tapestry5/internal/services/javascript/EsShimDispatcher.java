@@ -122,7 +122,7 @@ public class EsShimDispatcher implements Dispatcher
 
         final String moduleName = extraPath.substring(0, dotx);
 
-        return tracker.perform(String.format("Streaming %s %s",
+        return tracker.perform(() -> String.format("Streaming %s %s",
                 compress ? "compressed module" : "module",
                 moduleName), new IOOperation<Boolean>()
         {
@@ -18,12 +18,12 @@ import org.apache.tapestry5.commons.util.CollectionFactory;
 import org.apache.tapestry5.commons.util.ExceptionUtils;
 import org.apache.tapestry5.func.F;
 import org.apache.tapestry5.func.Mapper;
-import org.apache.tapestry5.http.services.ResponseCompressionAnalyzer;
 import org.apache.tapestry5.internal.services.RequestConstants;
 import org.apache.tapestry5.internal.services.assets.JavaScriptStackAssembler;
 import org.apache.tapestry5.ioc.annotations.Symbol;
 import org.apache.tapestry5.ioc.services.ThreadLocale;
 import org.apache.tapestry5.services.assets.AssetPathConstructor;
+import org.apache.tapestry5.services.assets.CompressionCodecSource;
 import org.apache.tapestry5.services.assets.StreamableResource;
 import org.apache.tapestry5.services.javascript.JavaScriptStack;
 import org.apache.tapestry5.services.javascript.JavaScriptStackSource;
@@ -41,7 +41,7 @@ public class JavaScriptStackPathConstructorImpl implements JavaScriptStackPathCo
 
     private final JavaScriptStackAssembler assembler;
 
-    private final ResponseCompressionAnalyzer compressionAnalyzer;
+    private final CompressionCodecSource codecSource;
 
     private final boolean combineScripts;
 
@@ -56,7 +56,7 @@ public class JavaScriptStackPathConstructorImpl implements JavaScriptStackPathCo
     public JavaScriptStackPathConstructorImpl(ThreadLocale threadLocale, AssetPathConstructor assetPathConstructor,
                                               JavaScriptStackSource javascriptStackSource,
                                               JavaScriptStackAssembler assembler,
-                                              ResponseCompressionAnalyzer compressionAnalyzer,
+                                              CompressionCodecSource codecSource,
                                               @Symbol(SymbolConstants.COMBINE_SCRIPTS)
                                               boolean combineScripts)
     {
@@ -64,7 +64,7 @@ public class JavaScriptStackPathConstructorImpl implements JavaScriptStackPathCo
         this.assetPathConstructor = assetPathConstructor;
         this.javascriptStackSource = javascriptStackSource;
         this.assembler = assembler;
-        this.compressionAnalyzer = compressionAnalyzer;
+        this.codecSource = codecSource;
         this.combineScripts = combineScripts;
     }
 
@@ -100,7 +100,7 @@ public class JavaScriptStackPathConstructorImpl implements JavaScriptStackPathCo
     {
         try
         {
-            StreamableResource assembled = assembler.assembleJavaScriptResourceForStack(stackName, compressionAnalyzer.isGZipSupported(),
+            StreamableResource assembled = assembler.assembleJavaScriptResourceForStack(stackName, codecSource.isCompressionSupported(),
                     stack.getJavaScriptAggregationStrategy());
 
             String path = threadLocale.getLocale().toString() + '/' + stackName + ".js";
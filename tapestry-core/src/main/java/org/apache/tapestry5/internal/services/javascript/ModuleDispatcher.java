@@ -152,7 +152,7 @@ public class ModuleDispatcher implements Dispatcher
             }
         }
 
-        return tracker.perform(String.format("Streaming %s %s",
+        return tracker.perform(() -> String.format("Streaming %s %s",
                 compress ? "compressed module" : "module",
                 moduleName), new IOOperation<Boolean>()
         {
@@ -18,7 +18,6 @@ import org.apache.tapestry5.commons.Resource;
 import org.apache.tapestry5.commons.util.CollectionFactory;
 import org.apache.tapestry5.dom.Element;
 import org.apache.tapestry5.http.TapestryHttpSymbolConstants;
-import org.apache.tapestry5.http.services.ResponseCompressionAnalyzer;
 import org.apache.tapestry5.internal.InternalConstants;
 import org.apache.tapestry5.internal.services.assets.ResourceChangeTracker;
 import org.apache.tapestry5.ioc.annotations.PostInjection;
@@ -28,6 +27,7 @@ import org.apache.tapestry5.json.JSONLiteral;
 import org.apache.tapestry5.json.JSONObject;
 import org.apache.tapestry5.services.AssetSource;
 import org.apache.tapestry5.services.PathConstructor;
+import org.apache.tapestry5.services.assets.CompressionCodecSource;
 import org.apache.tapestry5.services.assets.StreamableResourceSource;
 import org.apache.tapestry5.services.javascript.JavaScriptModuleConfiguration;
 import org.apache.tapestry5.services.javascript.ModuleConfigurationCallback;
@@ -40,7 +40,7 @@ import java.util.Set;
 public class ModuleManagerImpl implements ModuleManager
 {
 
-    private final ResponseCompressionAnalyzer compressionAnalyzer;
+    private final CompressionCodecSource codecSource;
 
     private final Messages globalMessages;
 
@@ -63,7 +63,7 @@ public class ModuleManagerImpl implements ModuleManager
     
     private static final String DOM_MODULE = "t5/core/dom";
 
-    public ModuleManagerImpl(ResponseCompressionAnalyzer compressionAnalyzer,
+    public ModuleManagerImpl(CompressionCodecSource codecSource,
                              AssetSource assetSource,
                              Map<String, JavaScriptModuleConfiguration> configuration,
                              Messages globalMessages,
@@ -78,7 +78,7 @@ public class ModuleManagerImpl implements ModuleManager
                              @Symbol(SymbolConstants.JAVASCRIPT_INFRASTRUCTURE_PROVIDER)
                              String infraProvider)
     {
-        this.compressionAnalyzer = compressionAnalyzer;
+        this.codecSource = codecSource;
         this.globalMessages = globalMessages;
         this.compactJSON = compactJSON;
 
@@ -142,7 +142,7 @@ public class ModuleManagerImpl implements ModuleManager
 
     private String getBaseURL()
     {
-        return compressionAnalyzer.isGZipSupported() ? compressedBasePath : basePath;
+        return codecSource.isCompressionSupported() ? compressedBasePath : basePath;
     }
 
     private void addModuleToConfig(JSONObject config, String name, JavaScriptModuleConfiguration module)
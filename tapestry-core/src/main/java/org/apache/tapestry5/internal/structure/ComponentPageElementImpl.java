@@ -79,6 +79,11 @@ public class ComponentPageElementImpl extends BaseLocatable implements Component
 
     private static final Block PLACEHOLDER_BLOCK = new PlaceholderBlock();
 
+    /**
+     * Stored in place of the current element when a component starts rendering outside of any element.
+     */
+    private static final Object NO_ELEMENT = new Object();
+
     private static final ComponentCallback POST_RENDER_CLEANUP = new LifecycleNotificationComponentCallback()
     {
         public void run(Component component)
@@ -137,11 +142,11 @@ public class ComponentPageElementImpl extends BaseLocatable implements Component
 
                 // Multiple components (i.e., some mixins).
 
-                Iterator<Component> i = reverse ? InternalUtils.reverseIterator(components) : components.iterator();
+                int count = components.size();
 
-                while (i.hasNext())
+                for (int i = 0; i < count; i++)
                 {
-                    invokeComponent(i.next(), writer, event);
+                    invokeComponent(components.get(reverse ? count - 1 - i : i), writer, event);
 
                     if (event.isAborted())
                         break;
@@ -415,30 +420,25 @@ public class ComponentPageElementImpl extends BaseLocatable implements Component
         }
     }
 
+    /**
+     * Shared by all renders of the component; the element current when the render started is kept in
+     * {@link #renderingValue}.
+     */
     private class PostRenderCleanupPhase implements RenderCommand
     {
-        /**
-         * Used to detect mismatches calls to {@link MarkupWriter#element(String, Object[])} and
-         * {@link org.apache.tapestry5.MarkupWriter#end()}. The expectation is that any element(s)
-         * begun by this component
-         * during rendering will be balanced by end() calls, resulting in the current element
-         * reverting to its initial
-         * value.
-         */
-        private final Element expectedElementAtCompletion;
-
-        PostRenderCleanupPhase(Element expectedElementAtCompletion)
-        {
-            this.expectedElementAtCompletion = expectedElementAtCompletion;
-        }
-
         public void render(MarkupWriter writer, RenderQueue queue)
         {
-            renderingValue.set(false);
+            // Used to detect mismatches calls to MarkupWriter.element() and end(). The expectation is that any
+            // element(s) begun by this component during rendering will be balanced by end() calls, resulting in
+            // the current element reverting to its initial value.
+
+            Object expectedElementAtCompletion = renderingValue.get();
+
+            renderingValue.set(null);
 
             Element current = writer.getElement();
 
-            if (current != expectedElementAtCompletion)
+            if (current != (expectedElementAtCompletion == NO_ELEMENT ? null : expectedElementAtCompletion))
                 throw new TapestryException(StructureMessages.unbalancedElements(completeId), getLocation(), null);
 
             invoke(false, POST_RENDER_CLEANUP);
@@ -500,7 +500,11 @@ public class ComponentPageElementImpl extends BaseLocatable implements Component
 
     private final Page page;
 
-    private final PerThreadValue<Boolean> renderingValue;
+    /**
+     * While the component renders, the element that was current when it started, or {@link #NO_ELEMENT}; null
+     * otherwise.
+     */
+    private final PerThreadValue<Object> renderingValue;
 
     private final boolean exactParameterCountMatch;
 
@@ -509,6 +513,8 @@ public class ComponentPageElementImpl extends BaseLocatable implements Component
 
     private final List<RenderCommand> template = CollectionFactory.newList();
 
+    private final RenderCommand postRenderCleanupPhase = new PostRenderCleanupPhase();
+
     private RenderCommand setupRenderPhase, beginRenderPhase, beforeRenderTemplatePhase, beforeRenderBodyPhase,
             afterRenderBodyPhase, afterRenderTemplatePhase, afterRenderPhase, cleanupRenderPhase;
 
@@ -960,11 +966,11 @@ public class ComponentPageElementImpl extends BaseLocatable implements Component
                 return;
             }
 
-            Iterator<Component> i = reverse ? InternalUtils.reverseIterator(components) : components.iterator();
+            int count = components.size();
 
-            while (i.hasNext())
+            for (int i = 0; i < count; i++)
             {
-                callback.run(i.next());
+                callback.run(components.get(reverse ? count - 1 - i : i));
 
                 if (callback.isEventAborted())
                     return;
@@ -982,7 +988,7 @@ public class ComponentPageElementImpl extends BaseLocatable implements Component
 
     public boolean isRendering()
     {
-        return renderingValue.get(false);
+        return renderingValue.get() != null;
     }
 
     /**
@@ -1003,11 +1009,13 @@ public class ComponentPageElementImpl extends BaseLocatable implements Component
 
         // TODO: Check for recursive rendering.
 
-        renderingValue.set(true);
+        Element element = writer.getElement();
+
+        renderingValue.set(element == null ? NO_ELEMENT : element);
 
         queue.startComponent(coreResources);
 
-        queue.push(new PostRenderCleanupPhase(writer.getElement()));
+        queue.push(postRenderCleanupPhase);
 
         push(queue, setupRenderPhase);
     }
@@ -1255,7 +1263,7 @@ public class ComponentPageElementImpl extends BaseLocatable implements Component
 
     protected RenderPhaseEvent createRenderEvent(RenderQueue queue)
     {
-        return new RenderPhaseEvent(new RenderPhaseEventHandler(queue), eventLogger, elementResources);
+        return new RenderPhaseEvent(queue, eventLogger, elementResources);
     }
 
     boolean isRenderTracingEnabled()
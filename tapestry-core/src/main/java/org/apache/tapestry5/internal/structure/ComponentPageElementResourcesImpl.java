@@ -38,6 +38,7 @@ import org.apache.tapestry5.services.pageload.ComponentResourceSelector;
 import org.slf4j.Logger;
 
 import java.io.IOException;
+import java.util.function.Supplier;
 
 public class ComponentPageElementResourcesImpl implements ComponentPageElementResources
 {
@@ -168,6 +169,21 @@ public class ComponentPageElementResourcesImpl implements ComponentPageElementRe
         tracker.run(description, operation);
     }
 
+    public <T> T invoke(Supplier<String> description, Invokable<T> operation)
+    {
+        return tracker.invoke(description, operation);
+    }
+
+    public <T> T perform(Supplier<String> description, IOOperation<T> operation) throws IOException
+    {
+        return tracker.perform(description, operation);
+    }
+
+    public void run(Supplier<String> description, Runnable operation)
+    {
+        tracker.run(description, operation);
+    }
+
     public <T> PerThreadValue<T> createPerThreadValue()
     {
         return perThreadManager.createValue();
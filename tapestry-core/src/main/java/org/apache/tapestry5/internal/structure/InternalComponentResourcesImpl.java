@@ -679,6 +679,11 @@ public class InternalComponentResourcesImpl extends LockSupport implements Inter
         return null;
     }
 
+    public <T> PerThreadValue<T> createPerThreadValue()
+    {
+        return page.createPerThreadValue();
+    }
+
     /**
      * @since 5.3
      */
@@ -15,6 +15,7 @@ package org.apache.tapestry5.internal.structure;
 import org.apache.tapestry5.ComponentResources;
 import org.apache.tapestry5.beaneditor.NonVisual;
 import org.apache.tapestry5.commons.util.UnknownValueException;
+import org.apache.tapestry5.ioc.services.PerThreadValue;
 import org.apache.tapestry5.ioc.services.PerthreadManager;
 import org.apache.tapestry5.runtime.Component;
 import org.apache.tapestry5.runtime.PageLifecycleCallbackHub;
@@ -262,5 +263,17 @@ public interface Page extends PageLifecycleCallbackHub
     @NonVisual
     boolean isExactParameterCountMatch();
 
+    /**
+     * Creates a value, specific to the current request, stored in a slot of the page's per-request state: a single
+     * array, stored in the {@link PerthreadManager}, holding the values of all the fields of all the components of the
+     * page. The array is allocated, for all the values of the page, as the page is {@linkplain #attached() attached} to
+     * the request; reading or writing the value is then a lookup of that single array, rather than of an entry of its
+     * own, in the per-thread map. The entire state of the page is discarded at once at the end of the request.
+     *
+     * Values are normally created while the page is being constructed, but may be created later.
+     *
+     * @since 5.10
+     */
+    <T> PerThreadValue<T> createPerThreadValue();
 
 }
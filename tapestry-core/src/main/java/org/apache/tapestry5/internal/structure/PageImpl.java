@@ -21,6 +21,7 @@ import org.apache.tapestry5.commons.util.CollectionFactory;
 import org.apache.tapestry5.commons.util.ExceptionUtils;
 import org.apache.tapestry5.internal.services.PersistentFieldManager;
 import org.apache.tapestry5.ioc.internal.util.OneShotLock;
+import org.apache.tapestry5.ioc.services.PerThreadValue;
 import org.apache.tapestry5.ioc.services.PerthreadManager;
 import org.apache.tapestry5.runtime.Component;
 import org.apache.tapestry5.runtime.PageLifecycleListener;
@@ -29,6 +30,7 @@ import org.apache.tapestry5.services.PersistentFieldBundle;
 import org.apache.tapestry5.services.pageload.ComponentResourceSelector;
 import org.slf4j.Logger;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -79,6 +81,15 @@ public class PageImpl implements Page
 
     private static final Pattern SPLIT_ON_DOT = Pattern.compile("\\.");
 
+    private static final Object NULL_VALUE = new Object();
+
+    /**
+     * The per-request state of the page, one slot for each value created by {@link #createPerThreadValue()}.
+     */
+    private final PerThreadValue<Object[]> slotsValue;
+
+    private final AtomicInteger slotCount = new AtomicInteger();
+
     /**
      * @param name
      *         canonicalized page name
@@ -104,6 +115,8 @@ public class PageImpl implements Page
         });
 
 
+        slotsValue = perThreadManager.createValue();
+
         exactParameterCountMatch = metaDataLocator.findMeta(MetaDataConstants.UNKNOWN_ACTIVATION_CONTEXT_CHECK, name, Boolean.class);
     }
 
@@ -248,6 +261,8 @@ public class PageImpl implements Page
     {
         attachCount.incrementAndGet();
 
+        bindSlots();
+
         invokeCallbacks(attachCallbacks);
     }
 
@@ -332,6 +347,108 @@ public class PageImpl implements Page
         return exactParameterCountMatch;
     }
 
+    @Override
+    public <T> PerThreadValue<T> createPerThreadValue()
+    {
+        return new SlotValue<T>(slotCount.getAndIncrement());
+    }
+
+    /**
+     * Binds the slots of the current request, sized for all the values of the page, to the request's per-thread
+     * context as the page is attached to it; the values of the page are then read and written with a single lookup
+     * of that context, and never need to enlarge the array. The slots are kept in the per-thread context, rather than
+     * in the page, as the page is shared by all the requests (and threads) using it, and so that they follow the
+     * request if it is {@linkplain PerthreadManager#detach(org.apache.tapestry5.ioc.Invokable) detached} from its
+     * thread.
+     */
+    private void bindSlots()
+    {
+        allocateSlots(slotsValue.get(), 0);
+    }
+
+    /**
+     * Returns the array of slots for the current request, allocating (or enlarging) it as necessary.
+     */
+    private Object[] slots(int index)
+    {
+        Object[] slots = slotsValue.get();
+
+        if (slots != null && index < slots.length)
+        {
+            return slots;
+        }
+
+        return allocateSlots(slots, index + 1);
+    }
+
+    /**
+     * Allocates the array of slots for the current request, or enlarges it. The array is sized for all the slots
+     * allocated so far; it only needs to be enlarged when a value is created after the array was allocated, which is
+     * typically during page construction.
+     */
+    private Object[] allocateSlots(Object[] slots, int minLength)
+    {
+        int length = Math.max(slotCount.get(), minLength);
+
+        if (slots != null && slots.length >= length)
+        {
+            return slots;
+        }
+
+        return slotsValue.set(slots == null ? new Object[length] : Arrays.copyOf(slots, length));
+    }
+
+    private final class SlotValue<T> implements PerThreadValue<T>
+    {
+        private final int index;
+
+        SlotValue(int index)
+        {
+            this.index = index;
+        }
+
+        private Object stored()
+        {
+            Object[] slots = slotsValue.get();
+
+            return slots == null || index >= slots.length ? null : slots[index];
+        }
+
+        @Override
+        public boolean exists()
+        {
+            return stored() != null;
+        }
+
+        @Override
+        public T get()
+        {
+            return get(null);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get(T defaultValue)
+        {
+            Object stored = stored();
+
+            if (stored == null)
+            {
+                return defaultValue;
+            }
+
+            return stored == NULL_VALUE ? null : (T) stored;
+        }
+
+        @Override
+        public T set(T newValue)
+        {
+            slots(index)[index] = newValue == null ? NULL_VALUE : newValue;
+
+            return newValue;
+        }
+    }
+
     public void addPageLoadedCallback(Runnable callback)
     {
         lifecycleListenersLock.check();
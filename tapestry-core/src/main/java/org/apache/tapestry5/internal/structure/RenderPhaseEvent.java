@@ -14,33 +14,110 @@
 
 package org.apache.tapestry5.internal.structure;
 
+import org.apache.tapestry5.MarkupWriter;
+import org.apache.tapestry5.Renderable;
+import org.apache.tapestry5.commons.util.CollectionFactory;
 import org.apache.tapestry5.internal.services.EventImpl;
 import org.apache.tapestry5.ioc.OperationTracker;
+import org.apache.tapestry5.runtime.RenderCommand;
+import org.apache.tapestry5.runtime.RenderQueue;
 import org.slf4j.Logger;
 
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Used by {@link org.apache.tapestry5.internal.structure.ComponentPageElementImpl} to invoke the component methods for
+ * a render phase, and track their results. As one is created for each handled render phase of each rendered
+ * component, the event handles the results itself, rather than through a separate
+ * {@link org.apache.tapestry5.ComponentEventCallback}.
+ */
 public class RenderPhaseEvent extends EventImpl
 {
-    private final RenderPhaseEventHandler handler;
+    private final RenderQueue renderQueue;
 
-    public RenderPhaseEvent(RenderPhaseEventHandler handler, Logger logger, OperationTracker tracker)
-    {
-        super(handler, logger, tracker);
+    private boolean result = true;
+
+    private List<RenderCommand> commands;
 
-        this.handler = handler;
+    public RenderPhaseEvent(RenderQueue renderQueue, Logger logger, OperationTracker tracker)
+    {
+        super(logger, tracker);
 
+        this.renderQueue = renderQueue;
     }
 
     /**
-     * Delegates to {@link org.apache.tapestry5.internal.structure.RenderPhaseEventHandler#enqueueSavedRenderCommands()}, to queue up any
-     * render commands returned from invoked event handler methods.
+     * Pushes any render commands returned from invoked event handler methods onto the render queue.
      */
     public void enqueueSavedRenderCommands()
     {
-        handler.enqueueSavedRenderCommands();
+        if (commands != null)
+        {
+            for (RenderCommand command : commands)
+                renderQueue.push(command);
+        }
     }
 
     public boolean getResult()
     {
-        return handler.getResult();
+        return result;
+    }
+
+    /**
+     * Handles a result (a return value from an event handler method). The result
+     * must be Boolean, {@link RenderCommand} or {@link Renderable}.  For the latter two types, the result
+     * is converted to a {@link RenderCommand} and added to an internal list; the commands in the list
+     * are pushed onto the {@link RenderQueue} at the end of the render phase, when {@link #enqueueSavedRenderCommands()}} is invoked.
+     *
+     * @param result the result value returned from the event handler method
+     * @return true if the event is aborted (a Boolean), false if event processing should continue (other types)
+     * @throws RuntimeException for any other type
+     */
+    @Override
+    protected boolean handleResult(Object result)
+    {
+        if (result instanceof Boolean)
+        {
+            this.result = (Boolean) result;
+            return true; // abort other handler methods
+        }
+
+        if (result instanceof RenderCommand)
+        {
+            RenderCommand command = (RenderCommand) result;
+
+            add(command);
+
+            return false; // do not abort!
+        }
+
+        if (result instanceof Renderable)
+        {
+            final Renderable renderable = (Renderable) result;
+
+            RenderCommand wrapper = new RenderCommand()
+            {
+                public void render(MarkupWriter writer, RenderQueue queue)
+                {
+                    renderable.render(writer);
+                }
+            };
+
+            add(wrapper);
+
+            return false;
+        }
+
+        throw new RuntimeException(StructureMessages.wrongPhaseResultType(Arrays.asList(Boolean.class.getName(),
+                Renderable.class.getName(), RenderCommand.class.getName())));
+    }
+
+    private void add(RenderCommand command)
+    {
+        if (commands == null)
+            commands = CollectionFactory.newList();
+
+        commands.add(command);
     }
 }
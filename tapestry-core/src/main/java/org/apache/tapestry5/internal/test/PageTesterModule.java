@@ -26,14 +26,19 @@ import org.apache.tapestry5.internal.services.CookieSink;
 import org.apache.tapestry5.internal.services.CookieSource;
 import org.apache.tapestry5.ioc.ServiceBinder;
 import org.apache.tapestry5.ioc.annotations.Contribute;
+import org.apache.tapestry5.ioc.annotations.Decorate;
 import org.apache.tapestry5.ioc.annotations.Local;
 import org.apache.tapestry5.ioc.services.ApplicationDefaults;
 import org.apache.tapestry5.ioc.services.FactoryDefaults;
 import org.apache.tapestry5.ioc.services.ServiceOverride;
 import org.apache.tapestry5.ioc.services.SymbolProvider;
 import org.apache.tapestry5.services.MarkupRendererFilter;
+import org.apache.tapestry5.services.assets.CompressionCodec;
+import org.apache.tapestry5.services.assets.CompressionCodecSource;
 import org.apache.tapestry5.test.PageTester;
 
+import java.util.List;
+
 /**
  * Used in conjunction with {@link PageTester} to mock up and/or stub out portions of Tapestry that
  * need to be handled differently when testing.
@@ -81,6 +86,38 @@ public class PageTesterModule
         });
     }
 
+    /**
+     * Asset URLs are generated from {@link CompressionCodecSource#isCompressionSupported()}, which also peeks at
+     * the HttpServletRequest global; compression is forced on there as well.
+     */
+    @Decorate(id = "PageTesterCompression", serviceInterface = CompressionCodecSource.class)
+    public static CompressionCodecSource forceCompressionSupported(final CompressionCodecSource delegate,
+                                                                  final CompressionAnalyzer compressionAnalyzer)
+    {
+        return new CompressionCodecSource()
+        {
+            public List<CompressionCodec> getCodecs()
+            {
+                return delegate.getCodecs();
+            }
+
+            public List<CompressionCodec> getAcceptedCodecs()
+            {
+                return delegate.getAcceptedCodecs();
+            }
+
+            public boolean isCompressionSupported()
+            {
+                return true;
+            }
+
+            public boolean isCompressionEnabled(ContentType contentType)
+            {
+                return compressionAnalyzer.isCompressable(contentType.getMimeType());
+            }
+        };
+    }
+
     public static void contributeRequestHandler(OrderedConfiguration<RequestFilter> configuration)
     {
         configuration.addInstance("EndOfRequestCleanup", EndOfRequestCleanupFilter.class, "before:StaticFiles");
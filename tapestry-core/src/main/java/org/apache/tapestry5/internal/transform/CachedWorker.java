@@ -29,11 +29,11 @@ import org.apache.tapestry5.BindingConstants;
 import org.apache.tapestry5.ComponentResources;
 import org.apache.tapestry5.SymbolConstants;
 import org.apache.tapestry5.annotations.Cached;
+import org.apache.tapestry5.internal.InternalComponentResources;
 import org.apache.tapestry5.internal.TapestryInternalUtils;
 import org.apache.tapestry5.ioc.annotations.Inject;
 import org.apache.tapestry5.ioc.annotations.Symbol;
 import org.apache.tapestry5.ioc.services.PerThreadValue;
-import org.apache.tapestry5.ioc.services.PerthreadManager;
 import org.apache.tapestry5.json.JSONArray;
 import org.apache.tapestry5.json.JSONObject;
 import org.apache.tapestry5.model.ComponentModel;
@@ -86,8 +86,6 @@ public class CachedWorker implements ComponentClassTransformWorker2
     private static final String WATCH = "watch";
 
     private final BindingSource bindingSource;
-
-    private final PerthreadManager perThreadManager;
     
     private final PropertyValueProviderWorker propertyValueProviderWorker;
     
@@ -168,13 +166,12 @@ public class CachedWorker implements ComponentClassTransformWorker2
         }
     }
 
-    public CachedWorker(BindingSource bindingSource, PerthreadManager perthreadManager,
+    public CachedWorker(BindingSource bindingSource,
             PropertyValueProviderWorker propertyValueProviderWorker,
             @Inject @Symbol(SymbolConstants.PRODUCTION_MODE) boolean productionMode,
             @Inject @Symbol(SymbolConstants.MULTIPLE_CLASSLOADERS) boolean multipleClassloaders)
     {
         this.bindingSource = bindingSource;
-        this.perThreadManager = perthreadManager;
         this.propertyValueProviderWorker = propertyValueProviderWorker;
         this.multipleClassLoaders = !productionMode && multipleClassloaders;
     }
@@ -358,8 +355,8 @@ public class CachedWorker implements ComponentClassTransformWorker2
         {
             public PerThreadValue get(InstanceContext context)
             {
-                // Each instance will get a new PerThreadValue
-                return perThreadManager.createValue();
+                // Each instance will get a new PerThreadValue, stored with the rest of the page's state
+                return context.get(InternalComponentResources.class).createPerThreadValue();
             }
         });
         
@@ -27,7 +27,6 @@ import org.apache.tapestry5.internal.bindings.LiteralBinding;
 import org.apache.tapestry5.internal.services.ComponentClassCache;
 import org.apache.tapestry5.ioc.internal.util.InternalUtils;
 import org.apache.tapestry5.ioc.services.PerThreadValue;
-import org.apache.tapestry5.ioc.services.PerthreadManager;
 import org.apache.tapestry5.model.MutableComponentModel;
 import org.apache.tapestry5.plastic.*;
 import org.apache.tapestry5.services.BindingSource;
@@ -48,8 +47,8 @@ public class ParameterWorker implements ComponentClassTransformWorker2
     private final Logger logger = LoggerFactory.getLogger(ParameterWorker.class);
 
     /**
-     * Contains the per-thread state about a parameter, as stored (using
-     * a unique key) in the {@link PerthreadManager}. Externalizing such state
+     * Contains the per-thread state about a parameter, as stored in the
+     * per-request state of the page. Externalizing such state
      * is part of Tapestry 5.2's pool-less pages.
      */
     private final class ParameterState
@@ -73,16 +72,13 @@ public class ParameterWorker implements ComponentClassTransformWorker2
 
     private final TypeCoercer typeCoercer;
 
-    private final PerthreadManager perThreadManager;
-
     public ParameterWorker(ComponentClassCache classCache, BindingSource bindingSource,
-                           ComponentDefaultProvider defaultProvider, TypeCoercer typeCoercer, PerthreadManager perThreadManager)
+                           ComponentDefaultProvider defaultProvider, TypeCoercer typeCoercer)
     {
         this.classCache = classCache;
         this.bindingSource = bindingSource;
         this.defaultProvider = defaultProvider;
         this.typeCoercer = typeCoercer;
-        this.perThreadManager = perThreadManager;
     }
 
     private final Comparator<PlasticField> byPrincipalThenName = new Comparator<PlasticField>()
@@ -174,7 +170,7 @@ public class ParameterWorker implements ComponentClassTransformWorker2
 
                 final Class fieldType = classCache.forName(fieldTypeName);
 
-                final PerThreadValue<ParameterState> stateValue = perThreadManager.createValue();
+                final PerThreadValue<ParameterState> stateValue = icr.createPerThreadValue();
 
                 // Rely on some code generation in the component to set the default binding from
                 // the field, or from a default method.
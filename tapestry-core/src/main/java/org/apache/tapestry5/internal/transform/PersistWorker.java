@@ -18,7 +18,6 @@ import org.apache.tapestry5.annotations.Persist;
 import org.apache.tapestry5.internal.InternalComponentResources;
 import org.apache.tapestry5.internal.services.ComponentClassCache;
 import org.apache.tapestry5.ioc.services.PerThreadValue;
-import org.apache.tapestry5.ioc.services.PerthreadManager;
 import org.apache.tapestry5.model.MutableComponentModel;
 import org.apache.tapestry5.plastic.*;
 import org.apache.tapestry5.services.transform.ComponentClassTransformWorker2;
@@ -35,7 +34,7 @@ public class PersistWorker implements ComponentClassTransformWorker2
 
         private final String name;
 
-        private final PerThreadValue<Object> fieldValue = perThreadManager.createValue();
+        private final PerThreadValue<Object> fieldValue;
 
         private final Object defaultValue;
 
@@ -45,6 +44,8 @@ public class PersistWorker implements ComponentClassTransformWorker2
             this.resources = resources;
             this.name = name;
             this.defaultValue = defaultValue;
+
+            fieldValue = resources.createPerThreadValue();
         }
 
         public Object get(Object instance, InstanceContext context)
@@ -69,12 +70,9 @@ public class PersistWorker implements ComponentClassTransformWorker2
 
     private final ComponentClassCache classCache;
 
-    private final PerthreadManager perThreadManager;
-
-    public PersistWorker(ComponentClassCache classCache, PerthreadManager perThreadManager)
+    public PersistWorker(ComponentClassCache classCache)
     {
         this.classCache = classCache;
-        this.perThreadManager = perThreadManager;
     }
 
     public void transform(PlasticClass plasticClass, TransformationSupport support, MutableComponentModel model)
@@ -20,7 +20,6 @@ import org.apache.tapestry5.ComponentResources;
 import org.apache.tapestry5.internal.InternalComponentResources;
 import org.apache.tapestry5.internal.services.ComponentClassCache;
 import org.apache.tapestry5.ioc.services.PerThreadValue;
-import org.apache.tapestry5.ioc.services.PerthreadManager;
 import org.apache.tapestry5.model.MutableComponentModel;
 import org.apache.tapestry5.plastic.ComputedValue;
 import org.apache.tapestry5.plastic.FieldConduit;
@@ -32,12 +31,11 @@ import org.apache.tapestry5.services.transform.TransformationSupport;
 
 /**
  * Designed to be just about the last worker in the pipeline. Its job is to convert each otherwise unclaimed
- * field into a value stored in the {@link PerthreadManager}.
+ * field into a value stored in the per-request state of the page (see
+ * {@link InternalComponentResources#createPerThreadValue()}).
  */
 public final class UnclaimedFieldWorker implements ComponentClassTransformWorker2
 {
-    private final PerthreadManager perThreadManager;
-
     private final ComponentClassCache classCache;
 
     static class UnclaimedFieldConduit implements FieldConduit<Object>
@@ -75,10 +73,9 @@ public final class UnclaimedFieldWorker implements ComponentClassTransformWorker
         }
     }
 
-    public UnclaimedFieldWorker(ComponentClassCache classCache, PerthreadManager perThreadManager)
+    public UnclaimedFieldWorker(ComponentClassCache classCache)
     {
         this.classCache = classCache;
-        this.perThreadManager = perThreadManager;
     }
 
     public void transform(PlasticClass plasticClass, TransformationSupport support, MutableComponentModel model)
@@ -110,7 +107,7 @@ public final class UnclaimedFieldWorker implements ComponentClassTransformWorker
                 Object fieldDefaultValue = classCache.defaultValueForType(fieldType);
                 InternalComponentResources resources = context.get(InternalComponentResources.class);
 
-                return new UnclaimedFieldConduit(resources, perThreadManager.createValue(), fieldDefaultValue);
+                return new UnclaimedFieldConduit(resources, resources.createPerThreadValue(), fieldDefaultValue);
             }
         };
     }
@@ -25,7 +25,6 @@ import org.apache.tapestry5.http.services.ApplicationGlobals;
 import org.apache.tapestry5.http.services.CompressionAnalyzer;
 import org.apache.tapestry5.http.services.Dispatcher;
 import org.apache.tapestry5.http.services.Request;
-import org.apache.tapestry5.http.services.ResponseCompressionAnalyzer;
 import org.apache.tapestry5.internal.AssetConstants;
 import org.apache.tapestry5.internal.services.AssetSourceImpl;
 import org.apache.tapestry5.internal.services.ClasspathAssetAliasManagerImpl;
@@ -36,23 +35,31 @@ import org.apache.tapestry5.internal.services.IdentityAssetPathConverter;
 import org.apache.tapestry5.internal.services.RequestConstants;
 import org.apache.tapestry5.internal.services.ResourceStreamer;
 import org.apache.tapestry5.internal.services.assets.AssetChecksumGeneratorImpl;
+import org.apache.tapestry5.internal.services.assets.AssetManifest;
+import org.apache.tapestry5.internal.services.assets.AssetManifestImpl;
 import org.apache.tapestry5.internal.services.assets.AssetPathConstructorImpl;
 import org.apache.tapestry5.internal.services.assets.CSSURLRewriter;
 import org.apache.tapestry5.internal.services.assets.ClasspathAssetRequestHandler;
 import org.apache.tapestry5.internal.services.assets.CompressionAnalyzerImpl;
+import org.apache.tapestry5.internal.services.assets.CompressionCodecSourceImpl;
 import org.apache.tapestry5.internal.services.assets.ContentTypeAnalyzerImpl;
 import org.apache.tapestry5.internal.services.assets.ContextAssetRequestHandler;
+import org.apache.tapestry5.internal.services.assets.GZipCompressionCodec;
 import org.apache.tapestry5.internal.services.assets.JavaScriptStackAssembler;
 import org.apache.tapestry5.internal.services.assets.JavaScriptStackAssemblerImpl;
 import org.apache.tapestry5.internal.services.assets.JavaScriptStackMinimizeDisabler;
 import org.apache.tapestry5.internal.services.assets.MasterResourceMinimizer;
+import org.apache.tapestry5.internal.services.assets.PrecompressedOnlyCodec;
 import org.apache.tapestry5.internal.services.assets.ResourceChangeTracker;
 import org.apache.tapestry5.internal.services.assets.ResourceChangeTrackerImpl;
+import org.apache.tapestry5.internal.services.assets.SRSAssetManifestInterceptor;
 import org.apache.tapestry5.internal.services.assets.SRSCachingInterceptor;
 import org.apache.tapestry5.internal.services.assets.SRSCompressedCachingInterceptor;
 import org.apache.tapestry5.internal.services.assets.SRSCompressingInterceptor;
 import org.apache.tapestry5.internal.services.assets.SRSMinimizingInterceptor;
 import org.apache.tapestry5.internal.services.assets.StackAssetRequestHandler;
+import org.apache.tapestry5.internal.services.assets.StreamableResourceCache;
+import org.apache.tapestry5.internal.services.assets.StreamableResourceCacheImpl;
 import org.apache.tapestry5.internal.services.assets.StreamableResourceSourceImpl;
 import org.apache.tapestry5.internal.services.assets.UTF8ForTextAssets;
 import org.apache.tapestry5.internal.services.messages.ClientLocalizationMessageResource;
@@ -82,6 +89,8 @@ import org.apache.tapestry5.services.Core;
 import org.apache.tapestry5.services.assets.AssetChecksumGenerator;
 import org.apache.tapestry5.services.assets.AssetPathConstructor;
 import org.apache.tapestry5.services.assets.AssetRequestHandler;
+import org.apache.tapestry5.services.assets.CompressionCodec;
+import org.apache.tapestry5.services.assets.CompressionCodecSource;
 import org.apache.tapestry5.services.assets.ContentTypeAnalyzer;
 import org.apache.tapestry5.services.assets.ResourceMinimizer;
 import org.apache.tapestry5.services.assets.StreamableResourceSource;
@@ -108,6 +117,30 @@ public class AssetsModule
         binder.bind(ResourceMinimizer.class, MasterResourceMinimizer.class);
         binder.bind(AssetChecksumGenerator.class, AssetChecksumGeneratorImpl.class);
         binder.bind(JavaScriptStackAssembler.class, JavaScriptStackAssemblerImpl.class);
+        binder.bind(StreamableResourceCache.class, StreamableResourceCacheImpl.class);
+        binder.bind(CompressionCodecSource.class, CompressionCodecSourceImpl.class);
+        binder.bind(AssetManifest.class, AssetManifestImpl.class);
+    }
+
+    /**
+     * Contributes the built-in codecs, in order of preference:
+     * <dl>
+     * <dt>br</dt>
+     * <dd>Brotli, only for pre-compressed ".br" files</dd>
+     * <dt>zstd</dt>
+     * <dd>Zstandard, only for pre-compressed ".zst" files</dd>
+     * <dt>gzip</dt>
+     * <dd>GZip, for pre-compressed ".gz" files, or compressing on the fly</dd>
+     * </dl>
+     *
+     * @since 5.10
+     */
+    @Contribute(CompressionCodecSource.class)
+    public static void setupCompressionCodecs(OrderedConfiguration<CompressionCodec> configuration)
+    {
+        configuration.add("br", new PrecompressedOnlyCodec("br", "br"));
+        configuration.add("zstd", new PrecompressedOnlyCodec("zstd", "zst"));
+        configuration.add("gzip", new GZipCompressionCodec());
     }
 
     @Contribute(AssetSource.class)
@@ -144,6 +177,9 @@ public class AssetsModule
 
         configuration.add("tapestry.asset.root", "classpath:META-INF/assets/tapestry5");
         configuration.add(SymbolConstants.OMIT_EXPIRATION_CACHE_CONTROL_HEADER, "max-age=60,must-revalidate");
+        configuration.add(SymbolConstants.ASSET_CACHE_MAX_SIZE, 32 * 1024 * 1024);
+        configuration.add(SymbolConstants.ASSET_MANIFEST, AssetManifest.DEFAULT_PATH);
+        configuration.add(SymbolConstants.ASSET_FILE_STREAMING_THRESHOLD, 256 * 1024);
     }
 
     // The use of decorators is to allow third-parties to get their own extensions
@@ -154,10 +190,11 @@ public class AssetsModule
                                                       @Symbol(TapestryHttpSymbolConstants.GZIP_COMPRESSION_ENABLED)
                                                       boolean gzipEnabled, @Symbol(TapestryHttpSymbolConstants.MIN_GZIP_SIZE)
                                                       int compressionCutoff,
-                                                      AssetChecksumGenerator checksumGenerator)
+                                                      AssetChecksumGenerator checksumGenerator,
+                                                      CompressionCodecSource codecSource)
     {
         return gzipEnabled
-                ? new SRSCompressingInterceptor(delegate, compressionCutoff, checksumGenerator)
+                ? new SRSCompressingInterceptor(delegate, compressionCutoff, checksumGenerator, codecSource)
                 : null;
     }
 
@@ -165,19 +202,35 @@ public class AssetsModule
     @Order("before:GZIpCompression")
     public StreamableResourceSource enableCompressedCaching(StreamableResourceSource delegate,
                                                             @Symbol(TapestryHttpSymbolConstants.GZIP_COMPRESSION_ENABLED)
-                                                            boolean gzipEnabled, ResourceChangeTracker tracker)
+                                                            boolean gzipEnabled, StreamableResourceCache cache,
+                                                            CompressionCodecSource codecSource, ResourceChangeTracker tracker)
     {
         return gzipEnabled
-                ? new SRSCompressedCachingInterceptor(delegate, tracker)
+                ? new SRSCompressedCachingInterceptor(delegate, cache, codecSource, tracker)
                 : null;
     }
 
     @Decorate(id = "Cache", serviceInterface = StreamableResourceSource.class)
     @Order("after:GZipCompression")
     public StreamableResourceSource enableUncompressedCaching(StreamableResourceSource delegate,
-                                                              ResourceChangeTracker tracker)
+                                                              StreamableResourceCache cache)
+    {
+        return new SRSCachingInterceptor(delegate, cache);
+    }
+
+    /**
+     * Serves precompiled content, when there is an asset manifest. Goes just inside the (uncompressed) cache, bypassing
+     * the interceptors whose work was done when the manifest was built.
+     *
+     * @since 5.10
+     */
+    @Decorate(id = "AssetManifest", serviceInterface = StreamableResourceSource.class)
+    @Order({"after:Cache", "before:TextUTF8"})
+    public StreamableResourceSource enableAssetManifest(StreamableResourceSource delegate, AssetManifest manifest)
     {
-        return new SRSCachingInterceptor(delegate, tracker);
+        return manifest.isEmpty()
+                ? null
+                : new SRSAssetManifestInterceptor(delegate, manifest);
     }
 
     // Goes after cache, to ensure that what we are caching is the minified version.
@@ -297,11 +350,11 @@ public class AssetsModule
     @Marker(ContextProvider.class)
     public static AssetFactory buildContextAssetFactory(ApplicationGlobals globals,
                                                         AssetPathConstructor assetPathConstructor,
-                                                        ResponseCompressionAnalyzer compressionAnalyzer,
+                                                        CompressionCodecSource codecSource,
                                                         ResourceChangeTracker resourceChangeTracker,
                                                         StreamableResourceSource streamableResourceSource)
     {
-        return new ContextAssetFactory(compressionAnalyzer, resourceChangeTracker, streamableResourceSource, assetPathConstructor, globals.getContext());
+        return new ContextAssetFactory(codecSource, resourceChangeTracker, streamableResourceSource, assetPathConstructor, globals.getContext());
     }
 
     @Contribute(ClasspathAssetAliasManager.class)
@@ -20,6 +20,9 @@ import org.apache.tapestry5.commons.OrderedConfiguration;
 import org.apache.tapestry5.http.TapestryHttpSymbolConstants;
 import org.apache.tapestry5.internal.pageload.DefaultComponentRequestSelectorAnalyzer;
 import org.apache.tapestry5.internal.pageload.DefaultComponentResourceLocator;
+import org.apache.tapestry5.internal.pageload.PagePreloadManifest;
+import org.apache.tapestry5.internal.pageload.PagePreloadManifestFilter;
+import org.apache.tapestry5.internal.pageload.PagePreloadManifestImpl;
 import org.apache.tapestry5.internal.pageload.PagePreloaderImpl;
 import org.apache.tapestry5.internal.services.ComponentDependencyRegistry;
 import org.apache.tapestry5.internal.services.ComponentDependencyRegistryImpl;
@@ -30,6 +33,7 @@ import org.apache.tapestry5.internal.services.InternalComponentInvalidationEvent
 import org.apache.tapestry5.internal.services.TemplateParser;
 import org.apache.tapestry5.internal.services.assets.ResourceChangeTracker;
 import org.apache.tapestry5.ioc.ServiceBinder;
+import org.apache.tapestry5.ioc.annotations.Contribute;
 import org.apache.tapestry5.ioc.annotations.Marker;
 import org.apache.tapestry5.ioc.annotations.Order;
 import org.apache.tapestry5.ioc.annotations.Startup;
@@ -37,6 +41,8 @@ import org.apache.tapestry5.ioc.annotations.Symbol;
 import org.apache.tapestry5.ioc.services.ChainBuilder;
 import org.apache.tapestry5.ioc.services.PerthreadManager;
 import org.apache.tapestry5.services.ComponentClassResolver;
+import org.apache.tapestry5.services.ComponentRequestFilter;
+import org.apache.tapestry5.services.ComponentRequestHandler;
 import org.apache.tapestry5.services.Core;
 import org.apache.tapestry5.services.pageload.ComponentRequestSelectorAnalyzer;
 import org.apache.tapestry5.services.pageload.ComponentResourceLocator;
@@ -64,6 +70,10 @@ public class PageLoadModule
     {
         configuration.add(SymbolConstants.MULTIPLE_CLASSLOADERS, false);
         configuration.add(SymbolConstants.COMPONENT_DEPENDENCY_FILE, ComponentDependencyRegistry.FILENAME);
+        configuration.add(SymbolConstants.PRELOADER_THREADS, Runtime.getRuntime().availableProcessors());
+        configuration.add(SymbolConstants.PRELOADER_ALL_LOCALES, false);
+        configuration.add(SymbolConstants.PRELOADER_MANIFEST, "");
+        configuration.add(SymbolConstants.COMPONENT_BYTECODE_CACHE, "");
     }
     
     public static void bind(ServiceBinder binder)
@@ -72,9 +82,26 @@ public class PageLoadModule
         binder.bind(ComponentResourceLocator.class, DefaultComponentResourceLocator.class);
         binder.bind(ComponentTemplateSource.class, ComponentTemplateSourceImpl.class);
         binder.bind(PagePreloader.class, PagePreloaderImpl.class);
+        binder.bind(PagePreloadManifest.class, PagePreloadManifestImpl.class);
         binder.bind(PageClassLoaderContextManager.class, PageClassLoaderContextManagerImpl.class);
     }
 
+    /**
+     * Records the pages that are requested, when a {@linkplain SymbolConstants#PRELOADER_MANIFEST page preload manifest}
+     * is configured.
+     *
+     * @since 5.10
+     */
+    @Contribute(ComponentRequestHandler.class)
+    public static void recordPreloadManifest(OrderedConfiguration<ComponentRequestFilter> configuration,
+                                             @Symbol(SymbolConstants.PRELOADER_MANIFEST) String manifestFile)
+    {
+        if (!manifestFile.isEmpty())
+        {
+            configuration.addInstance("PagePreloadManifest", PagePreloadManifestFilter.class, "after:InitializeActivePageName");
+        }
+    }
+
     @Startup
     public static void preloadPages(PagePreloader preloader,
                                     @Symbol(SymbolConstants.PRELOADER_MODE)
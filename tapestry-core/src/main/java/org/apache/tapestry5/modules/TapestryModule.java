@@ -23,12 +23,17 @@ import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Collection;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.CompletionStage;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import jakarta.servlet.http.HttpServletRequest;
 
 import org.apache.tapestry5.Asset;
 import org.apache.tapestry5.BindingConstants;
@@ -39,6 +44,7 @@ import org.apache.tapestry5.EventContext;
 import org.apache.tapestry5.Field;
 import org.apache.tapestry5.FieldValidationSupport;
 import org.apache.tapestry5.FieldValidator;
+import org.apache.tapestry5.JSONStreamResponse;
 import org.apache.tapestry5.MarkupWriter;
 import org.apache.tapestry5.MetaDataConstants;
 import org.apache.tapestry5.NullFieldStrategy;
@@ -73,6 +79,7 @@ import org.apache.tapestry5.annotations.Secure;
 import org.apache.tapestry5.annotations.Service;
 import org.apache.tapestry5.annotations.SessionAttribute;
 import org.apache.tapestry5.annotations.UnknownActivationContextCheck;
+import org.apache.tapestry5.annotations.StreamingMarkup;
 import org.apache.tapestry5.annotations.WhitelistAccessOnly;
 import org.apache.tapestry5.beaneditor.DataTypeConstants;
 import org.apache.tapestry5.beaneditor.Validate;
@@ -90,6 +97,7 @@ import org.apache.tapestry5.commons.ObjectProvider;
 import org.apache.tapestry5.commons.OrderedConfiguration;
 import org.apache.tapestry5.commons.Resource;
 import org.apache.tapestry5.commons.internal.BasicDataTypeAnalyzers;
+import org.apache.tapestry5.commons.internal.util.TapestryException;
 import org.apache.tapestry5.commons.internal.services.AnnotationDataTypeAnalyzer;
 import org.apache.tapestry5.commons.internal.services.DefaultDataTypeAnalyzer;
 import org.apache.tapestry5.commons.internal.services.StringInterner;
@@ -105,6 +113,7 @@ import org.apache.tapestry5.commons.util.AvailableValues;
 import org.apache.tapestry5.commons.util.CollectionFactory;
 import org.apache.tapestry5.commons.util.StrategyRegistry;
 import org.apache.tapestry5.corelib.data.SecureOption;
+import org.apache.tapestry5.func.Flow;
 import org.apache.tapestry5.grid.GridConstants;
 import org.apache.tapestry5.grid.GridDataSource;
 import org.apache.tapestry5.http.Link;
@@ -115,6 +124,7 @@ import org.apache.tapestry5.http.modules.TapestryHttpModule;
 import org.apache.tapestry5.http.services.ApplicationGlobals;
 import org.apache.tapestry5.http.services.ApplicationInitializer;
 import org.apache.tapestry5.http.services.ApplicationInitializerFilter;
+import org.apache.tapestry5.http.services.AsyncRequestSupport;
 import org.apache.tapestry5.http.services.Context;
 import org.apache.tapestry5.http.services.Dispatcher;
 import org.apache.tapestry5.http.services.HttpServletRequestFilter;
@@ -256,6 +266,8 @@ import org.apache.tapestry5.ioc.services.UpdateListener;
 import org.apache.tapestry5.ioc.services.UpdateListenerHub;
 import org.apache.tapestry5.json.JSONArray;
 import org.apache.tapestry5.json.JSONObject;
+import org.apache.tapestry5.json.JSONReader;
+import org.apache.tapestry5.json.exceptions.JSONSyntaxException;
 import org.apache.tapestry5.json.modules.JSONModule;
 import org.apache.tapestry5.plastic.MethodAdvice;
 import org.apache.tapestry5.plastic.MethodDescription;
@@ -283,6 +295,8 @@ import org.apache.tapestry5.services.ComponentEventLinkEncoder;
 import org.apache.tapestry5.services.ComponentEventRequestFilter;
 import org.apache.tapestry5.services.ComponentEventRequestHandler;
 import org.apache.tapestry5.services.ComponentEventRequestParameters;
+import org.apache.tapestry5.services.ComponentActionCodec;
+import org.apache.tapestry5.services.ComponentActionSerializer;
 import org.apache.tapestry5.services.ComponentEventResultProcessor;
 import org.apache.tapestry5.services.ComponentLibraryInfo;
 import org.apache.tapestry5.services.ComponentLibraryInfoSource;
@@ -507,6 +521,7 @@ public final class TapestryModule
         binder.bind(ApplicationStatePersistenceStrategy.class, SessionApplicationStatePersistenceStrategy.class).withSimpleId();
         binder.bind(NumericTranslatorSupport.class);
         binder.bind(ClientDataEncoder.class, ClientDataEncoderImpl.class);
+        binder.bind(ComponentActionCodec.class, ComponentActionCodecImpl.class);
         binder.bind(ComponentEventLinkEncoder.class, ComponentEventLinkEncoderImpl.class);
         binder.bind(PageRenderLinkSource.class, PageRenderLinkSourceImpl.class);
         binder.bind(ValidatorMacro.class, ValidatorMacroImpl.class);
@@ -865,6 +880,31 @@ public final class TapestryModule
         configuration.add("none", new None());
     }
 
+    /**
+     * Contributes serializers for the actions that the built-in form components store for each field, and for
+     * each iteration of a loop, so that these are not written using Java serialization.
+     *
+     * @since 5.10
+     */
+    @Contribute(ComponentActionCodec.class)
+    public static void provideComponentActionSerializers(MappedConfiguration<String, ComponentActionSerializer> configuration)
+    {
+        String base = "org.apache.tapestry5.corelib.base.";
+        String components = "org.apache.tapestry5.corelib.components.";
+
+        configuration.add(base + "AbstractField$Setup", new ReflectiveComponentActionSerializer("controlName"));
+        configuration.add(base + "AbstractField$ProcessSubmission", new ReflectiveComponentActionSerializer());
+        configuration.add(components + "Loop$RestoreState", new ReflectiveComponentActionSerializer("storedValue"));
+        configuration.add(components + "Loop$RestoreStateFromStoredClientValue", new ReflectiveComponentActionSerializer("clientValue"));
+        configuration.add(components + "AjaxFormLoop$SyncValue", new ReflectiveComponentActionSerializer("clientValue"));
+        configuration.add(components + "GridRows$SetupForRowByIndex", new ReflectiveComponentActionSerializer("rowIndex"));
+        configuration.add(components + "GridRows$SetupForRowWithClientValue", new ReflectiveComponentActionSerializer("clientValue"));
+        configuration.add(components + "Hidden$ProcessSubmission", new ReflectiveComponentActionSerializer("controlName"));
+        configuration.add(components + "RadioGroup$Setup", new ReflectiveComponentActionSerializer("controlName"));
+        configuration.add(components + "Submit$ProcessSubmission", new ReflectiveComponentActionSerializer("clientId", "elementName"));
+        configuration.add(components + "LinkSubmit$ProcessSubmission", new ReflectiveComponentActionSerializer("clientId"));
+    }
+
     /**
      * <dl>
      * <dt>Default</dt>
@@ -964,7 +1004,8 @@ public final class TapestryModule
      * <dd>Stores the request and response into the {@link org.apache.tapestry5.http.services.RequestGlobals} service (this
      * is repeated at the end of the pipeline, in case any filter substitutes the request or response).
      * <dt>EndOfRequest</dt>
-     * <dd>Notifies internal services that the request has ended</dd>
+     * <dd>Notifies internal services that the request has ended (once resumed, for a request suspended with
+     * {@link org.apache.tapestry5.http.services.AsyncRequestSupport})</dd>
      * </dl>
      */
     public void contributeRequestHandler(OrderedConfiguration<RequestFilter> configuration, Context context,
@@ -972,7 +1013,9 @@ public final class TapestryModule
                                          @Symbol(TapestryHttpSymbolConstants.PRODUCTION_MODE)
                                          boolean productionMode,
                                          
-                                         final PageClassLoaderContextManager pageClassLoaderContextManager)
+                                         final PageClassLoaderContextManager pageClassLoaderContextManager,
+
+                                         final AsyncRequestSupport asyncRequestSupport)
     {
         RequestFilter staticFilesFilter = new StaticFilesFilter(context);
 
@@ -995,7 +1038,15 @@ public final class TapestryModule
                     return handler.service(request, response);
                 } finally
                 {
-                    endOfRequestEventHub.fire();
+                    // A suspended request ends once it has been resumed and processed.
+
+                    if (asyncRequestSupport.isSuspended())
+                    {
+                        asyncRequestSupport.afterResumption(endOfRequestEventHub::fire);
+                    } else
+                    {
+                        endOfRequestEventHub.fire();
+                    }
                 }
             }
         };
@@ -1069,6 +1120,7 @@ public final class TapestryModule
      * <li>String to {@link DateFormat}</li>
      * <li>{@link Resource} to {@link DynamicTemplate}</li>
      * <li>{@link Asset} to {@link Resource}</li>
+     * <li>HttpServletRequest (the request body) to {@link JSONObject} or {@link JSONArray}</li>
      * <li>{@link ValueEncoder} to {@link ValueEncoderFactory}</li>
      * </ul>
      */
@@ -1269,6 +1321,45 @@ public final class TapestryModule
             }
         });
         configuration.add(valueEncoderToValueEncoderFactory.getKey(), valueEncoderToValueEncoderFactory);
+
+        CoercionTuple.add(configuration, HttpServletRequest.class, JSONObject.class,
+                request -> readRequestBody(request, JSONObject.class));
+        CoercionTuple.add(configuration, HttpServletRequest.class, JSONArray.class,
+                request -> readRequestBody(request, JSONArray.class));
+    }
+
+    /**
+     * Parses a JSON request body as it is read, rather than first reading it into a String.
+     * An empty body is converted to null.
+     */
+    private static <T> T readRequestBody(HttpServletRequest request, Class<T> type)
+    {
+        try (JSONReader reader = new JSONReader(request.getReader()))
+        {
+            if (reader.peek() == JSONReader.Token.END_DOCUMENT)
+            {
+                return null;
+            }
+
+            int position = reader.getPosition();
+
+            Object value = reader.nextValue();
+
+            if (!type.isInstance(value))
+            {
+                throw new JSONSyntaxException(position, String.format("A %s text must start with '%s'.",
+                        type.getSimpleName(), type == JSONObject.class ? "{" : "["));
+            }
+
+            // Fails if anything but whitespace follows the value.
+
+            reader.peek();
+
+            return type.cast(value);
+        } catch (IOException e)
+        {
+            throw new TapestryException("Exception reading the request body as JSON", e);
+        }
     }
 
     /**
@@ -1603,6 +1694,12 @@ public final class TapestryModule
      * containing page is sent.</dd>
      * <dt>{@link org.apache.tapestry5.StreamResponse}</dt>
      * <dd>The stream response is sent as the actual reply.</dd>
+     * <dt>{@link org.apache.tapestry5.JSONStreamResponse}</dt>
+     * <dd>The JSON document is written as it is produced.</dd>
+     * <dt>{@link Iterator}, {@link Stream} or {@link Flow}</dt>
+     * <dd>The elements are written as a JSON array, or as newline delimited JSON, as they are read.</dd>
+     * <dt>{@link CompletionStage}</dt>
+     * <dd>The request is suspended until the stage completes, then its value is processed.</dd>
      * <dt>URL</dt>
      * <dd>Sends a redirect to a (presumably) external URL</dd>
      * </dl>
@@ -1644,6 +1741,13 @@ public final class TapestryModule
         
         configuration.addInstance(JSONArray.class, JSONCollectionEventResultProcessor.class);
         configuration.addInstance(JSONObject.class, JSONCollectionEventResultProcessor.class);
+        configuration.addInstance(JSONStreamResponse.class, JSONStreamResponseResultProcessor.class);
+
+        configuration.addInstance(Iterator.class, SequenceResultProcessor.class);
+        configuration.addInstance(Stream.class, SequenceResultProcessor.class);
+        configuration.addInstance(Flow.class, SequenceResultProcessor.class);
+
+        configuration.addInstance(CompletionStage.class, CompletionStageResultProcessor.class);
     }
 
     /**
@@ -1659,6 +1763,12 @@ public final class TapestryModule
      * <dd>The JSONObject is returned as a text/javascript response</dd>
      * <dt>{@link org.apache.tapestry5.StreamResponse}</dt>
      * <dd>The stream response is sent as the actual response</dd>
+     * <dt>{@link org.apache.tapestry5.JSONStreamResponse}</dt>
+     * <dd>The JSON document is written as it is produced</dd>
+     * <dt>{@link Iterator}, {@link Stream} or {@link Flow}</dt>
+     * <dd>The elements are written as a JSON array, or as newline delimited JSON, as they are read</dd>
+     * <dt>{@link CompletionStage}</dt>
+     * <dd>The request is suspended until the stage completes, then its value is processed</dd>
      * <dt>String</dt>
      * <dd>Interprets the value as a logical page name and sends a client response to redirect to that page</dd>
      * <dt>{@link org.apache.tapestry5.http.Link}</dt>
@@ -1682,6 +1792,11 @@ public final class TapestryModule
         configuration.addInstance(Component.class, AjaxComponentInstanceEventResultProcessor.class);
         configuration.addInstance(JSONObject.class, JSONObjectEventResultProcessor.class);
         configuration.addInstance(JSONArray.class, JSONCollectionEventResultProcessor.class);
+        configuration.addInstance(JSONStreamResponse.class, JSONStreamResponseResultProcessor.class);
+        configuration.addInstance(Iterator.class, SequenceResultProcessor.class);
+        configuration.addInstance(Stream.class, SequenceResultProcessor.class);
+        configuration.addInstance(Flow.class, SequenceResultProcessor.class);
+        configuration.addInstance(CompletionStage.class, AjaxCompletionStageResultProcessor.class);
         configuration.addInstance(StreamResponse.class, StreamResponseResultProcessor.class);
         configuration.addInstance(String.class, AjaxPageNameComponentEventResultProcessor.class);
         configuration.addInstance(Link.class, AjaxLinkComponentEventResultProcessor.class);
@@ -1783,6 +1898,8 @@ public final class TapestryModule
      * <dd>Renders a {@code <meta/>} tag describing the active page name (development mode only)</dd>
      * <dt>ImportCoreStack (since 5.4) </dt>
      * <dd>Imports the "core" stack (necessary to get the Bootstrap CSS, if nothing else).</dd>
+     * <dt>StreamingMarkup (since 5.10)</dt>
+     * <dd>Collapses finished regions of the body into raw markup, for pages with {@link MetaDataConstants#STREAMING_MARKUP} enabled</dd>
      * </dl>
      *
      * @see org.apache.tapestry5.SymbolConstants#OMIT_GENERATOR_META
@@ -1895,6 +2012,7 @@ public final class TapestryModule
         configuration.add("ClientBehaviorSupport", clientBehaviorSupport, "after:JavaScriptSupport");
         configuration.add("Heartbeat", heartbeat);
         configuration.add("ValidationDecorator", defaultValidationDecorator);
+        configuration.addInstance("StreamingMarkup", StreamingMarkupFilter.class, "after:Heartbeat");
 
         if (includeCoreStack)
         {
@@ -2102,6 +2220,7 @@ public final class TapestryModule
         configuration.add(TapestryHttpSymbolConstants.PRODUCTION_MODE, true);
 
         configuration.add(SymbolConstants.COMPRESS_WHITESPACE, true);
+        configuration.add(SymbolConstants.TEMPLATE_PARSE_CACHE, "");
 
         configuration.add(MetaDataConstants.SECURE_PAGE, false);
 
@@ -2174,10 +2293,13 @@ public final class TapestryModule
         // Leaving this as the default results in a runtime error logged to the console (and a default password is used);
         // you are expected to override this symbol.
         configuration.add(SymbolConstants.HMAC_PASSPHRASE, "");
+        configuration.add(SymbolConstants.COMPACT_FORM_DATA, true);
 
         // TAP5-2070 keep the old behavior, defaults to false
         configuration.add(MetaDataConstants.UNKNOWN_ACTIVATION_CONTEXT_CHECK, false);
 
+        configuration.add(MetaDataConstants.STREAMING_MARKUP, false);
+
         // TAP5-2197
         configuration.add(SymbolConstants.INCLUDE_CORE_STACK, true);
 
@@ -2441,7 +2563,7 @@ public final class TapestryModule
         configuration.add("Synthetic", new SyntheticStackTraceElementAnalyzer());
         configuration.add("SunReflect", new PrefixCheckStackTraceElementAnalyzer(
                 StackTraceElementClassConstants.OMITTED, "sun.reflect."));
-        configuration.add("OperationTracker", new RegexpStackTraceElementAnalyzer(Pattern.compile("internal\\.(RegistryImpl|PerThreadOperationTracker|OperationTrackerImpl).*(run|invoke|perform)\\("), StackTraceElementClassConstants.OMITTED));
+        configuration.add("OperationTracker", new RegexpStackTraceElementAnalyzer(Pattern.compile("internal\\.(RegistryImpl|PerThreadOperationTracker|OperationTrackerImpl).*(run|invoke|perform|execute)\\("), StackTraceElementClassConstants.OMITTED));
         configuration.add("Access", new RegexpStackTraceElementAnalyzer(Pattern.compile("\\.access\\$\\d+\\("), StackTraceElementClassConstants.OMITTED));
 
         configuration.addInstance("Application", ApplicationStackTraceElementAnalyzer.class);
@@ -2564,7 +2686,7 @@ public final class TapestryModule
     }
 
     /**
-     * Contributes extractors for {@link Meta}, {@link Secure}, {@link ContentType} and {@link WhitelistAccessOnly} annotations.
+     * Contributes extractors for {@link Meta}, {@link Secure}, {@link ContentType}, {@link WhitelistAccessOnly} and {@link StreamingMarkup} annotations.
      *
      * @since 5.2.0
      */
@@ -2575,6 +2697,7 @@ public final class TapestryModule
         configuration.add(Secure.class, new FixedExtractor(MetaDataConstants.SECURE_PAGE));
         configuration.addInstance(ContentType.class, ContentTypeExtractor.class);
         configuration.add(WhitelistAccessOnly.class, new FixedExtractor(MetaDataConstants.WHITELIST_ONLY_PAGE));
+        configuration.add(StreamingMarkup.class, new FixedExtractor(MetaDataConstants.STREAMING_MARKUP));
         configuration.addInstance(UnknownActivationContextCheck.class, UnknownActivationContextExtractor.class);
     }
 
@@ -0,0 +1,98 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.apache.tapestry5.services;
+
+import org.apache.tapestry5.ComponentAction;
+import org.apache.tapestry5.ioc.annotations.UsesMappedConfiguration;
+
+import java.io.IOException;
+
+/**
+ * Encodes the {@link ComponentAction}s stored by a form (as its {@code t:formdata}) into a string, and decodes them
+ * when the form is submitted. By default, actions are written in a compact binary format: component ids and action
+ * class names are written once and then referenced, and actions that have a {@link ComponentActionSerializer} are
+ * written without Java serialization. Data encoded by {@link ClientDataEncoder#createSink()}, as in earlier releases,
+ * can always be decoded.
+ *
+ * The configuration maps the name of an action class to its serializer.
+ *
+ * @see org.apache.tapestry5.SymbolConstants#COMPACT_FORM_DATA
+ * @since 5.10
+ */
+@UsesMappedConfiguration(key = String.class, value = ComponentActionSerializer.class)
+public interface ComponentActionCodec
+{
+    /**
+     * Collects actions and encodes them.
+     */
+    interface Encoder
+    {
+        /**
+         * Writes an action.
+         *
+         * @param componentId
+         *         complete id of the component the action is for
+         * @param cancel
+         *         if true, the action is only executed when the form is cancelled, otherwise it is only executed when
+         *         it is submitted
+         * @param action
+         *         the action to write
+         */
+        void write(String componentId, boolean cancel, ComponentAction<?> action) throws IOException;
+
+        /**
+         * Returns the encoded actions; no further actions may be written.
+         */
+        String getClientData();
+    }
+
+    /**
+     * Reads back actions, in the order they were written.
+     */
+    interface Decoder
+    {
+        /**
+         * Advances to the next action, returning false when there are no more actions.
+         */
+        boolean next() throws IOException;
+
+        /**
+         * The complete id of the component of the current action.
+         */
+        String getComponentId();
+
+        /**
+         * Returns true if the current action is a cancel action.
+         */
+        boolean isCancel();
+
+        /**
+         * Reads the current action. Must be invoked once for each action, before advancing to the next one.
+         *
+         * @param loader
+         *         the class loader of the component the action is for, used to load the action class
+         */
+        ComponentAction<?> readAction(ClassLoader loader) throws IOException, ClassNotFoundException;
+    }
+
+    Encoder createEncoder();
+
+    /**
+     * Creates a decoder for the data from {@link Encoder#getClientData()}, or from a
+     * {@linkplain ClientDataEncoder#createSink() client data sink}.
+     *
+     * @throws IOException
+     *         if the client data has been corrupted (verified via the HMAC)
+     */
+    Decoder createDecoder(String clientData) throws IOException;
+}
@@ -0,0 +1,47 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.apache.tapestry5.services;
+
+import org.apache.tapestry5.ComponentAction;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+/**
+ * Writes and reads one type of {@link ComponentAction} in the compact form data format used by the
+ * {@link ComponentActionCodec}. Serializers are contributed to the codec, keyed on the name of the action class;
+ * actions without a serializer are written using Java serialization.
+ *
+ * Primitive values and strings written to the output are stored as-is; any object written with
+ * {@link ObjectOutput#writeObject(Object)} is stored using Java serialization.
+ *
+ * @since 5.10
+ */
+public interface ComponentActionSerializer
+{
+    /**
+     * Writes the state of the action.
+     */
+    void write(ComponentAction<?> action, ObjectOutput output) throws IOException;
+
+    /**
+     * Reads the state written by {@link #write(ComponentAction, ObjectOutput)} and creates a new action.
+     *
+     * @param actionType
+     *         the action class, as loaded by the class loader of the component the action is for
+     * @param input
+     *         from which the state of the action is read
+     */
+    ComponentAction<?> read(Class<?> actionType, ObjectInput input) throws IOException, ClassNotFoundException;
+}
@@ -194,4 +194,13 @@ public interface ComponentClassResolver
      */
     @IncompatibleChange(release = "5.8.3", details = "Added method")
     String getClassName(String logicalName);
+
+    /**
+     * Returns a trie of all page names, used to match page names within request paths. The trie is rebuilt when
+     * component classes are invalidated.
+     *
+     * @since 5.10
+     */
+    @IncompatibleChange(release = "5.10", details = "Added method")
+    PageNameTrie getPageNameTrie();
 }
@@ -0,0 +1,291 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.apache.tapestry5.services;
+
+import java.util.Map;
+
+/**
+ * Matches logical page names against request paths, one path segment at a time, ignoring case. This is how
+ * {@link ComponentEventLinkEncoder} locates the page name in a request path, without building candidate names and
+ * looking each up in turn. Obtained from {@link ComponentClassResolver#getPageNameTrie()}, which builds it from all
+ * known page names (including their aliases, and the pages of the core library) and rebuilds it when component
+ * classes are invalidated.
+ *
+ * Instances are immutable and thread safe.
+ *
+ * @since 5.10
+ */
+public final class PageNameTrie
+{
+    /**
+     * A page name matched by the trie.
+     */
+    public static final class Match
+    {
+        private final String canonicalPageName;
+
+        private final int length;
+
+        private Match(String canonicalPageName, int length)
+        {
+            this.canonicalPageName = canonicalPageName;
+            this.length = length;
+        }
+
+        /**
+         * Returns the canonical page name, as by {@link ComponentClassResolver#canonicalizePageName(String)}.
+         */
+        public String getCanonicalPageName()
+        {
+            return canonicalPageName;
+        }
+
+        /**
+         * Returns the number of characters of the path that were matched.
+         */
+        public int getLength()
+        {
+            return length;
+        }
+
+        @Override
+        public String toString()
+        {
+            return String.format("Match[%s, %d]", canonicalPageName, length);
+        }
+    }
+
+    private static final class Node
+    {
+        private final String segment;
+
+        private final int hash;
+
+        private Match match;
+
+        /**
+         * Open addressed hash table of child nodes; the size is always a power of two.
+         */
+        private Node[] children;
+
+        private int childCount;
+
+        private Node(String segment)
+        {
+            this.segment = segment;
+            this.hash = hash(segment, 0, segment.length());
+        }
+
+        private Node findChild(String path, int start, int end)
+        {
+            if (children == null)
+            {
+                return null;
+            }
+
+            int h = hash(path, start, end);
+            int mask = children.length - 1;
+
+            for (int i = h & mask; ; i = (i + 1) & mask)
+            {
+                Node child = children[i];
+
+                if (child == null)
+                {
+                    return null;
+                }
+
+                if (child.hash == h && child.segment.length() == end - start
+                        && child.segment.regionMatches(true, 0, path, start, end - start))
+                {
+                    return child;
+                }
+            }
+        }
+
+        private Node addChild(String segment)
+        {
+            Node child = findChild(segment, 0, segment.length());
+
+            if (child != null)
+            {
+                return child;
+            }
+
+            if (children == null || (childCount + 1) * 2 > children.length)
+            {
+                Node[] old = children;
+
+                children = new Node[old == null ? 4 : old.length * 2];
+
+                if (old != null)
+                {
+                    for (Node node : old)
+                    {
+                        if (node != null)
+                        {
+                            insert(node);
+                        }
+                    }
+                }
+            }
+
+            child = new Node(segment);
+
+            insert(child);
+
+            childCount++;
+
+            return child;
+        }
+
+        private void insert(Node child)
+        {
+            int mask = children.length - 1;
+            int i = child.hash & mask;
+
+            while (children[i] != null)
+            {
+                i = (i + 1) & mask;
+            }
+
+            children[i] = child;
+        }
+    }
+
+    private final Node root = new Node("");
+
+    /**
+     * @param pageNameToCanonicalPageName
+     *         maps each page name (or alias, with the empty string for the start page) to the canonical page name
+     */
+    public PageNameTrie(Map<String, String> pageNameToCanonicalPageName)
+    {
+        for (Map.Entry<String, String> entry : pageNameToCanonicalPageName.entrySet())
+        {
+            add(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private void add(String pageName, String canonicalPageName)
+    {
+        Node node = root;
+
+        int start = 0;
+
+        while (start < pageName.length())
+        {
+            int slashx = pageName.indexOf('/', start);
+            int end = slashx < 0 ? pageName.length() : slashx;
+
+            node = node.addChild(pageName.substring(start, end));
+
+            start = end + 1;
+        }
+
+        node.match = new Match(canonicalPageName, pageName.length());
+    }
+
+    /**
+     * Finds the page whose name is exactly the indicated portion of the path.
+     *
+     * @param path
+     *         the path, such as "admin/users/Edit"
+     * @param start
+     *         index of the first character of the page name
+     * @param end
+     *         index after the last character of the page name
+     * @return the match, or null if not a page name
+     */
+    public Match find(String path, int start, int end)
+    {
+        Node node = root;
+
+        int pos = start;
+
+        while (node != null)
+        {
+            int slashx = path.indexOf('/', pos);
+
+            if (slashx < 0 || slashx >= end)
+            {
+                node = pos == end && node == root ? root : node.findChild(path, pos, end);
+
+                return node == null ? null : node.match;
+            }
+
+            node = node.findChild(path, pos, slashx);
+
+            pos = slashx + 1;
+        }
+
+        return null;
+    }
+
+    /**
+     * Finds the page with the longest name that is a prefix of the indicated portion of the path, consisting of
+     * complete path segments. The start page (whose name is the empty string) is not considered.
+     *
+     * @param path
+     *         the path, such as "admin/users/Edit/42"
+     * @param start
+     *         index of the first character of the path to match
+     * @param end
+     *         index after the last character of the path to match
+     * @return the match, or null if no page name is a prefix of the path
+     */
+    public Match findLongestPrefix(String path, int start, int end)
+    {
+        Node node = root;
+
+        Match longest = null;
+
+        int pos = start;
+
+        while (pos < end)
+        {
+            int slashx = path.indexOf('/', pos);
+            int segmentEnd = slashx < 0 || slashx > end ? end : slashx;
+
+            node = node.findChild(path, pos, segmentEnd);
+
+            if (node == null)
+            {
+                break;
+            }
+
+            if (node.match != null)
+            {
+                longest = node.match;
+            }
+
+            pos = segmentEnd + 1;
+        }
+
+        return longest;
+    }
+
+    private static int hash(String string, int start, int end)
+    {
+        int h = 0;
+
+        for (int i = start; i < end; i++)
+        {
+            // The same folding as String.regionMatches(true, ...), so that equal segments hash equally.
+
+            h = 31 * h + Character.toLowerCase(Character.toUpperCase(string.charAt(i)));
+        }
+
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,61 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.apache.tapestry5.services.assets;
+
+import org.apache.tapestry5.SymbolConstants;
+
+/**
+ * Statistics about the in-memory cache of {@link StreamableResource}s (the result of reading, minimizing and
+ * compressing asset content). The cache is limited to {@link SymbolConstants#ASSET_CACHE_MAX_SIZE} bytes; the least
+ * recently used resources are evicted first. The uncompressed and compressed versions of a resource are cached,
+ * and evicted, together.
+ *
+ * This interface is implemented by the internal cache service, so it may be injected in order to monitor the cache;
+ * the tapestry-jmx library registers it as an MBean.
+ *
+ * @since 5.10
+ */
+public interface AssetCacheMetrics
+{
+    /**
+     * Number of requests for a resource that were satisfied from the cache.
+     */
+    long getHitCount();
+
+    /**
+     * Number of requests for a resource that were not in the cache (and so had to be read and processed).
+     */
+    long getMissCount();
+
+    /**
+     * Number of resources evicted from the cache to stay within its maximum size. Entries discarded because an
+     * underlying file changed (in development mode) are not counted.
+     */
+    long getEvictionCount();
+
+    /**
+     * Number of resources currently cached (a resource cached both uncompressed and compressed counts once).
+     */
+    int getEntryCount();
+
+    /**
+     * Total size, in bytes, of the content currently cached.
+     */
+    long getSize();
+
+    /**
+     * The maximum size, in bytes, of the cache.
+     */
+    long getMaxSize();
+}
@@ -0,0 +1,59 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.apache.tapestry5.services.assets;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * A content encoding (in the HTTP sense) that may be used to compress assets. Codecs are contributed to the
+ * {@link CompressionCodecSource} service.
+ *
+ * Besides compressing content on the fly, a codec may be used to serve pre-compressed files: a file with the
+ * codec's {@linkplain #getFileExtension() extension} alongside an asset (for example, {@code app.js.br} next to
+ * {@code app.js}) is streamed, as is, to clients that accept the codec's encoding. A codec may support only
+ * pre-compressed files; this is the case for the built-in "br" and "zstd" codecs, as the JDK does not include
+ * encoders for them.
+ *
+ * @since 5.10
+ */
+public interface CompressionCodec
+{
+    /**
+     * The content coding, as used in the Accept-Encoding and Content-Encoding headers, for example "gzip".
+     */
+    String getContentEncoding();
+
+    /**
+     * The file extension (without the leading dot) of pre-compressed files, for example "gz".
+     */
+    String getFileExtension();
+
+    /**
+     * Returns true if this codec can compress content on the fly, false if it may only be used to serve
+     * pre-compressed files.
+     */
+    boolean isCompressionSupported();
+
+    /**
+     * Wraps the output stream so that content written to the returned stream is compressed.
+     * Only invoked if {@linkplain #isCompressionSupported() compression is supported}.
+     *
+     * @param output
+     *         stream to receive the compressed content
+     * @return stream that compresses content written to it; closing it must finish the compressed content and close the
+     *         output stream
+     */
+    OutputStream createCompressor(OutputStream output) throws IOException;
+}
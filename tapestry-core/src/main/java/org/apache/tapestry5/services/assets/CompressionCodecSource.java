@@ -0,0 +1,55 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.apache.tapestry5.services.assets;
+
+import org.apache.tapestry5.http.ContentType;
+import org.apache.tapestry5.ioc.annotations.UsesOrderedConfiguration;
+
+import java.util.List;
+
+/**
+ * Keeps track of the available {@link CompressionCodec}s, and negotiates which of them may be used for the current
+ * request. The configuration order is the server's order of preference; by default "br" and "zstd" (pre-compressed
+ * files only) come before "gzip".
+ *
+ * @since 5.10
+ */
+@UsesOrderedConfiguration(CompressionCodec.class)
+public interface CompressionCodecSource
+{
+    /**
+     * Returns all codecs, in order of preference.
+     */
+    List<CompressionCodec> getCodecs();
+
+    /**
+     * Returns the codecs the client of the current request accepts (as per the Accept-Encoding request header),
+     * in order of preference. Returns an empty list outside of a request, or when compression is disabled for
+     * the request.
+     */
+    List<CompressionCodec> getAcceptedCodecs();
+
+    /**
+     * Returns true if compression is enabled (see
+     * {@link org.apache.tapestry5.http.TapestryHttpSymbolConstants#GZIP_COMPRESSION_ENABLED}) and the client of the
+     * current request accepts at least one of the codecs. This decides whether compressed asset URLs are generated.
+     */
+    boolean isCompressionSupported();
+
+    /**
+     * Returns true if {@linkplain #isCompressionSupported() compression is supported} and content of the given type
+     * is {@linkplain org.apache.tapestry5.http.services.CompressionAnalyzer#isCompressable(String) compressable}.
+     */
+    boolean isCompressionEnabled(ContentType contentType);
+}
@@ -16,6 +16,7 @@ import org.apache.tapestry5.commons.Resource;
 import org.apache.tapestry5.http.ContentType;
 import org.apache.tapestry5.ioc.annotations.IncompatibleChange;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -58,6 +59,57 @@ public interface StreamableResource
      */
     void streamTo(OutputStream os) throws IOException;
 
+    /**
+     * Streams part of the resource's content to the provided stream; used to respond to HTTP range requests.
+     * The caller is responsible for flushing or closing the output stream. The default implementation skips
+     * over the start of the stream returned by {@link #openStream()}.
+     *
+     * @param os
+     *         stream to write to
+     * @param offset
+     *         offset of the first byte to write
+     * @param length
+     *         number of bytes to write
+     * @since 5.10
+     */
+    default void streamTo(OutputStream os, long offset, long length) throws IOException
+    {
+        try (InputStream is = openStream())
+        {
+            long skipped = 0;
+
+            while (skipped < offset)
+            {
+                long count = is.skip(offset - skipped);
+
+                if (count <= 0)
+                {
+                    throw new EOFException(String.format("Offset %d is past the end of %s.", offset, getDescription()));
+                }
+
+                skipped += count;
+            }
+
+            byte[] buffer = new byte[8192];
+
+            long remaining = length;
+
+            while (remaining > 0)
+            {
+                int count = is.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+
+                if (count < 0)
+                {
+                    throw new EOFException(String.format("Range %d-%d is past the end of %s.", offset, offset + length - 1, getDescription()));
+                }
+
+                os.write(buffer, 0, count);
+
+                remaining -= count;
+            }
+        }
+    }
+
     /**
      * Opens the content of the resource as an input stream; the caller is responsible for closing the stream
      * after reading it.
@@ -106,4 +158,17 @@ public interface StreamableResource
      * @since 5.4
      */
     StreamableResource withContentType(ContentType newContentType);
+
+    /**
+     * Returns the content coding (as used in the Content-Encoding response header) of
+     * {@linkplain CompressionStatus#COMPRESSED compressed} content, or null if the content is not compressed.
+     * The default implementation returns "gzip" for compressed content.
+     *
+     * @see CompressionCodec
+     * @since 5.10
+     */
+    default String getContentEncoding()
+    {
+        return getCompression() == CompressionStatus.COMPRESSED ? "gzip" : null;
+    }
 }
@@ -20,11 +20,14 @@ import org.apache.tapestry5.ioc.annotations.UsesConfiguration;
  *
  * The configuration is simply the logical names of pages to load initially.
  *
- * Pages are loaded in the default locale (the first locale listed in
- * {@link org.apache.tapestry5.SymbolConstants#SUPPORTED_LOCALES}). This ensures that the majority
- * of class loading and transformation, template parsing, and so forth occurs immediately (loading
- * an existing page in a different locale is a relatively inexpensive operation compared to the
- * first load of the page).
+ * Pages are loaded in each of the {@linkplain org.apache.tapestry5.SymbolConstants#SUPPORTED_LOCALES supported locales}
+ * (or only the first one, unless {@link org.apache.tapestry5.SymbolConstants#PRELOADER_ALL_LOCALES} is true),
+ * using {@linkplain org.apache.tapestry5.SymbolConstants#PRELOADER_THREADS several threads}. Each page is first
+ * loaded in one locale, which is where the majority of class loading and transformation, template parsing, and so
+ * forth occurs; loading an existing page in a different locale is a relatively inexpensive operation.
+ *
+ * In addition, the pages recorded in the {@linkplain org.apache.tapestry5.SymbolConstants#PRELOADER_MANIFEST page
+ * preload manifest}, if any, are loaded in the locales they were requested in.
  *
  * @since 5.4
  */
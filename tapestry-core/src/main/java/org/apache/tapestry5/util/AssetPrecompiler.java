@@ -0,0 +1,110 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.apache.tapestry5.util;
+
+import org.apache.tapestry5.SymbolConstants;
+import org.apache.tapestry5.http.TapestryHttpSymbolConstants;
+import org.apache.tapestry5.http.services.RequestGlobals;
+import org.apache.tapestry5.internal.services.assets.AssetManifest;
+import org.apache.tapestry5.internal.services.assets.AssetManifestWriter;
+import org.apache.tapestry5.internal.services.assets.JavaScriptStackAssembler;
+import org.apache.tapestry5.internal.services.assets.ResourceChangeTracker;
+import org.apache.tapestry5.internal.test.TestableRequest;
+import org.apache.tapestry5.internal.test.TestableResponse;
+import org.apache.tapestry5.ioc.Registry;
+import org.apache.tapestry5.ioc.services.ClasspathScanner;
+import org.apache.tapestry5.ioc.services.SymbolSource;
+import org.apache.tapestry5.services.LocalizationSetter;
+import org.apache.tapestry5.services.assets.StreamableResourceSource;
+import org.apache.tapestry5.services.javascript.JavaScriptStackSource;
+import org.apache.tapestry5.test.PageTester;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Command line tool that processes (transforms, minifies, rewrites CSS URLs) an application's JavaScript and CSS assets,
+ * and its combined JavaScript stacks, ahead of time, so that the first requests after a deployment don't pay for it.
+ * The output directory must then be packaged on the application's classpath (for example, in WEB-INF/classes); in
+ * production mode, Tapestry serves assets straight from the manifest written there.
+ *
+ * Usage: {@code AssetPrecompiler <app-package> <app-name> <output-directory> [<context-path>]}, where the first two
+ * arguments are the same as for {@link PageTester}. The tool must run with the application's full runtime classpath
+ * (including tapestry-webresources, if used for minification). Assets under {@code META-INF/assets} and
+ * {@code META-INF/modules}, as well as those in the application package, are precompiled.
+ *
+ * In Gradle, this can be run with a {@code JavaExec} task whose output directory is added to the main resources.
+ *
+ * @see SymbolConstants#ASSET_MANIFEST
+ * @since 5.10
+ */
+public class AssetPrecompiler
+{
+    public static void main(String[] args) throws IOException
+    {
+        if (args.length < 3)
+        {
+            System.err.println("Usage: AssetPrecompiler <app-package> <app-name> <output-directory> [<context-path>]");
+            System.exit(1);
+        }
+
+        String appPackage = args[0];
+
+        String manifestPath = System.getProperty(SymbolConstants.ASSET_MANIFEST, AssetManifest.DEFAULT_PATH);
+
+        // Minification is only enabled in production mode, and an existing manifest (say, from a previous build)
+        // must not be used as the source.
+
+        if (System.getProperty(TapestryHttpSymbolConstants.PRODUCTION_MODE) == null)
+        {
+            System.setProperty(TapestryHttpSymbolConstants.PRODUCTION_MODE, "true");
+        }
+
+        System.setProperty(SymbolConstants.ASSET_MANIFEST, "");
+
+        PageTester tester = new PageTester(appPackage, args[1], args.length > 3 ? args[3] : PageTester.DEFAULT_CONTEXT_PATH);
+
+        try
+        {
+            precompile(tester.getRegistry(), new File(args[2]), manifestPath, appPackage);
+        } finally
+        {
+            tester.shutdown();
+        }
+    }
+
+    /**
+     * Precompiles the assets using an existing registry (which should be in production mode, with
+     * {@link SymbolConstants#ASSET_MANIFEST} set to an empty string).
+     */
+    public static void precompile(Registry registry, File outputDirectory, String manifestPath, String appPackage) throws IOException
+    {
+        // Some of the asset pipeline expects to be inside a request.
+
+        registry.getService(RequestGlobals.class).storeRequestResponse(
+                registry.getService(TestableRequest.class), registry.getService(TestableResponse.class));
+
+        AssetManifestWriter writer = new AssetManifestWriter(LoggerFactory.getLogger(AssetPrecompiler.class),
+                registry.getService(StreamableResourceSource.class),
+                registry.getService(ResourceChangeTracker.class),
+                registry.getService(ClasspathScanner.class),
+                registry.getService(JavaScriptStackSource.class),
+                registry.getService(JavaScriptStackAssembler.class),
+                registry.getService(LocalizationSetter.class),
+                Boolean.parseBoolean(registry.getService(SymbolSource.class).valueForSymbol(SymbolConstants.COMBINE_SCRIPTS)));
+
+        writer.write(outputDirectory, manifestPath, "META-INF/assets/", "META-INF/modules/", appPackage.replace('.', '/') + "/");
+    }
+}
@@ -8,6 +8,7 @@ import org.apache.tapestry5.internal.test.InternalBaseTestCase
 import org.apache.tapestry5.ioc.services.ClassNameLocator
 import org.apache.tapestry5.services.ComponentClassResolver
 import org.apache.tapestry5.services.LibraryMapping
+import org.apache.tapestry5.services.PageNameTrie
 import org.easymock.EasyMock
 import org.slf4j.Logger
 import org.testng.annotations.Test
@@ -359,6 +360,39 @@ class ComponentClassResolverImplTest extends InternalBaseTestCase {
         verify()
     }
 
+    @Test
+    void page_name_trie_matches_whole_segments_ignoring_case() {
+        ClassNameLocator locator = newClassNameLocator()
+        Logger logger = compliantLogger()
+
+        train_locateComponentClassNames(locator, "${CORE_ROOT_PACKAGE}.pages", "${CORE_ROOT_PACKAGE}.pages.MyCorePage")
+        train_locateComponentClassNames(locator, "${APP_ROOT_PACKAGE}.pages", "${APP_ROOT_PACKAGE}.pages.Index",
+            "${APP_ROOT_PACKAGE}.pages.admin.reports.Detail", "${APP_ROOT_PACKAGE}.pages.admin.reports.Index")
+
+        replay()
+
+        ComponentClassResolver resolver = create(logger, locator, new LibraryMapping(CORE_PREFIX, CORE_ROOT_PACKAGE))
+
+        PageNameTrie trie = resolver.getPageNameTrie()
+
+        String path = "admin/REPORTS/detail/1/2"
+
+        PageNameTrie.Match match = trie.findLongestPrefix(path, 0, path.length())
+
+        assertEquals(match.canonicalPageName, "admin/reports/Detail")
+        assertEquals(match.length, "admin/REPORTS/detail".length())
+
+        assertEquals(trie.find(path, 0, "admin/reports".length()).canonicalPageName, "admin/reports/Index")
+        assertNull(trie.find(path, 0, "admin/rep".length()))
+        assertNull(trie.find(path, 0, "admin".length()))
+
+        assertEquals(trie.find("", 0, 0).canonicalPageName, "Index")
+        assertEquals(trie.find("mycorepage", 0, 10).canonicalPageName, "core/MyCorePage")
+        assertEquals(trie.find("core/mycorepage", 0, 15).canonicalPageName, "core/MyCorePage")
+
+        verify()
+    }
+
     protected final ClassNameLocator newClassNameLocator() {
         ClassNameLocator locator = newMock(ClassNameLocator.class)
 
@@ -1807,6 +1807,38 @@ class DOMTest
         assertNull(root.getPreviousSiblingElement());
     }
 
+    // --- collapse ---
+
+    @Test
+    void collapse_replaces_element_with_raw_markup_in_place()
+    {
+        Document d = new Document(new XMLMarkupModel());
+        Element root = d.newRootElement("root");
+        root.element("before");
+        Element target = root.element("target", "id", "t");
+        target.element("child").text("text & more");
+        root.element("after");
+
+        String expected = d.toString();
+
+        Raw raw = target.collapse();
+
+        assertNull(target.getContainer());
+        assertSame(root, raw.getContainer());
+        assertSame(raw, root.getChildren().get(1));
+        assertNull(d.getElementById("t"));
+        assertEquals(expected, d.toString());
+    }
+
+    @Test
+    void collapse_root_element_fails()
+    {
+        Document d = new Document();
+        Element root = d.newRootElement("root");
+
+        assertThrows(IllegalStateException.class, root::collapse);
+    }
+
     // --- Helper methods formerly from InternalBaseTestCase ---
 
     private String readFile(String file) throws IOException
@@ -0,0 +1,245 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.apache.tapestry5.grid;
+
+import org.apache.tapestry5.beanmodel.PropertyConduit;
+import org.apache.tapestry5.beanmodel.PropertyModel;
+import org.easymock.EasyMock;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetGridDataSourceTest
+{
+    static class Item
+    {
+        final int id;
+
+        final String name;
+
+        Item(int id, String name)
+        {
+            this.id = id;
+            this.name = name;
+        }
+    }
+
+    /**
+     * Sorts by name, then id, and records the offset used by each query.
+     */
+    static class ListDataSource extends KeysetGridDataSource<Item>
+    {
+        final List<Item> items;
+
+        final List<Integer> offsets = new ArrayList<>();
+
+        int counts;
+
+        ListDataSource(List<Item> items, RowCountStrategy strategy, KeysetBookmarks bookmarks)
+        {
+            super(Item.class, strategy, bookmarks);
+
+            this.items = items;
+        }
+
+        @Override
+        protected List<Item> fetch(List<SortConstraint> sortConstraints, Object[] seekKey, boolean reverse,
+                                   int firstResult, int maxResults)
+        {
+            Comparator<Item> order = Comparator.comparing((Item item) -> item.name).thenComparing(item -> item.id);
+
+            if (!sortConstraints.isEmpty() && sortConstraints.get(0).getColumnSort() == ColumnSort.DESCENDING)
+            {
+                order = Comparator.comparing((Item item) -> item.name).reversed().thenComparing(item -> item.id);
+            }
+
+            if (reverse)
+            {
+                order = order.reversed();
+            }
+
+            Comparator<Item> finalOrder = order;
+            Item seek = seekKey == null ? null : new Item((Integer) seekKey[seekKey.length - 1], (String) seekKey[0]);
+
+            offsets.add(firstResult);
+
+            return items.stream()
+                    .sorted(finalOrder)
+                    .filter(item -> seek == null || finalOrder.compare(item, seek) > 0)
+                    .skip(firstResult)
+                    .limit(maxResults)
+                    .collect(Collectors.toList());
+        }
+
+        @Override
+        protected Object getUniqueKey(Item row)
+        {
+            return row.id;
+        }
+
+        @Override
+        protected int countRows()
+        {
+            counts++;
+
+            return items.size();
+        }
+    }
+
+    private static List<Item> items(int count)
+    {
+        List<Item> items = new ArrayList<>();
+
+        for (int i = 0; i < count; i++)
+        {
+            // Names repeat, so that the id is needed to order the rows.
+
+            items.add(new Item(i, "item " + (char) ('a' + i % 7)));
+        }
+
+        return items;
+    }
+
+    private static List<SortConstraint> byName(ColumnSort sort)
+    {
+        PropertyConduit conduit = EasyMock.mock(PropertyConduit.class);
+        EasyMock.expect(conduit.get(EasyMock.anyObject())).andAnswer(() -> ((Item) EasyMock.getCurrentArguments()[0]).name).anyTimes();
+
+        PropertyModel model = EasyMock.mock(PropertyModel.class);
+        EasyMock.expect(model.getPropertyName()).andReturn("name").anyTimes();
+        EasyMock.expect(model.getConduit()).andReturn(conduit).anyTimes();
+
+        EasyMock.replay(conduit, model);
+
+        return Collections.singletonList(new SortConstraint(model, sort));
+    }
+
+    private static List<Integer> page(ListDataSource source, int startIndex, int endIndex, List<SortConstraint> sort)
+    {
+        source.prepare(startIndex, endIndex, sort);
+
+        List<Integer> ids = new ArrayList<>();
+
+        for (int i = startIndex; i <= endIndex; i++)
+        {
+            Item item = (Item) source.getRowValue(i);
+
+            if (item != null)
+            {
+                ids.add(item.id);
+            }
+        }
+
+        return ids;
+    }
+
+    private static List<Integer> expected(List<Item> items, int startIndex, int endIndex, Comparator<Item> order)
+    {
+        return items.stream().sorted(order).skip(startIndex).limit(endIndex - startIndex + 1)
+                .map(item -> item.id).collect(Collectors.toList());
+    }
+
+    @Test
+    void sequential_pages_are_located_by_key()
+    {
+        List<Item> items = items(95);
+        KeysetBookmarks bookmarks = new KeysetBookmarks();
+        List<SortConstraint> sort = byName(ColumnSort.ASCENDING);
+        Comparator<Item> order = Comparator.comparing((Item item) -> item.name).thenComparing(item -> item.id);
+
+        for (int start = 0; start < 95; start += 10)
+        {
+            ListDataSource source = new ListDataSource(items, RowCountStrategy.EXACT, bookmarks);
+
+            assertEquals(expected(items, start, start + 9, order), page(source, start, start + 9, sort));
+            assertEquals(Collections.singletonList(0), source.offsets);
+        }
+    }
+
+    @Test
+    void pages_without_bookmark_skip_from_the_closest_bookmark()
+    {
+        List<Item> items = items(100);
+        KeysetBookmarks bookmarks = new KeysetBookmarks();
+        List<SortConstraint> sort = byName(ColumnSort.DESCENDING);
+        Comparator<Item> order = Comparator.comparing((Item item) -> item.name).reversed().thenComparing(item -> item.id);
+
+        page(new ListDataSource(items, RowCountStrategy.EXACT, bookmarks), 0, 9, sort);
+
+        ListDataSource source = new ListDataSource(items, RowCountStrategy.EXACT, bookmarks);
+
+        assertEquals(expected(items, 50, 59, order), page(source, 50, 59, sort));
+        assertEquals(Collections.singletonList(40), source.offsets);
+
+        // Going back a page is located by key, reading backwards from the page after.
+
+        source = new ListDataSource(items, RowCountStrategy.EXACT, bookmarks);
+
+        assertEquals(expected(items, 40, 49, order), page(source, 40, 49, sort));
+        assertEquals(Collections.singletonList(0), source.offsets);
+    }
+
+    @Test
+    void bookmarks_are_discarded_when_the_sort_order_changes()
+    {
+        List<Item> items = items(30);
+        KeysetBookmarks bookmarks = new KeysetBookmarks();
+
+        page(new ListDataSource(items, RowCountStrategy.EXACT, bookmarks), 0, 9, byName(ColumnSort.ASCENDING));
+
+        ListDataSource source = new ListDataSource(items, RowCountStrategy.EXACT, bookmarks);
+
+        page(source, 10, 19, byName(ColumnSort.DESCENDING));
+
+        assertEquals(Collections.singletonList(10), source.offsets);
+    }
+
+    @Test
+    void estimated_count_is_refined_by_prepared_rows()
+    {
+        List<Item> items = items(25);
+        CachingRowCountStrategy strategy = new CachingRowCountStrategy(1, TimeUnit.HOURS);
+        List<SortConstraint> sort = byName(ColumnSort.ASCENDING);
+
+        ListDataSource first = new ListDataSource(items, strategy, null);
+
+        assertEquals(25, first.getAvailableRows());
+        assertFalse(first.isAvailableRowsExact());
+
+        // Rows added after the count was cached are found when paging.
+
+        List<Item> more = items(45);
+
+        ListDataSource source = new ListDataSource(more, strategy, null);
+
+        page(source, 20, 29, sort);
+
+        assertEquals(0, source.counts);
+        assertFalse(source.isAvailableRowsExact());
+        assertEquals(31, source.getAvailableRows(31));
+        assertEquals(31, source.getAvailableRows());
+
+        page(source, 40, 49, sort);
+
+        assertTrue(source.isAvailableRowsExact());
+        assertEquals(45, source.getAvailableRows());
+        assertEquals(45, source.getAvailableRows(50));
+    }
+}
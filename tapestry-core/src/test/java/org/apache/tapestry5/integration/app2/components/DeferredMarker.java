@@ -0,0 +1,45 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.apache.tapestry5.integration.app2.components;
+
+import org.apache.tapestry5.MarkupWriter;
+import org.apache.tapestry5.annotations.Environmental;
+import org.apache.tapestry5.dom.Element;
+import org.apache.tapestry5.services.Heartbeat;
+
+/**
+ * Renders a span whose class attribute is only added by a command deferred to the enclosing heartbeat.
+ */
+public class DeferredMarker
+{
+    @Environmental
+    private Heartbeat heartbeat;
+
+    void beginRender(MarkupWriter writer)
+    {
+        final Element element = writer.element("span");
+
+        heartbeat.defer(new Runnable()
+        {
+            public void run()
+            {
+                element.attribute("class", "deferred");
+            }
+        });
+    }
+
+    void afterRender(MarkupWriter writer)
+    {
+        writer.end();
+    }
+}
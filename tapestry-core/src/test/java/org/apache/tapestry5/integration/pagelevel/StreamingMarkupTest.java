@@ -0,0 +1,74 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.apache.tapestry5.integration.pagelevel;
+
+import org.apache.tapestry5.dom.Document;
+import org.apache.tapestry5.dom.Element;
+import org.apache.tapestry5.dom.Node;
+import org.apache.tapestry5.test.PageTester;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+public class StreamingMarkupTest extends Assert
+{
+    private PageTester tester;
+
+    @Test
+    public void form_and_loop_render_with_collapsed_body()
+    {
+        tester = new PageTester(TestConstants.APP2_PACKAGE, TestConstants.APP2_NAME);
+
+        Document doc = tester.renderPage("TestPageForStreamingMarkup");
+
+        String markup = doc.toString();
+
+        assertTrue(markup.contains("<tr><td>a</td></tr><tr><td>b</td></tr><tr><td>c</td></tr>"), markup);
+
+        // The Label's deferred command updates the label and finds the field, before the Form's
+        // heartbeat collapses them.
+
+        assertTrue(markup.matches("(?s).*<label [^>]*for=\"name\"[^>]*>.*"), markup);
+        assertTrue(markup.matches("(?s).*<input [^>]*aria-labelledby=\"name-label\"[^>]*>.*"), markup);
+
+        // A command deferred to the page's heartbeat updates an element closed outside of any Form or Loop.
+
+        assertTrue(markup.contains("<div id=\"header\"><span class=\"deferred\"></span></div>"), markup);
+
+        assertTrue(markup.contains("<p id=\"footer\">Done.</p>"), markup);
+
+        // The regions of the body were collapsed into raw markup; only elements added after rendering remain.
+
+        assertNull(doc.getElementById("header"));
+        assertNull(doc.getElementById("rows"));
+        assertNull(doc.getElementById("form1"));
+        assertNull(doc.getElementById("footer"));
+
+        for (Node node : doc.find("html/body").getChildren())
+        {
+            if (node instanceof Element)
+            {
+                assertEquals(((Element) node).getName(), "script", markup);
+            }
+        }
+    }
+
+    @AfterMethod
+    public void after()
+    {
+        if (tester != null)
+        {
+            tester.shutdown();
+        }
+    }
+}
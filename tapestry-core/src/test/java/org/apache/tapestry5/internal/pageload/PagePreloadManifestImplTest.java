@@ -0,0 +1,137 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.apache.tapestry5.internal.pageload;
+
+import org.apache.tapestry5.services.ComponentClassResolver;
+import org.easymock.EasyMock;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.helpers.NOPLogger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PagePreloadManifestImplTest
+{
+    @TempDir
+    Path folder;
+
+    private static ComponentClassResolver resolver(String... pageNames)
+    {
+        List<String> names = Arrays.asList(pageNames);
+
+        ComponentClassResolver resolver = EasyMock.mock(ComponentClassResolver.class);
+
+        EasyMock.expect(resolver.isPageName(EasyMock.anyString()))
+                .andAnswer(() -> names.contains(EasyMock.<String>getCurrentArgument(0))).anyTimes();
+        EasyMock.replay(resolver);
+
+        return resolver;
+    }
+
+    private static PagePreloadManifest manifest(Path file, String... pageNames) throws IOException
+    {
+        return new PagePreloadManifestImpl(file.toString(), resolver(pageNames), NOPLogger.NOP_LOGGER);
+    }
+
+    @Test
+    void disabled_without_file() throws IOException
+    {
+        PagePreloadManifest manifest = new PagePreloadManifestImpl("", resolver(), NOPLogger.NOP_LOGGER);
+
+        assertFalse(manifest.isEnabled());
+        assertTrue(manifest.getRecordedPages().isEmpty());
+    }
+
+    @Test
+    void used_pages_are_recorded_for_next_run() throws IOException
+    {
+        Path file = folder.resolve("preload/pages.json");
+
+        PagePreloadManifest first = manifest(file, "Index", "About", "admin/Users");
+
+        assertTrue(first.isEnabled());
+        assertTrue(first.getRecordedPages().isEmpty());
+
+        first.pageUsed("Index", Locale.ENGLISH);
+        first.pageUsed("admin/Users", Locale.FRENCH);
+        first.pageUsed("Index", Locale.forLanguageTag("pt-BR"));
+        first.pageUsed("Index", Locale.ENGLISH);
+
+        first.write();
+
+        assertTrue(Files.exists(file));
+
+        PagePreloadManifest second = manifest(file, "Index", "About", "admin/Users");
+
+        Map<String, Set<Locale>> pages = second.getRecordedPages();
+
+        assertEquals(2, pages.size());
+        assertEquals(new LinkedHashSet<>(Arrays.asList(Locale.ENGLISH, Locale.forLanguageTag("pt-BR"))), pages.get("Index"));
+        assertEquals(Collections.singleton(Locale.FRENCH), pages.get("admin/Users"));
+    }
+
+    @Test
+    void previously_recorded_pages_are_kept() throws IOException
+    {
+        Path file = folder.resolve("pages.json");
+
+        PagePreloadManifest first = manifest(file, "Index", "About", "admin/Users");
+
+        first.pageUsed("Index", Locale.ENGLISH);
+        first.write();
+
+        PagePreloadManifest second = manifest(file, "Index", "About", "admin/Users");
+
+        second.pageUsed("About", Locale.ENGLISH);
+        second.write();
+
+        Map<String, Set<Locale>> pages = manifest(file, "Index", "About", "admin/Users").getRecordedPages();
+
+        assertEquals(Arrays.asList("Index", "About"), Arrays.asList(pages.keySet().toArray()));
+    }
+
+    @Test
+    void pages_that_no_longer_exist_are_dropped() throws IOException
+    {
+        Path file = folder.resolve("pages.json");
+
+        PagePreloadManifest first = manifest(file, "Index", "About");
+
+        first.pageUsed("Index", Locale.ENGLISH);
+        first.pageUsed("About", Locale.ENGLISH);
+        first.write();
+
+        // About has since been removed from the application.
+
+        PagePreloadManifest second = manifest(file, "Index", "Contact");
+
+        second.pageUsed("Contact", Locale.ENGLISH);
+        second.write();
+
+        Map<String, Set<Locale>> pages = manifest(file, "Index", "Contact").getRecordedPages();
+
+        assertEquals(Arrays.asList("Index", "Contact"), Arrays.asList(pages.keySet().toArray()));
+    }
+}
@@ -0,0 +1,222 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.apache.tapestry5.internal.pageload;
+
+import org.apache.tapestry5.ioc.internal.QuietOperationTracker;
+import org.apache.tapestry5.ioc.services.PerthreadManager;
+import org.apache.tapestry5.ioc.services.ThreadLocale;
+import org.apache.tapestry5.services.ComponentClassResolver;
+import org.apache.tapestry5.services.ComponentSource;
+import org.apache.tapestry5.services.LocalizationSetter;
+import org.easymock.EasyMock;
+import org.junit.jupiter.api.Test;
+import org.slf4j.helpers.NOPLogger;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PagePreloaderImplTest
+{
+    private static final List<Locale> SUPPORTED_LOCALES = Arrays.asList(Locale.ENGLISH, Locale.FRENCH);
+
+    /**
+     * Each load, as page name and locale (for example, "Index:fr").
+     */
+    private final List<String> loads = new CopyOnWriteArrayList<>();
+
+    private final Set<String> loadingThreads = ConcurrentHashMap.newKeySet();
+
+    private final ThreadLocale threadLocale = new ThreadLocale()
+    {
+        private final ThreadLocal<Locale> locale = new ThreadLocal<>();
+
+        public void setLocale(Locale locale)
+        {
+            this.locale.set(locale);
+        }
+
+        public Locale getLocale()
+        {
+            return locale.get();
+        }
+    };
+
+    private ComponentSource componentSource(String... failingPages)
+    {
+        List<String> failing = Arrays.asList(failingPages);
+
+        ComponentSource source = EasyMock.mock(ComponentSource.class);
+
+        EasyMock.expect(source.getPage(EasyMock.anyString())).andAnswer(() -> {
+            String pageName = EasyMock.getCurrentArgument(0);
+
+            if (failing.contains(pageName))
+            {
+                throw new IllegalStateException("Failure loading " + pageName + ".");
+            }
+
+            loads.add(pageName + ":" + threadLocale.getLocale());
+            loadingThreads.add(Thread.currentThread().getName());
+
+            return null;
+        }).anyTimes();
+
+        EasyMock.replay(source);
+
+        return source;
+    }
+
+    private static ComponentClassResolver resolver(String... pageNames)
+    {
+        List<String> names = Arrays.asList(pageNames);
+
+        ComponentClassResolver resolver = EasyMock.mock(ComponentClassResolver.class);
+
+        EasyMock.expect(resolver.isPageName(EasyMock.anyString()))
+                .andAnswer(() -> names.contains(EasyMock.<String>getCurrentArgument(0))).anyTimes();
+        EasyMock.replay(resolver);
+
+        return resolver;
+    }
+
+    private static PagePreloadManifest manifest(Map<String, Set<Locale>> recordedPages)
+    {
+        PagePreloadManifest manifest = EasyMock.mock(PagePreloadManifest.class);
+
+        EasyMock.expect(manifest.getRecordedPages()).andReturn(recordedPages).anyTimes();
+        EasyMock.replay(manifest);
+
+        return manifest;
+    }
+
+    private static LocalizationSetter localizationSetter()
+    {
+        LocalizationSetter setter = EasyMock.mock(LocalizationSetter.class);
+
+        EasyMock.expect(setter.getSupportedLocales()).andReturn(SUPPORTED_LOCALES).anyTimes();
+        EasyMock.replay(setter);
+
+        return setter;
+    }
+
+    private static PerthreadManager perthreadManager()
+    {
+        PerthreadManager manager = EasyMock.niceMock(PerthreadManager.class);
+
+        EasyMock.replay(manager);
+
+        return manager;
+    }
+
+    private PagePreloaderImpl preloader(ComponentSource source, List<String> configuredPages, ComponentClassResolver resolver,
+                                        PagePreloadManifest manifest, int threads, boolean allLocales)
+    {
+        return new PagePreloaderImpl(NOPLogger.NOP_LOGGER, new QuietOperationTracker(), source, configuredPages,
+                resolver, threadLocale, localizationSetter(), perthreadManager(), manifest,
+                threads, allLocales, true, false);
+    }
+
+    private static Set<Locale> locales(Locale... locales)
+    {
+        return new LinkedHashSet<>(Arrays.asList(locales));
+    }
+
+    @Test
+    void configured_pages_are_loaded_in_the_first_supported_locale()
+    {
+        preloader(componentSource(), Arrays.asList("Index", "About"), resolver("Index", "About"),
+                manifest(Collections.emptyMap()), 1, false).preloadPages();
+
+        assertEquals(Arrays.asList("Index:en", "About:en"), loads);
+    }
+
+    @Test
+    void configured_pages_are_loaded_in_all_supported_locales()
+    {
+        preloader(componentSource(), Arrays.asList("Index", "About"), resolver("Index", "About"),
+                manifest(Collections.emptyMap()), 1, true).preloadPages();
+
+        // Every page is loaded once before any page is loaded in a second locale.
+
+        assertEquals(Arrays.asList("Index:en", "About:en", "Index:fr", "About:fr"), loads);
+    }
+
+    @Test
+    void recorded_pages_are_loaded_in_their_recorded_locales()
+    {
+        Map<String, Set<Locale>> recorded = new LinkedHashMap<>();
+
+        recorded.put("Index", locales(Locale.FRENCH));
+        recorded.put("admin/Users", locales(Locale.FRENCH, Locale.GERMAN));
+        recorded.put("Legacy", locales(Locale.GERMAN));
+
+        preloader(componentSource(), Collections.singletonList("Index"), resolver("Index", "admin/Users", "Legacy"),
+                manifest(recorded), 1, false).preloadPages();
+
+        // German is no longer a supported locale, so Legacy isn't loaded at all.
+
+        assertEquals(Arrays.asList("Index:en", "admin/Users:fr", "Index:fr"), loads);
+    }
+
+    @Test
+    void recorded_pages_that_no_longer_exist_are_skipped()
+    {
+        Map<String, Set<Locale>> recorded = new LinkedHashMap<>();
+
+        recorded.put("Removed", locales(Locale.ENGLISH));
+        recorded.put("About", locales(Locale.ENGLISH));
+
+        // Loading a page that doesn't exist would fail, and stop the remaining pages from being loaded.
+
+        preloader(componentSource("Removed"), Collections.singletonList("Index"), resolver("Index", "About"),
+                manifest(recorded), 1, false).preloadPages();
+
+        assertEquals(Arrays.asList("Index:en", "About:en"), loads);
+    }
+
+    @Test
+    void pages_are_loaded_on_preloader_threads()
+    {
+        List<String> pageNames = Arrays.asList("A", "B", "C", "D", "E", "F", "G", "H");
+
+        preloader(componentSource(), pageNames, resolver(pageNames.toArray(new String[0])),
+                manifest(Collections.emptyMap()), 3, true).preloadPages();
+
+        assertEquals(pageNames.size() * SUPPORTED_LOCALES.size(), loads.size());
+        assertEquals(pageNames.size() * SUPPORTED_LOCALES.size(), new LinkedHashSet<>(loads).size());
+
+        for (String thread : loadingThreads)
+        {
+            assertTrue(thread.startsWith("tapestry-page-preloader-"), thread);
+        }
+    }
+
+    @Test
+    void loading_stops_after_a_failure()
+    {
+        preloader(componentSource("Broken"), Arrays.asList("Broken", "Index"), resolver("Broken", "Index"),
+                manifest(Collections.emptyMap()), 1, false).preloadPages();
+
+        assertTrue(loads.isEmpty());
+    }
+}
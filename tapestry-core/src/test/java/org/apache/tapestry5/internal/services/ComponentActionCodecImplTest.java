@@ -0,0 +1,205 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.apache.tapestry5.internal.services;
+
+import org.apache.tapestry5.ComponentAction;
+import org.apache.tapestry5.services.ClientDataEncoder;
+import org.apache.tapestry5.services.ClientDataSink;
+import org.apache.tapestry5.services.ComponentActionCodec;
+import org.apache.tapestry5.services.ComponentActionSerializer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComponentActionCodecImplTest
+{
+    private final ClientDataEncoder clientDataEncoder = new ClientDataEncoderImpl(null,
+            "a sufficiently long passphrase", null, null, true);
+
+    private final Map<String, ComponentActionSerializer> serializers = Map.of(
+            SetupRow.class.getName(), new ReflectiveComponentActionSerializer("controlName", "index", "value"));
+
+    static class SetupRow implements ComponentAction<Object>
+    {
+        private final String controlName;
+
+        private final int index;
+
+        private final Object value;
+
+        SetupRow(String controlName, int index, Object value)
+        {
+            this.controlName = controlName;
+            this.index = index;
+            this.value = value;
+        }
+
+        public void execute(Object component)
+        {
+        }
+
+        @Override
+        public String toString()
+        {
+            return String.format("SetupRow[%s %d %s]", controlName, index, value);
+        }
+    }
+
+    /**
+     * An encoder written before 5.10, relying on the default implementations of the binary methods.
+     */
+    static class CustomEncoder implements ClientDataEncoder
+    {
+        private final ClientDataEncoder delegate;
+
+        CustomEncoder(ClientDataEncoder delegate)
+        {
+            this.delegate = delegate;
+        }
+
+        public ClientDataSink createSink()
+        {
+            return delegate.createSink();
+        }
+
+        public ObjectInputStream decodeClientData(String clientData) throws IOException
+        {
+            return delegate.decodeClientData(clientData);
+        }
+
+        public ObjectInputStream decodeEncodedClientData(String clientData) throws IOException
+        {
+            return delegate.decodeEncodedClientData(clientData);
+        }
+    }
+
+    static class Unregistered implements ComponentAction<Object>
+    {
+        private final String state;
+
+        Unregistered(String state)
+        {
+            this.state = state;
+        }
+
+        public void execute(Object component)
+        {
+        }
+
+        @Override
+        public String toString()
+        {
+            return String.format("Unregistered[%s]", state);
+        }
+    }
+
+    private String encode(boolean compact, int rows) throws IOException
+    {
+        return encode(clientDataEncoder, compact, rows);
+    }
+
+    private String encode(ClientDataEncoder clientDataEncoder, boolean compact, int rows) throws IOException
+    {
+        ComponentActionCodec.Encoder encoder = new ComponentActionCodecImpl(clientDataEncoder, serializers, compact).createEncoder();
+
+        encoder.write("Index:form", false, new Unregistered("prepare"));
+
+        for (int i = 0; i < rows; i++)
+        {
+            encoder.write("Index:loop.textfield", false, new SetupRow("textfield_" + i, i, i % 2 == 0 ? null : Integer.valueOf(i)));
+        }
+
+        encoder.write("Index:form", true, new Unregistered("cancel"));
+
+        return encoder.getClientData();
+    }
+
+    private String decode(String clientData) throws Exception
+    {
+        return decode(clientDataEncoder, clientData);
+    }
+
+    private String decode(ClientDataEncoder clientDataEncoder, String clientData) throws Exception
+    {
+        ComponentActionCodec.Decoder decoder = new ComponentActionCodecImpl(clientDataEncoder, serializers, true).createDecoder(clientData);
+
+        StringBuilder builder = new StringBuilder();
+
+        while (decoder.next())
+        {
+            builder.append(decoder.getComponentId())
+                    .append(decoder.isCancel() ? " cancel " : " ")
+                    .append(decoder.readAction(getClass().getClassLoader()))
+                    .append('\n');
+        }
+
+        return builder.toString();
+    }
+
+    @Test
+    void compact_format_round_trip() throws Exception
+    {
+        assertEquals("Index:form Unregistered[prepare]\n" +
+                        "Index:loop.textfield SetupRow[textfield_0 0 null]\n" +
+                        "Index:loop.textfield SetupRow[textfield_1 1 1]\n" +
+                        "Index:form cancel Unregistered[cancel]\n",
+                decode(encode(true, 2)));
+    }
+
+    @Test
+    void serialized_format_is_still_decoded() throws Exception
+    {
+        assertEquals(decode(encode(true, 3)), decode(encode(false, 3)));
+    }
+
+    @Test
+    void compact_format_with_custom_encoder() throws Exception
+    {
+        ClientDataEncoder custom = new CustomEncoder(clientDataEncoder);
+
+        assertEquals(decode(encode(true, 3)), decode(custom, encode(custom, true, 3)));
+    }
+
+    @Test
+    void serialized_format_with_custom_encoder() throws Exception
+    {
+        ClientDataEncoder custom = new CustomEncoder(clientDataEncoder);
+
+        assertEquals(decode(encode(true, 3)), decode(custom, encode(custom, false, 3)));
+    }
+
+    @Test
+    void compact_format_is_smaller() throws Exception
+    {
+        int compact = encode(true, 200).length();
+        int serialized = encode(false, 200).length();
+
+        assertTrue(compact < serialized, String.format("compact: %d, serialized: %d", compact, serialized));
+    }
+
+    @Test
+    void tampered_data_is_rejected() throws Exception
+    {
+        String clientData = encode(true, 2);
+
+        String tampered = clientData.substring(0, clientData.length() - 4) + "AAAA";
+
+        IOException ex = assertThrows(IOException.class, () -> decode(tampered));
+
+        assertTrue(ex.getMessage().contains("HMAC signature does not match"));
+    }
+}
@@ -160,9 +160,7 @@ public class ComponentEventDispatcherTest extends InternalBaseTestCase
 
         expect(ls.isSupportedLocaleName("mypage:eventname")).andReturn(false);
 
-        train_isPageName(resolver, "mypage", true);
-
-        train_canonicalizePageName(resolver, "mypage", "mypage");
+        train_getPageNameTrie(resolver, "mypage", "mypage");
 
         train_getParameter(request, InternalConstants.PAGE_CONTEXT_NAME, "alpha/beta");
 
@@ -203,9 +201,7 @@ public class ComponentEventDispatcherTest extends InternalBaseTestCase
 
         expect(ls.isSupportedLocaleName("activepage:eventname")).andReturn(false);
 
-        train_isPageName(resolver, "activepage", true);
-
-        train_canonicalizePageName(resolver, "activepage", "activepage");
+        train_getPageNameTrie(resolver, "activepage", "activepage");
 
         train_getParameter(request, InternalConstants.PAGE_CONTEXT_NAME, null);
 
@@ -242,7 +238,7 @@ public class ComponentEventDispatcherTest extends InternalBaseTestCase
 
         train_getPath(request, "/en/mypage.foo");
 
-        train_isPageName(resolver, "mypage", false);
+        train_getPageNameTrie(resolver);
 
         replay();
 
@@ -273,9 +269,7 @@ public class ComponentEventDispatcherTest extends InternalBaseTestCase
 
         expect(localizationSetter.isSupportedLocaleName(localeName)).andReturn(false);
 
-        train_isPageName(resolver, containerPageName, true);
-
-        train_canonicalizePageName(resolver, containerPageName, containerPageName);
+        train_getPageNameTrie(resolver, containerPageName, containerPageName);
 
         train_getParameter(request, InternalConstants.PAGE_CONTEXT_NAME, null);
 
@@ -326,9 +320,7 @@ public class ComponentEventDispatcherTest extends InternalBaseTestCase
 
         expect(localizationSetter.isSupportedLocaleName("foo")).andReturn(false);
 
-        train_isPageName(resolver, containerPageName, true);
-
-        train_canonicalizePageName(resolver, containerPageName, containerPageName);
+        train_getPageNameTrie(resolver, containerPageName, containerPageName);
 
         expect(metaDataLocator.findMeta(MetaDataConstants.WHITELIST_ONLY_PAGE, containerPageName, boolean.class)).andReturn(true);
         expect(whitelist.isClientRequestOnWhitelist()).andReturn(true);
@@ -373,9 +365,7 @@ public class ComponentEventDispatcherTest extends InternalBaseTestCase
 
         expect(localizationSetter.isSupportedLocaleName("foo")).andReturn(false);
 
-        train_isPageName(resolver, containerPageName, true);
-
-        train_canonicalizePageName(resolver, containerPageName, containerPageName);
+        train_getPageNameTrie(resolver, containerPageName, containerPageName);
 
         expect(metaDataLocator.findMeta(MetaDataConstants.WHITELIST_ONLY_PAGE, containerPageName, boolean.class)).andReturn(true);
         expect(whitelist.isClientRequestOnWhitelist()).andReturn(false);
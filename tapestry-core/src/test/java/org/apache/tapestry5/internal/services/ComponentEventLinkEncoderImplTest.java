@@ -144,7 +144,7 @@ public class ComponentEventLinkEncoderImplTest extends InternalBaseTestCase
 
         train_setLocaleFromLocaleName(ls, "", false);
 
-        train_isPageName(resolver, "", false);
+        train_getPageNameTrie(resolver);
 
         replay();
 
@@ -166,7 +166,7 @@ public class ComponentEventLinkEncoderImplTest extends InternalBaseTestCase
         Response response = mockResponse();
         LocalizationSetter ls = mockLocalizationSetter();
 
-        stub_isPageName(resolver, false);
+        train_getPageNameTrie(resolver, "foo/Baz", "foo/Baz");
 
         train_setLocaleFromLocaleName(ls, "foo", false);
         train_getPath(request, "/foo/Bar.baz");
@@ -195,7 +195,7 @@ public class ComponentEventLinkEncoderImplTest extends InternalBaseTestCase
 
         train_setLocaleFromLocaleName(ls, "en", true);
 
-        train_isPageName(resolver, "", false);
+        train_getPageNameTrie(resolver);
 
         replay();
 
@@ -235,11 +235,7 @@ public class ComponentEventLinkEncoderImplTest extends InternalBaseTestCase
 
         train_setLocaleFromLocaleName(ls, "foo", false);
 
-        train_isPageName(resolver, "foo/bar", false);
-        train_isPageName(resolver, "foo", false);
-        train_isPageName(resolver, "", true);
-
-        train_canonicalizePageName(resolver, "", "index");
+        train_getPageNameTrie(resolver, "", "index", "foo/baz", "foo/baz");
 
         ls.setNonPersistentLocaleFromRequest(request);
 
@@ -283,9 +279,7 @@ public class ComponentEventLinkEncoderImplTest extends InternalBaseTestCase
 
         train_setLocaleFromLocaleName(ls, "foo", false);
 
-        train_isPageName(resolver, "foo/Bar", true);
-
-        train_canonicalizePageName(resolver, "foo/Bar", "foo/bar");
+        train_getPageNameTrie(resolver, "foo/Bar", "foo/bar");
 
         replay();
 
@@ -318,9 +312,7 @@ public class ComponentEventLinkEncoderImplTest extends InternalBaseTestCase
 
         train_setLocaleFromLocaleName(ls, "foo", false);
 
-        train_isPageName(resolver, "foo/Bar", true);
-
-        train_canonicalizePageName(resolver, "foo/Bar", "foo/bar");
+        train_getPageNameTrie(resolver, "foo/Bar", "foo/bar");
 
         expect(metaDataLocator.findMeta(MetaDataConstants.WHITELIST_ONLY_PAGE, "foo/bar", boolean.class)).andReturn(true);
         expect(whitelist.isClientRequestOnWhitelist()).andReturn(true);
@@ -354,16 +346,11 @@ public class ComponentEventLinkEncoderImplTest extends InternalBaseTestCase
 
         train_setLocaleFromLocaleName(ls, "foo", false);
 
-        train_isPageName(resolver, "foo/Bar", true);
-
-        train_canonicalizePageName(resolver, "foo/Bar", "foo/bar");
+        train_getPageNameTrie(resolver, "foo/Bar", "foo/bar");
 
         expect(metaDataLocator.findMeta(MetaDataConstants.WHITELIST_ONLY_PAGE, "foo/bar", boolean.class)).andReturn(true);
         expect(whitelist.isClientRequestOnWhitelist()).andReturn(false);
 
-        train_isPageName(resolver, "foo", false);
-        train_isPageName(resolver, "", false);
-
         replay();
 
         ComponentEventLinkEncoderImpl linkEncoder = new ComponentEventLinkEncoderImpl(resolver, contextPathEncoder, ls,
@@ -400,13 +387,7 @@ public class ComponentEventLinkEncoderImplTest extends InternalBaseTestCase
 
         train_setLocaleFromLocaleName(ls, "foo", false);
 
-        train_isPageName(resolver, "foo/Bar/zip/zoom", false);
-
-        train_isPageName(resolver, "foo/Bar/zip", false);
-
-        train_isPageName(resolver, "foo/Bar", true);
-
-        train_canonicalizePageName(resolver, "foo/Bar", "foo/bar");
+        train_getPageNameTrie(resolver, "foo/Bar", "foo/bar", "foo/Bar/zap", "foo/bar/Zap");
 
         replay();
 
@@ -440,9 +421,7 @@ public class ComponentEventLinkEncoderImplTest extends InternalBaseTestCase
         String path = "/foo-bar/baz.biff";
         train_getPath(request, path);
 
-        train_isPageName(resolver, "foo-bar/baz", true);
-
-        train_canonicalizePageName(resolver, "foo-bar/baz", "foo-bar/Baz");
+        train_getPageNameTrie(resolver, "foo-bar/baz", "foo-bar/Baz");
 
         replay();
 
@@ -476,9 +455,7 @@ public class ComponentEventLinkEncoderImplTest extends InternalBaseTestCase
 
         train_getPath(request, "/foo/bar/page.component:event");
 
-        train_isPageName(resolver, "page", true);
-
-        train_canonicalizePageName(resolver, "page", "Page");
+        train_getPageNameTrie(resolver, "page", "Page");
 
         replay();
 
@@ -506,11 +483,7 @@ public class ComponentEventLinkEncoderImplTest extends InternalBaseTestCase
         train_getPath(request, "/foo/pageid=123");
         train_setLocaleFromLocaleName(ls, "foo", false);
 
-        train_isPageName(resolver, "foo/pageid=123", false);
-        train_isPageName(resolver, "foo", false);
-        train_isPageName(resolver, "", true);
-
-        train_canonicalizePageName(resolver, "", "Index");
+        train_getPageNameTrie(resolver, "", "Index");
 
         replay();
 
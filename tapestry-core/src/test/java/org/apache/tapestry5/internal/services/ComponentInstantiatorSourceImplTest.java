@@ -29,6 +29,7 @@ import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
 import java.io.File;
+import java.nio.file.Files;
 import java.net.URL;
 import java.net.URLClassLoader;
 
@@ -110,6 +111,56 @@ public class ComponentInstantiatorSourceImplTest extends InternalBaseTestCase
         assertEquals(instantiator.getModel().getLibraryName(), "t5internal");
     }
 
+    @Test
+    public void classpath_fingerprint_tracks_jars_and_class_files() throws Exception
+    {
+        File root = Files.createTempDirectory("classpath").toFile();
+        File classes = new File(root, "classes");
+        File jar = new File(root, "library.jar");
+        File otherJar = new File(root, "other.jar");
+
+        new File(classes, "org/example").mkdirs();
+
+        Files.write(new File(classes, "org/example/Page.class").toPath(), new byte[]{1, 2, 3});
+        Files.write(jar.toPath(), new byte[]{1, 2, 3});
+        Files.write(otherJar.toPath(), new byte[]{1, 2, 3});
+
+        String fingerprint = fingerprint(classes, jar);
+
+        assertEquals(fingerprint(classes, jar), fingerprint, "Unchanged classpath.");
+
+        // A library upgraded without changing the application version.
+
+        Files.write(jar.toPath(), new byte[]{1, 2, 3, 4});
+
+        String upgraded = fingerprint(classes, jar);
+
+        assertNotEquals(upgraded, fingerprint);
+
+        Files.write(new File(classes, "org/example/Base.class").toPath(), new byte[]{1, 2, 3});
+
+        String added = fingerprint(classes, jar);
+
+        assertNotEquals(added, upgraded);
+
+        assertNotEquals(fingerprint(classes, jar, otherJar), added);
+    }
+
+    private String fingerprint(File... entries) throws Exception
+    {
+        URL[] urls = new URL[entries.length];
+
+        for (int i = 0; i < entries.length; i++)
+        {
+            urls[i] = entries[i].toURI().toURL();
+        }
+
+        try (URLClassLoader loader = new URLClassLoader(urls, null))
+        {
+            return ComponentInstantiatorSourceImpl.classpathFingerprint(loader);
+        }
+    }
+
     private void createSynthComponentClass(String name) throws Exception
     {
         ClassWriter cw = helper.createWriter(SYNTH_COMPONENT_CLASSNAME, BASIC_COMPONENT_CLASSNAME, Named.class.getName());
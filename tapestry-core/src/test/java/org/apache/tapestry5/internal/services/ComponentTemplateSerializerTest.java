@@ -0,0 +1,101 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.apache.tapestry5.internal.services;
+
+import org.apache.tapestry5.commons.Resource;
+import org.apache.tapestry5.internal.parser.BodyToken;
+import org.apache.tapestry5.internal.parser.ComponentTemplate;
+import org.apache.tapestry5.internal.parser.ComponentTemplateSerializer;
+import org.apache.tapestry5.internal.parser.ExtensionPointToken;
+import org.apache.tapestry5.internal.parser.TemplateToken;
+import org.apache.tapestry5.internal.test.InternalBaseTestCase;
+import org.apache.tapestry5.ioc.internal.util.ClasspathResource;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+public class ComponentTemplateSerializerTest extends InternalBaseTestCase
+{
+    @DataProvider
+    public Object[][] templates()
+    {
+        return new Object[][]{
+                {"justHTML.tml"},
+                {"namespaced_element.tml"},
+                {"component_with_mixins.tml"},
+                {"component_ids.tml"},
+                {"parameter_element.tml"},
+                {"block_element.tml"},
+                {"cdata.tml"},
+                {"comment.tml"},
+                {"expansions_in_normal_text.tml"},
+                {"xhtml1_strict_doctype.tml"},
+                {"chinese_utf-8.tml"},
+                {"extension_point.tml"},
+                {"overrides.tml"}};
+    }
+
+    @Test(dataProvider = "templates")
+    public void template_survives_round_trip(String file) throws IOException
+    {
+        Resource resource = new ClasspathResource(getClass().getClassLoader(),
+                getClass().getPackage().getName().replace('.', '/') + "/" + file);
+
+        ComponentTemplate template = getService(TemplateParser.class).parseTemplate(resource);
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+
+        ComponentTemplateSerializer.write(template, new DataOutputStream(bos));
+
+        ComponentTemplate copy = ComponentTemplateSerializer.read(resource,
+                new DataInputStream(new ByteArrayInputStream(bos.toByteArray())));
+
+        assertSame(copy.getResource(), resource);
+        assertEquals(copy.isExtension(), template.isExtension());
+        assertEquals(copy.usesStrictMixinParameters(), template.usesStrictMixinParameters());
+        assertEquals(copy.getComponentIds().keySet(), template.getComponentIds().keySet());
+        assertEquals(copy.getExtensionPointIds(), template.getExtensionPointIds());
+
+        assertSameTokens(copy.getTokens(), template.getTokens());
+
+        for (String id : template.getExtensionPointIds())
+        {
+            assertSameTokens(copy.getExtensionPointTokens(id), template.getExtensionPointTokens(id));
+        }
+    }
+
+    private static void assertSameTokens(List<TemplateToken> actual, List<TemplateToken> expected)
+    {
+        assertEquals(actual.size(), expected.size());
+
+        for (int i = 0; i < expected.size(); i++)
+        {
+            assertEquals(describe(actual.get(i)), describe(expected.get(i)));
+        }
+    }
+
+    private static String describe(TemplateToken token)
+    {
+        String content = token instanceof ExtensionPointToken
+                ? ((ExtensionPointToken) token).getExtensionPointId()
+                : token instanceof BodyToken ? "" : token.toString();
+
+        return String.format("%s %s @%d", token.getTokenType(), content, token.getLocation().getLine());
+    }
+}
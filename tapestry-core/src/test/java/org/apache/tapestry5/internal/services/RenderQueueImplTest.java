@@ -17,6 +17,7 @@ package org.apache.tapestry5.internal.services;
 import org.apache.tapestry5.ComponentResources;
 import org.apache.tapestry5.MarkupWriter;
 import org.apache.tapestry5.TapestryMarkers;
+import org.apache.tapestry5.commons.util.CollectionFactory;
 import org.apache.tapestry5.internal.test.InternalBaseTestCase;
 import org.apache.tapestry5.runtime.RenderCommand;
 import org.apache.tapestry5.runtime.RenderQueue;
@@ -25,6 +26,8 @@ import static org.easymock.EasyMock.isA;
 import org.slf4j.Logger;
 import org.testng.annotations.Test;
 
+import java.util.List;
+
 public class RenderQueueImplTest extends InternalBaseTestCase
 {
     @Test
@@ -117,4 +120,41 @@ public class RenderQueueImplTest extends InternalBaseTestCase
 
         verify();
     }
+
+    @Test
+    public void queue_grows_beyond_initial_depth()
+    {
+        final List<Integer> rendered = CollectionFactory.newList();
+
+        Logger logger = mockLogger();
+        MarkupWriter writer = mockMarkupWriter();
+
+        expect(logger.isTraceEnabled(TapestryMarkers.RENDER_COMMANDS)).andReturn(false);
+        expect(logger.isDebugEnabled()).andReturn(false);
+
+        replay();
+
+        RenderQueueImpl queue = new RenderQueueImpl(logger);
+
+        for (int i = 0; i < 500; i++)
+        {
+            final int index = i;
+
+            queue.push(new RenderCommand()
+            {
+                public void render(MarkupWriter writer, RenderQueue queue)
+                {
+                    rendered.add(index);
+                }
+            });
+        }
+
+        queue.run(writer);
+
+        assertEquals(rendered.size(), 500);
+        assertEquals(rendered.get(0).intValue(), 499);
+        assertEquals(rendered.get(499).intValue(), 0);
+
+        verify();
+    }
 }
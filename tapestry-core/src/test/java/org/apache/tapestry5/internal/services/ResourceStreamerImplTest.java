@@ -0,0 +1,387 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.apache.tapestry5.internal.services;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import org.apache.tapestry5.http.ContentType;
+import org.apache.tapestry5.http.internal.services.RequestGlobalsImpl;
+import org.apache.tapestry5.http.services.RequestGlobals;
+import org.apache.tapestry5.internal.services.ResourceStreamerImpl.ByteRange;
+import org.apache.tapestry5.internal.services.assets.FileStreamableResource;
+import org.apache.tapestry5.internal.services.assets.FileWriteListener;
+import org.apache.tapestry5.internal.test.TestableRequestImpl;
+import org.apache.tapestry5.internal.test.TestableResponseImpl;
+import org.apache.tapestry5.services.assets.AssetChecksumGenerator;
+import org.apache.tapestry5.services.assets.CompressionStatus;
+import org.apache.tapestry5.services.assets.StreamableResource;
+import org.easymock.EasyMock;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResourceStreamerImplTest
+{
+    private static final String CONTENT = "0123456789";
+
+    private static final long LAST_MODIFIED = 1_600_000_000_123L;
+
+    private static final String ETAG = "\"abc123\"";
+
+    @TempDir
+    Path folder;
+
+    /**
+     * A GET request with the given headers; date headers are given as longs.
+     */
+    static class HeaderRequest extends TestableRequestImpl
+    {
+        private final Map<String, ?> headers;
+
+        private String method = "GET";
+
+        HeaderRequest(Map<String, ?> headers)
+        {
+            super("");
+
+            this.headers = headers;
+        }
+
+        @Override
+        public String getHeader(String name)
+        {
+            Object value = headers.get(name);
+
+            return value == null ? null : value.toString();
+        }
+
+        @Override
+        public long getDateHeader(String name)
+        {
+            Object value = headers.get(name);
+
+            if (value == null)
+            {
+                return -1;
+            }
+
+            if (value instanceof Long)
+            {
+                return (Long) value;
+            }
+
+            throw new IllegalArgumentException(String.format("Header %s is not a date.", name));
+        }
+
+        @Override
+        public String getMethod()
+        {
+            return method;
+        }
+    }
+
+    /**
+     * A response whose output stream records the WriteListener set on it.
+     */
+    static class AsyncResponse extends TestableResponseImpl
+    {
+        final ByteArrayOutputStream content = new ByteArrayOutputStream();
+
+        WriteListener writeListener;
+
+        @Override
+        public OutputStream getOutputStream(String contentType)
+        {
+            return new ServletOutputStream()
+            {
+                @Override
+                public boolean isReady()
+                {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener listener)
+                {
+                    writeListener = listener;
+                }
+
+                @Override
+                public void write(int b)
+                {
+                    content.write(b);
+                }
+            };
+        }
+    }
+
+    private FileStreamableResource fileResource() throws IOException
+    {
+        Path file = folder.resolve("content.txt");
+
+        Files.write(file, CONTENT.getBytes(StandardCharsets.US_ASCII));
+
+        AssetChecksumGenerator generator = EasyMock.mock(AssetChecksumGenerator.class);
+
+        EasyMock.expect(generator.generateChecksum(EasyMock.<StreamableResource>anyObject())).andReturn("abc123").anyTimes();
+        EasyMock.replay(generator);
+
+        return new FileStreamableResource("content.txt", new ContentType("text/plain"), CompressionStatus.NOT_COMPRESSABLE,
+                LAST_MODIFIED, file, CONTENT.length(), generator, null);
+    }
+
+    private static ResourceStreamerImpl streamer(HeaderRequest request, TestableResponseImpl response, RequestGlobals globals)
+    {
+        return new ResourceStreamerImpl(request, response, globals, null, null, false, null, "max-age=60", null, null);
+    }
+
+    private TestableResponseImpl stream(Map<String, ?> headers) throws IOException
+    {
+        TestableResponseImpl response = new TestableResponseImpl();
+
+        assertTrue(streamer(new HeaderRequest(headers), response, new RequestGlobalsImpl())
+                .streamResource(fileResource(), null, Collections.emptySet()));
+
+        return response;
+    }
+
+    @Test
+    void whole_content_is_sent_without_a_range() throws IOException
+    {
+        TestableResponseImpl response = stream(Collections.emptyMap());
+
+        assertEquals(200, response.getStatus());
+        assertEquals(CONTENT, response.getOutput());
+        assertEquals(10, response.getContentLength());
+        assertEquals("bytes", response.getHeader("Accept-Ranges"));
+        assertEquals(ETAG, response.getHeader("ETag"));
+        assertNull(response.getHeader("Content-Range"));
+    }
+
+    @Test
+    void range_is_sent_as_partial_content() throws IOException
+    {
+        TestableResponseImpl response = stream(Collections.singletonMap("Range", "bytes=2-5"));
+
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 2-5/10", response.getHeader("Content-Range"));
+        assertEquals(4, response.getContentLength());
+        assertEquals("2345", response.getOutput());
+    }
+
+    @Test
+    void unsatisfiable_range() throws IOException
+    {
+        TestableResponseImpl response = stream(Collections.singletonMap("Range", "bytes=10-"));
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */10", response.getHeader("Content-Range"));
+        assertEquals("", response.getOutput());
+    }
+
+    @Test
+    void range_is_ignored_for_head_requests() throws IOException
+    {
+        HeaderRequest request = new HeaderRequest(Collections.singletonMap("Range", "bytes=2-5"));
+        TestableResponseImpl response = new TestableResponseImpl();
+
+        request.method = "HEAD";
+
+        streamer(request, response, new RequestGlobalsImpl()).streamResource(fileResource(), null, Collections.emptySet());
+
+        assertEquals(200, response.getStatus());
+        assertNull(response.getHeader("Content-Range"));
+        assertEquals("", response.getOutput());
+    }
+
+    @Test
+    void if_range_with_current_etag_sends_the_range() throws IOException
+    {
+        TestableResponseImpl response = stream(Map.of("Range", "bytes=2-5", "If-Range", ETAG));
+
+        assertEquals(206, response.getStatus());
+        assertEquals("2345", response.getOutput());
+    }
+
+    @Test
+    void if_range_with_current_date_sends_the_range() throws IOException
+    {
+        // HTTP dates don't include milliseconds.
+
+        TestableResponseImpl response = stream(Map.of("Range", "bytes=2-5", "If-Range", LAST_MODIFIED / 1000 * 1000));
+
+        assertEquals(206, response.getStatus());
+        assertEquals("2345", response.getOutput());
+    }
+
+    @Test
+    void if_range_with_stale_validator_sends_everything() throws IOException
+    {
+        TestableResponseImpl staleETag = stream(Map.of("Range", "bytes=2-5", "If-Range", "\"def456\""));
+
+        assertEquals(200, staleETag.getStatus());
+        assertEquals(CONTENT, staleETag.getOutput());
+
+        TestableResponseImpl staleDate = stream(Map.of("Range", "bytes=2-5", "If-Range", LAST_MODIFIED - 60_000L));
+
+        assertEquals(200, staleDate.getStatus());
+        assertEquals(CONTENT, staleDate.getOutput());
+    }
+
+    @Test
+    void file_is_handed_to_the_container_when_it_supports_sendfile() throws IOException
+    {
+        HeaderRequest request = new HeaderRequest(Collections.singletonMap("Range", "bytes=2-5"));
+        TestableResponseImpl response = new TestableResponseImpl();
+
+        request.setAttribute(ResourceStreamerImpl.SENDFILE_SUPPORT_ATTRIBUTE, Boolean.TRUE);
+
+        FileStreamableResource resource = fileResource();
+
+        streamer(request, response, new RequestGlobalsImpl()).streamResource(resource, null, Collections.emptySet());
+
+        assertEquals(206, response.getStatus());
+        assertEquals(4, response.getContentLength());
+        assertEquals("", response.getOutput());
+
+        assertEquals(resource.getFile().toAbsolutePath().toString(), request.getAttribute(ResourceStreamerImpl.SENDFILE_FILENAME_ATTRIBUTE));
+        assertEquals(2L, request.getAttribute(ResourceStreamerImpl.SENDFILE_START_ATTRIBUTE));
+        assertEquals(6L, request.getAttribute(ResourceStreamerImpl.SENDFILE_END_ATTRIBUTE));
+    }
+
+    @Test
+    void file_is_written_asynchronously_when_the_request_supports_it() throws IOException
+    {
+        HttpServletRequest servletRequest = EasyMock.mock(HttpServletRequest.class);
+        AsyncContext context = EasyMock.mock(AsyncContext.class);
+
+        EasyMock.expect(servletRequest.isAsyncSupported()).andReturn(true);
+        EasyMock.expect(servletRequest.isAsyncStarted()).andReturn(false);
+        EasyMock.expect(servletRequest.startAsync()).andReturn(context);
+
+        // The connector's timeouts apply, rather than the default timeout of asynchronous requests.
+
+        context.setTimeout(0L);
+
+        EasyMock.replay(servletRequest, context);
+
+        RequestGlobals globals = new RequestGlobalsImpl();
+
+        globals.storeServletRequestResponse(servletRequest, null);
+
+        AsyncResponse response = new AsyncResponse();
+
+        streamer(new HeaderRequest(Collections.emptyMap()), response, globals).streamResource(fileResource(), null, Collections.emptySet());
+
+        // Nothing is written until the container invokes the listener.
+
+        assertTrue(response.writeListener instanceof FileWriteListener);
+        assertEquals(0, response.content.size());
+        assertEquals(10, response.getContentLength());
+
+        EasyMock.verify(servletRequest, context);
+
+        EasyMock.reset(context);
+        context.complete();
+        EasyMock.replay(context);
+
+        response.writeListener.onWritePossible();
+
+        assertEquals(CONTENT, new String(response.content.toByteArray(), StandardCharsets.US_ASCII));
+
+        EasyMock.verify(context);
+    }
+
+    @Test
+    void file_is_written_directly_when_asynchronous_processing_is_not_supported() throws IOException
+    {
+        HttpServletRequest servletRequest = EasyMock.mock(HttpServletRequest.class);
+
+        EasyMock.expect(servletRequest.isAsyncSupported()).andReturn(false);
+        EasyMock.replay(servletRequest);
+
+        RequestGlobals globals = new RequestGlobalsImpl();
+
+        globals.storeServletRequestResponse(servletRequest, null);
+
+        TestableResponseImpl response = new TestableResponseImpl();
+
+        streamer(new HeaderRequest(Collections.emptyMap()), response, globals).streamResource(fileResource(), null, Collections.emptySet());
+
+        assertEquals(CONTENT, response.getOutput());
+
+        EasyMock.verify(servletRequest);
+    }
+
+    private static void assertRange(String header, long size, long start, long end)
+    {
+        ByteRange range = ResourceStreamerImpl.parseRange(header, size);
+
+        assertNotNull(range);
+        assertNotSame(ByteRange.UNSATISFIABLE, range);
+        assertEquals(start, range.start);
+        assertEquals(end, range.end);
+    }
+
+    @Test
+    void bounded_and_open_ended_ranges()
+    {
+        assertRange("bytes=0-99", 1000, 0, 99);
+        assertRange("bytes=500-", 1000, 500, 999);
+        assertRange("bytes = 10 - 20", 1000, 10, 20);
+    }
+
+    @Test
+    void range_end_is_limited_to_content()
+    {
+        assertRange("bytes=900-2000", 1000, 900, 999);
+    }
+
+    @Test
+    void suffix_ranges()
+    {
+        assertRange("bytes=-100", 1000, 900, 999);
+        assertRange("bytes=-5000", 1000, 0, 999);
+    }
+
+    @Test
+    void ranges_past_the_content_are_unsatisfiable()
+    {
+        assertSame(ByteRange.UNSATISFIABLE, ResourceStreamerImpl.parseRange("bytes=1000-", 1000));
+        assertSame(ByteRange.UNSATISFIABLE, ResourceStreamerImpl.parseRange("bytes=-0", 1000));
+        assertSame(ByteRange.UNSATISFIABLE, ResourceStreamerImpl.parseRange("bytes=-10", 0));
+    }
+
+    @Test
+    void invalid_or_multiple_ranges_are_ignored()
+    {
+        assertNull(ResourceStreamerImpl.parseRange("bytes=20-10", 1000));
+        assertNull(ResourceStreamerImpl.parseRange("bytes=-", 1000));
+        assertNull(ResourceStreamerImpl.parseRange("bytes=0-10,20-30", 1000));
+        assertNull(ResourceStreamerImpl.parseRange("items=0-10", 1000));
+        assertNull(ResourceStreamerImpl.parseRange("bytes=99999999999999999999-", 1000));
+    }
+}
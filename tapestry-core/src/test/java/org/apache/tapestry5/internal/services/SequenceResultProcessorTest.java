@@ -0,0 +1,80 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.apache.tapestry5.internal.services;
+
+import org.apache.tapestry5.func.F;
+import org.apache.tapestry5.http.services.Request;
+import org.apache.tapestry5.http.services.Response;
+import org.apache.tapestry5.internal.test.InternalBaseTestCase;
+import org.apache.tapestry5.json.JSONObject;
+import org.testng.annotations.Test;
+
+import java.io.CharArrayWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+public class SequenceResultProcessorTest extends InternalBaseTestCase
+{
+    private String process(String accept, String contentType, Object value) throws IOException
+    {
+        Request request = mockRequest();
+        Response response = mockResponse();
+
+        CharArrayWriter writer = new CharArrayWriter();
+        PrintWriter pw = new PrintWriter(writer);
+
+        expect(request.getHeader("Accept")).andReturn(accept);
+        expect(response.getPrintWriter(contentType)).andReturn(pw);
+
+        replay();
+
+        new SequenceResultProcessor(request, response, "UTF-8", true).processResultValue(value);
+
+        verify();
+
+        return writer.toString();
+    }
+
+    @Test
+    public void iterator_written_as_array() throws IOException
+    {
+        String output = process("application/json", "application/json;charset=UTF-8",
+                Arrays.asList("fred", 2, new JSONObject("barney", true), null).iterator());
+
+        assertEquals(output, "[\"fred\",2,{\"barney\":true},null]");
+    }
+
+    @Test
+    public void stream_written_as_newline_delimited_json_and_closed() throws IOException
+    {
+        AtomicBoolean closed = new AtomicBoolean();
+
+        Stream<JSONObject> stream = Stream.of(new JSONObject("id", 1), new JSONObject("id", 2))
+                .onClose(() -> closed.set(true));
+
+        String output = process("application/x-ndjson, application/json;q=0.5", "application/x-ndjson;charset=UTF-8",
+                stream);
+
+        assertEquals(output, "{\"id\":1}\n{\"id\":2}\n");
+        assertTrue(closed.get());
+    }
+
+    @Test
+    public void empty_flow() throws IOException
+    {
+        assertEquals(process(null, "application/json;charset=UTF-8", F.flow()), "[]");
+    }
+}
@@ -103,11 +103,11 @@ public class SessionImplTest extends InternalBaseTestCase
         SessionLock lock = mockLock();
 
         // We need one per assert, and Enumerations are exhausted on use
-        lock.acquireReadLock();
+        lock.acquireReadLock("barney");
         expect(hs.getAttributeNames()).andReturn(Collections.enumeration(keys));
-        lock.acquireReadLock();
+        lock.acquireReadLock("fred");
         expect(hs.getAttributeNames()).andReturn(Collections.enumeration(keys));
-        lock.acquireReadLock();
+        lock.acquireReadLock("wilma");
         expect(hs.getAttributeNames()).andReturn(Collections.enumeration(keys));
         replay();
 
@@ -127,8 +127,8 @@ public class SessionImplTest extends InternalBaseTestCase
         HttpSession hs = mockHttpSession();
         SessionLock lock = mockLock();
 
-        lock.acquireReadLock();
-        lock.acquireWriteLock();
+        lock.acquireReadLock("fred");
+        lock.acquireWriteLock("fred");
         expect(hs.getAttributeNames()).andReturn(e);
         expect(hs.getAttribute("fred")).andReturn("1");
 
@@ -148,7 +148,7 @@ public class SessionImplTest extends InternalBaseTestCase
         HttpSession hs = mockHttpSession();
         SessionLock lock = mockLock();
 
-        lock.acquireReadLock();
+        lock.acquireReadLock("wilma");
         expect(hs.getAttributeNames()).andReturn(e);
 
         replay();
@@ -257,11 +257,11 @@ public class SessionImplTest extends InternalBaseTestCase
         // TAP5-2799: To reduce write locks, first, a read-lock attempt is done
         // to check if the attribute exists, and only then, a write-lock is acquired.
 
-        lock.acquireReadLock();
+        lock.acquireReadLock("dirty");
 
         expect(hs.getAttributeNames()).andReturn(Collections.enumeration(Arrays.asList("dirty")));
 
-        lock.acquireWriteLock();
+        lock.acquireWriteLock("dirty");
 
         train_getAttribute(hs, "dirty", dirty);
 
@@ -277,7 +277,7 @@ public class SessionImplTest extends InternalBaseTestCase
 
         train_getSession(hsr, false, hs);
 
-        lock.acquireWriteLock();
+        lock.acquireWriteLock("dirty");
 
         hs.setAttribute("dirty", dirty);
 
@@ -287,4 +287,34 @@ public class SessionImplTest extends InternalBaseTestCase
 
         verify();
     }
+
+    @Test
+    public void attribute_read_with_read_lock_is_not_restored()
+    {
+        HttpSession hs = mockHttpSession();
+        HttpServletRequest hsr = mockHttpServletRequest();
+        SessionPersistedObjectAnalyzer analyzer = newMock(SessionPersistedObjectAnalyzer.class);
+        Object value = new Object();
+        SessionLock lock = mockLock();
+
+        lock.acquireReadLock("value");
+
+        train_getAttribute(hs, "value", value);
+
+        replay();
+
+        Session session = new ClusteredSessionImpl(hsr, hs, lock, analyzer);
+
+        assertSame(session.getAttribute("value", Session.LockMode.READ), value);
+
+        verify();
+
+        train_getSession(hsr, false, hs);
+
+        replay();
+
+        session.restoreDirtyObjects();
+
+        verify();
+    }
 }
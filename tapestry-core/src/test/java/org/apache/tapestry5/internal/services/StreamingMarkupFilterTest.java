@@ -0,0 +1,245 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.apache.tapestry5.internal.services;
+
+import org.apache.tapestry5.MarkupWriter;
+import org.apache.tapestry5.dom.Element;
+import org.apache.tapestry5.dom.Node;
+import org.apache.tapestry5.dom.Raw;
+import org.apache.tapestry5.services.Heartbeat;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingMarkupFilterTest
+{
+    @Test
+    void closed_body_elements_are_collapsed()
+    {
+        Heartbeat heartbeat = new HeartbeatImpl();
+        heartbeat.begin();
+
+        StreamingMarkupFilter.Collapser collapser = new StreamingMarkupFilter.Collapser(heartbeat);
+
+        MarkupWriter writer = new MarkupWriterImpl();
+        writer.addListener(collapser);
+
+        writer.element("html");
+        writer.element("head");
+        writer.element("title");
+        writer.write("Listing");
+        writer.end();
+        writer.end();
+
+        Element body = writer.element("body");
+
+        writer.element("ul");
+
+        for (int i = 0; i < 3; i++)
+        {
+            writer.element("li", "class", "row");
+            writer.write("row " + i);
+            writer.end();
+        }
+
+        writer.end();
+        writer.end();
+        writer.end();
+
+        collapser.collapsePending();
+
+        assertNotNull(writer.getDocument().find("html/head/title"));
+        assertEquals(1, body.getChildren().size());
+        assertTrue(body.getChildren().get(0) instanceof Raw);
+
+        assertEquals("<html><head><title>Listing</title></head><body><ul><li class=\"row\">row 0</li><li class=\"row\">row 1</li><li class=\"row\">row 2</li></ul></body></html>",
+                writer.toString());
+    }
+
+    @Test
+    void elements_closed_inside_nested_heartbeat_are_collapsed_when_it_ends()
+    {
+        Heartbeat heartbeat = new HeartbeatImpl();
+        heartbeat.begin();
+
+        StreamingMarkupFilter.Collapser collapser = new StreamingMarkupFilter.Collapser(heartbeat);
+
+        MarkupWriter writer = new MarkupWriterImpl();
+        writer.addListener(collapser);
+
+        writer.element("html");
+        writer.element("body");
+        writer.element("form");
+
+        collapser.begin();
+
+        Element label = writer.element("label");
+        writer.end();
+
+        collapser.defer(() -> label.attribute("for", "field"));
+
+        writer.element("input", "id", "field");
+        writer.end();
+
+        assertEquals("form", label.getContainer().getName());
+
+        collapser.end();
+
+        assertNull(label.getContainer());
+
+        writer.end();
+        writer.end();
+        writer.end();
+
+        assertEquals("<html><body><form><label for=\"field\"></label><input id=\"field\"></input></form></body></html>",
+                writer.toString());
+    }
+
+    @Test
+    void elements_closed_outside_nested_heartbeats_are_collapsed_after_deferred_commands()
+    {
+        Heartbeat heartbeat = new HeartbeatImpl();
+        heartbeat.begin();
+
+        StreamingMarkupFilter.Collapser collapser = new StreamingMarkupFilter.Collapser(heartbeat);
+
+        MarkupWriter writer = new MarkupWriterImpl();
+        writer.addListener(collapser);
+
+        writer.element("html");
+        Element body = writer.element("body");
+
+        Element label = writer.element("label");
+        writer.end();
+
+        collapser.defer(() -> label.attribute("for", "field"));
+
+        writer.element("input", "id", "field");
+        writer.end();
+
+        writer.end();
+        writer.end();
+
+        writer.removeListener(collapser);
+
+        collapser.deferCollapsePending();
+
+        assertSame(body, label.getContainer());
+
+        heartbeat.end();
+
+        assertNull(label.getContainer());
+        assertTrue(body.getChildren().get(0) instanceof Raw);
+
+        assertEquals("<html><body><label for=\"field\"></label><input id=\"field\"></input></body></html>",
+                writer.toString());
+    }
+
+    @Test
+    void elements_closed_outside_nested_heartbeats_are_collapsed_once_the_writer_moves_on()
+    {
+        Heartbeat heartbeat = new HeartbeatImpl();
+        heartbeat.begin();
+
+        StreamingMarkupFilter.Collapser collapser = new StreamingMarkupFilter.Collapser(heartbeat);
+
+        MarkupWriter writer = new MarkupWriterImpl();
+        writer.addListener(collapser);
+
+        writer.element("html");
+        Element body = writer.element("body");
+
+        Element first = writer.element("p");
+        writer.write("first");
+        writer.end();
+
+        assertSame(body, first.getContainer());
+
+        writer.element("p");
+
+        assertNull(first.getContainer());
+        assertTrue(body.getChildren().get(0) instanceof Raw);
+
+        writer.write("second");
+        writer.end();
+        writer.end();
+
+        assertEquals(2, body.getChildren().size());
+        assertTrue(body.getChildren().get(1) instanceof Raw);
+
+        writer.end();
+
+        assertEquals("<html><body><p>first</p><p>second</p></body></html>", writer.toString());
+    }
+
+    @Test
+    void elements_open_when_a_command_is_deferred_are_kept_until_the_page_heartbeat_ends()
+    {
+        Heartbeat heartbeat = new HeartbeatImpl();
+        heartbeat.begin();
+
+        StreamingMarkupFilter.Collapser collapser = new StreamingMarkupFilter.Collapser(heartbeat);
+
+        MarkupWriter writer = new MarkupWriterImpl();
+        writer.addListener(collapser);
+
+        writer.element("html");
+        Element body = writer.element("body");
+
+        Element container = writer.element("div");
+
+        collapser.defer(() -> container.attribute("class", "updated"));
+
+        Element item = writer.element("span");
+        writer.end();
+
+        Element error = writer.element("p");
+        writer.end();
+
+        // A command deferred just after an element was closed may update it, too.
+
+        collapser.defer(() -> error.attribute("class", "error"));
+
+        writer.element("span");
+        writer.end();
+
+        writer.end();
+
+        Element after = writer.element("p");
+        writer.end();
+
+        writer.end();
+        writer.end();
+
+        writer.removeListener(collapser);
+
+        collapser.deferCollapsePending();
+
+        assertNull(item.getContainer());
+        assertSame(container, error.getContainer());
+        assertSame(body, container.getContainer());
+        assertNull(after.getContainer());
+
+        heartbeat.end();
+
+        assertNull(container.getContainer());
+
+        for (Node node : body.getChildren())
+        {
+            assertTrue(node instanceof Raw);
+        }
+
+        assertEquals("<html><body><div class=\"updated\"><span></span><p class=\"error\"></p><span></span></div><p></p></body></html>",
+                writer.toString());
+    }
+}
@@ -0,0 +1,128 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.apache.tapestry5.internal.services.assets;
+
+import org.apache.tapestry5.ioc.internal.util.ClasspathResource;
+import org.apache.tapestry5.json.JSONObject;
+import org.apache.tapestry5.services.assets.CompressionStatus;
+import org.apache.tapestry5.services.assets.StreamableResource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.helpers.NOPLogger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AssetManifestImplTest
+{
+    @TempDir
+    Path root;
+
+    private ClassLoader originalLoader;
+
+    @BeforeEach
+    void setup() throws IOException
+    {
+        Path folder = root.resolve("META-INF/tapestry");
+
+        write(folder.resolve("abc123/META-INF/assets/app.js"), "var a=1;");
+        write(folder.resolve("def456/stacks/en/core.js"), "var core=1;");
+
+        JSONObject manifest = new JSONObject(
+                "assets", new JSONObject("classpath:META-INF/assets/app.js", entry("abc123/META-INF/assets/app.js", "abc123")),
+                "stacks", new JSONObject("core:en", entry("def456/stacks/en/core.js", "def456")));
+
+        write(folder.resolve("asset-manifest.json"), manifest.toString());
+
+        originalLoader = Thread.currentThread().getContextClassLoader();
+
+        Thread.currentThread().setContextClassLoader(new URLClassLoader(new URL[]{root.toUri().toURL()}, null));
+    }
+
+    @AfterEach
+    void restoreClassLoader()
+    {
+        Thread.currentThread().setContextClassLoader(originalLoader);
+    }
+
+    private static JSONObject entry(String file, String checksum)
+    {
+        return new JSONObject("file", file, "checksum", checksum, "contentType", "text/javascript;charset=utf-8",
+                "compression", "COMPRESSABLE", "lastModified", 1000L);
+    }
+
+    private static void write(Path path, String content) throws IOException
+    {
+        Files.createDirectories(path.getParent());
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String content(StreamableResource streamable) throws IOException
+    {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+
+        streamable.streamTo(bos);
+
+        return new String(bos.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void assets_and_stacks_are_read_from_manifest() throws IOException
+    {
+        AssetManifest manifest = new AssetManifestImpl(AssetManifest.DEFAULT_PATH, true, NOPLogger.NOP_LOGGER);
+
+        assertFalse(manifest.isEmpty());
+
+        StreamableResource asset = manifest.getAsset(new ClasspathResource("META-INF/assets/app.js"));
+
+        assertEquals("var a=1;", content(asset));
+        assertEquals("abc123", asset.getChecksum());
+        assertEquals(CompressionStatus.COMPRESSABLE, asset.getCompression());
+        assertEquals("text/javascript", asset.getContentType().getMimeType());
+        assertEquals(1000L, asset.getLastModified());
+
+        StreamableResource stack = manifest.getStack("core", Locale.ENGLISH);
+
+        assertEquals("var core=1;", content(stack));
+        assertEquals("def456", stack.getChecksum());
+    }
+
+    @Test
+    void resources_not_in_manifest_are_not_found() throws IOException
+    {
+        AssetManifest manifest = new AssetManifestImpl(AssetManifest.DEFAULT_PATH, true, NOPLogger.NOP_LOGGER);
+
+        assertNull(manifest.getAsset(new ClasspathResource("META-INF/assets/other.js")));
+        assertNull(manifest.getStack("core", Locale.FRENCH));
+    }
+
+    @Test
+    void manifest_is_ignored_in_development_mode() throws IOException
+    {
+        AssetManifest manifest = new AssetManifestImpl(AssetManifest.DEFAULT_PATH, false, NOPLogger.NOP_LOGGER);
+
+        assertTrue(manifest.isEmpty());
+        assertNull(manifest.getAsset(new ClasspathResource("META-INF/assets/app.js")));
+    }
+}
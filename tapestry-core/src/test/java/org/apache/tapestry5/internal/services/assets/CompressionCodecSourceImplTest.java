@@ -0,0 +1,120 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.apache.tapestry5.internal.services.assets;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import org.apache.tapestry5.http.services.RequestGlobals;
+import org.apache.tapestry5.services.assets.CompressionCodec;
+import org.easymock.EasyMock;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressionCodecSourceImplTest
+{
+    private final CompressionCodecSourceImpl source = new CompressionCodecSourceImpl(
+            Arrays.asList(new PrecompressedOnlyCodec("br", "br"), new PrecompressedOnlyCodec("zstd", "zst"), new GZipCompressionCodec()),
+            noRequest(), true, null);
+
+    private static RequestGlobals noRequest()
+    {
+        RequestGlobals globals = EasyMock.niceMock(RequestGlobals.class);
+
+        EasyMock.replay(globals);
+
+        return globals;
+    }
+
+    private static RequestGlobals request(String acceptEncoding)
+    {
+        HttpServletRequest request = EasyMock.niceMock(HttpServletRequest.class);
+        RequestGlobals globals = EasyMock.niceMock(RequestGlobals.class);
+
+        EasyMock.expect(request.getProtocol()).andReturn("HTTP/1.1").anyTimes();
+        EasyMock.expect(request.getHeader("Accept-Encoding")).andReturn(acceptEncoding).anyTimes();
+        EasyMock.expect(globals.getHTTPServletRequest()).andReturn(request).anyTimes();
+
+        EasyMock.replay(request, globals);
+
+        return globals;
+    }
+
+    private static CompressionCodecSourceImpl source(String acceptEncoding, boolean compressionEnabled)
+    {
+        return new CompressionCodecSourceImpl(Arrays.asList(new PrecompressedOnlyCodec("br", "br"), new GZipCompressionCodec()),
+                request(acceptEncoding), compressionEnabled, null);
+    }
+
+    private List<String> accepted(String acceptEncoding)
+    {
+        return source.getAcceptedCodecs(acceptEncoding).stream().map(CompressionCodec::getContentEncoding).collect(Collectors.toList());
+    }
+
+    @Test
+    void codecs_are_returned_in_server_preference_order()
+    {
+        assertEquals(Arrays.asList("br", "gzip"), accepted("gzip, deflate, br"));
+    }
+
+    @Test
+    void missing_header_accepts_nothing()
+    {
+        assertTrue(accepted(null).isEmpty());
+        assertTrue(accepted("identity").isEmpty());
+    }
+
+    @Test
+    void zero_quality_excludes_codec()
+    {
+        assertEquals(Arrays.asList("gzip"), accepted("br;q=0, gzip;q=0.8"));
+    }
+
+    @Test
+    void wildcard_accepts_codecs_not_listed()
+    {
+        assertEquals(Arrays.asList("br", "zstd"), accepted("gzip;q=0, *"));
+    }
+
+    @Test
+    void content_codings_are_case_insensitive()
+    {
+        assertEquals(Arrays.asList("gzip"), accepted("GZip"));
+    }
+
+    @Test
+    void no_codecs_outside_of_a_request()
+    {
+        assertTrue(source.getAcceptedCodecs().isEmpty());
+        assertFalse(source.isCompressionSupported());
+    }
+
+    @Test
+    void compression_is_supported_for_any_accepted_codec()
+    {
+        assertTrue(source("br", true).isCompressionSupported());
+        assertTrue(source("gzip, br", true).isCompressionSupported());
+        assertFalse(source("identity", true).isCompressionSupported());
+    }
+
+    @Test
+    void compression_is_not_supported_when_disabled()
+    {
+        assertFalse(source("gzip, br", false).isCompressionSupported());
+    }
+}
@@ -0,0 +1,122 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.apache.tapestry5.internal.services.assets;
+
+import org.apache.tapestry5.http.ContentType;
+import org.apache.tapestry5.http.services.Response;
+import org.apache.tapestry5.services.assets.AssetChecksumGenerator;
+import org.apache.tapestry5.services.assets.CompressionStatus;
+import org.apache.tapestry5.services.assets.ResponseCustomizer;
+import org.apache.tapestry5.services.assets.StreamableResource;
+import org.easymock.EasyMock;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileStreamableResourceTest
+{
+    @TempDir
+    Path folder;
+
+    private FileStreamableResource resource(String content, int size, ResponseCustomizer customizer) throws IOException
+    {
+        Path file = folder.resolve("content.txt");
+
+        Files.write(file, content.getBytes(StandardCharsets.US_ASCII));
+
+        return new FileStreamableResource("content.txt", new ContentType("text/plain"), CompressionStatus.COMPRESSABLE,
+                1000L, file, size, EasyMock.mock(AssetChecksumGenerator.class), customizer);
+    }
+
+    private static String streamTo(StreamableResource resource, long offset, long length) throws IOException
+    {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+
+        resource.streamTo(os, offset, length);
+
+        return new String(os.toByteArray(), StandardCharsets.US_ASCII);
+    }
+
+    @Test
+    void content_is_read_from_the_file() throws IOException
+    {
+        FileStreamableResource resource = resource("0123456789", 10, null);
+
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+
+        resource.streamTo(os);
+
+        assertEquals("0123456789", new String(os.toByteArray(), StandardCharsets.US_ASCII));
+
+        try (InputStream is = resource.openStream())
+        {
+            assertEquals(10, is.readAllBytes().length);
+        }
+    }
+
+    @Test
+    void range_of_content() throws IOException
+    {
+        FileStreamableResource resource = resource("0123456789", 10, null);
+
+        assertEquals("345", streamTo(resource, 3, 3));
+        assertEquals("9", streamTo(resource, 9, 1));
+    }
+
+    @Test
+    void truncated_file_is_reported() throws IOException
+    {
+        // The file has shrunk since its size was recorded.
+
+        FileStreamableResource resource = resource("01234", 10, null);
+
+        assertThrows(EOFException.class, () -> streamTo(resource, 0, 10));
+    }
+
+    @Test
+    void copies_keep_the_file() throws IOException
+    {
+        FileStreamableResource resource = resource("0123456789", 10, null);
+
+        StreamableResource copy = resource.withContentType(new ContentType("application/octet-stream"));
+
+        assertTrue(copy instanceof FileStreamableResource);
+        assertEquals(resource.getFile(), ((FileStreamableResource) copy).getFile());
+        assertEquals("application/octet-stream", copy.getContentType().toString());
+        assertNotEquals(resource, copy);
+    }
+
+    @Test
+    void response_customizers_are_combined() throws IOException
+    {
+        StringBuilder calls = new StringBuilder();
+
+        FileStreamableResource resource = resource("0123456789", 10, (r, response) -> calls.append("first "));
+
+        StreamableResource customized = resource.addResponseCustomizer((r, response) -> calls.append("second"));
+
+        customized.getResponseCustomizer().customizeResponse(customized, EasyMock.mock(Response.class));
+
+        assertEquals("first second", calls.toString());
+        assertTrue(customized instanceof FileStreamableResource);
+    }
+}
@@ -0,0 +1,186 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.apache.tapestry5.internal.services.assets;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import org.easymock.EasyMock;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileWriteListenerTest
+{
+    @TempDir
+    Path folder;
+
+    /**
+     * Accepts a limited number of writes before it reports that it isn't ready, as a slow client would.
+     */
+    static class ThrottledOutputStream extends ServletOutputStream
+    {
+        final ByteArrayOutputStream content = new ByteArrayOutputStream();
+
+        int writesUntilBlocked;
+
+        ThrottledOutputStream(int writesUntilBlocked)
+        {
+            this.writesUntilBlocked = writesUntilBlocked;
+        }
+
+        @Override
+        public boolean isReady()
+        {
+            return writesUntilBlocked > 0;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener)
+        {
+        }
+
+        @Override
+        public void write(int b)
+        {
+            content.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len)
+        {
+            writesUntilBlocked--;
+
+            content.write(b, off, len);
+        }
+
+        String getContent()
+        {
+            return new String(content.toByteArray(), StandardCharsets.US_ASCII);
+        }
+    }
+
+    private FileChannel open(String content) throws IOException
+    {
+        Path file = folder.resolve("content.txt");
+
+        Files.write(file, content.getBytes(StandardCharsets.US_ASCII));
+
+        return FileChannel.open(file, StandardOpenOption.READ);
+    }
+
+    private static AsyncContext completedContext()
+    {
+        AsyncContext context = EasyMock.mock(AsyncContext.class);
+
+        context.complete();
+        EasyMock.replay(context);
+
+        return context;
+    }
+
+    @Test
+    void range_is_written_and_context_completed() throws IOException
+    {
+        FileChannel channel = open("0123456789");
+        ThrottledOutputStream os = new ThrottledOutputStream(Integer.MAX_VALUE);
+        AsyncContext context = completedContext();
+
+        new FileWriteListener(channel, 2, 5, os, context).onWritePossible();
+
+        assertEquals("23456", os.getContent());
+        assertFalse(channel.isOpen());
+
+        EasyMock.verify(context);
+    }
+
+    @Test
+    void writing_resumes_when_the_client_is_ready_again() throws IOException
+    {
+        String content = new String(new char[100 * 1024]).replace('\0', 'x');
+
+        FileChannel channel = open(content);
+        ThrottledOutputStream os = new ThrottledOutputStream(1);
+        AsyncContext context = EasyMock.mock(AsyncContext.class);
+
+        EasyMock.replay(context);
+
+        FileWriteListener listener = new FileWriteListener(channel, 0, content.length(), os, context);
+
+        listener.onWritePossible();
+
+        // Only a single buffer was written before the client stopped accepting content.
+
+        assertEquals(32 * 1024, os.getContent().length());
+        assertTrue(channel.isOpen());
+
+        EasyMock.verify(context);
+
+        EasyMock.reset(context);
+        context.complete();
+        EasyMock.replay(context);
+
+        os.writesUntilBlocked = Integer.MAX_VALUE;
+
+        listener.onWritePossible();
+
+        assertEquals(content, os.getContent());
+        assertFalse(channel.isOpen());
+
+        EasyMock.verify(context);
+    }
+
+    @Test
+    void error_completes_the_context() throws IOException
+    {
+        FileChannel channel = open("0123456789");
+        AsyncContext context = completedContext();
+
+        new FileWriteListener(channel, 0, 10, new ThrottledOutputStream(0), context).onError(new IOException("Connection reset."));
+
+        assertFalse(channel.isOpen());
+
+        EasyMock.verify(context);
+    }
+
+    @Test
+    void truncated_file_is_reported() throws IOException
+    {
+        FileChannel channel = open("01234");
+        ThrottledOutputStream os = new ThrottledOutputStream(Integer.MAX_VALUE);
+        AsyncContext context = EasyMock.mock(AsyncContext.class);
+
+        EasyMock.replay(context);
+
+        // The container invokes onError() after onWritePossible() throws.
+
+        EOFException ex = assertThrows(EOFException.class, () -> new FileWriteListener(channel, 0, 10, os, context).onWritePossible());
+
+        assertEquals("File was truncated while being streamed; 5 bytes were not sent.", ex.getMessage());
+        assertEquals("01234", os.getContent());
+
+        EasyMock.verify(context);
+
+        channel.close();
+    }
+}
@@ -0,0 +1,124 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.apache.tapestry5.internal.services.assets;
+
+import org.apache.tapestry5.commons.Resource;
+import org.apache.tapestry5.services.assets.StreamableResource;
+import org.easymock.EasyMock;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamableResourceCacheImplTest
+{
+    private static StreamableResource streamable(int size)
+    {
+        StreamableResource streamable = EasyMock.mock(StreamableResource.class);
+
+        EasyMock.expect(streamable.getSize()).andReturn(size).anyTimes();
+        EasyMock.replay(streamable);
+
+        return streamable;
+    }
+
+    private static StreamableResourceCache cache(long maxSize)
+    {
+        ResourceChangeTracker tracker = EasyMock.niceMock(ResourceChangeTracker.class);
+
+        EasyMock.replay(tracker);
+
+        return new StreamableResourceCacheImpl(maxSize, tracker);
+    }
+
+    @Test
+    void hits_and_misses_are_counted()
+    {
+        StreamableResourceCache cache = cache(1000);
+        Resource resource = EasyMock.mock(Resource.class);
+        StreamableResource streamable = streamable(100);
+
+        assertNull(cache.get(resource, null));
+
+        cache.put(resource, null, streamable);
+
+        assertSame(streamable, cache.get(resource, null));
+        assertNull(cache.get(resource, "gzip"));
+
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(100, cache.getSize());
+    }
+
+    @Test
+    void all_versions_of_a_resource_share_an_entry()
+    {
+        StreamableResourceCache cache = cache(1000);
+        Resource resource = EasyMock.mock(Resource.class);
+        StreamableResource uncompressed = streamable(300);
+        StreamableResource gzip = streamable(100);
+        StreamableResource brotli = streamable(80);
+
+        cache.put(resource, null, uncompressed);
+        cache.put(resource, "gzip", gzip);
+        cache.put(resource, "br", brotli);
+
+        assertSame(uncompressed, cache.get(resource, null));
+        assertSame(gzip, cache.get(resource, "gzip"));
+        assertSame(brotli, cache.get(resource, "br"));
+
+        assertEquals(1, cache.getEntryCount());
+        assertEquals(480, cache.getSize());
+    }
+
+    @Test
+    void least_recently_used_entries_are_evicted_to_stay_within_max_size()
+    {
+        StreamableResourceCache cache = cache(1000);
+        Resource first = EasyMock.mock(Resource.class);
+        Resource second = EasyMock.mock(Resource.class);
+        Resource third = EasyMock.mock(Resource.class);
+
+        cache.put(first, null, streamable(400));
+        cache.put(first, "gzip", streamable(100));
+        cache.put(second, null, streamable(400));
+
+        // Accessing the first resource makes the second the least recently used
+
+        assertNotNull(cache.get(first, null));
+
+        cache.put(third, null, streamable(400));
+
+        assertNull(cache.get(second, null));
+        assertNotNull(cache.get(first, null));
+        assertNotNull(cache.get(first, "gzip"));
+        assertNotNull(cache.get(third, null));
+
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(2, cache.getEntryCount());
+        assertEquals(900, cache.getSize());
+    }
+
+    @Test
+    void content_larger_than_max_size_is_not_cached()
+    {
+        StreamableResourceCache cache = cache(1000);
+        Resource resource = EasyMock.mock(Resource.class);
+
+        cache.put(resource, null, streamable(1001));
+
+        assertNull(cache.get(resource, null));
+        assertEquals(0, cache.getEntryCount());
+        assertEquals(0, cache.getSize());
+    }
+}
@@ -15,8 +15,12 @@
 package org.apache.tapestry5.internal.structure;
 
 import org.apache.tapestry5.MetaDataConstants;
+import org.apache.tapestry5.commons.ObjectCreator;
 import org.apache.tapestry5.internal.test.InternalBaseTestCase;
+import org.apache.tapestry5.ioc.Invokable;
+import org.apache.tapestry5.ioc.services.PerThreadValue;
 import org.apache.tapestry5.ioc.services.PerthreadManager;
+import org.apache.tapestry5.ioc.services.ThreadCleanupListener;
 import org.apache.tapestry5.runtime.PageLifecycleListener;
 import org.apache.tapestry5.services.MetaDataLocator;
 import org.apache.tapestry5.services.pageload.ComponentResourceSelector;
@@ -26,6 +30,10 @@ import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
 import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.easymock.EasyMock.contains;
 import static org.easymock.EasyMock.same;
@@ -214,4 +222,212 @@ public class PageImplTest extends InternalBaseTestCase
 
         verify();
     }
+
+    @Test
+    public void per_thread_values_are_stored_in_page_slots()
+    {
+        MetaDataLocator locator = newMetaDataLocator(LOGICAL_PAGE_NAME, true);
+
+        replay();
+
+        Page page = new PageImpl(LOGICAL_PAGE_NAME, selector, null, perThreadManager, locator);
+
+        PerThreadValue<String> first = page.createPerThreadValue();
+        PerThreadValue<String> second = page.createPerThreadValue();
+
+        assertFalse(first.exists());
+        assertEquals(first.get("default"), "default");
+
+        first.set("fred");
+
+        // Created after the slots for the request were allocated
+
+        PerThreadValue<String> third = page.createPerThreadValue();
+
+        third.set(null);
+
+        assertEquals(first.get(), "fred");
+        assertFalse(second.exists());
+        assertNull(second.get());
+        assertTrue(third.exists());
+        assertNull(third.get("default"));
+
+        perThreadManager.cleanup();
+
+        assertFalse(first.exists());
+        assertFalse(third.exists());
+
+        verify();
+    }
+
+    /**
+     * Counts the lookups, and the changes, of the values it creates.
+     */
+    private static class CountingPerthreadManager implements PerthreadManager
+    {
+        private final PerthreadManager delegate;
+
+        private final AtomicInteger lookups = new AtomicInteger();
+
+        private final AtomicInteger changes = new AtomicInteger();
+
+        CountingPerthreadManager(PerthreadManager delegate)
+        {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void addThreadCleanupListener(ThreadCleanupListener listener)
+        {
+            delegate.addThreadCleanupListener(listener);
+        }
+
+        @Override
+        public void addThreadCleanupCallback(Runnable callback)
+        {
+            delegate.addThreadCleanupCallback(callback);
+        }
+
+        @Override
+        public void cleanup()
+        {
+            delegate.cleanup();
+        }
+
+        @Override
+        public <T> PerThreadValue<T> createValue()
+        {
+            final PerThreadValue<T> value = delegate.createValue();
+
+            return new PerThreadValue<T>()
+            {
+                @Override
+                public boolean exists()
+                {
+                    lookups.incrementAndGet();
+
+                    return value.exists();
+                }
+
+                @Override
+                public T get()
+                {
+                    lookups.incrementAndGet();
+
+                    return value.get();
+                }
+
+                @Override
+                public T get(T defaultValue)
+                {
+                    lookups.incrementAndGet();
+
+                    return value.get(defaultValue);
+                }
+
+                @Override
+                public T set(T newValue)
+                {
+                    changes.incrementAndGet();
+
+                    return value.set(newValue);
+                }
+            };
+        }
+
+        @Override
+        public <T> ObjectCreator<T> createValue(ObjectCreator<T> delegate)
+        {
+            return this.delegate.createValue(delegate);
+        }
+
+        @Override
+        public void run(Runnable runnable)
+        {
+            delegate.run(runnable);
+        }
+
+        @Override
+        public <T> T invoke(Invokable<T> invokable)
+        {
+            return delegate.invoke(invokable);
+        }
+    }
+
+    @Test
+    public void attached_page_accesses_slots_with_a_single_per_thread_lookup() throws Exception
+    {
+        MetaDataLocator locator = newMetaDataLocator(LOGICAL_PAGE_NAME, true);
+
+        replay();
+
+        CountingPerthreadManager countingManager = new CountingPerthreadManager(perThreadManager);
+
+        final Page page = new PageImpl(LOGICAL_PAGE_NAME, selector, null, countingManager, locator);
+
+        final PerThreadValue<String> value = page.createPerThreadValue();
+
+        page.attached();
+
+        // Attaching the page stores the request's slots in the per-thread map
+
+        assertEquals(countingManager.changes.get(), 1);
+
+        int lookups = countingManager.lookups.get();
+
+        for (int i = 0; i < 1000; i++)
+        {
+            value.set("value" + i);
+
+            assertTrue(value.exists());
+            assertEquals(value.get(), "value" + i);
+        }
+
+        // One lookup of the slots per access, and they never need to be replaced
+
+        assertEquals(countingManager.lookups.get(), lookups + 3000);
+        assertEquals(countingManager.changes.get(), 1);
+
+        // Another request, sharing the page, has values of its own
+
+        FutureTask<String> otherRequest = new FutureTask<String>(new Callable<String>()
+        {
+            @Override
+            public String call()
+            {
+                try
+                {
+                    page.attached();
+
+                    assertFalse(value.exists());
+
+                    value.set("other");
+
+                    return value.get();
+                } finally
+                {
+                    page.detached();
+                    perThreadManager.cleanup();
+                }
+            }
+        });
+
+        Thread thread = new Thread(otherRequest);
+
+        thread.start();
+
+        assertEquals(otherRequest.get(10, TimeUnit.SECONDS), "other");
+
+        assertEquals(value.get(), "value999");
+
+        page.detached();
+
+        assertEquals(value.get(), "value999");
+
+        perThreadManager.cleanup();
+
+        assertFalse(value.exists());
+
+        verify();
+    }
 }
@@ -25,6 +25,7 @@ import org.apache.tapestry5.commons.services.ClassPropertyAdapter;
 import org.apache.tapestry5.commons.services.InvalidationListener;
 import org.apache.tapestry5.commons.services.PropertyAccess;
 import org.apache.tapestry5.commons.services.PropertyAdapter;
+import org.apache.tapestry5.commons.util.CollectionFactory;
 import org.apache.tapestry5.http.ContentType;
 import org.apache.tapestry5.http.services.BaseURLSource;
 import org.apache.tapestry5.http.services.Request;
@@ -57,6 +58,7 @@ import org.apache.tapestry5.services.ComponentClassResolver;
 import org.apache.tapestry5.services.LinkCreationListener2;
 import org.apache.tapestry5.services.LocalizationSetter;
 import org.apache.tapestry5.services.MetaDataLocator;
+import org.apache.tapestry5.services.PageNameTrie;
 import org.apache.tapestry5.test.TapestryTestCase;
 import org.easymock.EasyMock;
 import org.testng.annotations.AfterMethod;
@@ -65,6 +67,7 @@ import org.testng.annotations.BeforeSuite;
 
 import java.io.*;
 import java.lang.annotation.Annotation;
+import java.util.Map;
 
 import static org.easymock.EasyMock.isA;
 
@@ -283,6 +286,22 @@ public class InternalBaseTestCase extends TapestryTestCase implements Registry
         expect(resolver.isPageName(pageName)).andReturn(result);
     }
 
+    /**
+     * Trains the resolver to provide a {@link PageNameTrie} of the given page names, as pairs of page name and
+     * canonical page name.
+     */
+    protected final void train_getPageNameTrie(ComponentClassResolver resolver, String... pageNamesAndCanonicalNames)
+    {
+        Map<String, String> pageNames = CollectionFactory.newCaseInsensitiveMap();
+
+        for (int i = 0; i < pageNamesAndCanonicalNames.length; i += 2)
+        {
+            pageNames.put(pageNamesAndCanonicalNames[i], pageNamesAndCanonicalNames[i + 1]);
+        }
+
+        expect(resolver.getPageNameTrie()).andReturn(new PageNameTrie(pageNames));
+    }
+
     protected final PageResponseRenderer mockPageResponseRenderer()
     {
         return newMock(PageResponseRenderer.class);
@@ -0,0 +1,234 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.apache.tapestry5.hibernate.web;
+
+import org.apache.tapestry5.grid.ColumnSort;
+import org.apache.tapestry5.grid.KeysetBookmarks;
+import org.apache.tapestry5.grid.KeysetGridDataSource;
+import org.apache.tapestry5.grid.RowCountStrategy;
+import org.apache.tapestry5.grid.SortConstraint;
+import org.hibernate.Criteria;
+import org.hibernate.NullPrecedence;
+import org.hibernate.Session;
+import org.hibernate.criterion.Conjunction;
+import org.hibernate.criterion.Criterion;
+import org.hibernate.criterion.Disjunction;
+import org.hibernate.criterion.Order;
+import org.hibernate.criterion.Projections;
+import org.hibernate.criterion.Restrictions;
+import org.hibernate.metadata.ClassMetadata;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A {@link org.apache.tapestry5.grid.GridDataSource} based on a Hibernate Session and a known entity class, using
+ * {@linkplain KeysetGridDataSource keyset pagination}: pages are located by the values of the sorted properties and
+ * the entity's identifier, rather than by an offset. As with {@link HibernateGridDataSource}, it assumes a direct
+ * mapping from sort constraint property to Hibernate property. Counting the rows is delegated to a
+ * {@link RowCountStrategy}, which may cache or estimate the count.
+ *
+ * As databases differ in where they sort NULLs, nullable sorted properties are ordered with NULLs after all other
+ * values in ascending order (and before them in descending order), and pages are located accordingly.
+ *
+ * This class is <em>not</em> thread-safe; it maintains internal state.
+ *
+ * Typically, an instance of this object is created fresh as needed (that is, it is not stored between requests); the
+ * {@link KeysetBookmarks} should be stored between requests.
+ *
+ * @since 5.10
+ */
+public class HibernateKeysetGridDataSource extends KeysetGridDataSource<Object>
+{
+    private final Session session;
+
+    private final Class entityType;
+
+    private final String idProperty;
+
+    private final ClassMetadata metadata;
+
+    public HibernateKeysetGridDataSource(Session session, Class entityType)
+    {
+        this(session, entityType, RowCountStrategy.EXACT, null);
+    }
+
+    /**
+     * @param session
+     *         used to query the entities
+     * @param entityType
+     *         type of entity displayed
+     * @param rowCountStrategy
+     *         determines how entities are counted
+     * @param bookmarks
+     *         the bookmarks kept between requests, or null
+     */
+    @SuppressWarnings("unchecked")
+    public HibernateKeysetGridDataSource(Session session, Class entityType, RowCountStrategy rowCountStrategy,
+                                         KeysetBookmarks bookmarks)
+    {
+        super(entityType, rowCountStrategy, bookmarks);
+
+        assert session != null;
+
+        this.session = session;
+        this.entityType = entityType;
+
+        ClassMetadata metadata = session.getSessionFactory().getClassMetadata(entityType);
+
+        if (metadata == null || metadata.getIdentifierPropertyName() == null)
+        {
+            throw new IllegalArgumentException(String.format(
+                    "Entity %s does not have a single identifier property, which is required for keyset pagination.",
+                    entityType.getName()));
+        }
+
+        idProperty = metadata.getIdentifierPropertyName();
+
+        this.metadata = metadata;
+    }
+
+    /**
+     * Returns false for properties known not to be nullable.
+     */
+    private boolean isNullable(String propertyName)
+    {
+        int index = Arrays.asList(metadata.getPropertyNames()).indexOf(propertyName);
+
+        return index < 0 || metadata.getPropertyNullability()[index];
+    }
+
+    @Override
+    protected int countRows()
+    {
+        Criteria criteria = session.createCriteria(entityType);
+
+        applyAdditionalConstraints(criteria);
+
+        criteria.setProjection(Projections.rowCount());
+
+        Number result = (Number) criteria.uniqueResult();
+
+        return result.intValue();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected List<Object> fetch(List<SortConstraint> sortConstraints, Object[] seekKey, boolean reverse,
+                                 int firstResult, int maxResults)
+    {
+        Criteria crit = session.createCriteria(entityType);
+
+        crit.setFirstResult(firstResult).setMaxResults(maxResults);
+
+        List<String> properties = new ArrayList<>();
+        List<Boolean> ascending = new ArrayList<>();
+        List<Boolean> nullable = new ArrayList<>();
+
+        for (SortConstraint constraint : sortConstraints)
+        {
+            String propertyName = constraint.getPropertyModel().getPropertyName();
+
+            properties.add(propertyName);
+            ascending.add((constraint.getColumnSort() == ColumnSort.ASCENDING) != reverse);
+            nullable.add(isNullable(propertyName));
+        }
+
+        properties.add(idProperty);
+        ascending.add(!reverse);
+        nullable.add(false);
+
+        for (int i = 0; i < properties.size(); i++)
+        {
+            Order order = ascending.get(i) ? Order.asc(properties.get(i)) : Order.desc(properties.get(i));
+
+            if (nullable.get(i))
+            {
+                order.nulls(ascending.get(i) ? NullPrecedence.LAST : NullPrecedence.FIRST);
+            }
+
+            crit.addOrder(order);
+        }
+
+        if (seekKey != null)
+        {
+            // (a > :a) or (a = :a and b > :b) or ..., using < for descending properties. NULLs come after all
+            // other values in ascending order, so a > :a also matches a NULL a, and nothing is after a NULL :a;
+            // in descending order, nothing but NULLs is before a non-NULL :a, and every non-NULL value is after
+            // a NULL :a.
+
+            Disjunction seek = Restrictions.disjunction();
+
+            for (int i = 0; i < properties.size(); i++)
+            {
+                String property = properties.get(i);
+                Object value = seekKey[i];
+
+                Criterion after;
+
+                if (value == null)
+                {
+                    if (ascending.get(i))
+                    {
+                        continue;
+                    }
+
+                    after = Restrictions.isNotNull(property);
+                } else if (ascending.get(i))
+                {
+                    after = nullable.get(i)
+                            ? Restrictions.or(Restrictions.gt(property, value), Restrictions.isNull(property))
+                            : Restrictions.gt(property, value);
+                } else
+                {
+                    after = Restrictions.lt(property, value);
+                }
+
+                Conjunction alternative = Restrictions.conjunction();
+
+                for (int j = 0; j < i; j++)
+                {
+                    alternative.add(seekKey[j] == null
+                            ? Restrictions.isNull(properties.get(j))
+                            : Restrictions.eq(properties.get(j), seekKey[j]));
+                }
+
+                alternative.add(after);
+
+                seek.add(alternative);
+            }
+
+            crit.add(seek);
+        }
+
+        applyAdditionalConstraints(crit);
+
+        return crit.list();
+    }
+
+    @Override
+    protected Object getUniqueKey(Object row)
+    {
+        return session.getIdentifier(row);
+    }
+
+    /**
+     * Invoked after the main criteria has been set up, with each query. This gives subclasses a chance to apply
+     * additional constraints. Subclasses overriding this method should also override {@link #getRowCountKey()}
+     * when using a caching {@link RowCountStrategy}. This implementation does nothing.
+     */
+    protected void applyAdditionalConstraints(Criteria crit)
+    {
+    }
+}
@@ -0,0 +1,171 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.apache.tapestry5.hibernate.web;
+
+import org.apache.tapestry5.beanmodel.PropertyConduit;
+import org.apache.tapestry5.beanmodel.PropertyModel;
+import org.apache.tapestry5.grid.ColumnSort;
+import org.apache.tapestry5.grid.KeysetBookmarks;
+import org.apache.tapestry5.grid.RowCountStrategy;
+import org.apache.tapestry5.grid.SortConstraint;
+import org.apache.tapestry5.test.TapestryTestCase;
+import org.easymock.EasyMock;
+import org.example.app0.entities.User;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class HibernateKeysetGridDataSourceTest extends TapestryTestCase
+{
+    private static final int ROWS = 23, PAGE_SIZE = 4;
+
+    private SessionFactory sessionFactory;
+
+    private Session session;
+
+    private List<User> users;
+
+    @BeforeClass
+    public void setup()
+    {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(User.class)
+                .setProperty("hibernate.connection.driver_class", "org.hsqldb.jdbc.JDBCDriver")
+                .setProperty("hibernate.connection.url", "jdbc:hsqldb:mem:keyset")
+                .setProperty("hibernate.connection.username", "sa")
+                .setProperty("hibernate.dialect", "org.hibernate.dialect.HSQLDialect")
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                .buildSessionFactory();
+
+        session = sessionFactory.openSession();
+
+        session.beginTransaction();
+
+        users = new ArrayList<>();
+
+        for (int i = 0; i < ROWS; i++)
+        {
+            User user = new User();
+
+            // Every third last name is NULL, and last names repeat, so that the identifier is needed to order the rows.
+
+            user.setLastName(i % 3 == 0 ? null : "name " + (i % 5));
+
+            session.save(user);
+
+            users.add(user);
+        }
+
+        session.getTransaction().commit();
+    }
+
+    @AfterClass
+    public void cleanup()
+    {
+        session.close();
+        sessionFactory.close();
+    }
+
+    private static List<SortConstraint> byLastName(ColumnSort sort)
+    {
+        PropertyConduit conduit = EasyMock.mock(PropertyConduit.class);
+        EasyMock.expect(conduit.get(EasyMock.anyObject())).andAnswer(() -> ((User) EasyMock.getCurrentArguments()[0]).getLastName()).anyTimes();
+
+        PropertyModel model = EasyMock.mock(PropertyModel.class);
+        EasyMock.expect(model.getPropertyName()).andReturn("lastName").anyTimes();
+        EasyMock.expect(model.getConduit()).andReturn(conduit).anyTimes();
+
+        EasyMock.replay(conduit, model);
+
+        return Collections.singletonList(new SortConstraint(model, sort));
+    }
+
+    /**
+     * NULLs after all other last names in ascending order, then by identifier.
+     */
+    private List<Long> expected(ColumnSort sort)
+    {
+        Comparator<String> names = Comparator.nullsLast(Comparator.<String>naturalOrder());
+
+        Comparator<User> order = Comparator.comparing(User::getLastName,
+                sort == ColumnSort.ASCENDING ? names : names.reversed()).thenComparing(User::getId);
+
+        return users.stream().sorted(order).map(User::getId).collect(Collectors.toList());
+    }
+
+    private List<Long> page(KeysetBookmarks bookmarks, int startIndex, List<SortConstraint> sort)
+    {
+        HibernateKeysetGridDataSource source = new HibernateKeysetGridDataSource(session, User.class,
+                RowCountStrategy.EXACT, bookmarks);
+
+        int endIndex = Math.min(startIndex + PAGE_SIZE, ROWS) - 1;
+
+        source.prepare(startIndex, endIndex, sort);
+
+        List<Long> ids = new ArrayList<>();
+
+        for (int i = startIndex; i <= endIndex; i++)
+        {
+            ids.add(((User) source.getRowValue(i)).getId());
+        }
+
+        return ids;
+    }
+
+    private void pages_include_null_values(ColumnSort sort)
+    {
+        List<SortConstraint> constraints = byLastName(sort);
+        KeysetBookmarks bookmarks = new KeysetBookmarks();
+
+        List<Long> forwards = new ArrayList<>();
+
+        for (int start = 0; start < ROWS; start += PAGE_SIZE)
+        {
+            forwards.addAll(page(bookmarks, start, constraints));
+        }
+
+        assertEquals(forwards, expected(sort));
+
+        // Going back, pages are located from the bookmarks recorded going forwards.
+
+        List<Long> backwards = new ArrayList<>();
+
+        for (int start = (ROWS - 1) / PAGE_SIZE * PAGE_SIZE; start >= 0; start -= PAGE_SIZE)
+        {
+            backwards.addAll(0, page(bookmarks, start, constraints));
+        }
+
+        assertEquals(backwards, expected(sort));
+    }
+
+    @Test
+    public void ascending_pages_include_null_values()
+    {
+        pages_include_null_values(ColumnSort.ASCENDING);
+    }
+
+    @Test
+    public void descending_pages_include_null_values()
+    {
+        pages_include_null_values(ColumnSort.DESCENDING);
+    }
+}
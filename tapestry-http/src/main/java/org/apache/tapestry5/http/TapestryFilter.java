@@ -29,6 +29,7 @@ import org.apache.tapestry5.http.internal.AsyncRequestService;
 import org.apache.tapestry5.http.internal.ServletContextSymbolProvider;
 import org.apache.tapestry5.http.internal.SingleKeySymbolProvider;
 import org.apache.tapestry5.http.internal.TapestryAppInitializer;
+import org.apache.tapestry5.http.internal.services.SuspendedRequest;
 import org.apache.tapestry5.http.internal.util.DelegatingSymbolProvider;
 import org.apache.tapestry5.http.services.HttpServletRequestHandler;
 import org.apache.tapestry5.http.services.ServletApplicationInitializer;
@@ -182,6 +183,13 @@ public class TapestryFilter implements Filter
             {
                 chain.doFilter(request, response);
             }
+
+            SuspendedRequest<?> suspended = SuspendedRequest.get(request);
+
+            if (suspended != null)
+            {
+                suspended.start(request);
+            }
         } finally
         {
             registry.cleanupThread();
@@ -217,7 +225,12 @@ public class TapestryFilter implements Filter
             handlerResponse.getExecutor().execute(
                     new ExceptionCatchingRunnable(() -> {
                         runFilter(request, response, chain);
-                        asyncContext.complete();
+
+                        // A suspended request is completed once resumed
+                        if (SuspendedRequest.get(request) == null)
+                        {
+                            asyncContext.complete();
+                        }
                     }));
         }
         else
@@ -63,6 +63,8 @@ final public class TapestryHttpSymbolConstants {
     /**
      * If true (the default), then Tapestry will apply locking semantics around access to the {@link jakarta.servlet.http.HttpSession}.
      * Reading attribute names occurs with a shared read lock; getting or setting an attribute upgrades to an exclusive write lock.
+     * Starting in 5.10, the locks are striped by attribute name, so that requests accessing different attributes do not wait
+     * on each other; reading the attribute names still locks every stripe.
      * This can tend to serialize threads when a number of simultaneous (Ajax) requests from the client arrive ... however,
      * many implementations of HttpSession are not thread safe, and often mutable objects are stored in the session and shared
      * between threads. Leaving this on the default will yield a more robust application; setting it to false may speed
@@ -198,4 +200,13 @@ final public class TapestryHttpSymbolConstants {
      */
     public static final String CORS_MAX_AGE = "tapestry.cors-max-age";
 
+    /**
+     * How long a request {@linkplain org.apache.tapestry5.http.services.AsyncRequestSupport suspended} until a
+     * {@link java.util.concurrent.CompletionStage} completes may wait before its continuation is invoked with a
+     * {@link java.util.concurrent.TimeoutException}. The default is "30 s".
+     *
+     * @since 5.10
+     */
+    public static final String ASYNC_REQUEST_TIMEOUT = "tapestry.async-request-timeout";
+
 }
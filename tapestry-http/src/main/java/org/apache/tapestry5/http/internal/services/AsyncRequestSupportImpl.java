@@ -0,0 +1,119 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.apache.tapestry5.http.internal.services;
+
+import java.util.concurrent.CompletionStage;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import org.apache.tapestry5.commons.util.TimeInterval;
+import org.apache.tapestry5.http.TapestryHttpSymbolConstants;
+import org.apache.tapestry5.http.services.AsyncContinuation;
+import org.apache.tapestry5.http.services.AsyncRequestSupport;
+import org.apache.tapestry5.http.services.RequestGlobals;
+import org.apache.tapestry5.ioc.annotations.IntermediateType;
+import org.apache.tapestry5.ioc.annotations.Symbol;
+import org.apache.tapestry5.ioc.services.PerthreadManager;
+import org.slf4j.Logger;
+
+/**
+ * Default {@linkplain AsyncRequestSupport} implementation. The suspended request is stored as a request attribute;
+ * the {@link org.apache.tapestry5.http.TapestryFilter} takes care of starting its asynchronous processing.
+ */
+public class AsyncRequestSupportImpl implements AsyncRequestSupport
+{
+    private final RequestGlobals requestGlobals;
+
+    private final PerthreadManager perthreadManager;
+
+    private final Logger logger;
+
+    private final long timeout;
+
+    public AsyncRequestSupportImpl(RequestGlobals requestGlobals, PerthreadManager perthreadManager, Logger logger,
+                                   @Symbol(TapestryHttpSymbolConstants.ASYNC_REQUEST_TIMEOUT)
+                                   @IntermediateType(TimeInterval.class)
+                                   long timeout)
+    {
+        this.requestGlobals = requestGlobals;
+        this.perthreadManager = perthreadManager;
+        this.logger = logger;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public boolean isAsyncSupported()
+    {
+        HttpServletRequest request = requestGlobals.getHTTPServletRequest();
+
+        // The per-thread data of the request is detached when it is suspended; without that, the request is
+        // processed synchronously.
+
+        return request != null && request.isAsyncSupported() && perthreadManager.isDetachSupported();
+    }
+
+    @Override
+    public <T> void suspend(CompletionStage<T> stage, AsyncContinuation<T> continuation)
+    {
+        assert stage != null;
+        assert continuation != null;
+
+        if (!perthreadManager.isDetachSupported())
+        {
+            throw new IllegalStateException(String.format(
+                    "Asynchronous processing is not supported, as %s can not detach the per-thread data of a request.",
+                    perthreadManager.getClass().getName()));
+        }
+
+        if (!isAsyncSupported())
+        {
+            throw new IllegalStateException("Asynchronous processing is not supported for the current request.");
+        }
+
+        if (isSuspended())
+        {
+            throw new IllegalStateException("The current request has already been suspended.");
+        }
+
+        requestGlobals.getHTTPServletRequest().setAttribute(SuspendedRequest.ATTRIBUTE,
+                new SuspendedRequest<>(stage, continuation, perthreadManager, logger, timeout));
+    }
+
+    @Override
+    public boolean isSuspended()
+    {
+        return getSuspendedRequest() != null;
+    }
+
+    @Override
+    public void afterResumption(Runnable action)
+    {
+        assert action != null;
+
+        SuspendedRequest<?> suspended = getSuspendedRequest();
+
+        if (suspended == null)
+        {
+            throw new IllegalStateException("The current request has not been suspended.");
+        }
+
+        suspended.afterResumption(action);
+    }
+
+    private SuspendedRequest<?> getSuspendedRequest()
+    {
+        HttpServletRequest request = requestGlobals.getHTTPServletRequest();
+
+        return request == null ? null : SuspendedRequest.get(request);
+    }
+}
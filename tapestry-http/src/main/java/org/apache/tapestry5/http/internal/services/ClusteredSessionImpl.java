@@ -15,6 +15,7 @@
 package org.apache.tapestry5.http.internal.services;
 
 import org.apache.tapestry5.commons.util.CollectionFactory;
+import org.apache.tapestry5.http.services.Session;
 import org.apache.tapestry5.http.services.SessionPersistedObjectAnalyzer;
 import org.apache.tapestry5.ioc.services.PerthreadManager;
 
@@ -35,9 +36,10 @@ public class ClusteredSessionImpl extends SessionImpl
     private final SessionPersistedObjectAnalyzer analyzer;
 
     /**
-     * Cache of attribute objects read from, or written to, the real session.
+     * Cache of attribute objects read from (with a write lock), or written to, the real session.
      * This is needed for end-of-request
-     * processing.
+     * processing. Attributes read with a read lock (or no lock) are not expected to change, and are
+     * not written back.
      */
     private final Map<String, Object> sessionAttributeCache = CollectionFactory.newMap();
 
@@ -51,11 +53,14 @@ public class ClusteredSessionImpl extends SessionImpl
     }
 
     @Override
-    public Object getAttribute(String name)
+    public Object getAttribute(String name, Session.LockMode lockMode)
     {
-        Object result = super.getAttribute(name);
+        Object result = super.getAttribute(name, lockMode);
 
-        sessionAttributeCache.put(name, result);
+        if (lockMode == null || lockMode == Session.LockMode.WRITE)
+        {
+            sessionAttributeCache.put(name, result);
+        }
 
         return result;
     }
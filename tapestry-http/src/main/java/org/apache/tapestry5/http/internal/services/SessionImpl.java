@@ -64,7 +64,7 @@ public class SessionImpl implements Session
             if (!containsAttribute(name)) return null;
         }
 
-        acquireLock(lockMode, Session.LockMode.WRITE);
+        acquireLock(name, lockMode, Session.LockMode.WRITE);
 
         return session.getAttribute(name);
     }
@@ -78,7 +78,7 @@ public class SessionImpl implements Session
     @Override
     public List<String> getAttributeNames(Session.LockMode lockMode)
     {
-        acquireLock(lockMode, Session.LockMode.READ);
+        acquireLock(null, lockMode, Session.LockMode.READ);
 
         return InternalUtils.toList(session.getAttributeNames());
     }
@@ -88,7 +88,7 @@ public class SessionImpl implements Session
     {
         Objects.requireNonNull(name, "name must be non-null");
 
-        lock.acquireWriteLock();
+        lock.acquireWriteLock(name);
 
         session.setAttribute(name, value);
     }
@@ -104,7 +104,7 @@ public class SessionImpl implements Session
     {
         Objects.requireNonNull(name, "name must be non-null");
 
-        acquireLock(lockMode, Session.LockMode.READ);
+        acquireLock(name, lockMode, Session.LockMode.READ);
 
         Enumeration<String> e = session.getAttributeNames();
         while (e.hasMoreElements())
@@ -127,7 +127,7 @@ public class SessionImpl implements Session
     {
         Objects.requireNonNull(prefix, "prefix must be non-null");
 
-        acquireLock(lockMode, Session.LockMode.READ);
+        acquireLock(null, lockMode, Session.LockMode.READ);
 
         List<String> result = CollectionFactory.newList();
 
@@ -184,7 +184,10 @@ public class SessionImpl implements Session
 
     }
 
-    private void acquireLock(Session.LockMode requestedMode, Session.LockMode defaultMode) {
+    /**
+     * Acquires the lock for a single attribute, or for the whole session when the name is null.
+     */
+    private void acquireLock(String name, Session.LockMode requestedMode, Session.LockMode defaultMode) {
         if (requestedMode == null)
         {
             requestedMode = defaultMode;
@@ -195,10 +198,22 @@ public class SessionImpl implements Session
             case NONE:
                 break;
             case READ:
-                this.lock.acquireReadLock();
+                if (name == null)
+                {
+                    this.lock.acquireReadLock();
+                } else
+                {
+                    this.lock.acquireReadLock(name);
+                }
                 break;
             case WRITE:
-                this.lock.acquireWriteLock();
+                if (name == null)
+                {
+                    this.lock.acquireWriteLock();
+                } else
+                {
+                    this.lock.acquireWriteLock(name);
+                }
                 break;
         }
     }
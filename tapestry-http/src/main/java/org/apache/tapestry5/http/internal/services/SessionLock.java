@@ -15,10 +15,12 @@
 package org.apache.tapestry5.http.internal.services;
 
 /**
- * A wrapper around {@link java.util.concurrent.locks.ReentrantReadWriteLock} used to manage the lock for a session.
- * Once a lock is acquired, a callback is registered with the {@link org.apache.tapestry5.ioc.services.PerthreadManager}
- * to release the lock at the end of the request.
+ * Manages the locks for a session. Once a lock is acquired, a callback is registered with the
+ * {@link org.apache.tapestry5.ioc.services.PerthreadManager} to release the lock at the end of the request.
  *
+ * Starting in 5.10, locks may be acquired for a single attribute; the default implementations lock the whole session.
+ *
+ * @see StripedSessionLock
  * @since 5.4
  */
 public interface SessionLock
@@ -33,4 +35,26 @@ public interface SessionLock
      * this may block for a while. Does nothing if the write lock is already held by this thread.
      */
     void acquireWriteLock();
+
+    /**
+     * Acquires the shared read lock for a single attribute.
+     *
+     * @since 5.10
+     */
+    default void acquireReadLock(String attributeName)
+    {
+        acquireReadLock();
+    }
+
+    /**
+     * Acquires the exclusive write lock for a single attribute.
+     *
+     * @throws IllegalStateException
+     *         if the lock can not be acquired without deadlocking with other requests holding write locks
+     * @since 5.10
+     */
+    default void acquireWriteLock(String attributeName)
+    {
+        acquireWriteLock();
+    }
 }
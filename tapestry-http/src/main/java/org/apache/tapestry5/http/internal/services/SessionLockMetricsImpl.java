@@ -0,0 +1,71 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.apache.tapestry5.http.internal.services;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.tapestry5.http.services.SessionLockMetrics;
+
+/**
+ * Default {@linkplain SessionLockMetrics} implementation, updated by {@link StripedSessionLock}.
+ *
+ * @since 5.10
+ */
+public class SessionLockMetricsImpl implements SessionLockMetrics
+{
+    private final LongAdder acquisitions = new LongAdder();
+
+    private final LongAdder contended = new LongAdder();
+
+    private final LongAdder totalWaitNanos = new LongAdder();
+
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+
+    void acquired()
+    {
+        acquisitions.increment();
+    }
+
+    void acquiredAfterWaiting(long waitNanos)
+    {
+        acquisitions.increment();
+        contended.increment();
+        totalWaitNanos.add(waitNanos);
+        maxWaitNanos.accumulate(waitNanos);
+    }
+
+    @Override
+    public long getAcquisitionCount()
+    {
+        return acquisitions.sum();
+    }
+
+    @Override
+    public long getContendedCount()
+    {
+        return contended.sum();
+    }
+
+    @Override
+    public long getTotalWaitNanos()
+    {
+        return totalWaitNanos.sum();
+    }
+
+    @Override
+    public long getMaxWaitNanos()
+    {
+        return maxWaitNanos.get();
+    }
+}
@@ -0,0 +1,464 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.apache.tapestry5.http.internal.services;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.StampedLock;
+
+import org.apache.tapestry5.ioc.services.PerThreadValue;
+import org.apache.tapestry5.ioc.services.PerthreadManager;
+
+/**
+ * The lock for a session, split into a number of stripes, so that requests accessing different attributes of the same
+ * session do not wait on each other. Attribute names are hashed to a stripe; operations on the whole session lock
+ * every stripe.
+ *
+ * Locks are held until the end of the request. Stripes are locked in ascending order where possible: when a request
+ * needs a stripe lower than one it already holds, and only holds read locks from that stripe up, it releases them,
+ * then locks them again in order (as when upgrading a lock on the whole session, other requests may get in during that
+ * window). A stripe held for writing is never released before the end of the request, as the request may have
+ * changed, or be about to write back, the attributes it guards; the request waits for the lower stripe while holding
+ * it. Blocked requests check for deadlocks: a request that only holds read locks breaks a deadlock by releasing them
+ * and starting over, and when every request involved holds a write lock, the most recent one fails with an
+ * {@link IllegalStateException} (its locks are released at the end of the request, like any other).
+ *
+ * The stripes are {@link StampedLock}s, whose stamps are kept with the rest of the per-thread data of the request; as
+ * such locks are not owned by a thread, a request may be resumed, and its locks released, on another thread.
+ *
+ * @since 5.10
+ */
+public class StripedSessionLock implements SessionLock
+{
+    static final int STRIPE_COUNT = 16;
+
+    /**
+     * How long a blocked request waits before checking for a deadlock again.
+     */
+    static final long DEADLOCK_CHECK_MILLIS = 10;
+
+    private static final byte NONE = 0, READ = 1, WRITE = 2;
+
+    /**
+     * The locks of a single request, only changed by the request itself; the stamps, write count and waited for
+     * stripe are also read (and updated) with this lock held, for deadlock detection.
+     */
+    private static final class Holder
+    {
+        final long id;
+
+        /**
+         * Stamps of the stripes held, indexed by stripe; 0 when not held.
+         */
+        final long[] stamps = new long[STRIPE_COUNT];
+
+        /**
+         * Modes in which the request needs each stripe; a stripe may be needed, but not held, while the request
+         * waits for a lower stripe.
+         */
+        final byte[] modes = new byte[STRIPE_COUNT];
+
+        int writeCount;
+
+        int waitingFor = -1;
+
+        Holder(long id)
+        {
+            this.id = id;
+        }
+    }
+
+    private final StampedLock[] stripes = new StampedLock[STRIPE_COUNT];
+
+    private final PerthreadManager perthreadManager;
+
+    private final SessionLockMetricsImpl metrics;
+
+    private final PerThreadValue<Holder> holder;
+
+    private final AtomicLong holderCount = new AtomicLong();
+
+    /**
+     * The requests holding each stripe, for deadlock detection; guarded by this lock.
+     */
+    private final List<List<Holder>> owners = new ArrayList<>(STRIPE_COUNT);
+
+    public StripedSessionLock(PerthreadManager perthreadManager, SessionLockMetricsImpl metrics)
+    {
+        this.perthreadManager = perthreadManager;
+        this.metrics = metrics;
+
+        holder = perthreadManager.createValue();
+
+        for (int i = 0; i < STRIPE_COUNT; i++)
+        {
+            stripes[i] = new StampedLock();
+            owners.add(new ArrayList<>());
+        }
+    }
+
+    static int stripeFor(String attributeName)
+    {
+        int hash = attributeName.hashCode();
+
+        return (hash ^ (hash >>> 16)) & (STRIPE_COUNT - 1);
+    }
+
+    @Override
+    public void acquireReadLock()
+    {
+        acquire(0, STRIPE_COUNT, READ);
+    }
+
+    @Override
+    public void acquireWriteLock()
+    {
+        acquire(0, STRIPE_COUNT, WRITE);
+    }
+
+    @Override
+    public void acquireReadLock(String attributeName)
+    {
+        int index = stripeFor(attributeName);
+
+        acquire(index, index + 1, READ);
+    }
+
+    @Override
+    public void acquireWriteLock(String attributeName)
+    {
+        int index = stripeFor(attributeName);
+
+        acquire(index, index + 1, WRITE);
+    }
+
+    private void acquire(int from, int to, byte mode)
+    {
+        Holder holder = getHolder();
+
+        boolean covered = true;
+
+        for (int i = from; i < to; i++)
+        {
+            if (!covers(holder.stamps[i], mode))
+            {
+                holder.modes[i] = (byte) Math.max(holder.modes[i], mode);
+                covered = false;
+            }
+        }
+
+        if (covered)
+        {
+            return;
+        }
+
+        while (true)
+        {
+            int index = firstMissing(holder);
+
+            if (index < 0)
+            {
+                return;
+            }
+
+            if (!obtain(holder, index))
+            {
+                // Part of a deadlock, while only holding read locks: release them, and wait (holding nothing) for
+                // the stripe to be available before starting over; otherwise, the request could take them again
+                // before the requests it blocked get them.
+
+                release(holder, 0);
+
+                StampedLock stripe = stripes[index];
+
+                stripe.unlock(holder.modes[index] == WRITE ? stripe.writeLock() : stripe.readLock());
+            }
+        }
+    }
+
+    private Holder getHolder()
+    {
+        Holder result = holder.get();
+
+        if (result == null)
+        {
+            final Holder newHolder = holder.set(new Holder(holderCount.incrementAndGet()));
+
+            perthreadManager.addThreadCleanupCallback(() -> release(newHolder, 0));
+
+            result = newHolder;
+        }
+
+        return result;
+    }
+
+    private static int firstMissing(Holder holder)
+    {
+        for (int i = 0; i < STRIPE_COUNT; i++)
+        {
+            if (holder.modes[i] != NONE && !covers(holder.stamps[i], holder.modes[i]))
+            {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private static boolean covers(long stamp, byte mode)
+    {
+        return stamp != 0 && (mode == READ || StampedLock.isWriteLockStamp(stamp));
+    }
+
+    /**
+     * Locks a stripe in the mode the request needs it in, returning false if the request must release its (read)
+     * locks to break a deadlock.
+     */
+    private boolean obtain(Holder holder, int index)
+    {
+        byte mode = holder.modes[index];
+
+        long held = holder.stamps[index];
+
+        if (held != 0)
+        {
+            // Upgrade in place, if this request is the only reader.
+
+            long converted = stripes[index].tryConvertToWriteLock(held);
+
+            if (converted != 0)
+            {
+                hold(holder, index, converted);
+                metrics.acquired();
+                return true;
+            }
+
+            unlock(holder, index);
+        }
+
+        if (!holdsWriteLock(holder, index))
+        {
+            // Only read locks from here up: they are released, and the loop in acquire() locks them again in order.
+
+            release(holder, index + 1);
+        }
+
+        long stamp = lock(holder, index, mode);
+
+        if (stamp == 0)
+        {
+            return false;
+        }
+
+        hold(holder, index, stamp);
+
+        return true;
+    }
+
+    private static boolean holdsWriteLock(Holder holder, int from)
+    {
+        for (int i = from; i < STRIPE_COUNT; i++)
+        {
+            if (StampedLock.isWriteLockStamp(holder.stamps[i]))
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private long lock(Holder holder, int index, byte mode)
+    {
+        StampedLock stripe = stripes[index];
+
+        long stamp = mode == WRITE ? stripe.tryWriteLock() : stripe.tryReadLock();
+
+        if (stamp != 0)
+        {
+            metrics.acquired();
+
+            return stamp;
+        }
+
+        long startNanos = System.nanoTime();
+
+        boolean interrupted = false;
+
+        synchronized (this)
+        {
+            holder.waitingFor = index;
+        }
+
+        try
+        {
+            while (true)
+            {
+                try
+                {
+                    stamp = mode == WRITE
+                            ? stripe.tryWriteLock(DEADLOCK_CHECK_MILLIS, TimeUnit.MILLISECONDS)
+                            : stripe.tryReadLock(DEADLOCK_CHECK_MILLIS, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException ex)
+                {
+                    // Session locks have never been interruptible; the interrupt is restored once the lock is held.
+
+                    interrupted = true;
+                }
+
+                if (stamp != 0)
+                {
+                    metrics.acquiredAfterWaiting(System.nanoTime() - startNanos);
+
+                    return stamp;
+                }
+
+                if (mustBreakDeadlock(holder))
+                {
+                    return 0;
+                }
+            }
+        } finally
+        {
+            synchronized (this)
+            {
+                holder.waitingFor = -1;
+            }
+
+            if (interrupted)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Checks whether the (blocked) request is part of a deadlock. Returns true if it only holds read locks, and should
+     * release them; throws an exception if every request involved holds a write lock, and it is the most recent;
+     * otherwise returns false, and the request keeps waiting for another request to break the deadlock.
+     */
+    private synchronized boolean mustBreakDeadlock(Holder holder)
+    {
+        List<Holder> cycle = findCycle(holder, holder, new HashSet<>());
+
+        if (cycle == null)
+        {
+            return false;
+        }
+
+        if (holder.writeCount == 0)
+        {
+            return true;
+        }
+
+        for (Holder member : cycle)
+        {
+            if (member.writeCount == 0 || member.id > holder.id)
+            {
+                return false;
+            }
+        }
+
+        throw new IllegalStateException(String.format(
+                "Deadlock on session attributes: this request and %d other request(s) each wait for an attribute " +
+                        "locked for writing by another.", cycle.size() - 1));
+    }
+
+    /**
+     * Returns the requests in a cycle of requests each waiting for a stripe held by the next, that leads back to the
+     * start, or null.
+     */
+    private List<Holder> findCycle(Holder start, Holder current, Set<Holder> visited)
+    {
+        if (current.waitingFor < 0)
+        {
+            return null;
+        }
+
+        for (Holder owner : owners.get(current.waitingFor))
+        {
+            List<Holder> cycle = null;
+
+            if (owner == start)
+            {
+                cycle = new ArrayList<>();
+            } else if (owner != current && visited.add(owner))
+            {
+                cycle = findCycle(start, owner, visited);
+            }
+
+            if (cycle != null)
+            {
+                cycle.add(current);
+
+                return cycle;
+            }
+        }
+
+        return null;
+    }
+
+    private synchronized void hold(Holder holder, int index, long stamp)
+    {
+        long previous = holder.stamps[index];
+
+        if (previous == 0)
+        {
+            owners.get(index).add(holder);
+        } else if (StampedLock.isWriteLockStamp(previous))
+        {
+            holder.writeCount--;
+        }
+
+        if (StampedLock.isWriteLockStamp(stamp))
+        {
+            holder.writeCount++;
+        }
+
+        holder.stamps[index] = stamp;
+    }
+
+    private synchronized void unlock(Holder holder, int index)
+    {
+        long stamp = holder.stamps[index];
+
+        stripes[index].unlock(stamp);
+
+        if (StampedLock.isWriteLockStamp(stamp))
+        {
+            holder.writeCount--;
+        }
+
+        owners.get(index).remove(holder);
+
+        holder.stamps[index] = 0;
+    }
+
+    /**
+     * Releases the held stripes, from the index up; the request still needs them, in the same modes.
+     */
+    private void release(Holder holder, int from)
+    {
+        for (int i = STRIPE_COUNT - 1; i >= from; i--)
+        {
+            if (holder.stamps[i] != 0)
+            {
+                unlock(holder, i);
+            }
+        }
+    }
+}
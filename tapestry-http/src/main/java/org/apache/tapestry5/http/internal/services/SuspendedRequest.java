@@ -0,0 +1,210 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.apache.tapestry5.http.internal.services;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.apache.tapestry5.http.services.AsyncContinuation;
+import org.apache.tapestry5.ioc.Invokable;
+import org.apache.tapestry5.ioc.services.PerthreadManager;
+import org.slf4j.Logger;
+
+/**
+ * A request suspended by {@link AsyncRequestSupportImpl}, stored as a request attribute until the
+ * {@link org.apache.tapestry5.http.TapestryFilter} {@linkplain #start(ServletRequest) starts} its asynchronous
+ * processing.
+ *
+ * @since 5.10
+ */
+public class SuspendedRequest<T>
+{
+    public static final String ATTRIBUTE = "tapestry.suspended-request";
+
+    private final CompletionStage<T> stage;
+
+    private final AsyncContinuation<T> continuation;
+
+    private final PerthreadManager perthreadManager;
+
+    private final Logger logger;
+
+    private final long timeout;
+
+    private final List<Runnable> afterResumption = new ArrayList<>();
+
+    private final AtomicBoolean resumed = new AtomicBoolean();
+
+    // Set by the thread that resumes the request, just before invoking the continuation.
+
+    private T result;
+
+    private Throwable failure;
+
+    SuspendedRequest(CompletionStage<T> stage, AsyncContinuation<T> continuation, PerthreadManager perthreadManager,
+                     Logger logger, long timeout)
+    {
+        this.stage = stage;
+        this.continuation = continuation;
+        this.perthreadManager = perthreadManager;
+        this.logger = logger;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Returns the request suspended while processing the request, or null.
+     */
+    public static SuspendedRequest<?> get(ServletRequest request)
+    {
+        return (SuspendedRequest<?>) request.getAttribute(ATTRIBUTE);
+    }
+
+    void afterResumption(Runnable action)
+    {
+        afterResumption.add(action);
+    }
+
+    /**
+     * Starts asynchronous processing of the request, and detaches the per-thread data of the current thread (which
+     * is expected to be cleaned up immediately after). The continuation will be invoked, on a container thread, once
+     * the stage completes.
+     */
+    public void start(ServletRequest request)
+    {
+        final AsyncContext asyncContext = request.isAsyncStarted() ? request.getAsyncContext() : request.startAsync();
+
+        asyncContext.setTimeout(timeout);
+
+        final Invokable<Void> resumption = perthreadManager.detach(() -> {
+            process(asyncContext);
+            return null;
+        });
+
+        asyncContext.addListener(new AsyncListener()
+        {
+            @Override
+            public void onTimeout(AsyncEvent event)
+            {
+                resume(resumption, null,
+                        new TimeoutException(String.format("Request was not resumed within %,d ms.", timeout)));
+            }
+
+            @Override
+            public void onComplete(AsyncEvent event)
+            {
+            }
+
+            @Override
+            public void onError(AsyncEvent event)
+            {
+                // The request is not resumed normally once the container reports an error (typically, the client
+                // went away), but the continuation is still invoked, so that the detached data is cleaned up.
+
+                Throwable failure = event.getThrowable();
+
+                resume(resumption, null,
+                        failure != null ? failure : new IOException("Asynchronous processing of the request failed."));
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event)
+            {
+            }
+        });
+
+        stage.whenComplete((result, failure) -> {
+            try
+            {
+                asyncContext.start(() -> resume(resumption, result, failure));
+            } catch (IllegalStateException ex)
+            {
+                // The request has already timed out or failed (in which case this does nothing), or the container
+                // will not run anything more for it; resume on this thread rather than leak the detached data.
+
+                resume(resumption, result, failure);
+            }
+        });
+    }
+
+    private void resume(Invokable<Void> resumption, T result, Throwable failure)
+    {
+        // The stage may complete just as the request times out; only the first to arrive is processed.
+
+        if (!resumed.compareAndSet(false, true))
+        {
+            return;
+        }
+
+        this.result = result;
+        this.failure = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause()
+                : failure;
+
+        resumption.invoke();
+    }
+
+    private void process(AsyncContext asyncContext)
+    {
+        try
+        {
+            continuation.resume(result, failure);
+
+            for (Runnable action : afterResumption)
+            {
+                action.run();
+            }
+        } catch (Throwable ex)
+        {
+            logger.error("Processing of resumed request failed: {}", ex.getMessage(), ex);
+
+            sendError(asyncContext);
+        } finally
+        {
+            try
+            {
+                asyncContext.complete();
+            } catch (IllegalStateException ex)
+            {
+                // Already completed by the container, after a timeout or an error
+                logger.debug("Unable to complete resumed request: {}", ex.getMessage());
+            }
+        }
+    }
+
+    private void sendError(AsyncContext asyncContext)
+    {
+        try
+        {
+            HttpServletResponse response = (HttpServletResponse) asyncContext.getResponse();
+
+            if (!response.isCommitted())
+            {
+                response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            }
+        } catch (IOException | IllegalStateException ex)
+        {
+            logger.error("Unable to send error response: {}", ex.getMessage(), ex);
+        }
+    }
+}
@@ -15,6 +15,7 @@
 package org.apache.tapestry5.http.internal.services;
 
 import org.apache.tapestry5.http.services.Session;
+import org.apache.tapestry5.http.services.SessionLockMetrics;
 
 /**
  * Encapsulates logic for accessing the Tapestry {@link Session} (a wrapper around the {@link jakarta.servlet.http.HttpSession}).
@@ -26,4 +27,11 @@ import org.apache.tapestry5.http.services.Session;
 public interface TapestrySessionFactory
 {
     Session getSession(boolean create);
+
+    /**
+     * Returns the statistics of the locks acquired on sessions.
+     *
+     * @since 5.10
+     */
+    SessionLockMetrics getLockMetrics();
 }
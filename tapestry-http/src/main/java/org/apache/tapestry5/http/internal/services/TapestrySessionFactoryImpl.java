@@ -18,13 +18,13 @@ import java.util.Map;
 import java.util.WeakHashMap;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
 
 import org.apache.tapestry5.http.TapestryHttpSymbolConstants;
 import org.apache.tapestry5.http.services.Session;
+import org.apache.tapestry5.http.services.SessionLockMetrics;
 import org.apache.tapestry5.http.services.SessionPersistedObjectAnalyzer;
 import org.apache.tapestry5.ioc.annotations.Symbol;
 import org.apache.tapestry5.ioc.services.PerthreadManager;
@@ -45,6 +45,8 @@ public class TapestrySessionFactoryImpl implements TapestrySessionFactory
 
     private final Map<HttpSession, SessionLock> sessionToLock = new WeakHashMap<HttpSession, SessionLock>();
 
+    private final SessionLockMetricsImpl lockMetrics = new SessionLockMetricsImpl();
+
     private final SessionLock NO_OP_LOCK = new SessionLock()
     {
         public void acquireReadLock()
@@ -56,70 +58,6 @@ public class TapestrySessionFactoryImpl implements TapestrySessionFactory
         }
     };
 
-    private class SessionLockImpl implements SessionLock
-    {
-
-        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
-
-        private boolean isReadLocked()
-        {
-            return lock.getReadHoldCount() != 0;
-        }
-
-        private boolean isWriteLocked()
-        {
-            return lock.isWriteLockedByCurrentThread();
-        }
-
-        public void acquireReadLock()
-        {
-            if (isReadLocked() || isWriteLocked())
-            {
-                return;
-            }
-
-            lock.readLock().lock();
-
-            perthreadManager.addThreadCleanupCallback(new Runnable()
-            {
-                public void run()
-                {
-                    // The read lock may have been released, if upgraded to a write lock.
-                    if (isReadLocked())
-                    {
-                        lock.readLock().unlock();
-                    }
-                }
-            });
-        }
-
-        public void acquireWriteLock()
-        {
-            if (isWriteLocked())
-            {
-                return;
-            }
-
-            if (isReadLocked())
-            {
-                lock.readLock().unlock();
-            }
-
-            // During this window, no lock is held, and the next call may block.
-
-            lock.writeLock().lock();
-
-            perthreadManager.addThreadCleanupCallback(new Runnable()
-            {
-                public void run()
-                {
-                    // This is the only way a write lock is unlocked, so no check is needed.
-                    lock.writeLock().unlock();
-                }
-            });
-        }
-    }
-
     public TapestrySessionFactoryImpl(
             @Symbol(TapestryHttpSymbolConstants.CLUSTERED_SESSIONS)
             boolean clustered,
@@ -155,6 +93,11 @@ public class TapestrySessionFactoryImpl implements TapestrySessionFactory
         return new SessionImpl(request, httpSession, lock);
     }
 
+    public SessionLockMetrics getLockMetrics()
+    {
+        return lockMetrics;
+    }
+
     private SessionLock lockForSession(HttpSession session)
     {
         if (!sessionLockingEnabled)
@@ -172,7 +115,7 @@ public class TapestrySessionFactoryImpl implements TapestrySessionFactory
 
             if (result == null)
             {
-                result = new SessionLockImpl();
+                result = new StripedSessionLock(perthreadManager, lockMetrics);
                 sessionToLock.put(session, result);
             }
 
@@ -36,6 +36,7 @@ import org.apache.tapestry5.http.internal.TypeCoercerHttpRequestBodyConverter;
 import org.apache.tapestry5.http.internal.gzip.GZipFilter;
 import org.apache.tapestry5.http.internal.services.ApplicationGlobalsImpl;
 import org.apache.tapestry5.http.internal.services.AsyncRequestServiceImpl;
+import org.apache.tapestry5.http.internal.services.AsyncRequestSupportImpl;
 import org.apache.tapestry5.http.internal.services.BaseURLSourceImpl;
 import org.apache.tapestry5.http.internal.services.ContextImpl;
 import org.apache.tapestry5.http.internal.services.CorsHandlerHelperImpl;
@@ -52,6 +53,7 @@ import org.apache.tapestry5.http.internal.services.TapestrySessionFactoryImpl;
 import org.apache.tapestry5.http.services.ApplicationGlobals;
 import org.apache.tapestry5.http.services.ApplicationInitializer;
 import org.apache.tapestry5.http.services.ApplicationInitializerFilter;
+import org.apache.tapestry5.http.services.AsyncRequestSupport;
 import org.apache.tapestry5.http.services.BaseURLSource;
 import org.apache.tapestry5.http.services.Context;
 import org.apache.tapestry5.http.services.CorsHandler;
@@ -70,6 +72,7 @@ import org.apache.tapestry5.http.services.ResponseCompressionAnalyzer;
 import org.apache.tapestry5.http.services.RestSupport;
 import org.apache.tapestry5.http.services.ServletApplicationInitializer;
 import org.apache.tapestry5.http.services.ServletApplicationInitializerFilter;
+import org.apache.tapestry5.http.services.SessionLockMetrics;
 import org.apache.tapestry5.http.services.SessionPersistedObjectAnalyzer;
 import org.apache.tapestry5.ioc.ServiceBinder;
 import org.apache.tapestry5.ioc.annotations.Autobuild;
@@ -111,6 +114,7 @@ public final class TapestryHttpModule {
         binder.bind(ResponseCompressionAnalyzer.class, ResponseCompressionAnalyzerImpl.class);
         binder.bind(RestSupport.class, RestSupportImpl.class);
         binder.bind(AsyncRequestService.class, AsyncRequestServiceImpl.class);
+        binder.bind(AsyncRequestSupport.class, AsyncRequestSupportImpl.class);
         binder.bind(CorsHandlerHelper.class, CorsHandlerHelperImpl.class);
         binder.bind(CorsHttpServletRequestFilter.class);
     }
@@ -135,6 +139,8 @@ public final class TapestryHttpModule {
         configuration.add(TapestryHttpSymbolConstants.CORS_ALLOW_METHODS, "GET,HEAD,PUT,PATCH,POST,DELETE");
         configuration.add(TapestryHttpSymbolConstants.CORS_ALLOWED_HEADERS, "");
         configuration.add(TapestryHttpSymbolConstants.CORS_EXPOSE_HEADERS, "");
+
+        configuration.add(TapestryHttpSymbolConstants.ASYNC_REQUEST_TIMEOUT, "30 s");
         
         // The default values denote "use values from request"
         configuration.add(TapestryHttpSymbolConstants.HOSTNAME, "");
@@ -191,6 +197,16 @@ public final class TapestryHttpModule {
         return chainBuilder.build(Dispatcher.class, configuration);
     }
     
+    /**
+     * Exposes the statistics of the session locks managed by the {@link TapestrySessionFactory}.
+     *
+     * @since 5.10
+     */
+    public static SessionLockMetrics buildSessionLockMetrics(TapestrySessionFactory sessionFactory)
+    {
+        return sessionFactory.getLockMetrics();
+    }
+
     /**
      * The master SessionPersistedObjectAnalyzer.
      *
@@ -0,0 +1,41 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.apache.tapestry5.http.services;
+
+import java.io.IOException;
+
+/**
+ * Completes the processing of a request {@linkplain AsyncRequestSupport#suspend(java.util.concurrent.CompletionStage,
+ * AsyncContinuation) suspended} until a {@link java.util.concurrent.CompletionStage} completes.
+ *
+ * @param <T>
+ *         type of value produced by the stage
+ * @since 5.10
+ */
+@FunctionalInterface
+public interface AsyncContinuation<T>
+{
+    /**
+     * Invoked once the stage completes (or the request times out, or fails), with the per-thread state of the request
+     * (including {@link RequestGlobals}) restored.
+     *
+     * @param result
+     *         the value produced by the stage, or null if it failed
+     * @param failure
+     *         the exception that caused the stage to fail (unwrapped from any
+     *         {@link java.util.concurrent.CompletionException}), a {@link java.util.concurrent.TimeoutException} if
+     *         the request timed out first, the error reported by the container if the request failed first (for
+     *         instance, because the client went away), or null
+     */
+    void resume(T result, Throwable failure) throws IOException;
+}
@@ -0,0 +1,64 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.apache.tapestry5.http.services;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Allows the processing of the current request to be suspended until a {@link CompletionStage} completes, so that
+ * waiting on a slow back end does not hold a servlet container thread. A {@link Dispatcher}, or a component event
+ * handler method returning a CompletionStage, suspends the request and returns as if the request had been handled.
+ * Once the synchronous processing of the request is over, the {@link org.apache.tapestry5.http.TapestryFilter}
+ * starts asynchronous processing (through {@link jakarta.servlet.AsyncContext}), and the per-thread state of the
+ * request is set aside; when the stage completes, the continuation is invoked on a container thread with that state
+ * restored, then the request is completed.
+ *
+ * This requires the servlet container to support asynchronous processing for the request (the filter must be
+ * configured with <code>async-supported</code>).
+ *
+ * @see org.apache.tapestry5.http.TapestryHttpSymbolConstants#ASYNC_REQUEST_TIMEOUT
+ * @since 5.10
+ */
+public interface AsyncRequestSupport
+{
+    /**
+     * Returns true if the current request can be suspended: the servlet request supports asynchronous processing,
+     * and the {@link org.apache.tapestry5.ioc.services.PerthreadManager} is able to
+     * {@linkplain org.apache.tapestry5.ioc.services.PerthreadManager#detach(org.apache.tapestry5.ioc.Invokable) detach}
+     * the per-thread data of the request.
+     */
+    boolean isAsyncSupported();
+
+    /**
+     * Suspends the current request until the stage completes, then invokes the continuation to complete the
+     * response.
+     *
+     * @throws IllegalStateException
+     *         if the request can not be suspended, or has already been suspended
+     */
+    <T> void suspend(CompletionStage<T> stage, AsyncContinuation<T> continuation);
+
+    /**
+     * Returns true if the current request has been suspended.
+     */
+    boolean isSuspended();
+
+    /**
+     * Adds an action to be run once the continuation of the suspended request has been invoked, just before the
+     * request is completed. This is how processing that normally takes place at the end of the request is deferred.
+     *
+     * @throws IllegalStateException
+     *         if the current request has not been suspended
+     */
+    void afterResumption(Runnable action);
+}
@@ -0,0 +1,43 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.apache.tapestry5.http.services;
+
+/**
+ * Statistics about the session locks acquired while processing requests, used to measure contention between
+ * simultaneous requests from the same client. The values accumulate from application startup.
+ *
+ * @see org.apache.tapestry5.http.TapestryHttpSymbolConstants#SESSION_LOCKING_ENABLED
+ * @since 5.10
+ */
+public interface SessionLockMetrics
+{
+    /**
+     * Returns the number of locks acquired.
+     */
+    long getAcquisitionCount();
+
+    /**
+     * Returns the number of locks that could not be acquired immediately, because another request held them.
+     */
+    long getContendedCount();
+
+    /**
+     * Returns the total time spent waiting on locks, in nanoseconds.
+     */
+    long getTotalWaitNanos();
+
+    /**
+     * Returns the longest time spent waiting on a single lock, in nanoseconds.
+     */
+    long getMaxWaitNanos();
+}
@@ -0,0 +1,125 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.apache.tapestry5.http.internal.services;
+
+import java.util.concurrent.CompletableFuture;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import org.apache.tapestry5.http.services.AsyncRequestSupport;
+import org.apache.tapestry5.http.services.RequestGlobals;
+import org.apache.tapestry5.ioc.internal.services.PerthreadManagerImpl;
+import org.apache.tapestry5.ioc.services.PerthreadManager;
+import org.easymock.EasyMock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Test suite for {@link AsyncRequestSupportImpl}.
+ */
+public class AsyncRequestSupportImplTest
+{
+    private final Logger logger = LoggerFactory.getLogger(AsyncRequestSupportImpl.class);
+
+    private AsyncRequestSupport create(HttpServletRequest request, PerthreadManager perthreadManager)
+    {
+        RequestGlobals requestGlobals = EasyMock.createMock(RequestGlobals.class);
+
+        EasyMock.expect(requestGlobals.getHTTPServletRequest()).andReturn(request).anyTimes();
+
+        EasyMock.replay(requestGlobals);
+
+        return new AsyncRequestSupportImpl(requestGlobals, perthreadManager, logger, 1000L);
+    }
+
+    @Test
+    public void suspend_stores_suspended_request()
+    {
+        HttpServletRequest request = EasyMock.createMock(HttpServletRequest.class);
+
+        EasyMock.expect(request.isAsyncSupported()).andReturn(true).anyTimes();
+        EasyMock.expect(request.getAttribute(SuspendedRequest.ATTRIBUTE)).andReturn(null);
+        request.setAttribute(EasyMock.eq(SuspendedRequest.ATTRIBUTE), EasyMock.isA(SuspendedRequest.class));
+
+        EasyMock.replay(request);
+
+        AsyncRequestSupport support = create(request, new PerthreadManagerImpl(logger));
+
+        Assert.assertTrue(support.isAsyncSupported());
+
+        support.suspend(new CompletableFuture<String>(), (result, failure) -> {
+        });
+
+        EasyMock.verify(request);
+    }
+
+    @Test
+    public void suspend_refused_when_request_is_not_asynchronous()
+    {
+        HttpServletRequest request = EasyMock.createMock(HttpServletRequest.class);
+
+        EasyMock.expect(request.isAsyncSupported()).andReturn(false).anyTimes();
+
+        EasyMock.replay(request);
+
+        AsyncRequestSupport support = create(request, new PerthreadManagerImpl(logger));
+
+        Assert.assertFalse(support.isAsyncSupported());
+
+        try
+        {
+            support.suspend(new CompletableFuture<String>(), (result, failure) -> {
+            });
+
+            Assert.fail("Unreachable code.");
+        } catch (IllegalStateException ex)
+        {
+            Assert.assertEquals(ex.getMessage(), "Asynchronous processing is not supported for the current request.");
+        }
+
+        EasyMock.verify(request);
+    }
+
+    @Test
+    public void suspend_refused_when_per_thread_data_can_not_be_detached()
+    {
+        HttpServletRequest request = EasyMock.createMock(HttpServletRequest.class);
+        PerthreadManager perthreadManager = EasyMock.createMock(PerthreadManager.class);
+
+        EasyMock.expect(request.isAsyncSupported()).andReturn(true).anyTimes();
+        EasyMock.expect(perthreadManager.isDetachSupported()).andReturn(false).anyTimes();
+
+        EasyMock.replay(request, perthreadManager);
+
+        AsyncRequestSupport support = create(request, perthreadManager);
+
+        Assert.assertFalse(support.isAsyncSupported());
+
+        try
+        {
+            support.suspend(new CompletableFuture<String>(), (result, failure) -> {
+            });
+
+            Assert.fail("Unreachable code.");
+        } catch (IllegalStateException ex)
+        {
+            Assert.assertTrue(ex.getMessage().contains("can not detach the per-thread data of a request"));
+        }
+
+        // Nothing was stored, so the filter completes the request normally.
+
+        EasyMock.verify(request, perthreadManager);
+    }
+}
@@ -0,0 +1,332 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.apache.tapestry5.http.internal.services;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.tapestry5.ioc.internal.services.PerthreadManagerImpl;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Test suite for {@link StripedSessionLock}.
+ */
+public class StripedSessionLockTest
+{
+    private PerthreadManagerImpl perthreadManager;
+
+    private SessionLockMetricsImpl metrics;
+
+    private StripedSessionLock lock;
+
+    private ExecutorService executor;
+
+    @BeforeMethod
+    public void setup()
+    {
+        perthreadManager = new PerthreadManagerImpl(LoggerFactory.getLogger(PerthreadManagerImpl.class));
+        metrics = new SessionLockMetricsImpl();
+        lock = new StripedSessionLock(perthreadManager, metrics);
+        executor = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterMethod
+    public void cleanup()
+    {
+        perthreadManager.cleanup();
+        executor.shutdownNow();
+    }
+
+    private static String nameOnStripe(int stripe)
+    {
+        for (int i = 0; ; i++)
+        {
+            String name = "attribute" + i;
+
+            if (StripedSessionLock.stripeFor(name) == stripe)
+            {
+                return name;
+            }
+        }
+    }
+
+    @Test
+    public void attributes_on_different_stripes_do_not_block() throws Exception
+    {
+        lock.acquireWriteLock(nameOnStripe(3));
+
+        Future<?> other = executor.submit(() -> {
+            lock.acquireWriteLock(nameOnStripe(4));
+            perthreadManager.cleanup();
+        });
+
+        other.get(5, TimeUnit.SECONDS);
+
+        Assert.assertEquals(metrics.getContendedCount(), 0);
+    }
+
+    @Test
+    public void write_lock_blocks_until_end_of_request() throws Exception
+    {
+        final String name = nameOnStripe(7);
+
+        lock.acquireReadLock(name);
+        lock.acquireWriteLock(name);
+
+        Future<?> other = executor.submit(() -> {
+            lock.acquireReadLock(name);
+            perthreadManager.cleanup();
+        });
+
+        try
+        {
+            other.get(200, TimeUnit.MILLISECONDS);
+            Assert.fail("Read lock acquired while write lock held.");
+        } catch (TimeoutException ex)
+        {
+            // Expected
+        }
+
+        perthreadManager.cleanup();
+
+        other.get(5, TimeUnit.SECONDS);
+
+        Assert.assertEquals(metrics.getContendedCount(), 1);
+        Assert.assertTrue(metrics.getTotalWaitNanos() > 0);
+    }
+
+    @Test
+    public void reading_attribute_names_locks_every_stripe() throws Exception
+    {
+        lock.acquireReadLock();
+
+        Future<?> other = executor.submit(() -> {
+            lock.acquireWriteLock(nameOnStripe(11));
+            perthreadManager.cleanup();
+        });
+
+        try
+        {
+            other.get(200, TimeUnit.MILLISECONDS);
+            Assert.fail("Write lock acquired while session read locked.");
+        } catch (TimeoutException ex)
+        {
+            // Expected
+        }
+
+        perthreadManager.cleanup();
+
+        other.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void stripes_acquired_out_of_order_do_not_deadlock() throws Exception
+    {
+        final String low = nameOnStripe(0);
+        final String high = nameOnStripe(15);
+
+        int requests = 1000;
+
+        final CountDownLatch latch = new CountDownLatch(requests);
+
+        for (int i = 0; i < requests; i++)
+        {
+            final boolean reversed = i % 2 == 0;
+
+            executor.execute(() -> {
+                try
+                {
+                    lock.acquireReadLock(reversed ? high : low);
+                    lock.acquireWriteLock(reversed ? low : high);
+                    lock.acquireWriteLock(reversed ? high : low);
+                } catch (IllegalStateException ex)
+                {
+                    // Both requests hold a write lock the other needs: one of them fails, rather than deadlocking
+                } finally
+                {
+                    perthreadManager.cleanup();
+                    latch.countDown();
+                }
+            });
+        }
+
+        Assert.assertTrue(latch.await(30, TimeUnit.SECONDS), "Requests deadlocked.");
+    }
+
+    /**
+     * Runs a request on a pool thread: a first step, then a second once released, then the end of the request once
+     * released again.
+     */
+    private Future<?> request(Runnable first, CountDownLatch firstDone, Runnable second, CountDownLatch end)
+    {
+        return executor.submit(() -> {
+            try
+            {
+                first.run();
+                firstDone.countDown();
+                second.run();
+                end.await();
+            } catch (InterruptedException ex)
+            {
+                throw new RuntimeException(ex);
+            } finally
+            {
+                perthreadManager.cleanup();
+            }
+            return null;
+        });
+    }
+
+    private static void assertBlocked(Future<?> future) throws Exception
+    {
+        try
+        {
+            future.get(200, TimeUnit.MILLISECONDS);
+            Assert.fail("Lock acquired while held by another request.");
+        } catch (TimeoutException ex)
+        {
+            // Expected
+        }
+    }
+
+    @Test
+    public void write_locked_stripe_kept_while_waiting_for_lower_stripe() throws Exception
+    {
+        final String low = nameOnStripe(2);
+        final String high = nameOnStripe(13);
+
+        // Another request holds the low stripe
+
+        CountDownLatch lowLocked = new CountDownLatch(1);
+        CountDownLatch releaseLow = new CountDownLatch(1);
+
+        Future<?> lowHolder = request(() -> lock.acquireWriteLock(low), lowLocked, () -> {}, releaseLow);
+
+        lowLocked.await();
+
+        // The request writes the high attribute, then waits for the low one
+
+        CountDownLatch highLocked = new CountDownLatch(1);
+        CountDownLatch endRequest = new CountDownLatch(1);
+
+        Future<?> request = request(() -> lock.acquireWriteLock(high), highLocked, () -> lock.acquireWriteLock(low),
+                endRequest);
+
+        highLocked.await();
+
+        assertBlocked(request);
+
+        // While it waits, a third request writes the same high attribute: it must wait for the end of the request
+
+        Future<?> writer = executor.submit(() -> {
+            lock.acquireWriteLock(high);
+            perthreadManager.cleanup();
+        });
+
+        assertBlocked(writer);
+
+        releaseLow.countDown();
+        lowHolder.get(5, TimeUnit.SECONDS);
+
+        assertBlocked(writer);
+
+        endRequest.countDown();
+        request.get(5, TimeUnit.SECONDS);
+        writer.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void request_holding_read_locks_yields_to_break_deadlock() throws Exception
+    {
+        final String low = nameOnStripe(5);
+        final String high = nameOnStripe(9);
+
+        CountDownLatch readerLocked = new CountDownLatch(1);
+        CountDownLatch writerLocked = new CountDownLatch(1);
+        CountDownLatch end = new CountDownLatch(1);
+
+        Future<?> reader = request(() -> lock.acquireReadLock(low), readerLocked, () -> {
+            await(writerLocked);
+            lock.acquireReadLock(high);
+        }, end);
+
+        readerLocked.await();
+
+        Future<?> writer = request(() -> lock.acquireWriteLock(high), writerLocked,
+                () -> lock.acquireWriteLock(low), end);
+
+        // The reader waits for the high stripe, the writer for the low one: the reader releases the low stripe
+
+        end.countDown();
+
+        writer.get(5, TimeUnit.SECONDS);
+        reader.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void most_recent_request_fails_when_writers_deadlock() throws Exception
+    {
+        final String low = nameOnStripe(1);
+        final String high = nameOnStripe(14);
+
+        CountDownLatch firstLocked = new CountDownLatch(1);
+        CountDownLatch secondLocked = new CountDownLatch(1);
+        CountDownLatch end = new CountDownLatch(1);
+
+        Future<?> first = request(() -> lock.acquireWriteLock(high), firstLocked, () -> {
+            await(secondLocked);
+            lock.acquireWriteLock(low);
+        }, end);
+
+        firstLocked.await();
+
+        Future<?> second = request(() -> lock.acquireWriteLock(low), secondLocked,
+                () -> lock.acquireWriteLock(high), end);
+
+        try
+        {
+            second.get(5, TimeUnit.SECONDS);
+            Assert.fail("Deadlock not detected.");
+        } catch (ExecutionException ex)
+        {
+            Assert.assertTrue(ex.getCause() instanceof IllegalStateException);
+            Assert.assertTrue(ex.getCause().getMessage().startsWith("Deadlock on session attributes"));
+        }
+
+        // The first request keeps its write lock, and gets the low stripe once the second request has ended
+
+        end.countDown();
+
+        first.get(5, TimeUnit.SECONDS);
+    }
+
+    private static void await(CountDownLatch latch)
+    {
+        try
+        {
+            latch.await();
+        } catch (InterruptedException ex)
+        {
+            throw new RuntimeException(ex);
+        }
+    }
+}
@@ -0,0 +1,228 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.apache.tapestry5.http.internal.services;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.apache.tapestry5.ioc.internal.services.PerthreadManagerImpl;
+import org.apache.tapestry5.ioc.services.PerThreadValue;
+import org.easymock.Capture;
+import org.easymock.EasyMock;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Test suite for {@link SuspendedRequest}.
+ */
+public class SuspendedRequestTest
+{
+    private PerthreadManagerImpl perthreadManager;
+
+    private PerThreadValue<String> value;
+
+    private List<String> events;
+
+    private ServletRequest request;
+
+    private AsyncContext asyncContext;
+
+    private Capture<AsyncListener> listener;
+
+    private Capture<Runnable> started;
+
+    @BeforeMethod
+    public void setup()
+    {
+        perthreadManager = new PerthreadManagerImpl(LoggerFactory.getLogger(PerthreadManagerImpl.class));
+        value = perthreadManager.createValue();
+        events = new ArrayList<>();
+
+        request = EasyMock.createMock(ServletRequest.class);
+        asyncContext = EasyMock.createMock(AsyncContext.class);
+        listener = EasyMock.newCapture();
+        started = EasyMock.newCapture();
+
+        EasyMock.expect(request.isAsyncStarted()).andReturn(false);
+        EasyMock.expect(request.startAsync()).andReturn(asyncContext);
+        asyncContext.setTimeout(1000L);
+        asyncContext.addListener(EasyMock.capture(listener));
+    }
+
+    @AfterMethod
+    public void cleanup()
+    {
+        perthreadManager.cleanup();
+    }
+
+    /**
+     * Suspends a request, as the filter does at the end of the request: the per-thread value and cleanup callback
+     * belong to the request, and the thread is cleaned up once the request has been started.
+     */
+    private void suspend(CompletableFuture<String> stage)
+    {
+        SuspendedRequest<String> suspended = new SuspendedRequest<>(stage,
+                (result, failure) -> events.add(String.format("resumed %s %s %s", result,
+                        failure == null ? null : failure.getClass().getSimpleName(), value.get())),
+                perthreadManager, LoggerFactory.getLogger(SuspendedRequest.class), 1000L);
+
+        suspended.afterResumption(() -> events.add("after resumption"));
+
+        value.set("request data");
+        perthreadManager.addThreadCleanupCallback(() -> events.add("cleanup"));
+
+        suspended.start(request);
+
+        perthreadManager.cleanup();
+    }
+
+    @Test
+    public void continuation_invoked_on_container_thread_when_stage_completes()
+    {
+        asyncContext.start(EasyMock.capture(started));
+        asyncContext.complete();
+
+        EasyMock.replay(request, asyncContext);
+
+        CompletableFuture<String> stage = new CompletableFuture<>();
+
+        suspend(stage);
+
+        Assert.assertTrue(events.isEmpty(), "Detached data cleaned up with the thread.");
+
+        stage.complete("done");
+
+        Assert.assertTrue(events.isEmpty(), "Continuation invoked before the container thread started.");
+
+        started.getValue().run();
+
+        Assert.assertEquals(events, List.of("resumed done null request data", "after resumption", "cleanup"));
+        Assert.assertNull(value.get());
+
+        EasyMock.verify(request, asyncContext);
+    }
+
+    @Test
+    public void timeout_invokes_continuation_once() throws IOException
+    {
+        asyncContext.complete();
+        asyncContext.start(EasyMock.anyObject(Runnable.class));
+        EasyMock.expectLastCall().andThrow(new IllegalStateException("Request already completed."));
+
+        EasyMock.replay(request, asyncContext);
+
+        CompletableFuture<String> stage = new CompletableFuture<>();
+
+        suspend(stage);
+
+        listener.getValue().onTimeout(new AsyncEvent(asyncContext));
+
+        Assert.assertEquals(events,
+                List.of("resumed null " + TimeoutException.class.getSimpleName() + " request data",
+                        "after resumption", "cleanup"));
+
+        // Completing the stage late does not resume the request again.
+
+        stage.complete("late");
+
+        Assert.assertEquals(events.size(), 3);
+
+        EasyMock.verify(request, asyncContext);
+    }
+
+    @Test
+    public void error_cleans_up_detached_data() throws IOException
+    {
+        asyncContext.complete();
+        EasyMock.expectLastCall().andThrow(new IllegalStateException("Request already completed."));
+
+        EasyMock.replay(request, asyncContext);
+
+        suspend(new CompletableFuture<>());
+
+        listener.getValue().onError(new AsyncEvent(asyncContext, new IOException("Connection reset.")));
+
+        Assert.assertEquals(events,
+                List.of("resumed null IOException request data", "after resumption", "cleanup"));
+
+        EasyMock.verify(request, asyncContext);
+    }
+
+    @Test
+    public void resumed_on_completing_thread_when_container_refuses_to_start()
+    {
+        asyncContext.start(EasyMock.anyObject(Runnable.class));
+        EasyMock.expectLastCall().andThrow(new IllegalStateException("Container is shutting down."));
+        asyncContext.complete();
+
+        EasyMock.replay(request, asyncContext);
+
+        CompletableFuture<String> stage = new CompletableFuture<>();
+
+        suspend(stage);
+
+        stage.complete("done");
+
+        Assert.assertEquals(events, List.of("resumed done null request data", "after resumption", "cleanup"));
+
+        EasyMock.verify(request, asyncContext);
+    }
+
+    @Test
+    public void failed_continuation_sends_error() throws IOException
+    {
+        HttpServletResponse response = EasyMock.createMock(HttpServletResponse.class);
+
+        asyncContext.start(EasyMock.capture(started));
+        EasyMock.expect(asyncContext.getResponse()).andReturn(response);
+        EasyMock.expect(response.isCommitted()).andReturn(false);
+        response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        asyncContext.complete();
+
+        EasyMock.replay(request, asyncContext, response);
+
+        CompletableFuture<String> stage = new CompletableFuture<>();
+
+        SuspendedRequest<String> suspended = new SuspendedRequest<>(stage,
+                (result, failure) -> {
+                    throw new IOException("Unable to render.");
+                },
+                perthreadManager, LoggerFactory.getLogger(SuspendedRequest.class), 1000L);
+
+        perthreadManager.addThreadCleanupCallback(() -> events.add("cleanup"));
+
+        suspended.start(request);
+
+        perthreadManager.cleanup();
+
+        stage.complete("done");
+
+        started.getValue().run();
+
+        Assert.assertEquals(events, List.of("cleanup"));
+
+        EasyMock.verify(request, asyncContext, response);
+    }
+}
@@ -27,4 +27,49 @@ public class IOCConstants
      * @since 5.2.2
      */
     public static final String SERVICE_CLASS_RELOADING_ENABLED = "tapestry.service-reloading-enabled";
+
+    /**
+     * Name of a JVM System Property (not a configuration symbol, as the
+     * {@link org.apache.tapestry5.ioc.services.PerthreadManager} is created before any symbol can be read) that, when
+     * "true", stores per-thread data in an explicit request context that is propagated to work handed off to the
+     * {@link org.apache.tapestry5.ioc.services.ParallelExecutor}, instead of in a map per thread. The default is "false".
+     *
+     * @since 5.10
+     */
+    public static final String PERTHREAD_REQUEST_CONTEXT = "tapestry.perthread-request-context";
+
+    /**
+     * Name of a JVM System Property (not a configuration symbol, as the
+     * {@link org.apache.tapestry5.ioc.OperationTracker} is created before any symbol can be read) that sets the
+     * fraction, from 0 to 1, of outermost operations whose timings (and those of the operations nested within them)
+     * are recorded by the {@link org.apache.tapestry5.ioc.services.OperationSpanRecorder}. The default is 0, which
+     * disables recording.
+     *
+     * @since 5.10
+     */
+    public static final String OPERATION_TRACE_SAMPLE_RATE = "tapestry.operation-trace-sample-rate";
+
+    /**
+     * Name of a JVM System Property that sets the number of spans kept by the
+     * {@link org.apache.tapestry5.ioc.services.OperationSpanRecorder} between drains; older spans are discarded. The
+     * default is 1024.
+     *
+     * @since 5.10
+     */
+    public static final String OPERATION_TRACE_BUFFER_SIZE = "tapestry.operation-trace-buffer-size";
+
+    /**
+     * Name of a JVM System Property that sets the number of threads used to eager load services and invoke
+     * {@link org.apache.tapestry5.ioc.annotations.Startup} methods at {@linkplain Registry#performRegistryStartup()
+     * registry startup}. It is not a configuration symbol, as reading a symbol would realize the
+     * {@link org.apache.tapestry5.ioc.services.SymbolSource} ahead of the services being eager loaded. The default is 1:
+     * services are eager loaded, then startup methods invoked, one at a time on the thread starting the registry. With
+     * more threads, a timing report of startup is logged at info level.
+     *
+     * The contributions to the RegistryStartup service are always run in order, on the thread starting the registry,
+     * once all services have been eager loaded and startup methods invoked.
+     *
+     * @since 5.10
+     */
+    public static final String REGISTRY_STARTUP_THREADS = "tapestry.registry-startup-threads";
 }
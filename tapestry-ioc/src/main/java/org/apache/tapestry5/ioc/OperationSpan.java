@@ -0,0 +1,112 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.apache.tapestry5.ioc;
+
+/**
+ * The timing of a single operation tracked by the {@link OperationTracker}, as recorded by the
+ * {@link org.apache.tapestry5.ioc.services.OperationSpanRecorder}. Operations nested inside one another (in the same
+ * thread) share a trace id, and refer to the enclosing operation as their parent; this matches the model of most
+ * distributed tracing systems, to which spans may be exported.
+ *
+ * @since 5.10
+ */
+public final class OperationSpan
+{
+    private final long traceId, spanId, parentSpanId;
+
+    private final String description;
+
+    private final String threadName;
+
+    private final long startTimeNanos, durationNanos;
+
+    private final boolean failed;
+
+    public OperationSpan(long traceId, long spanId, long parentSpanId, String description, String threadName,
+                         long startTimeNanos, long durationNanos, boolean failed)
+    {
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.description = description;
+        this.threadName = threadName;
+        this.startTimeNanos = startTimeNanos;
+        this.durationNanos = durationNanos;
+        this.failed = failed;
+    }
+
+    /**
+     * Identifies the outermost operation, and all the operations nested within it.
+     */
+    public long getTraceId()
+    {
+        return traceId;
+    }
+
+    /**
+     * Identifies this operation.
+     */
+    public long getSpanId()
+    {
+        return spanId;
+    }
+
+    /**
+     * Returns the span id of the enclosing operation, or 0 for the outermost operation.
+     */
+    public long getParentSpanId()
+    {
+        return parentSpanId;
+    }
+
+    public String getDescription()
+    {
+        return description;
+    }
+
+    /**
+     * Returns the name of the thread that executed the operation.
+     */
+    public String getThreadName()
+    {
+        return threadName;
+    }
+
+    /**
+     * Returns the time the operation started, in nanoseconds since the epoch.
+     */
+    public long getStartTimeNanos()
+    {
+        return startTimeNanos;
+    }
+
+    public long getDurationNanos()
+    {
+        return durationNanos;
+    }
+
+    /**
+     * Returns true if the operation threw an exception.
+     */
+    public boolean isFailed()
+    {
+        return failed;
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("OperationSpan[%d/%d <- %d: %s (%,.2f ms)%s]", traceId, spanId, parentSpanId,
+                description, durationNanos / 1000000.d, failed ? " failed" : "");
+    }
+}
@@ -19,10 +19,16 @@ import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
+import java.util.function.Supplier;
 
 /**
  * Used to track some set of operations in such a way that a failure (a thrown RuntimeException) will be logged along
  * with a trace of the stack of operations.
+ *
+ * Each method has a variant taking a {@link Supplier} of the description, which is only invoked when the description
+ * is needed (when debug logging is enabled, the operation fails, or its timing is
+ * {@linkplain org.apache.tapestry5.ioc.services.OperationSpanRecorder recorded}). This avoids formatting a description
+ * for every operation, when operations usually succeed.
  */
 public interface OperationTracker
 {
@@ -59,6 +65,50 @@ public interface OperationTracker
      * @since 5.4
      */
     <T> T perform(String description, IOOperation<T> operation) throws IOException;
+
+    /**
+     * As with {@link #run(String, Runnable)}, but the description is only built when needed.
+     *
+     * @param description
+     *         provides the description, if there is an exception
+     * @param operation
+     *         to execute
+     * @since 5.10
+     */
+    default void run(Supplier<String> description, Runnable operation)
+    {
+        run(description.get(), operation);
+    }
+
+    /**
+     * As with {@link #invoke(String, Invokable)}, but the description is only built when needed.
+     *
+     * @param description
+     *         provides the description, if there is an exception
+     * @param operation
+     *         to invoke
+     * @return result of operation
+     * @since 5.10
+     */
+    default <T> T invoke(Supplier<String> description, Invokable<T> operation)
+    {
+        return invoke(description.get(), operation);
+    }
+
+    /**
+     * As with {@link #perform(String, IOOperation)}, but the description is only built when needed.
+     *
+     * @param description
+     *         provides the description, if there is an exception (outside of IOException)
+     * @param operation
+     *         to perform
+     * @return result of operation
+     * @since 5.10
+     */
+    default <T> T perform(Supplier<String> description, IOOperation<T> operation) throws IOException
+    {
+        return perform(description.get(), operation);
+    }
     
     /**
      * Annotation to be be used in exception classes whose instances are not meant to be 
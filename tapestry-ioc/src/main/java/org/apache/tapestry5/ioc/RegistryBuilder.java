@@ -23,6 +23,7 @@ import org.apache.tapestry5.ioc.def.ModuleDef;
 import org.apache.tapestry5.ioc.def.ModuleDef2;
 import org.apache.tapestry5.ioc.internal.DefaultModuleDefImpl;
 import org.apache.tapestry5.ioc.internal.LoggerSourceImpl;
+import org.apache.tapestry5.ioc.internal.OperationSpanRecorderImpl;
 import org.apache.tapestry5.ioc.internal.PerThreadOperationTracker;
 import org.apache.tapestry5.ioc.internal.RegistryImpl;
 import org.apache.tapestry5.ioc.internal.RegistryWrapper;
@@ -181,9 +182,12 @@ public final class RegistryBuilder
     {
         lock.lock();
 
-        PerThreadOperationTracker tracker = new PerThreadOperationTracker(loggerSource.getLogger(Registry.class));
+        OperationSpanRecorderImpl spanRecorder = OperationSpanRecorderImpl.fromSystemProperties();
 
-        RegistryImpl registry = new RegistryImpl(modules, proxyFactory, loggerSource, tracker);
+        PerThreadOperationTracker tracker = new PerThreadOperationTracker(loggerSource.getLogger(Registry.class),
+                spanRecorder.isEnabled() ? spanRecorder : null);
+
+        RegistryImpl registry = new RegistryImpl(modules, proxyFactory, loggerSource, tracker, spanRecorder);
 
         return new RegistryWrapper(registry);
     }
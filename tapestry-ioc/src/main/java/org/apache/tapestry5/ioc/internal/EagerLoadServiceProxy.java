@@ -21,4 +21,11 @@ package org.apache.tapestry5.ioc.internal;
 public interface EagerLoadServiceProxy
 {
     void eagerLoadService();
+
+    /**
+     * Returns the id of the service.
+     *
+     * @since 5.10
+     */
+    String getServiceId();
 }
@@ -0,0 +1,120 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.apache.tapestry5.ioc.internal;
+
+import org.apache.tapestry5.ioc.IOCConstants;
+import org.apache.tapestry5.ioc.OperationSpan;
+import org.apache.tapestry5.ioc.services.OperationSpanRecorder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the most recent spans in a ring buffer. Only sampled operations are recorded, so a simple lock is used.
+ */
+public class OperationSpanRecorderImpl implements OperationSpanRecorder
+{
+    private final double sampleRate;
+
+    private final AtomicLong ids = new AtomicLong();
+
+    private final OperationSpan[] spans;
+
+    private int next, size;
+
+    /**
+     * @param sampleRate
+     *         fraction of outermost operations to record, from 0 (none) to 1 (all)
+     * @param capacity
+     *         number of spans kept between drains
+     */
+    public OperationSpanRecorderImpl(double sampleRate, int capacity)
+    {
+        assert capacity > 0;
+
+        this.sampleRate = sampleRate;
+
+        spans = new OperationSpan[capacity];
+    }
+
+    /**
+     * Creates an instance configured from the {@link IOCConstants#OPERATION_TRACE_SAMPLE_RATE} and
+     * {@link IOCConstants#OPERATION_TRACE_BUFFER_SIZE} JVM System Properties.
+     */
+    public static OperationSpanRecorderImpl fromSystemProperties()
+    {
+        return new OperationSpanRecorderImpl(
+                Double.parseDouble(System.getProperty(IOCConstants.OPERATION_TRACE_SAMPLE_RATE, "0")),
+                Integer.getInteger(IOCConstants.OPERATION_TRACE_BUFFER_SIZE, 1024));
+    }
+
+    @Override
+    public boolean isEnabled()
+    {
+        return sampleRate > 0;
+    }
+
+    /**
+     * Decides if the operation starting now, and those nested within it, should be recorded.
+     */
+    boolean sample()
+    {
+        return sampleRate >= 1 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    long nextId()
+    {
+        return ids.incrementAndGet();
+    }
+
+    synchronized void record(OperationSpan span)
+    {
+        spans[next] = span;
+
+        next = (next + 1) % spans.length;
+
+        if (size < spans.length)
+        {
+            size++;
+        }
+    }
+
+    @Override
+    public synchronized List<OperationSpan> drain()
+    {
+        if (size == 0)
+        {
+            return Collections.emptyList();
+        }
+
+        List<OperationSpan> result = new ArrayList<>(size);
+
+        int first = (next - size + spans.length) % spans.length;
+
+        for (int i = 0; i < size; i++)
+        {
+            int index = (first + i) % spans.length;
+
+            result.add(spans[index]);
+
+            spans[index] = null;
+        }
+
+        size = 0;
+
+        return result;
+    }
+}
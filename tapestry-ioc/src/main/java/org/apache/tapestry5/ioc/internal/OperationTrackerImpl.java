@@ -19,43 +19,116 @@ import org.apache.tapestry5.commons.util.ExceptionUtils;
 import org.apache.tapestry5.commons.util.Stack;
 import org.apache.tapestry5.ioc.IOOperation;
 import org.apache.tapestry5.ioc.Invokable;
+import org.apache.tapestry5.ioc.OperationSpan;
 import org.apache.tapestry5.ioc.OperationTracker;
 import org.apache.tapestry5.ioc.internal.util.InternalUtils;
 import org.slf4j.Logger;
 
 import java.io.IOException;
+import java.util.function.Supplier;
 
 /**
  * Core implementation that manages a logger and catches and reports exception.
  *
+ * Descriptions are kept on the stack as provided (a String or a Supplier), and are only built when debug logging is
+ * enabled, an operation fails, or the operation is sampled by the {@link OperationSpanRecorderImpl}.
+ *
  * @see org.apache.tapestry5.ioc.internal.PerThreadOperationTracker
  */
 public class OperationTrackerImpl implements OperationTracker
 {
     private final Logger logger;
 
-    private final Stack<String> operations = CollectionFactory.newStack();
+    private final OperationSpanRecorderImpl recorder;
+
+    private final Stack<Object> operations = CollectionFactory.newStack();
 
     private boolean logged;
 
+    // Span ids of the operations on the stack, when the outermost operation has been sampled.
+
+    private long[] spanIds;
+
+    private long traceId, traceStartMillis, traceStartNanos;
+
     public OperationTrackerImpl(Logger logger)
+    {
+        this(logger, null);
+    }
+
+    /**
+     * @param logger
+     *         used to log operations and failures
+     * @param recorder
+     *         records the timings of sampled operations, or null
+     * @since 5.10
+     */
+    public OperationTrackerImpl(Logger logger, OperationSpanRecorderImpl recorder)
     {
         this.logger = logger;
+        this.recorder = recorder;
+    }
+
+    @Override
+    public void run(String description, Runnable operation)
+    {
+        assert InternalUtils.isNonBlank(description);
+
+        execute(description, operation);
+    }
+
+    @Override
+    public void run(Supplier<String> description, Runnable operation)
+    {
+        assert description != null;
+
+        execute(description, operation);
     }
 
     @Override
-    public void run(String description, final Runnable operation)
+    public <T> T invoke(String description, Invokable<T> operation)
     {
         assert InternalUtils.isNonBlank(description);
+
+        return execute(description, operation);
+    }
+
+    @Override
+    public <T> T invoke(Supplier<String> description, Invokable<T> operation)
+    {
+        assert description != null;
+
+        return execute(description, operation);
+    }
+
+    @Override
+    public <T> T perform(String description, IOOperation<T> operation) throws IOException
+    {
+        InternalUtils.isNonBlank(description);
+
+        return execute(description, operation);
+    }
+
+    @Override
+    public <T> T perform(Supplier<String> description, IOOperation<T> operation) throws IOException
+    {
+        assert description != null;
+
+        return execute(description, operation);
+    }
+
+    private void execute(Object description, Runnable operation)
+    {
         assert operation != null;
 
         long startNanos = start(description);
+        boolean completed = false;
 
         try
         {
             operation.run();
 
-            finish(description, startNanos);
+            completed = true;
 
         } catch (RuntimeException ex)
         {
@@ -65,23 +138,22 @@ public class OperationTrackerImpl implements OperationTracker
             handleError(ex);
         } finally
         {
-            handleFinally();
+            finish(startNanos, completed);
         }
     }
 
-    @Override
-    public <T> T invoke(String description, Invokable<T> operation)
+    private <T> T execute(Object description, Invokable<T> operation)
     {
-        assert InternalUtils.isNonBlank(description);
         assert operation != null;
 
         long startNanos = start(description);
+        boolean completed = false;
 
         try
         {
             T result = operation.invoke();
 
-            finish(description, startNanos);
+            completed = true;
 
             return result;
 
@@ -93,23 +165,22 @@ public class OperationTrackerImpl implements OperationTracker
             return handleError(ex);
         } finally
         {
-            handleFinally();
+            finish(startNanos, completed);
         }
     }
 
-    @Override
-    public <T> T perform(String description, IOOperation<T> operation) throws IOException
+    private <T> T execute(Object description, IOOperation<T> operation) throws IOException
     {
-        InternalUtils.isNonBlank(description);
         assert operation != null;
 
         long startNanos = start(description);
+        boolean completed = false;
 
         try
         {
             T result = operation.perform();
 
-            finish(description, startNanos);
+            completed = true;
 
             return result;
 
@@ -124,7 +195,7 @@ public class OperationTrackerImpl implements OperationTracker
             return logAndRethrow(ex);
         } finally
         {
-            handleFinally();
+            finish(startNanos, completed);
         }
     }
 
@@ -138,17 +209,6 @@ public class OperationTrackerImpl implements OperationTracker
             return logAndRethrow(ex);
     }
 
-    private void handleFinally()
-    {
-        operations.pop();
-        // We've finally backed out of the operation stack ... but there may be more to come!
-
-        if (operations.isEmpty())
-        {
-            logged = false;
-        }
-    }
-
     private <T> T handleError(Error error)
     {
         if (!logged)
@@ -160,29 +220,91 @@ public class OperationTrackerImpl implements OperationTracker
         throw error;
     }
 
-    private void finish(String description, long startNanos)
+    private long start(Object description)
     {
-        if (logger.isDebugEnabled())
+        int depth = operations.getDepth();
+
+        if (depth == 0 && recorder != null && recorder.sample())
         {
-            long elapsedNanos = System.nanoTime() - startNanos;
-            double elapsedMillis = ((double) elapsedNanos) / 1000000.d;
+            traceId = recorder.nextId();
+            traceStartMillis = System.currentTimeMillis();
+            traceStartNanos = System.nanoTime();
+        }
+
+        if (traceId != 0)
+        {
+            pushSpanId(depth);
+        }
+
+        boolean debugEnabled = logger.isDebugEnabled();
+
+        if (debugEnabled)
+        {
+            // Build the description once, rather than on entry and again on exit.
+
+            description = describe(description);
+
+            logger.debug(String.format("[%3d] --> %s", depth + 1, description));
+        }
+
+        operations.push(description);
+
+        return debugEnabled || traceId != 0 ? System.nanoTime() : -1l;
+    }
 
-            logger.debug(String.format("[%3d] <-- %s [%,.2f ms]", operations.getDepth(), description, elapsedMillis));
+    private void pushSpanId(int depth)
+    {
+        if (spanIds == null)
+        {
+            spanIds = new long[16];
+        } else if (depth == spanIds.length)
+        {
+            long[] expanded = new long[depth * 2];
+            System.arraycopy(spanIds, 0, expanded, 0, depth);
+            spanIds = expanded;
         }
+
+        spanIds[depth] = depth == 0 ? traceId : recorder.nextId();
     }
 
-    private long start(String description)
+    private void finish(long startNanos, boolean completed)
     {
-        long startNanos = -1l;
+        int depth = operations.getDepth();
 
-        if (logger.isDebugEnabled())
+        if (startNanos >= 0)
         {
-            startNanos = System.nanoTime();
-            logger.debug(String.format("[%3d] --> %s", operations.getDepth() + 1, description));
+            long elapsedNanos = System.nanoTime() - startNanos;
+
+            if (completed && logger.isDebugEnabled())
+            {
+                double elapsedMillis = ((double) elapsedNanos) / 1000000.d;
+
+                logger.debug(String.format("[%3d] <-- %s [%,.2f ms]", depth, operations.peek(), elapsedMillis));
+            }
+
+            if (traceId != 0)
+            {
+                recorder.record(new OperationSpan(traceId, spanIds[depth - 1], depth == 1 ? 0 : spanIds[depth - 2],
+                        describe(operations.peek()), Thread.currentThread().getName(),
+                        traceStartMillis * 1000000L + (startNanos - traceStartNanos), elapsedNanos, !completed));
+            }
         }
 
-        operations.push(description);
-        return startNanos;
+        operations.pop();
+
+        // We've finally backed out of the operation stack ... but there may be more to come!
+
+        if (operations.isEmpty())
+        {
+            logged = false;
+            traceId = 0;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String describe(Object description)
+    {
+        return description instanceof Supplier ? ((Supplier<String>) description).get() : (String) description;
     }
 
     private <T> T logAndRethrow(RuntimeException ex)
@@ -223,7 +345,7 @@ public class OperationTrackerImpl implements OperationTracker
 
         for (int i = 0; i < snapshot.length; i++)
         {
-            trace[i] = snapshot[i].toString();
+            trace[i] = describe(snapshot[i]);
 
             logger.error(String.format("[%2d] %s", i + 1, trace[i]));
         }
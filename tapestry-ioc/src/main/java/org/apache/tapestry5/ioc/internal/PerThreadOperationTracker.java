@@ -20,6 +20,7 @@ import org.apache.tapestry5.ioc.OperationTracker;
 import org.slf4j.Logger;
 
 import java.io.IOException;
+import java.util.function.Supplier;
 
 /**
  * Manages a per-thread OperationTracker using a ThreadLocal.
@@ -28,63 +29,126 @@ public class PerThreadOperationTracker implements OperationTracker
 {
     private final Logger logger;
 
+    private final OperationSpanRecorderImpl recorder;
+
     private final ThreadLocal<OperationTrackerImpl> perThread = new ThreadLocal<OperationTrackerImpl>()
     {
         @Override
         protected OperationTrackerImpl initialValue()
         {
-            return new OperationTrackerImpl(logger);
+            return new OperationTrackerImpl(logger, recorder);
         }
     };
 
     public PerThreadOperationTracker(Logger logger)
+    {
+        this(logger, null);
+    }
+
+    /**
+     * @param logger
+     *         used to log operations and failures
+     * @param recorder
+     *         records the timings of sampled operations, or null
+     * @since 5.10
+     */
+    public PerThreadOperationTracker(Logger logger, OperationSpanRecorderImpl recorder)
     {
         this.logger = logger;
+        this.recorder = recorder;
     }
 
-    OperationTracker get()
+    OperationTrackerImpl get()
     {
         return perThread.get();
     }
 
-    void cleanup()
+    void cleanup(OperationTrackerImpl tracker)
     {
-        if (perThread.get().isEmpty()) perThread.remove();
+        if (tracker.isEmpty()) perThread.remove();
     }
 
     @Override
     public void run(String description, Runnable operation)
     {
+        OperationTrackerImpl tracker = get();
+
         try
         {
-            get().run(description, operation);
+            tracker.run(description, operation);
         } finally
         {
-            cleanup();
+            cleanup(tracker);
+        }
+    }
+
+    @Override
+    public void run(Supplier<String> description, Runnable operation)
+    {
+        OperationTrackerImpl tracker = get();
+
+        try
+        {
+            tracker.run(description, operation);
+        } finally
+        {
+            cleanup(tracker);
         }
     }
 
     @Override
     public <T> T invoke(String description, Invokable<T> operation)
     {
+        OperationTrackerImpl tracker = get();
+
         try
         {
-            return get().invoke(description, operation);
+            return tracker.invoke(description, operation);
         } finally
         {
-            cleanup();
+            cleanup(tracker);
+        }
+    }
+
+    @Override
+    public <T> T invoke(Supplier<String> description, Invokable<T> operation)
+    {
+        OperationTrackerImpl tracker = get();
+
+        try
+        {
+            return tracker.invoke(description, operation);
+        } finally
+        {
+            cleanup(tracker);
         }
     }
 
     @Override
     public <T> T perform(String description, IOOperation<T> operation) throws IOException
     {
+        OperationTrackerImpl tracker = get();
+
+        try
+        {
+            return tracker.perform(description, operation);
+        } finally
+        {
+            cleanup(tracker);
+        }
+    }
+
+    @Override
+    public <T> T perform(Supplier<String> description, IOOperation<T> operation) throws IOException
+    {
+        OperationTrackerImpl tracker = get();
+
         try
         {
-            return get().perform(description, operation);
+            return tracker.perform(description, operation);
         } finally
         {
-            cleanup();
+            cleanup(tracker);
         }
     }
 }
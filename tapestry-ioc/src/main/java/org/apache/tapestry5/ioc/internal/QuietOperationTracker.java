@@ -19,6 +19,7 @@ import org.apache.tapestry5.ioc.Invokable;
 import org.apache.tapestry5.ioc.OperationTracker;
 
 import java.io.IOException;
+import java.util.function.Supplier;
 
 /**
  * Minimal implementation used for testing, that does no logging, tracking, or exception catching.
@@ -42,4 +43,22 @@ public class QuietOperationTracker implements OperationTracker
     {
         return operation.perform();
     }
+
+    @Override
+    public void run(Supplier<String> description, Runnable operation)
+    {
+        operation.run();
+    }
+
+    @Override
+    public <T> T invoke(Supplier<String> description, Invokable<T> operation)
+    {
+        return operation.invoke();
+    }
+
+    @Override
+    public <T> T perform(Supplier<String> description, IOOperation<T> operation) throws IOException
+    {
+        return operation.perform();
+    }
 }
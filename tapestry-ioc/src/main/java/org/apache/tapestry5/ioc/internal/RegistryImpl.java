@@ -42,6 +42,7 @@ import org.apache.tapestry5.ioc.ServiceResources;
 import org.apache.tapestry5.ioc.annotations.Local;
 import org.apache.tapestry5.ioc.def.*;
 import org.apache.tapestry5.ioc.internal.services.PerthreadManagerImpl;
+import org.apache.tapestry5.ioc.internal.services.RequestContextPerthreadManager;
 import org.apache.tapestry5.ioc.internal.services.RegistryShutdownHubImpl;
 import org.apache.tapestry5.ioc.internal.util.InjectionResources;
 import org.apache.tapestry5.ioc.internal.util.InternalUtils;
@@ -51,6 +52,7 @@ import org.apache.tapestry5.ioc.internal.util.Orderer;
 import org.apache.tapestry5.ioc.modules.TapestryIOCModule;
 import org.apache.tapestry5.ioc.services.Builtin;
 import org.apache.tapestry5.ioc.services.MasterObjectProvider;
+import org.apache.tapestry5.ioc.services.OperationSpanRecorder;
 import org.apache.tapestry5.ioc.services.PerthreadManager;
 import org.apache.tapestry5.ioc.services.RegistryShutdownHub;
 import org.apache.tapestry5.ioc.services.RegistryShutdownListener;
@@ -71,6 +73,7 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.function.Supplier;
 
 @SuppressWarnings("all")
 public class RegistryImpl implements Registry, InternalRegistry, ServiceProxyProvider
@@ -98,6 +101,8 @@ public class RegistryImpl implements Registry, InternalRegistry, ServiceProxyPro
     static final String PLASTIC_PROXY_FACTORY_SERVICE_ID = "PlasticProxyFactory";
 
     static final String LOGGER_SOURCE_SERVICE_ID = "LoggerSource";
+
+    static final String OPERATION_SPAN_RECORDER_SERVICE_ID = "OperationSpanRecorder";
     
     private final OneShotLock lock = new OneShotLock();
 
@@ -141,7 +146,10 @@ public class RegistryImpl implements Registry, InternalRegistry, ServiceProxyPro
 
     private final Map<Class<? extends Annotation>, Annotation> cachedAnnotationProxies = CollectionFactory.newConcurrentMap();
 
-    private final Set<Runnable> startups = CollectionFactory.newSet();
+    /**
+     * Invocations of the startup methods of each module, keyed on the description of the startup method.
+     */
+    private final Map<String, Runnable> startups = new LinkedHashMap<>();
     
     private DelegatingServiceConfigurationListener serviceConfigurationListener;
     
@@ -158,11 +166,33 @@ public class RegistryImpl implements Registry, InternalRegistry, ServiceProxyPro
      */
     public RegistryImpl(Collection<ModuleDef2> moduleDefs, PlasticProxyFactory proxyFactory,
                         LoggerSource loggerSource, OperationTracker operationTracker)
+    {
+        this(moduleDefs, proxyFactory, loggerSource, operationTracker, new OperationSpanRecorderImpl(0, 1));
+    }
+
+    /**
+     * Constructs the registry from a set of module definitions and other resources.
+     *
+     * @param moduleDefs
+     *         defines the modules (and builders, decorators, etc., within)
+     * @param proxyFactory
+     *         used to create new proxy objects
+     * @param loggerSource
+     *         used to obtain Logger instances
+     * @param operationTracker
+     * @param operationSpanRecorder
+     *         exposed as a builtin service; records the operations sampled by the tracker
+     * @since 5.10
+     */
+    public RegistryImpl(Collection<ModuleDef2> moduleDefs, PlasticProxyFactory proxyFactory,
+                        LoggerSource loggerSource, OperationTracker operationTracker,
+                        OperationSpanRecorder operationSpanRecorder)
     {
         assert moduleDefs != null;
         assert proxyFactory != null;
         assert loggerSource != null;
         assert operationTracker != null;
+        assert operationSpanRecorder != null;
 
         this.loggerSource = loggerSource;
         this.operationTracker = operationTracker;
@@ -174,7 +204,9 @@ public class RegistryImpl implements Registry, InternalRegistry, ServiceProxyPro
         
         Logger logger = loggerForBuiltinService(PERTHREAD_MANAGER_SERVICE_ID);
 
-        PerthreadManagerImpl ptmImpl = new PerthreadManagerImpl(logger);
+        PerthreadManagerImpl ptmImpl = Boolean.getBoolean(IOCConstants.PERTHREAD_REQUEST_CONTEXT)
+                ? new RequestContextPerthreadManager(logger)
+                : new PerthreadManagerImpl(logger);
 
         perthreadManager = ptmImpl;
 
@@ -238,6 +270,7 @@ public class RegistryImpl implements Registry, InternalRegistry, ServiceProxyPro
         addBuiltin(PERTHREAD_MANAGER_SERVICE_ID, PerthreadManager.class, perthreadManager);
         addBuiltin(REGISTRY_SHUTDOWN_HUB_SERVICE_ID, RegistryShutdownHub.class, registryShutdownHub);
         addBuiltin(PLASTIC_PROXY_FACTORY_SERVICE_ID, PlasticProxyFactory.class, proxyFactory);
+        addBuiltin(OPERATION_SPAN_RECORDER_SERVICE_ID, OperationSpanRecorder.class, operationSpanRecorder);
 
         validateContributeDefs(moduleDefs);
         
@@ -254,7 +287,7 @@ public class RegistryImpl implements Registry, InternalRegistry, ServiceProxyPro
         for (final StartupDef startup : def.getStartups())
         {
 
-            startups.add(new Runnable()
+            startups.put(startup.toString(), new Runnable()
             {
                 @Override
                 public void run()
@@ -379,18 +412,32 @@ public class RegistryImpl implements Registry, InternalRegistry, ServiceProxyPro
 
         // TAPESTRY-2267: Gather up all the proxies before instantiating any of them.
 
+        Map<String, Runnable> eagerLoads = new LinkedHashMap<>();
+
         for (EagerLoadServiceProxy proxy : proxies)
         {
-            proxy.eagerLoadService();
+            eagerLoads.put(proxy.getServiceId(), proxy::eagerLoadService);
         }
 
-        for (Runnable startup : startups) {
-            startup.run();
-        }
+        StartupTaskRunner runner = new StartupTaskRunner(Integer.getInteger(IOCConstants.REGISTRY_STARTUP_THREADS, 1),
+                perthreadManager::cleanup);
+
+        try
+        {
+            runner.run("eager load", eagerLoads);
+
+            runner.run("startup method", startups);
 
-        startups.clear();
+            startups.clear();
+
+            runner.runOnCurrentThread("contributions", "RegistryStartup",
+                    getService("RegistryStartup", Runnable.class));
+        } finally
+        {
+            runner.shutdown();
+        }
 
-        getService("RegistryStartup", Runnable.class).run();
+        runner.logReport(loggerForBuiltinService("RegistryStartup"));
 
         cleanupThread();
     }
@@ -1298,6 +1345,24 @@ public class RegistryImpl implements Registry, InternalRegistry, ServiceProxyPro
         return operationTracker.perform(description, operation);
     }
 
+    @Override
+    public void run(Supplier<String> description, Runnable operation)
+    {
+        operationTracker.run(description, operation);
+    }
+
+    @Override
+    public <T> T invoke(Supplier<String> description, Invokable<T> operation)
+    {
+        return operationTracker.invoke(description, operation);
+    }
+
+    @Override
+    public <T> T perform(Supplier<String> description, IOOperation<T> operation) throws IOException
+    {
+        return operationTracker.perform(description, operation);
+    }
+
     @Override
     public Set<Class> getMarkerAnnotations()
     {
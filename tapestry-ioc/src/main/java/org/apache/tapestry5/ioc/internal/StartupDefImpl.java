@@ -87,4 +87,10 @@ public class StartupDefImpl implements StartupDef
                     }
                 });
     }
+
+    @Override
+    public String toString()
+    {
+        return InternalUtils.asString(startupMethod);
+    }
 }
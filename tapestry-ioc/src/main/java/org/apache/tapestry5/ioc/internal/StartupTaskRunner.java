@@ -0,0 +1,271 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.apache.tapestry5.ioc.internal;
+
+import org.apache.tapestry5.commons.util.CollectionFactory;
+import org.slf4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the tasks of each phase of {@linkplain org.apache.tapestry5.ioc.Registry#performRegistryStartup() registry
+ * startup} (eager loading services, invoking startup methods, ...), and records how long each task took.
+ *
+ * With a single thread, the tasks are run in order on the current thread, and the first failure is thrown
+ * immediately. Otherwise, the tasks of a phase are run on a fixed pool of threads, and the phase ends once all of them
+ * have completed; the first failure is then thrown, with any others attached as suppressed exceptions. No ordering
+ * between the tasks of a phase is needed: a task that uses a service that is not yet realized realizes it, or waits
+ * for the thread that is already realizing it.
+ *
+ * @since 5.10
+ */
+public class StartupTaskRunner
+{
+    private static class Timing
+    {
+        final String phase, description, threadName;
+
+        final long elapsedNanos;
+
+        Timing(String phase, String description, String threadName, long elapsedNanos)
+        {
+            this.phase = phase;
+            this.description = description;
+            this.threadName = threadName;
+            this.elapsedNanos = elapsedNanos;
+        }
+    }
+
+    private final int threadCount;
+
+    private final Runnable threadCleanup;
+
+    private final ExecutorService executor;
+
+    private final List<Timing> timings = Collections.synchronizedList(new ArrayList<Timing>());
+
+    private final long startNanos = System.nanoTime();
+
+    /**
+     * @param threadCount
+     *         number of threads to run tasks on; with one (or fewer), tasks are run on the current thread
+     * @param threadCleanup
+     *         invoked on a pool thread after each task, to discard per-thread state
+     */
+    public StartupTaskRunner(int threadCount, Runnable threadCleanup)
+    {
+        this.threadCount = Math.max(1, threadCount);
+        this.threadCleanup = threadCleanup;
+
+        executor = this.threadCount == 1 ? null : Executors.newFixedThreadPool(this.threadCount, new ThreadFactory()
+        {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable r)
+            {
+                Thread thread = new Thread(r, "Tapestry registry startup " + count.incrementAndGet());
+
+                thread.setDaemon(true);
+
+                return thread;
+            }
+        });
+    }
+
+    public boolean isParallel()
+    {
+        return executor != null;
+    }
+
+    /**
+     * Runs a phase of startup, returning once each of its tasks has completed.
+     *
+     * @param phase
+     *         identifies the phase in the timing report
+     * @param tasks
+     *         tasks to run, keyed on their description
+     */
+    public void run(final String phase, Map<String, Runnable> tasks)
+    {
+        if (executor == null)
+        {
+            for (Map.Entry<String, Runnable> e : tasks.entrySet())
+            {
+                runTimed(phase, e.getKey(), e.getValue());
+            }
+
+            return;
+        }
+
+        List<Future<?>> futures = CollectionFactory.newList();
+
+        for (final Map.Entry<String, Runnable> e : tasks.entrySet())
+        {
+            futures.add(executor.submit(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        runTimed(phase, e.getKey(), e.getValue());
+                    } finally
+                    {
+                        threadCleanup.run();
+                    }
+                }
+            }));
+        }
+
+        Throwable failure = null;
+
+        for (Future<?> future : futures)
+        {
+            Throwable t = waitFor(future);
+
+            if (t == null)
+            {
+                continue;
+            }
+
+            if (failure == null)
+            {
+                failure = t;
+            } else
+            {
+                failure.addSuppressed(t);
+            }
+        }
+
+        if (failure instanceof RuntimeException)
+        {
+            throw (RuntimeException) failure;
+        }
+
+        if (failure instanceof Error)
+        {
+            throw (Error) failure;
+        }
+
+        if (failure != null)
+        {
+            throw new RuntimeException(failure);
+        }
+    }
+
+    private Throwable waitFor(Future<?> future)
+    {
+        try
+        {
+            future.get();
+
+            return null;
+        } catch (ExecutionException ex)
+        {
+            return ex.getCause();
+        } catch (InterruptedException ex)
+        {
+            Thread.currentThread().interrupt();
+
+            return ex;
+        }
+    }
+
+    /**
+     * Runs a single task on the current thread, recording how long it took.
+     */
+    public void runOnCurrentThread(String phase, String description, Runnable task)
+    {
+        runTimed(phase, description, task);
+    }
+
+    private void runTimed(String phase, String description, Runnable task)
+    {
+        long start = System.nanoTime();
+
+        try
+        {
+            task.run();
+        } finally
+        {
+            timings.add(new Timing(phase, description, Thread.currentThread().getName(), System.nanoTime() - start));
+        }
+    }
+
+    /**
+     * Stops the pool of threads (if any).
+     */
+    public void shutdown()
+    {
+        if (executor != null)
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Logs the elapsed time of startup, and of each task (slowest first), at info level when tasks were run in
+     * parallel, or at debug level otherwise.
+     */
+    public void logReport(Logger logger)
+    {
+        if (!(isParallel() ? logger.isInfoEnabled() : logger.isDebugEnabled()))
+        {
+            return;
+        }
+
+        List<Timing> sorted;
+
+        synchronized (timings)
+        {
+            sorted = new ArrayList<Timing>(timings);
+        }
+
+        Collections.sort(sorted, new Comparator<Timing>()
+        {
+            @Override
+            public int compare(Timing o1, Timing o2)
+            {
+                return Long.compare(o2.elapsedNanos, o1.elapsedNanos);
+            }
+        });
+
+        StringBuilder builder = new StringBuilder(String.format("Registry startup completed in %,.2f ms (%d thread%s):",
+                (System.nanoTime() - startNanos) / 1000000.d, threadCount, threadCount == 1 ? "" : "s"));
+
+        for (Timing timing : sorted)
+        {
+            builder.append(String.format("%n%12.2f ms  %-20s %s [%s]", timing.elapsedNanos / 1000000.d, timing.phase,
+                    timing.description, timing.threadName));
+        }
+
+        if (isParallel())
+        {
+            logger.info(builder.toString());
+        } else
+        {
+            logger.debug(builder.toString());
+        }
+    }
+}
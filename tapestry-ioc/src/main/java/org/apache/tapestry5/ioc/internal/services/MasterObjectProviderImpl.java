@@ -45,7 +45,7 @@ public class MasterObjectProviderImpl implements MasterObjectProvider
                          final ObjectLocator locator,
                          final boolean required)
     {
-        return tracker.invoke(String.format("Resolving object of type %s using MasterObjectProvider",
+        return tracker.invoke(() -> String.format("Resolving object of type %s using MasterObjectProvider",
                 PlasticUtils.toTypeName(objectType)), new Invokable<T>()
         {
             @Override
@@ -45,7 +45,7 @@ public class ParallelExecutorImpl implements ParallelExecutor
     {
         assert invocable != null;
 
-        return executorService.submit(toCallable(invocable));
+        return executorService.submit(toCallable(perthreadManager.propagate(invocable)));
     }
 
     private <T> Callable<T> toCallable(final Invokable<T> invocable)
@@ -55,14 +55,7 @@ public class ParallelExecutorImpl implements ParallelExecutor
             @Override
             public T call() throws Exception
             {
-                try
-                {
-                    return invocable.invoke();
-                }
-                finally
-                {
-                    perthreadManager.cleanup();
-                }
+                return invocable.invoke();
             }
         };
     }
@@ -40,13 +40,13 @@ public class PerthreadManagerImpl implements PerthreadManager
         }
     }
 
-    private final Logger logger;
+    final Logger logger;
 
     private final MapHolder holder = new MapHolder();
 
     private final AtomicInteger uuidGenerator = new AtomicInteger();
 
-    private volatile boolean shutdown = false;
+    volatile boolean shutdown = false;
 
     public PerthreadManagerImpl(Logger logger)
     {
@@ -68,7 +68,7 @@ public class PerthreadManagerImpl implements PerthreadManager
         });
     }
 
-    private Map getPerthreadMap()
+    Map getPerthreadMap()
     {
         // This is a degenerate case; it may not even exist; but if during registry shutdown somehow code executes
         // that attempts to create new values or add new listeners, those go into a new map instance that is
@@ -128,6 +128,21 @@ public class PerthreadManagerImpl implements PerthreadManager
 
         callbacksValue.set(null);
 
+        invokeCallbacks(callbacks);
+
+        // Listeners should not re-add themselves or store any per-thread state
+        // here, it will be lost.
+
+        // Discard the per-thread map of values, including the key that stores
+        // the listeners. This means that if a listener attempts to register
+        // new listeners, the new listeners will not be triggered and will be
+        // released to the GC.
+
+        holder.remove();
+    }
+
+    void invokeCallbacks(List<Runnable> callbacks)
+    {
         for (Runnable callback : callbacks)
         {
             try
@@ -138,16 +153,49 @@ public class PerthreadManagerImpl implements PerthreadManager
                 logger.warn("Error invoking callback {}: {}", callback, ex, ex);
             }
         }
+    }
 
-        // Listeners should not re-add themselves or store any per-thread state
-        // here, it will be lost.
+    @Override
+    public boolean isDetachSupported()
+    {
+        return true;
+    }
 
-        // Discard the per-thread map of values, including the key that stores
-        // the listeners. This means that if a listener attempts to register
-        // new listeners, the new listeners will not be triggered and will be
-        // released to the GC.
+    @Override
+    public <T> Invokable<T> detach(final Invokable<T> continuation)
+    {
+        assert continuation != null;
+
+        final Map detached = holder.get();
 
         holder.remove();
+
+        return new Invokable<T>()
+        {
+            @Override
+            public T invoke()
+            {
+                // Normally the continuation runs on a thread with no per-thread data of its own; just in case,
+                // whatever data the thread has is put back afterwards.
+
+                Map previous = holder.get();
+
+                holder.set(detached);
+
+                try
+                {
+                    return continuation.invoke();
+                } finally
+                {
+                    cleanup();
+
+                    if (!previous.isEmpty())
+                    {
+                        holder.set(previous);
+                    }
+                }
+            }
+        };
     }
 
     private static Object NULL_VALUE = new Object();
@@ -273,7 +321,15 @@ public class PerthreadManagerImpl implements PerthreadManager
 
             T newValue = delegate.createObject();
 
-            map.put(key, newValue == null ? NULL_VALUE : newValue);
+            // The map may be shared by several threads (see RequestContextPerthreadManager); if another
+            // thread got there first, use its value.
+
+            Object existing = map.putIfAbsent(key, newValue == null ? NULL_VALUE : newValue);
+
+            if (existing != null)
+            {
+                return (existing == NULL_VALUE) ? null : (T) existing;
+            }
 
             return newValue;
         }
@@ -0,0 +1,223 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.apache.tapestry5.ioc.internal.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.tapestry5.ioc.Invokable;
+import org.apache.tapestry5.ioc.services.PerthreadManager;
+import org.slf4j.Logger;
+
+/**
+ * Alternative implementation of {@link PerthreadManager}, enabled by the
+ * {@value org.apache.tapestry5.ioc.IOCConstants#PERTHREAD_REQUEST_CONTEXT} JVM system property, that keeps
+ * per-thread values and cleanup callbacks in an explicit context object. The thread only references its current
+ * context; a context is created on first use, and discarded by {@link #cleanup()}.
+ *
+ * Work handed off with {@link #propagate(Invokable)} (as the {@link org.apache.tapestry5.ioc.services.ParallelExecutor}
+ * does) runs with the context of the thread that handed it off, and so sees the same request (and per-thread
+ * services), without copying any state. This suits containers that process each request on its own (possibly virtual)
+ * thread, and code that splits the work of a request across threads. Per-thread services may then be used by several
+ * threads at once, and must be thread-safe. The context's cleanup callbacks are invoked once its owner has cleaned up
+ * and no propagated work is running with it; callbacks added by propagated work that finishes later are invoked when
+ * that work finishes.
+ *
+ * @since 5.10
+ */
+@SuppressWarnings("all")
+public class RequestContextPerthreadManager extends PerthreadManagerImpl
+{
+    /**
+     * Per-thread data of a request; shared by the threads working on the request.
+     */
+    private static final class Context
+    {
+        final Map values = new ConcurrentHashMap();
+
+        final Queue<Runnable> callbacks = new ConcurrentLinkedQueue<Runnable>();
+
+        /**
+         * The owning thread (until it cleans up), plus the number of threads running propagated work.
+         */
+        final AtomicInteger users = new AtomicInteger(1);
+    }
+
+    private final ThreadLocal<Context> current = new ThreadLocal<Context>();
+
+    public RequestContextPerthreadManager(Logger logger)
+    {
+        super(logger);
+    }
+
+    private Context getContext()
+    {
+        Context context = current.get();
+
+        if (context == null)
+        {
+            context = new Context();
+            current.set(context);
+        }
+
+        return context;
+    }
+
+    @Override
+    Map getPerthreadMap()
+    {
+        // As with the thread-local map, values stored during registry shutdown are simply discarded.
+
+        if (shutdown)
+        {
+            return new ConcurrentHashMap();
+        }
+
+        return getContext().values;
+    }
+
+    @Override
+    public void addThreadCleanupCallback(Runnable callback)
+    {
+        assert callback != null;
+
+        getContext().callbacks.add(callback);
+    }
+
+    /**
+     * Detaches the current context from the thread, then invokes its callbacks, unless threads are still running
+     * work propagated from this context; the callbacks are then invoked once the last of them finishes.
+     */
+    @Override
+    public void cleanup()
+    {
+        Context context = current.get();
+
+        if (context == null)
+        {
+            return;
+        }
+
+        current.remove();
+
+        release(context);
+    }
+
+    /**
+     * Invoked when the owner of the context, or propagated work, is done with it. When nobody is using the context
+     * any longer, invokes (and removes) the callbacks added so far. Propagated work may start again afterwards,
+     * in which case callbacks it adds are invoked when it finishes.
+     */
+    private void release(Context context)
+    {
+        if (context.users.decrementAndGet() > 0)
+        {
+            return;
+        }
+
+        List<Runnable> pending = new ArrayList<Runnable>();
+
+        for (Runnable callback = context.callbacks.poll(); callback != null; callback = context.callbacks.poll())
+        {
+            pending.add(callback);
+        }
+
+        invokeCallbacks(pending);
+    }
+
+    /**
+     * Returns an invokable that runs with the current thread's context. The context is not cleaned up when the
+     * invokable completes while the current thread (or other propagated work) still uses it.
+     */
+    @Override
+    public <T> Invokable<T> propagate(final Invokable<T> invokable)
+    {
+        assert invokable != null;
+
+        final Context context = getContext();
+
+        return new Invokable<T>()
+        {
+            @Override
+            public T invoke()
+            {
+                Context previous = current.get();
+
+                context.users.incrementAndGet();
+
+                current.set(context);
+
+                try
+                {
+                    return invokable.invoke();
+                } finally
+                {
+                    release(context);
+
+                    if (previous == null)
+                    {
+                        current.remove();
+                    } else
+                    {
+                        current.set(previous);
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * Detaches the current context from the thread, without invoking its callbacks; the returned invokable takes
+     * over ownership of the context, runs with it, then cleans it up.
+     */
+    @Override
+    public <T> Invokable<T> detach(final Invokable<T> continuation)
+    {
+        assert continuation != null;
+
+        final Context context = getContext();
+
+        current.remove();
+
+        return new Invokable<T>()
+        {
+            @Override
+            public T invoke()
+            {
+                Context previous = current.get();
+
+                current.set(context);
+
+                try
+                {
+                    return continuation.invoke();
+                } finally
+                {
+                    current.remove();
+
+                    release(context);
+
+                    if (previous != null)
+                    {
+                        current.set(previous);
+                    }
+                }
+            }
+        };
+    }
+}
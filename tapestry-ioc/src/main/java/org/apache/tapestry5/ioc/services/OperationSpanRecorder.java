@@ -0,0 +1,42 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.apache.tapestry5.ioc.services;
+
+import org.apache.tapestry5.ioc.OperationSpan;
+
+import java.util.List;
+
+/**
+ * Records the timings of a sample of the operations tracked by the {@link org.apache.tapestry5.ioc.OperationTracker}
+ * into a fixed size ring buffer, from which they may be periodically drained and exported to a tracing system. The
+ * sampling decision is made for each outermost operation; when sampled, all the operations nested inside it are
+ * recorded as well.
+ *
+ * Sampling is disabled by default; as the tracker is created before any symbol can be read, it is enabled with the
+ * {@link org.apache.tapestry5.ioc.IOCConstants#OPERATION_TRACE_SAMPLE_RATE} JVM System Property.
+ *
+ * @since 5.10
+ */
+public interface OperationSpanRecorder
+{
+    /**
+     * Returns true if operations are being sampled.
+     */
+    boolean isEnabled();
+
+    /**
+     * Removes and returns the recorded spans, oldest first. When spans are recorded faster than they are drained,
+     * the oldest are discarded.
+     */
+    List<OperationSpan> drain();
+}
@@ -74,4 +74,52 @@ public interface PerthreadManager
      * Returns the result from the invocation, providing a try...finally to {@linkplain #cleanup() cleanup} after.
      */
     <T> T invoke(Invokable<T> invokable);
+
+    /**
+     * Prepares an invokable to be executed later, typically on another thread, such as by the
+     * {@link ParallelExecutor}. This method is invoked on the thread that hands the work off.
+     *
+     * The default implementation gives the invokable its own per-thread data, which is
+     * {@linkplain #cleanup() cleaned up} once it completes. Implementations that store data in a request context
+     * instead run the invokable with the context of the current thread, so that it sees the same per-thread values
+     * (and services) as the code that created it.
+     *
+     * @since 5.10
+     */
+    default <T> Invokable<T> propagate(Invokable<T> invokable)
+    {
+        assert invokable != null;
+
+        return () -> invoke(invokable);
+    }
+
+    /**
+     * Detaches the per-thread data of the current thread, without {@linkplain #cleanup() cleaning it up}, so that
+     * the processing of a request can be resumed later, typically on another thread. The current thread is left
+     * without per-thread data (a later cleanup of the thread does not affect the detached data).
+     *
+     * The returned invokable runs the continuation with the detached data, then cleans it up; it should be invoked
+     * once.
+     *
+     * The default implementation throws an {@link UnsupportedOperationException}; callers should first check
+     * {@link #isDetachSupported()}.
+     *
+     * @since 5.10
+     */
+    default <T> Invokable<T> detach(Invokable<T> continuation)
+    {
+        throw new UnsupportedOperationException(
+                String.format("%s does not support detaching per-thread data.", getClass().getName()));
+    }
+
+    /**
+     * Returns true if this manager implements {@link #detach(Invokable)}. The default implementation returns false,
+     * so that asynchronous request processing is refused rather than failing once the request has been suspended.
+     *
+     * @since 5.10
+     */
+    default boolean isDetachSupported()
+    {
+        return false;
+    }
 }
@@ -1,13 +1,18 @@
 package ioc.specs
 
+import org.apache.tapestry5.ioc.Invokable
 import org.apache.tapestry5.ioc.OperationTracker
 import org.apache.tapestry5.ioc.internal.OperationException;
+import org.apache.tapestry5.ioc.internal.OperationSpanRecorderImpl
 import org.apache.tapestry5.ioc.internal.OperationTrackerImpl;
+import org.slf4j.Logger
 import org.slf4j.LoggerFactory;
 
 import spock.lang.Issue;
 import spock.lang.Specification
 
+import java.util.function.Supplier
+
 class OperationTrackerSpec extends Specification {
 
 
@@ -28,5 +33,55 @@ class OperationTrackerSpec extends Specification {
     
   }
 
+  def "description suppliers are only invoked on failure"() {
+    setup:
+    def logger = Mock(Logger) {
+      isDebugEnabled() >> false
+    }
+    def operationTracker = new OperationTrackerImpl(logger)
+    def invocations = 0
+    def description = { invocations++; "Described operation" } as Supplier
+
+    when:
+    operationTracker.run description, { }
+
+    then:
+    invocations == 0
+
+    when:
+    operationTracker.run description, { throw new IllegalStateException() }
+
+    then:
+    OperationException ex = thrown()
+    ex.trace == ['Described operation']
+    invocations == 1
+  }
+
+  def "sampled operations are recorded as spans"() {
+    setup:
+    def logger = Mock(Logger)
+    def recorder = new OperationSpanRecorderImpl(1, 2)
+    def operationTracker = new OperationTrackerImpl(logger, recorder)
+
+    when:
+    operationTracker.run "first", { }
+    operationTracker.run({ "outer" } as Supplier, {
+      operationTracker.invoke "inner", { 42 } as Invokable
+    })
+
+    def spans = recorder.drain()
+
+    then:
+
+    // The buffer only holds two spans, so the first is discarded.
+
+    spans*.description == ['inner', 'outer']
+    spans[0].traceId == spans[1].traceId
+    spans[0].parentSpanId == spans[1].spanId
+    spans[1].parentSpanId == 0
+    !spans[0].failed
+
+    recorder.drain().empty
+  }
 
 }
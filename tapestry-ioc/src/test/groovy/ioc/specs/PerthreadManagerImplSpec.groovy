@@ -178,4 +178,46 @@ class PerthreadManagerImplSpec extends Specification {
     !value.exists()
 
   }
+
+  def "detached values are restored by the continuation, then cleaned up"() {
+    Logger logger = Mock()
+    ThreadCleanupListener listener = Mock()
+
+    def manager = new PerthreadManagerImpl(logger)
+    manager.addThreadCleanupListener listener
+    def value = manager.createValue()
+
+    value.set "request"
+
+    def inv = manager.detach({ value.get() } as Invokable)
+
+    when:
+
+    manager.cleanup()
+
+    then:
+
+    0 * listener.threadDidCleanup()
+    !value.exists()
+
+    when:
+
+    def resumed = null
+    def thread = new Thread({ resumed = inv.invoke() })
+    thread.start()
+    thread.join()
+
+    then:
+
+    1 * listener.threadDidCleanup()
+    resumed == "request"
+  }
+
+  def "detaching is supported"() {
+    Logger logger = Mock()
+
+    expect:
+
+    new PerthreadManagerImpl(logger).detachSupported
+  }
 }
@@ -1,12 +1,16 @@
 package ioc.specs
 
+import org.apache.tapestry5.ioc.IOCConstants
 import org.apache.tapestry5.ioc.test.BarneyModule
 import org.apache.tapestry5.ioc.test.CatchAllServiceConfigurationListener
+import org.apache.tapestry5.ioc.test.EagerLoadModule
+import org.apache.tapestry5.ioc.test.FailingStartupModule
 import org.apache.tapestry5.ioc.test.FredModule
 import org.apache.tapestry5.ioc.test.Greeter
 import org.apache.tapestry5.ioc.test.GreeterModule
 import org.apache.tapestry5.ioc.test.HelterModule
 import org.apache.tapestry5.ioc.test.NameListHolder
+import org.apache.tapestry5.ioc.test.ParallelStartupModule
 import org.apache.tapestry5.ioc.test.StringLookup
 import org.apache.tapestry5.ioc.test.internal.services.StartupModule2
 
@@ -59,6 +63,97 @@ class RegistrySpec extends AbstractRegistrySpecification {
     StartupModule2.instanceStartupInvoked
   }
   
+  def "services are eager loaded and @Startup methods invoked on several threads, when enabled"() {
+    setup:
+
+    System.setProperty IOCConstants.REGISTRY_STARTUP_THREADS, "4"
+
+    EagerLoadModule._eagerLoadDidHappen = false
+    StartupModule2.staticStartupInvoked = false
+    StartupModule2.instanceStartupInvoked = false
+
+    buildRegistry EagerLoadModule, StartupModule2
+
+    when:
+
+    performRegistryStartup()
+
+    then:
+
+    EagerLoadModule._eagerLoadDidHappen
+    StartupModule2.staticStartupInvoked
+    StartupModule2.instanceStartupInvoked
+
+    cleanup:
+
+    System.clearProperty IOCConstants.REGISTRY_STARTUP_THREADS
+  }
+
+  def "parallel startup runs tasks on the pool, shares realized services, then runs RegistryStartup on the calling thread"() {
+    setup:
+
+    System.setProperty IOCConstants.REGISTRY_STARTUP_THREADS, "4"
+
+    ParallelStartupModule.reset()
+
+    buildRegistry ParallelStartupModule
+
+    when:
+
+    performRegistryStartup()
+
+    def threads = ParallelStartupModule.threads
+
+    then:
+
+    ["First", "Second", "readFirst", "readSecond"].every { threads[it].startsWith("Tapestry registry startup ") }
+
+    // Each startup method sees the service realized by an eager load task, which both used the same Shared service.
+
+    ParallelStartupModule.values == [First: "first shared", Second: "second shared"]
+    ParallelStartupModule.sharedBuilds.get() == 1
+
+    threads.RegistryStartup == Thread.currentThread().name
+    ParallelStartupModule.startupsBeforeRegistryStartup == 2
+
+    cleanup:
+
+    System.clearProperty IOCConstants.REGISTRY_STARTUP_THREADS
+  }
+
+  def "failures of parallel startup methods are combined"() {
+    setup:
+
+    System.setProperty IOCConstants.REGISTRY_STARTUP_THREADS, "2"
+
+    buildRegistry FailingStartupModule
+
+    when:
+
+    performRegistryStartup()
+
+    then:
+
+    RuntimeException e = thrown()
+
+    e.suppressed.length == 1
+
+    ([e] + e.suppressed.toList()).collect { rootCause(it).message } as Set ==
+        ["First startup failure.", "Second startup failure."] as Set
+
+    cleanup:
+
+    System.clearProperty IOCConstants.REGISTRY_STARTUP_THREADS
+  }
+
+  private static Throwable rootCause(Throwable t) {
+    while (t.cause != null) {
+      t = t.cause
+    }
+
+    return t
+  }
+
   def "ServiceConfigurationListener"() {
       
     buildRegistry FredModule, BarneyModule
@@ -0,0 +1,198 @@
+package ioc.specs
+
+import org.apache.tapestry5.ioc.Invokable
+import org.apache.tapestry5.ioc.internal.services.RequestContextPerthreadManager
+import org.slf4j.Logger
+import spock.lang.Specification
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+
+class RequestContextPerthreadManagerSpec extends Specification {
+
+  Logger logger = Mock()
+
+  def manager = new RequestContextPerthreadManager(logger)
+
+  def "values are discarded by cleanup, after callbacks are invoked"() {
+    Runnable callback = Mock()
+    def value = manager.createValue()
+
+    value.set "foo"
+    manager.addThreadCleanupCallback callback
+
+    when:
+
+    manager.cleanup()
+
+    then:
+
+    1 * callback.run()
+
+    !value.exists()
+
+    when:
+
+    manager.cleanup()
+
+    then:
+
+    0 * _
+  }
+
+  def "propagated work sees the values of the thread that handed it off"() {
+    def value = manager.createValue()
+    def executor = Executors.newSingleThreadExecutor()
+
+    value.set "request"
+
+    def inv = manager.propagate({
+      def result = value.get()
+      value.set "updated"
+      return result
+    } as Invokable)
+
+    when:
+
+    def result = executor.submit({ inv.invoke() }).get()
+
+    then:
+
+    result == "request"
+    value.get() == "updated"
+
+    when: "the worker thread no longer has the context"
+
+    def afterwards = executor.submit({ value.exists() }).get()
+
+    then:
+
+    !afterwards
+
+    cleanup:
+
+    executor.shutdown()
+    manager.cleanup()
+  }
+
+  def "propagated work does not clean up the context"() {
+    Runnable callback = Mock()
+    def value = manager.createValue()
+
+    value.set "request"
+
+    def inv = manager.propagate({
+      manager.addThreadCleanupCallback callback
+      return null
+    } as Invokable)
+
+    when:
+
+    def thread = new Thread({ inv.invoke() })
+    thread.start()
+    thread.join()
+
+    then:
+
+    0 * callback.run()
+    value.get() == "request"
+
+    when:
+
+    manager.cleanup()
+
+    then:
+
+    1 * callback.run()
+  }
+
+  def "callbacks added by propagated work still running after cleanup are invoked when it finishes"() {
+    Runnable ownerCallback = Mock()
+    Runnable lateCallback = Mock()
+    def started = new CountDownLatch(1)
+    def proceed = new CountDownLatch(1)
+
+    manager.addThreadCleanupCallback ownerCallback
+
+    def inv = manager.propagate({
+      started.countDown()
+      proceed.await()
+      manager.addThreadCleanupCallback lateCallback
+      return null
+    } as Invokable)
+
+    def thread = new Thread({ inv.invoke() })
+    thread.start()
+    started.await()
+
+    when:
+
+    manager.cleanup()
+
+    then: "the propagated work still uses the context"
+
+    0 * _
+
+    when:
+
+    proceed.countDown()
+    thread.join()
+
+    then:
+
+    1 * ownerCallback.run()
+    1 * lateCallback.run()
+  }
+
+  def "propagated work invoked after cleanup has its callbacks invoked"() {
+    Runnable callback = Mock()
+
+    def inv = manager.propagate({
+      manager.addThreadCleanupCallback callback
+      return null
+    } as Invokable)
+
+    manager.cleanup()
+
+    when:
+
+    def thread = new Thread({ inv.invoke() })
+    thread.start()
+    thread.join()
+
+    then:
+
+    1 * callback.run()
+  }
+
+  def "detached context is resumed on another thread, then cleaned up"() {
+    Runnable callback = Mock()
+    def value = manager.createValue()
+
+    value.set "request"
+    manager.addThreadCleanupCallback callback
+
+    def inv = manager.detach({ value.get() } as Invokable)
+
+    when:
+
+    manager.cleanup()
+
+    then:
+
+    0 * callback.run()
+    !value.exists()
+
+    when:
+
+    def resumed = null
+    def thread = new Thread({ resumed = inv.invoke() })
+    thread.start()
+    thread.join()
+
+    then:
+
+    1 * callback.run()
+    resumed == "request"
+  }
+}
@@ -0,0 +1,152 @@
+package ioc.specs
+
+import org.apache.tapestry5.ioc.internal.StartupTaskRunner
+import org.slf4j.Logger
+import spock.lang.Specification
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+class StartupTaskRunnerSpec extends Specification {
+
+  def "with a single thread, tasks run in order on the current thread and the first failure stops the phase"() {
+    Runnable cleanup = Mock()
+    def runner = new StartupTaskRunner(1, cleanup)
+    def log = []
+
+    when:
+
+    runner.run("phase", [
+        a: { log << "a " + Thread.currentThread().name } as Runnable,
+        b: { throw new IllegalStateException("b failed") } as Runnable,
+        c: { log << "c" } as Runnable])
+
+    then:
+
+    def e = thrown(IllegalStateException)
+    e.message == "b failed"
+
+    log == ["a " + Thread.currentThread().name]
+
+    !runner.parallel
+
+    0 * cleanup.run()
+
+    cleanup:
+
+    runner.shutdown()
+  }
+
+  def "tasks run concurrently on pool threads, which are cleaned up after each task"() {
+    def cleanups = new ConcurrentHashMap<String, Integer>()
+    def runner = new StartupTaskRunner(3, { cleanups.merge(Thread.currentThread().name, 1, { a, b -> a + b }) })
+    def latch = new CountDownLatch(3)
+    def threads = new ConcurrentHashMap<String, String>()
+    def tasks = [:]
+
+    ["a", "b", "c"].each { name ->
+      tasks[name] = {
+        threads[name] = Thread.currentThread().name
+
+        // Only completes if all three tasks are running at the same time.
+
+        latch.countDown()
+        assert latch.await(10, TimeUnit.SECONDS)
+      } as Runnable
+    }
+
+    when:
+
+    runner.run("phase", tasks)
+
+    then:
+
+    runner.parallel
+
+    threads.keySet() == ["a", "b", "c"] as Set
+    threads.values().every { it.startsWith("Tapestry registry startup ") }
+    threads.values().toSet().size() == 3
+
+    cleanups.keySet() == threads.values().toSet()
+    cleanups.values().sum() == 3
+
+    cleanup:
+
+    runner.shutdown()
+  }
+
+  def "every task of a parallel phase runs; the first failure is thrown with the others suppressed"() {
+    def runner = new StartupTaskRunner(2, {})
+    def ran = ConcurrentHashMap.newKeySet()
+    def first = new IllegalStateException("first")
+    def second = new IllegalArgumentException("second")
+    def error = new AssertionError("third")
+
+    when:
+
+    runner.run("phase", [
+        a: { ran << "a"; throw first } as Runnable,
+        b: { ran << "b" } as Runnable,
+        c: { ran << "c"; throw second } as Runnable,
+        d: { ran << "d"; throw error } as Runnable])
+
+    then:
+
+    def e = thrown(IllegalStateException)
+    e.is(first)
+    e.suppressed.toList() == [second, error]
+
+    ran == ["a", "b", "c", "d"] as Set
+
+    cleanup:
+
+    runner.shutdown()
+  }
+
+  def "a task run on the current thread is timed with the others"() {
+    def runner = new StartupTaskRunner(2, {})
+    Logger logger = Mock()
+
+    when:
+
+    runner.run("eager load", [Pooled: {} as Runnable])
+    runner.runOnCurrentThread("contributions", "RegistryStartup", {} as Runnable)
+    runner.shutdown()
+    runner.logReport(logger)
+
+    then:
+
+    1 * logger.isInfoEnabled() >> true
+    1 * logger.info({
+      it.startsWith("Registry startup completed in ") && it.contains("(2 threads)") &&
+          it =~ /eager load\s+Pooled \[Tapestry registry startup \d+\]/ &&
+          it.contains("RegistryStartup [${Thread.currentThread().name}]")
+    })
+  }
+
+  def "report is logged at debug level when tasks run on the current thread"() {
+    def runner = new StartupTaskRunner(1, {})
+    Logger logger = Mock()
+
+    runner.run("startup method", [Task: {} as Runnable])
+
+    when:
+
+    runner.logReport(logger)
+
+    then:
+
+    1 * logger.isDebugEnabled() >> false
+    0 * logger._
+
+    when:
+
+    runner.logReport(logger)
+
+    then:
+
+    1 * logger.isDebugEnabled() >> true
+    1 * logger.debug({ it.contains("(1 thread)") && it.contains("Task [${Thread.currentThread().name}]") })
+  }
+}
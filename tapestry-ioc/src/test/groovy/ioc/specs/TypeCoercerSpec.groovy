@@ -16,6 +16,8 @@ import java.time.YearMonth
 import java.time.ZoneId
 import java.time.ZoneOffset
 import java.time.ZonedDateTime
+import java.util.concurrent.Callable
+import java.util.concurrent.Executors
 
 import org.apache.tapestry5.commons.services.TypeCoercer
 import org.apache.tapestry5.commons.util.TimeInterval
@@ -274,4 +276,26 @@ class TypeCoercerSpec extends AbstractSharedRegistrySpecification {
 
     !c1.is(c3)
   }
+
+  def "coercions may be performed concurrently with clearing the cache"() {
+    def pool = Executors.newFixedThreadPool(4)
+
+    when:
+
+    def futures = (1..4).collect {
+      pool.submit({
+        (1..2000).every { coercer.coerce(new StringBuilder("1234"), Integer) == 1234 }
+      } as Callable<Boolean>)
+    }
+
+    100.times { coercer.clearCache() }
+
+    then:
+
+    futures.every { it.get() }
+
+    cleanup:
+
+    pool.shutdown()
+  }
 }
@@ -0,0 +1,33 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.apache.tapestry5.ioc.test;
+
+import org.apache.tapestry5.ioc.annotations.Startup;
+
+/**
+ * Used to test that the failures of several startup methods are all reported.
+ */
+public class FailingStartupModule
+{
+    @Startup
+    public static void first()
+    {
+        throw new IllegalStateException("First startup failure.");
+    }
+
+    @Startup
+    public static void second()
+    {
+        throw new IllegalStateException("Second startup failure.");
+    }
+}
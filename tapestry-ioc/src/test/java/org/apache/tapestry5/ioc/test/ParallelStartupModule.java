@@ -0,0 +1,115 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.apache.tapestry5.ioc.test;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.tapestry5.commons.ObjectLocator;
+import org.apache.tapestry5.commons.OrderedConfiguration;
+import org.apache.tapestry5.ioc.annotations.EagerLoad;
+import org.apache.tapestry5.ioc.annotations.InjectService;
+import org.apache.tapestry5.ioc.annotations.Startup;
+
+/**
+ * Used to test parallel registry startup: records the thread each eager loaded service, startup method and
+ * RegistryStartup contribution runs on.
+ */
+public class ParallelStartupModule
+{
+    /**
+     * Thread names, keyed on the service id or startup method.
+     */
+    public static final Map<String, String> threads = new ConcurrentHashMap<>();
+
+    /**
+     * Values read by the startup method from the eager loaded services.
+     */
+    public static final Map<String, String> values = new ConcurrentHashMap<>();
+
+    public static final AtomicInteger sharedBuilds = new AtomicInteger();
+
+    public static volatile int startupsBeforeRegistryStartup;
+
+    public static void reset()
+    {
+        threads.clear();
+        values.clear();
+        sharedBuilds.set(0);
+        startupsBeforeRegistryStartup = -1;
+    }
+
+    /**
+     * Not eager loaded: realized by whichever eager load task uses it first.
+     */
+    public StringHolder buildShared()
+    {
+        sharedBuilds.incrementAndGet();
+
+        StringHolder holder = new StringHolderImpl();
+
+        holder.setValue("shared");
+
+        return holder;
+    }
+
+    @EagerLoad
+    public StringHolder buildFirst(@InjectService("Shared") StringHolder shared)
+    {
+        threads.put("First", Thread.currentThread().getName());
+
+        StringHolder holder = new StringHolderImpl();
+
+        holder.setValue("first " + shared.getValue());
+
+        return holder;
+    }
+
+    @EagerLoad
+    public StringHolder buildSecond(@InjectService("Shared") StringHolder shared)
+    {
+        threads.put("Second", Thread.currentThread().getName());
+
+        StringHolder holder = new StringHolderImpl();
+
+        holder.setValue("second " + shared.getValue());
+
+        return holder;
+    }
+
+    @Startup
+    public static void readFirst(ObjectLocator locator)
+    {
+        threads.put("readFirst", Thread.currentThread().getName());
+
+        values.put("First", locator.getService("First", StringHolder.class).getValue());
+    }
+
+    @Startup
+    public static void readSecond(ObjectLocator locator)
+    {
+        threads.put("readSecond", Thread.currentThread().getName());
+
+        values.put("Second", locator.getService("Second", StringHolder.class).getValue());
+    }
+
+    public static void contributeRegistryStartup(OrderedConfiguration<Runnable> configuration)
+    {
+        configuration.add("Parallel", () -> {
+            threads.put("RegistryStartup", Thread.currentThread().getName());
+
+            startupsBeforeRegistryStartup = values.size();
+        });
+    }
+}
@@ -16,7 +16,11 @@ package org.apache.tapestry5.jmx.modules;
 
 import org.apache.tapestry5.internal.jmx.MBeanSupportImpl;
 import org.apache.tapestry5.ioc.ServiceBinder;
+import org.apache.tapestry5.ioc.annotations.Startup;
 import org.apache.tapestry5.jmx.MBeanSupport;
+import org.apache.tapestry5.services.assets.AssetCacheMetrics;
+
+import javax.management.StandardMBean;
 
 /**
  * Module for JMX services.
@@ -27,4 +31,16 @@ public class JmxModule
     {
         binder.bind(MBeanSupport.class, MBeanSupportImpl.class);
     }
+
+    /**
+     * Exposes the asset cache statistics as MXBean {@code org.apache.tapestry5:service=AssetCache}.
+     *
+     * @since 5.10
+     */
+    @Startup
+    public static void registerAssetCacheMetrics(MBeanSupport managedBeanSupport, AssetCacheMetrics metrics)
+    {
+        managedBeanSupport.register(new StandardMBean(metrics, AssetCacheMetrics.class, true),
+                "org.apache.tapestry5:service=AssetCache");
+    }
 }
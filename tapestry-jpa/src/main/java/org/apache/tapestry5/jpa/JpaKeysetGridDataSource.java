@@ -0,0 +1,249 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.apache.tapestry5.jpa;
+
+import org.apache.tapestry5.grid.ColumnSort;
+import org.apache.tapestry5.grid.KeysetBookmarks;
+import org.apache.tapestry5.grid.KeysetGridDataSource;
+import org.apache.tapestry5.grid.RowCountStrategy;
+import org.apache.tapestry5.grid.SortConstraint;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.SingularAttribute;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link org.apache.tapestry5.grid.GridDataSource} based on a {@linkplain jakarta.persistence.EntityManager} and a
+ * known entity class, using {@linkplain KeysetGridDataSource keyset pagination}: pages are located by the values of
+ * the sorted properties and the entity's identifier, rather than by an offset. This requires the entity to have a
+ * single identifier attribute of a comparable type, and sort constraints to be properties of the entity.
+ *
+ * JPA doesn't control where NULLs are sorted, and databases differ; so rows are first ordered on whether optional
+ * sorted properties are NULL, with NULLs after all other values in ascending order (and before them in descending
+ * order), and pages are located accordingly.
+ *
+ * Unlike {@link JpaGridDataSource}, counting the rows is delegated to a {@link RowCountStrategy}, which may cache or
+ * estimate the count.
+ *
+ * This class is <em>not</em> thread-safe; it maintains internal state.
+ *
+ * Typically, an instance of this object is created fresh as needed (that is, it is not stored between requests); the
+ * {@link KeysetBookmarks} should be stored between requests.
+ *
+ * @since 5.10
+ */
+public class JpaKeysetGridDataSource<E> extends KeysetGridDataSource<E>
+{
+    private final EntityManager entityManager;
+
+    private final Class<E> entityType;
+
+    private final String idAttribute;
+
+    public JpaKeysetGridDataSource(EntityManager entityManager, Class<E> entityType)
+    {
+        this(entityManager, entityType, RowCountStrategy.EXACT, null);
+    }
+
+    /**
+     * @param entityManager
+     *         used to query the entities
+     * @param entityType
+     *         type of entity displayed
+     * @param rowCountStrategy
+     *         determines how entities are counted
+     * @param bookmarks
+     *         the bookmarks kept between requests, or null
+     */
+    public JpaKeysetGridDataSource(EntityManager entityManager, Class<E> entityType,
+                                   RowCountStrategy rowCountStrategy, KeysetBookmarks bookmarks)
+    {
+        super(entityType, rowCountStrategy, bookmarks);
+
+        this.entityManager = entityManager;
+        this.entityType = entityType;
+
+        EntityType<E> type = entityManager.getMetamodel().entity(entityType);
+
+        if (!type.hasSingleIdAttribute())
+        {
+            throw new IllegalArgumentException(String.format(
+                    "Entity %s does not have a single identifier attribute, which is required for keyset pagination.",
+                    entityType.getName()));
+        }
+
+        idAttribute = type.getId(type.getIdType().getJavaType()).getName();
+    }
+
+    @Override
+    protected int countRows()
+    {
+        final CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Long> criteria = builder.createQuery(Long.class);
+
+        final Root<E> root = criteria.from(entityType);
+
+        criteria = criteria.select(builder.count(root));
+
+        applyAdditionalConstraints(criteria, root, builder);
+
+        return entityManager.createQuery(criteria).getSingleResult().intValue();
+    }
+
+    @Override
+    protected List<E> fetch(List<SortConstraint> sortConstraints, Object[] seekKey, boolean reverse,
+                            int firstResult, int maxResults)
+    {
+        final CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+
+        final CriteriaQuery<E> criteria = builder.createQuery(entityType);
+
+        final Root<E> root = criteria.from(entityType);
+
+        applyAdditionalConstraints(criteria.select(root), root, builder);
+
+        List<Path<?>> paths = new ArrayList<>();
+        List<Boolean> ascending = new ArrayList<>();
+        List<Boolean> nullable = new ArrayList<>();
+
+        for (SortConstraint constraint : sortConstraints)
+        {
+            String propertyName = constraint.getPropertyModel().getPropertyName();
+
+            paths.add(root.get(propertyName));
+            ascending.add((constraint.getColumnSort() == ColumnSort.ASCENDING) != reverse);
+            nullable.add(isNullable(root.getModel().getAttribute(propertyName)));
+        }
+
+        paths.add(root.get(idAttribute));
+        ascending.add(!reverse);
+        nullable.add(false);
+
+        List<Order> orders = new ArrayList<>();
+
+        for (int i = 0; i < paths.size(); i++)
+        {
+            if (nullable.get(i))
+            {
+                Expression<Integer> isNull = builder.<Integer>selectCase().when(builder.isNull(paths.get(i)), 1).otherwise(0);
+
+                orders.add(ascending.get(i) ? builder.asc(isNull) : builder.desc(isNull));
+            }
+
+            orders.add(ascending.get(i) ? builder.asc(paths.get(i)) : builder.desc(paths.get(i)));
+        }
+
+        criteria.orderBy(orders);
+
+        if (seekKey != null)
+        {
+            Predicate seek = seekPredicate(builder, paths, ascending, nullable, seekKey);
+
+            Predicate restriction = criteria.getRestriction();
+
+            criteria.where(restriction == null ? seek : builder.and(restriction, seek));
+        }
+
+        final TypedQuery<E> query = entityManager.createQuery(criteria);
+
+        query.setFirstResult(firstResult);
+        query.setMaxResults(maxResults);
+
+        return query.getResultList();
+    }
+
+    private static boolean isNullable(Attribute<?, ?> attribute)
+    {
+        return !attribute.getJavaType().isPrimitive()
+                && !(attribute instanceof SingularAttribute && !((SingularAttribute<?, ?>) attribute).isOptional());
+    }
+
+    /**
+     * Builds {@code (a > :a) or (a = :a and b > :b) or ...}, using {@code <} for descending properties. NULLs come
+     * after all other values in ascending order, so {@code a > :a} also matches a NULL {@code a}, and nothing is
+     * after a NULL {@code :a}; in descending order, nothing but NULLs is before a non-NULL {@code :a}, and every
+     * non-NULL value is after a NULL {@code :a}.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate seekPredicate(CriteriaBuilder builder, List<Path<?>> paths, List<Boolean> ascending,
+                                           List<Boolean> nullable, Object[] seekKey)
+    {
+        List<Predicate> alternatives = new ArrayList<>();
+
+        for (int i = 0; i < paths.size(); i++)
+        {
+            Expression<Comparable> path = (Expression<Comparable>) paths.get(i);
+            Comparable value = (Comparable) seekKey[i];
+
+            Predicate after;
+
+            if (value == null)
+            {
+                if (ascending.get(i))
+                {
+                    continue;
+                }
+
+                after = builder.isNotNull(path);
+            } else if (ascending.get(i))
+            {
+                after = nullable.get(i)
+                        ? builder.or(builder.greaterThan(path, value), builder.isNull(path))
+                        : builder.greaterThan(path, value);
+            } else
+            {
+                after = builder.lessThan(path, value);
+            }
+
+            List<Predicate> terms = new ArrayList<>();
+
+            for (int j = 0; j < i; j++)
+            {
+                terms.add(seekKey[j] == null ? builder.isNull(paths.get(j)) : builder.equal(paths.get(j), seekKey[j]));
+            }
+
+            terms.add(after);
+
+            alternatives.add(builder.and(terms.toArray(new Predicate[0])));
+        }
+
+        return builder.or(alternatives.toArray(new Predicate[0]));
+    }
+
+    @Override
+    protected Object getUniqueKey(E row)
+    {
+        return entityManager.getEntityManagerFactory().getPersistenceUnitUtil().getIdentifier(row);
+    }
+
+    /**
+     * Invoked with each query, to restrict the entities displayed. Subclasses overriding this method should
+     * also override {@link #getRowCountKey()} when using a caching {@link RowCountStrategy}.
+     */
+    protected void applyAdditionalConstraints(final CriteriaQuery<?> criteria, final Root<E> root,
+                                              final CriteriaBuilder builder)
+    {
+    }
+}
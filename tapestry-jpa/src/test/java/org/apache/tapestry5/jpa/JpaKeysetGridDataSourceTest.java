@@ -0,0 +1,190 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.apache.tapestry5.jpa;
+
+import org.apache.tapestry5.beanmodel.PropertyConduit;
+import org.apache.tapestry5.beanmodel.PropertyModel;
+import org.apache.tapestry5.commons.util.CollectionFactory;
+import org.apache.tapestry5.grid.ColumnSort;
+import org.apache.tapestry5.grid.KeysetBookmarks;
+import org.apache.tapestry5.grid.RowCountStrategy;
+import org.apache.tapestry5.grid.SortConstraint;
+import org.apache.tapestry5.internal.jpa.EntityManagerSourceImpl;
+import org.apache.tapestry5.ioc.internal.util.ClasspathResource;
+import org.apache.tapestry5.test.TapestryTestCase;
+import org.easymock.EasyMock;
+import org.example.app1.entities.Thang;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.spi.PersistenceUnitTransactionType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class JpaKeysetGridDataSourceTest extends TapestryTestCase
+{
+    private static final int ROWS = 23, PAGE_SIZE = 4;
+
+    private EntityManagerFactory entityManagerFactory;
+
+    private EntityManager entityManager;
+
+    private List<Thang> thangs;
+
+    @BeforeClass
+    public void setup()
+    {
+        PersistenceUnitConfigurer configurer = new PersistenceUnitConfigurer()
+        {
+            @Override
+            public void configure(TapestryPersistenceUnitInfo unitInfo)
+            {
+                unitInfo.transactionType(PersistenceUnitTransactionType.RESOURCE_LOCAL)
+                        .persistenceProviderClassName("org.eclipse.persistence.jpa.PersistenceProvider")
+                        .excludeUnlistedClasses(true)
+                        .addManagedClass(Thang.class)
+                        .addProperty("jakarta.persistence.jdbc.user", "sa")
+                        .addProperty("jakarta.persistence.jdbc.driver", "org.h2.Driver")
+                        .addProperty("jakarta.persistence.jdbc.url", "jdbc:h2:mem:keyset")
+                        .addProperty("eclipselink.ddl-generation", "create-tables");
+            }
+        };
+
+        Map<String, PersistenceUnitConfigurer> configurerMap = CollectionFactory.newMap();
+        configurerMap.put("keyset", configurer);
+
+        entityManagerFactory = new EntityManagerSourceImpl(LoggerFactory.getLogger(JpaKeysetGridDataSourceTest.class),
+                new ClasspathResource("single-persistence-unit.xml"), null, configurerMap).createEntityManagerFactory("keyset");
+
+        entityManager = entityManagerFactory.createEntityManager();
+
+        entityManager.getTransaction().begin();
+
+        thangs = new ArrayList<>();
+
+        for (int i = 0; i < ROWS; i++)
+        {
+            Thang thang = new Thang();
+
+            // Every third name is NULL, and names repeat, so that the identifier is needed to order the rows.
+
+            thang.setName(i % 3 == 0 ? null : "name " + (i % 5));
+
+            entityManager.persist(thang);
+
+            thangs.add(thang);
+        }
+
+        entityManager.getTransaction().commit();
+    }
+
+    @AfterClass
+    public void cleanup()
+    {
+        entityManager.close();
+        entityManagerFactory.close();
+    }
+
+    private static List<SortConstraint> byName(ColumnSort sort)
+    {
+        PropertyConduit conduit = EasyMock.mock(PropertyConduit.class);
+        EasyMock.expect(conduit.get(EasyMock.anyObject())).andAnswer(() -> ((Thang) EasyMock.getCurrentArguments()[0]).getName()).anyTimes();
+
+        PropertyModel model = EasyMock.mock(PropertyModel.class);
+        EasyMock.expect(model.getPropertyName()).andReturn("name").anyTimes();
+        EasyMock.expect(model.getConduit()).andReturn(conduit).anyTimes();
+
+        EasyMock.replay(conduit, model);
+
+        return Collections.singletonList(new SortConstraint(model, sort));
+    }
+
+    /**
+     * NULLs after all other names in ascending order, then by identifier.
+     */
+    private List<Long> expected(ColumnSort sort)
+    {
+        Comparator<String> names = Comparator.nullsLast(Comparator.<String>naturalOrder());
+
+        Comparator<Thang> order = Comparator.comparing(Thang::getName,
+                sort == ColumnSort.ASCENDING ? names : names.reversed()).thenComparing(Thang::getId);
+
+        return thangs.stream().sorted(order).map(Thang::getId).collect(Collectors.toList());
+    }
+
+    private List<Long> page(KeysetBookmarks bookmarks, int startIndex, List<SortConstraint> sort)
+    {
+        JpaKeysetGridDataSource<Thang> source = new JpaKeysetGridDataSource<>(entityManager, Thang.class,
+                RowCountStrategy.EXACT, bookmarks);
+
+        int endIndex = Math.min(startIndex + PAGE_SIZE, ROWS) - 1;
+
+        source.prepare(startIndex, endIndex, sort);
+
+        List<Long> ids = new ArrayList<>();
+
+        for (int i = startIndex; i <= endIndex; i++)
+        {
+            ids.add(((Thang) source.getRowValue(i)).getId());
+        }
+
+        return ids;
+    }
+
+    private void pages_include_null_values(ColumnSort sort)
+    {
+        List<SortConstraint> constraints = byName(sort);
+        KeysetBookmarks bookmarks = new KeysetBookmarks();
+
+        List<Long> forwards = new ArrayList<>();
+
+        for (int start = 0; start < ROWS; start += PAGE_SIZE)
+        {
+            forwards.addAll(page(bookmarks, start, constraints));
+        }
+
+        assertEquals(forwards, expected(sort));
+
+        // Going back, pages are located from the bookmarks recorded going forwards.
+
+        List<Long> backwards = new ArrayList<>();
+
+        for (int start = (ROWS - 1) / PAGE_SIZE * PAGE_SIZE; start >= 0; start -= PAGE_SIZE)
+        {
+            backwards.addAll(0, page(bookmarks, start, constraints));
+        }
+
+        assertEquals(backwards, expected(sort));
+    }
+
+    @Test
+    public void ascending_pages_include_null_values()
+    {
+        pages_include_null_values(ColumnSort.ASCENDING);
+    }
+
+    @Test
+    public void descending_pages_include_null_values()
+    {
+        pages_include_null_values(ColumnSort.DESCENDING);
+    }
+}
@@ -0,0 +1,809 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.apache.tapestry5.json;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Pattern;
+
+import org.apache.tapestry5.json.exceptions.JSONSyntaxException;
+
+/**
+ * Reads a JSON document from a stream, one token at a time, without first reading the whole document into memory.
+ * Example usage:
+ * <pre>
+ * JSONReader reader = new JSONReader(request.getReader());
+ *
+ * reader.beginArray();
+ *
+ * while (reader.hasNext())
+ * {
+ *     JSONObject item = (JSONObject) reader.nextValue();
+ *     ...
+ * }
+ *
+ * reader.endArray();</pre>
+ *
+ * Values are read with the same types as {@link JSONObject} and {@link JSONArray}: strings, booleans, integers
+ * (as Integer or Long, when they don't fit in an Integer), other numbers as Double, and {@link JSONObject#NULL}.
+ * {@link #nextValue()} reads a complete object or array as a {@link JSONObject} or {@link JSONArray}.
+ *
+ * Unlike {@link JSONObject#JSONObject(String)}, the reader only accepts standard JSON
+ * (<a href="https://www.rfc-editor.org/rfc/rfc8259">RFC 8259</a>): no comments, unquoted or single quoted strings,
+ * or alternate separators. A single document is read; anything but whitespace after it is an error.
+ *
+ * Instances of this class are not thread safe.
+ *
+ * @since 5.10
+ */
+public final class JSONReader implements Closeable
+{
+    /**
+     * The kinds of tokens returned by {@link #peek()}.
+     */
+    public enum Token
+    {
+        BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY, NAME, STRING, NUMBER, BOOLEAN, NULL, END_DOCUMENT
+    }
+
+    private static final int EMPTY_DOCUMENT = 0, NONEMPTY_DOCUMENT = 1, EMPTY_ARRAY = 2, NONEMPTY_ARRAY = 3,
+            EMPTY_OBJECT = 4, DANGLING_NAME = 5, NONEMPTY_OBJECT = 6;
+
+    private static final Pattern NUMBER = Pattern.compile("-?(0|[1-9][0-9]*)(\\.[0-9]+)?([eE][+-]?[0-9]+)?");
+
+    private final Reader in;
+
+    private final char[] buffer = new char[8192];
+
+    private int pos;
+
+    private int limit;
+
+    /**
+     * Number of characters before the start of the buffer, used to report positions.
+     */
+    private int bufferStart;
+
+    private int[] stack = new int[32];
+
+    private int depth = 1;
+
+    private final StringBuilder builder = new StringBuilder();
+
+    private Token peeked;
+
+    /**
+     * Text of the peeked name, string or number.
+     */
+    private String peekedText;
+
+    private boolean peekedBoolean;
+
+    public JSONReader(Reader reader)
+    {
+        assert reader != null;
+
+        in = reader;
+        stack[0] = EMPTY_DOCUMENT;
+    }
+
+    /**
+     * Reads the document from a stream, encoded in UTF-8.
+     */
+    public JSONReader(InputStream stream)
+    {
+        this(new InputStreamReader(stream, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the type of the next token, without consuming it.
+     *
+     * @throws JSONSyntaxException
+     *         if the document is not well formed
+     */
+    public Token peek() throws IOException
+    {
+        if (peeked != null)
+        {
+            return peeked;
+        }
+
+        int c;
+
+        switch (stack[depth - 1])
+        {
+            case EMPTY_DOCUMENT:
+
+                stack[depth - 1] = NONEMPTY_DOCUMENT;
+
+                c = nextNonWhitespace();
+
+                // consume an optional byte order mark (BOM)
+
+                if (c == '\ufeff')
+                {
+                    c = nextNonWhitespace();
+                }
+
+                return c == -1 ? setPeeked(Token.END_DOCUMENT) : readValue(c);
+
+            case NONEMPTY_DOCUMENT:
+
+                if (nextNonWhitespace() != -1)
+                {
+                    throw syntaxError("Expected the end of the document");
+                }
+
+                return setPeeked(Token.END_DOCUMENT);
+
+            case EMPTY_ARRAY:
+
+                stack[depth - 1] = NONEMPTY_ARRAY;
+
+                c = nextNonWhitespace();
+
+                return c == ']' ? setPeeked(Token.END_ARRAY) : readValue(c);
+
+            case NONEMPTY_ARRAY:
+
+                c = nextNonWhitespace();
+
+                if (c == ']')
+                {
+                    return setPeeked(Token.END_ARRAY);
+                }
+
+                if (c != ',')
+                {
+                    throw syntaxError("Expected a ',' or ']'");
+                }
+
+                return readValue(nextNonWhitespace());
+
+            case EMPTY_OBJECT:
+            case NONEMPTY_OBJECT:
+
+                c = nextNonWhitespace();
+
+                if (c == '}')
+                {
+                    return setPeeked(Token.END_OBJECT);
+                }
+
+                if (stack[depth - 1] == NONEMPTY_OBJECT)
+                {
+                    if (c != ',')
+                    {
+                        throw syntaxError("Expected a ',' or '}'");
+                    }
+
+                    c = nextNonWhitespace();
+                }
+
+                if (c != '"')
+                {
+                    throw syntaxError("Names must be strings");
+                }
+
+                peekedText = readString();
+
+                stack[depth - 1] = DANGLING_NAME;
+
+                return setPeeked(Token.NAME);
+
+            default: // DANGLING_NAME
+
+                if (nextNonWhitespace() != ':')
+                {
+                    throw syntaxError("Expected a ':' after a key");
+                }
+
+                stack[depth - 1] = NONEMPTY_OBJECT;
+
+                return readValue(nextNonWhitespace());
+        }
+    }
+
+    /**
+     * Returns true if the current object or array has more elements.
+     */
+    public boolean hasNext() throws IOException
+    {
+        Token token = peek();
+
+        return token != Token.END_OBJECT && token != Token.END_ARRAY && token != Token.END_DOCUMENT;
+    }
+
+    /**
+     * Consumes the start of an object.
+     */
+    public void beginObject() throws IOException
+    {
+        expect(Token.BEGIN_OBJECT);
+
+        push(EMPTY_OBJECT);
+    }
+
+    /**
+     * Consumes the end of the current object.
+     */
+    public void endObject() throws IOException
+    {
+        expect(Token.END_OBJECT);
+
+        depth--;
+    }
+
+    /**
+     * Consumes the start of an array.
+     */
+    public void beginArray() throws IOException
+    {
+        expect(Token.BEGIN_ARRAY);
+
+        push(EMPTY_ARRAY);
+    }
+
+    /**
+     * Consumes the end of the current array.
+     */
+    public void endArray() throws IOException
+    {
+        expect(Token.END_ARRAY);
+
+        depth--;
+    }
+
+    /**
+     * Consumes the name of the next property of the current object.
+     */
+    public String nextName() throws IOException
+    {
+        expect(Token.NAME);
+
+        return peekedText;
+    }
+
+    /**
+     * Consumes a string value.
+     */
+    public String nextString() throws IOException
+    {
+        expect(Token.STRING);
+
+        return peekedText;
+    }
+
+    /**
+     * Consumes a boolean value.
+     */
+    public boolean nextBoolean() throws IOException
+    {
+        expect(Token.BOOLEAN);
+
+        return peekedBoolean;
+    }
+
+    /**
+     * Consumes a null value.
+     */
+    public void nextNull() throws IOException
+    {
+        expect(Token.NULL);
+    }
+
+    /**
+     * Consumes a number, returned as an Integer, a Long or a Double (in that order of preference).
+     */
+    public Number nextNumber() throws IOException
+    {
+        expect(Token.NUMBER);
+
+        String literal = peekedText;
+
+        if (literal.indexOf('.') == -1 && literal.indexOf('e') == -1 && literal.indexOf('E') == -1)
+        {
+            try
+            {
+                long value = Long.parseLong(literal);
+
+                if (value <= Integer.MAX_VALUE && value >= Integer.MIN_VALUE)
+                {
+                    return (int) value;
+                }
+
+                return value;
+            } catch (NumberFormatException e)
+            {
+                // Larger than a long: fall through to a double.
+            }
+        }
+
+        try
+        {
+            return Double.valueOf(literal);
+        } catch (NumberFormatException e)
+        {
+            throw syntaxError("Invalid number: " + literal);
+        }
+    }
+
+    /**
+     * Consumes a number that must be an integer within the range of an int.
+     */
+    public int nextInt() throws IOException
+    {
+        Number number = nextNumber();
+
+        if (!(number instanceof Integer))
+        {
+            throw syntaxError("Expected an int, but found " + number);
+        }
+
+        return number.intValue();
+    }
+
+    /**
+     * Consumes a number that must be an integer within the range of a long.
+     */
+    public long nextLong() throws IOException
+    {
+        Number number = nextNumber();
+
+        if (number instanceof Double)
+        {
+            throw syntaxError("Expected a long, but found " + number);
+        }
+
+        return number.longValue();
+    }
+
+    /**
+     * Consumes a number.
+     */
+    public double nextDouble() throws IOException
+    {
+        return nextNumber().doubleValue();
+    }
+
+    /**
+     * Consumes the next value, reading an object or an array completely.
+     *
+     * @return a {@link JSONObject}, {@link JSONArray}, String, Boolean, Integer, Long, Double or
+     *         {@link JSONObject#NULL}.
+     */
+    public Object nextValue() throws IOException
+    {
+        switch (peek())
+        {
+            case BEGIN_OBJECT:
+
+                JSONObject object = new JSONObject();
+
+                beginObject();
+
+                while (hasNext())
+                {
+                    String name = nextName();
+
+                    object.put(name, nextValue());
+                }
+
+                endObject();
+
+                return object;
+
+            case BEGIN_ARRAY:
+
+                JSONArray array = new JSONArray();
+
+                beginArray();
+
+                while (hasNext())
+                {
+                    array.put(nextValue());
+                }
+
+                endArray();
+
+                return array;
+
+            case STRING:
+                return nextString();
+
+            case NUMBER:
+                return nextNumber();
+
+            case BOOLEAN:
+                return nextBoolean();
+
+            case NULL:
+                nextNull();
+                return JSONObject.NULL;
+
+            case END_DOCUMENT:
+                throw syntaxError("End of input");
+
+            default:
+                throw syntaxError("Expected a value, but found " + describe(peeked));
+        }
+    }
+
+    /**
+     * Skips the next value (or, inside an object, the next property), including any nested objects or arrays.
+     */
+    public void skipValue() throws IOException
+    {
+        if (peek() == Token.NAME)
+        {
+            peeked = null;
+        }
+
+        int nesting = 0;
+
+        do
+        {
+            switch (peek())
+            {
+                case BEGIN_OBJECT:
+                    beginObject();
+                    nesting++;
+                    break;
+
+                case BEGIN_ARRAY:
+                    beginArray();
+                    nesting++;
+                    break;
+
+                case END_OBJECT:
+                    endObject();
+                    nesting--;
+                    break;
+
+                case END_ARRAY:
+                    endArray();
+                    nesting--;
+                    break;
+
+                case END_DOCUMENT:
+                    throw syntaxError("End of input");
+
+                case NAME:
+                    peeked = null;
+                    continue;
+
+                default:
+                    peeked = null;
+            }
+        } while (nesting > 0);
+    }
+
+    /**
+     * Returns the number of characters consumed so far.
+     */
+    public int getPosition()
+    {
+        return bufferStart + pos;
+    }
+
+    /**
+     * Closes the underlying reader.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        in.close();
+    }
+
+    private Token setPeeked(Token token)
+    {
+        peeked = token;
+
+        return token;
+    }
+
+    private void expect(Token expected) throws IOException
+    {
+        Token actual = peek();
+
+        if (actual != expected)
+        {
+            throw syntaxError("Expected " + describe(expected) + ", but found " + describe(actual));
+        }
+
+        peeked = null;
+    }
+
+    private static String describe(Token token)
+    {
+        switch (token)
+        {
+            case BEGIN_OBJECT:
+                return "'{'";
+            case END_OBJECT:
+                return "'}'";
+            case BEGIN_ARRAY:
+                return "'['";
+            case END_ARRAY:
+                return "']'";
+            case END_DOCUMENT:
+                return "the end of the document";
+            default:
+                return "a " + token.name().toLowerCase();
+        }
+    }
+
+    private void push(int scope)
+    {
+        if (depth == stack.length)
+        {
+            int[] expanded = new int[depth * 2];
+            System.arraycopy(stack, 0, expanded, 0, depth);
+            stack = expanded;
+        }
+
+        stack[depth++] = scope;
+    }
+
+    private boolean fill() throws IOException
+    {
+        bufferStart += limit;
+        pos = 0;
+        limit = 0;
+
+        int count = in.read(buffer, 0, buffer.length);
+
+        if (count <= 0)
+        {
+            return false;
+        }
+
+        limit = count;
+
+        return true;
+    }
+
+    /**
+     * Returns the next character, or -1 at the end of the input.
+     */
+    private int read() throws IOException
+    {
+        if (pos == limit && !fill())
+        {
+            return -1;
+        }
+
+        return buffer[pos++];
+    }
+
+    private int nextNonWhitespace() throws IOException
+    {
+        while (true)
+        {
+            int c = read();
+
+            if (c != ' ' && c != '\t' && c != '\n' && c != '\r')
+            {
+                return c;
+            }
+        }
+    }
+
+    private Token readValue(int c) throws IOException
+    {
+        switch (c)
+        {
+            case '{':
+                return setPeeked(Token.BEGIN_OBJECT);
+
+            case '[':
+                return setPeeked(Token.BEGIN_ARRAY);
+
+            case '"':
+                peekedText = readString();
+                return setPeeked(Token.STRING);
+
+            case 't':
+            case 'f':
+            case 'n':
+                return readKeyword(c);
+
+            case -1:
+                throw syntaxError("End of input");
+
+            default:
+
+                if (c == '-' || (c >= '0' && c <= '9'))
+                {
+                    peekedText = readNumber(c);
+
+                    return setPeeked(Token.NUMBER);
+                }
+
+                throw syntaxError("Unexpected character '" + (char) c + "'");
+        }
+    }
+
+    private Token readKeyword(int first) throws IOException
+    {
+        builder.setLength(0);
+        builder.append((char) first);
+
+        while (pos < limit || fill())
+        {
+            char c = buffer[pos];
+
+            if (c < 'a' || c > 'z')
+            {
+                break;
+            }
+
+            builder.append(c);
+            pos++;
+        }
+
+        String keyword = builder.toString();
+
+        switch (keyword)
+        {
+            case "true":
+                peekedBoolean = true;
+                return setPeeked(Token.BOOLEAN);
+
+            case "false":
+                peekedBoolean = false;
+                return setPeeked(Token.BOOLEAN);
+
+            case "null":
+                return setPeeked(Token.NULL);
+
+            default:
+                throw syntaxError("Unexpected value '" + keyword + "'");
+        }
+    }
+
+    private String readNumber(int first) throws IOException
+    {
+        builder.setLength(0);
+        builder.append((char) first);
+
+        while (pos < limit || fill())
+        {
+            char c = buffer[pos];
+
+            if ((c < '0' || c > '9') && c != '.' && c != 'e' && c != 'E' && c != '+' && c != '-')
+            {
+                break;
+            }
+
+            builder.append(c);
+            pos++;
+        }
+
+        if (!NUMBER.matcher(builder).matches())
+        {
+            throw syntaxError("Invalid number: " + builder);
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Reads a string up to and including the closing quote; the opening quote has already been read.
+     */
+    private String readString() throws IOException
+    {
+        builder.setLength(0);
+
+        while (true)
+        {
+            // Copy runs of plain characters directly from the buffer.
+
+            int start = pos;
+
+            while (pos < limit)
+            {
+                char c = buffer[pos];
+
+                if (c == '"')
+                {
+                    builder.append(buffer, start, pos - start);
+                    pos++;
+
+                    return builder.toString();
+                }
+
+                if (c == '\\')
+                {
+                    builder.append(buffer, start, pos - start);
+                    pos++;
+                    builder.append(readEscapeCharacter());
+
+                    start = pos;
+
+                    continue;
+                }
+
+                pos++;
+            }
+
+            builder.append(buffer, start, pos - start);
+
+            if (!fill())
+            {
+                throw syntaxError("Unterminated string");
+            }
+        }
+    }
+
+    private char readEscapeCharacter() throws IOException
+    {
+        int escaped = read();
+
+        switch (escaped)
+        {
+            case 'u':
+
+                int value = 0;
+
+                for (int i = 0; i < 4; i++)
+                {
+                    int digit = Character.digit(read(), 16);
+
+                    if (digit < 0)
+                    {
+                        throw syntaxError("Invalid escape sequence");
+                    }
+
+                    value = value * 16 + digit;
+                }
+
+                return (char) value;
+
+            case 't':
+                return '\t';
+
+            case 'b':
+                return '\b';
+
+            case 'n':
+                return '\n';
+
+            case 'r':
+                return '\r';
+
+            case 'f':
+                return '\f';
+
+            case '"':
+            case '\\':
+            case '/':
+                return (char) escaped;
+
+            case -1:
+                throw syntaxError("Unterminated escape sequence");
+
+            default:
+                throw syntaxError("Invalid escape sequence: \\" + (char) escaped);
+        }
+    }
+
+    private JSONSyntaxException syntaxError(String message)
+    {
+        return new JSONSyntaxException(getPosition(), message + " at character " + getPosition());
+    }
+}
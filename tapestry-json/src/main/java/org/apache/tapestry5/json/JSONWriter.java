@@ -0,0 +1,346 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.apache.tapestry5.json;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.PrintWriter;
+
+/**
+ * Writes a JSON document to a {@link PrintWriter} as it is produced, rather than building a {@link JSONObject} or
+ * {@link JSONArray} first. The output is the same as printing the equivalent {@link JSONCollection}, compactly or
+ * pretty printed. Example usage:
+ * <pre>
+ * JSONWriter writer = new JSONWriter(response.getPrintWriter(contentType), true);
+ *
+ * writer.object().key("items").array();
+ *
+ * for (Item item : items)
+ * {
+ *     writer.object().key("id").value(item.getId()).key("title").value(item.getTitle()).endObject();
+ * }
+ *
+ * writer.endArray().endObject().close();</pre>
+ *
+ * A writer produces a single document, unless {@link #nextDocument()} is used to separate a sequence of documents.
+ *
+ * Values may be anything that can be stored inside a JSONObject or JSONArray, including complete JSONObjects and
+ * JSONArrays. Calls that would result in a malformed document (such as a value inside an object without a preceding
+ * {@link #key(String) key}) fail with an {@link IllegalStateException}.
+ *
+ * Instances of this class are not thread safe.
+ *
+ * @since 5.10
+ */
+public final class JSONWriter implements Closeable, Flushable
+{
+    private static final int EMPTY_ARRAY = 0, NONEMPTY_ARRAY = 1, EMPTY_OBJECT = 2, DANGLING_KEY = 3,
+            NONEMPTY_OBJECT = 4;
+
+    private final PrintWriter writer;
+
+    private final JSONPrintSession session;
+
+    private int[] stack = new int[32];
+
+    private int depth;
+
+    private boolean complete;
+
+    /**
+     * @param writer
+     *         to which the document is written
+     * @param compact
+     *         if true, the document is written without extra whitespace, otherwise it is pretty printed
+     */
+    public JSONWriter(PrintWriter writer, boolean compact)
+    {
+        this(writer, compact ? new CompactSession(writer) : new PrettyPrintSession(writer));
+    }
+
+    JSONWriter(PrintWriter writer, JSONPrintSession session)
+    {
+        this.writer = writer;
+        this.session = session;
+    }
+
+    /**
+     * Begins an object.
+     */
+    public JSONWriter object()
+    {
+        beforeValue();
+
+        session.printSymbol('{').indent();
+
+        push(EMPTY_OBJECT);
+
+        return this;
+    }
+
+    /**
+     * Ends the current object.
+     */
+    public JSONWriter endObject()
+    {
+        return close(EMPTY_OBJECT, NONEMPTY_OBJECT, '}');
+    }
+
+    /**
+     * Begins an array.
+     */
+    public JSONWriter array()
+    {
+        beforeValue();
+
+        session.printSymbol('[').indent();
+
+        push(EMPTY_ARRAY);
+
+        return this;
+    }
+
+    /**
+     * Ends the current array.
+     */
+    public JSONWriter endArray()
+    {
+        return close(EMPTY_ARRAY, NONEMPTY_ARRAY, ']');
+    }
+
+    /**
+     * Writes the name of the next property of the current object; it must be followed by its value.
+     */
+    public JSONWriter key(String name)
+    {
+        assert name != null;
+
+        int scope = depth == 0 ? -1 : stack[depth - 1];
+
+        if (scope != EMPTY_OBJECT && scope != NONEMPTY_OBJECT)
+        {
+            throw new IllegalStateException("A key may only be written inside an object, before each value.");
+        }
+
+        if (scope == NONEMPTY_OBJECT)
+        {
+            session.printSymbol(',');
+        }
+
+        session.newline().printQuoted(name).printSymbol(':');
+
+        stack[depth - 1] = DANGLING_KEY;
+
+        return this;
+    }
+
+    /**
+     * Writes a value: a String, Boolean, Number, {@link JSONObject}, {@link JSONArray}, {@link JSONString},
+     * {@link JSONLiteral}, or null (or {@link JSONObject#NULL}).
+     */
+    public JSONWriter value(Object value)
+    {
+        if (value != null)
+        {
+            JSON.testValidity(value);
+        }
+
+        beforeValue();
+
+        JSONObject.printValue(session, value);
+
+        return this;
+    }
+
+    /**
+     * Writes a string value (or null).
+     */
+    public JSONWriter value(String value)
+    {
+        beforeValue();
+
+        if (value == null)
+        {
+            session.print("null");
+        } else
+        {
+            session.printQuoted(value);
+        }
+
+        return this;
+    }
+
+    /**
+     * Writes a numeric value.
+     */
+    public JSONWriter value(long value)
+    {
+        beforeValue();
+
+        session.print(Long.toString(value));
+
+        return this;
+    }
+
+    /**
+     * Writes a numeric value, which may not be {@linkplain Double#isNaN() NaN} or {@linkplain Double#isInfinite()
+     * infinite}.
+     */
+    public JSONWriter value(double value)
+    {
+        JSON.checkDouble(value);
+
+        beforeValue();
+
+        session.print(JSONObject.numberToString(value));
+
+        return this;
+    }
+
+    /**
+     * Writes a boolean value.
+     */
+    public JSONWriter value(boolean value)
+    {
+        beforeValue();
+
+        session.print(Boolean.toString(value));
+
+        return this;
+    }
+
+    /**
+     * Writes a null value.
+     */
+    public JSONWriter nullValue()
+    {
+        return value((String) null);
+    }
+
+    /**
+     * Ends the top-level value with a line break, after which another top-level value may be written. This is used
+     * to write <a href="https://github.com/ndjson/ndjson-spec">newline delimited JSON</a>, with a compact writer.
+     *
+     * @throws IllegalStateException
+     *         if the top-level value is not complete
+     */
+    public JSONWriter nextDocument()
+    {
+        if (depth != 0 || !complete)
+        {
+            throw new IllegalStateException("A new document may only be started after a complete top-level value.");
+        }
+
+        writer.print('\n');
+
+        complete = false;
+
+        return this;
+    }
+
+    /**
+     * Flushes the underlying writer, sending the content written so far.
+     */
+    @Override
+    public void flush()
+    {
+        writer.flush();
+    }
+
+    /**
+     * Closes the underlying writer.
+     *
+     * @throws IllegalStateException
+     *         if an object or array has not been ended
+     */
+    @Override
+    public void close()
+    {
+        if (depth != 0)
+        {
+            throw new IllegalStateException("The JSON document is incomplete: objects or arrays have not been ended.");
+        }
+
+        writer.close();
+    }
+
+    private void beforeValue()
+    {
+        if (depth == 0)
+        {
+            if (complete)
+            {
+                throw new IllegalStateException("A JSON document may only contain a single top-level value.");
+            }
+
+            complete = true;
+
+            return;
+        }
+
+        switch (stack[depth - 1])
+        {
+            case EMPTY_ARRAY:
+                stack[depth - 1] = NONEMPTY_ARRAY;
+                session.newline();
+                break;
+
+            case NONEMPTY_ARRAY:
+                session.printSymbol(',').newline();
+                break;
+
+            case DANGLING_KEY:
+                stack[depth - 1] = NONEMPTY_OBJECT;
+                break;
+
+            default:
+                throw new IllegalStateException("A value inside an object must be preceded by a key.");
+        }
+    }
+
+    private JSONWriter close(int empty, int nonempty, char symbol)
+    {
+        int scope = depth == 0 ? -1 : stack[depth - 1];
+
+        if (scope != empty && scope != nonempty)
+        {
+            throw new IllegalStateException(String.format("Can't end with '%s' here: %s.", symbol,
+                    scope == DANGLING_KEY ? "the last key has no value" : "nesting problem"));
+        }
+
+        depth--;
+
+        session.outdent();
+
+        if (scope == nonempty)
+        {
+            session.newline();
+        }
+
+        session.printSymbol(symbol);
+
+        return this;
+    }
+
+    private void push(int scope)
+    {
+        if (depth == stack.length)
+        {
+            int[] expanded = new int[depth * 2];
+            System.arraycopy(stack, 0, expanded, 0, depth);
+            stack = expanded;
+        }
+
+        stack[depth++] = scope;
+    }
+}
@@ -0,0 +1,119 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.apache.tapestry5.json;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.tapestry5.json.exceptions.JSONSyntaxException;
+import org.junit.jupiter.api.Test;
+
+public class JSONReaderTest
+{
+    private static final String DOCUMENT = "{\"name\":\"Tapestry\",\"version\":5.10,\"count\":12345678901,"
+            + "\"active\":true,\"parent\":null,\"tags\":[\"web\",\"java\\u00e9\",[]],\"nested\":{\"empty\":{}}}";
+
+    /**
+     * Returns at most a few characters from each read, to exercise buffer refills.
+     */
+    private static Reader trickle(String content)
+    {
+        return new StringReader(content)
+        {
+            @Override
+            public int read(char[] cbuf, int off, int len) throws IOException
+            {
+                return super.read(cbuf, off, Math.min(len, 3));
+            }
+        };
+    }
+
+    @Test
+    void nextValueMatchesJSONObject() throws IOException
+    {
+        try (JSONReader reader = new JSONReader(trickle(DOCUMENT)))
+        {
+            assertEquals(new JSONObject(DOCUMENT), reader.nextValue());
+            assertEquals(JSONReader.Token.END_DOCUMENT, reader.peek());
+        }
+    }
+
+    @Test
+    void tokens() throws IOException
+    {
+        JSONReader reader = new JSONReader(new ByteArrayInputStream(DOCUMENT.getBytes(StandardCharsets.UTF_8)));
+
+        reader.beginObject();
+        assertEquals("name", reader.nextName());
+        assertEquals("Tapestry", reader.nextString());
+        assertEquals("version", reader.nextName());
+        assertEquals(5.1, reader.nextDouble());
+        assertEquals("count", reader.nextName());
+        assertEquals(12345678901L, reader.nextLong());
+        assertEquals("active", reader.nextName());
+        assertTrue(reader.nextBoolean());
+        assertEquals("parent", reader.nextName());
+        assertEquals(JSONReader.Token.NULL, reader.peek());
+        reader.nextNull();
+        assertEquals("tags", reader.nextName());
+        reader.beginArray();
+        assertEquals("web", reader.nextString());
+        assertEquals("java\u00e9", reader.nextString());
+        reader.skipValue();
+        assertFalse(reader.hasNext());
+        reader.endArray();
+        assertEquals("nested", reader.nextName());
+        reader.skipValue();
+        reader.endObject();
+
+        assertEquals(JSONReader.Token.END_DOCUMENT, reader.peek());
+    }
+
+    @Test
+    void emptyDocument() throws IOException
+    {
+        assertEquals(JSONReader.Token.END_DOCUMENT, new JSONReader(new StringReader("  \n")).peek());
+    }
+
+    @Test
+    void syntaxErrors()
+    {
+        assertSyntaxError("{\"a\" 1}");
+        assertSyntaxError("[1,]");
+        assertSyntaxError("{'a':1}");
+        assertSyntaxError("[01]");
+        assertSyntaxError("[\"unterminated]");
+        assertSyntaxError("[tru]");
+    }
+
+    @Test
+    void mismatchedCall() throws IOException
+    {
+        JSONReader reader = new JSONReader(new StringReader("[1]"));
+
+        assertThrows(JSONSyntaxException.class, reader::beginObject);
+    }
+
+    private static void assertSyntaxError(String text)
+    {
+        assertThrows(JSONSyntaxException.class, () -> new JSONReader(new StringReader(text)).nextValue(), text);
+    }
+}
@@ -0,0 +1,116 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.apache.tapestry5.json;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+
+public class JSONWriterTest
+{
+    private static String write(boolean compact, Consumer<JSONWriter> callback)
+    {
+        StringWriter out = new StringWriter();
+
+        JSONWriter writer = new JSONWriter(new PrintWriter(out), compact);
+
+        callback.accept(writer);
+
+        writer.close();
+
+        return out.toString();
+    }
+
+    private static void document(JSONWriter writer)
+    {
+        writer.object()
+                .key("name").value("Tapestry \"5\"")
+                .key("version").value(5.1)
+                .key("count").value(3)
+                .key("active").value(true)
+                .key("parent").nullValue()
+                .key("tags").array().value("web").value(new JSONArray(1, 2)).array().endArray().endArray()
+                .key("nested").value(new JSONObject("empty", new JSONObject()))
+                .endObject();
+    }
+
+    private static JSONObject expected()
+    {
+        return new JSONObject("name", "Tapestry \"5\"", "version", 5.1, "count", 3L, "active", true)
+                .put("parent", JSONObject.NULL)
+                .put("tags", new JSONArray("web", new JSONArray(1, 2), new JSONArray()))
+                .put("nested", new JSONObject("empty", new JSONObject()));
+    }
+
+    @Test
+    void compactOutputMatchesJSONObject()
+    {
+        assertEquals(expected().toCompactString(), write(true, JSONWriterTest::document));
+    }
+
+    @Test
+    void prettyOutputMatchesJSONObject()
+    {
+        assertEquals(expected().toString(), write(false, JSONWriterTest::document));
+    }
+
+    @Test
+    void newlineDelimitedDocuments()
+    {
+        assertEquals("{\"a\":1}\n[]\n2\n",
+                write(true, writer -> writer.object().key("a").value(1).endObject().nextDocument()
+                        .array().endArray().nextDocument()
+                        .value(2).nextDocument()));
+    }
+
+    @Test
+    void nextDocumentInsideArray()
+    {
+        assertThrows(IllegalStateException.class, () -> write(true, writer -> writer.array().nextDocument()));
+    }
+
+    @Test
+    void valueWithoutKey()
+    {
+        assertThrows(IllegalStateException.class, () -> write(true, writer -> writer.object().value(1)));
+    }
+
+    @Test
+    void mismatchedEnd()
+    {
+        assertThrows(IllegalStateException.class, () -> write(true, writer -> writer.array().endObject()));
+    }
+
+    @Test
+    void incompleteDocument()
+    {
+        assertThrows(IllegalStateException.class, () -> write(true, writer -> writer.object().key("a")));
+    }
+
+    @Test
+    void secondTopLevelValue()
+    {
+        assertThrows(IllegalStateException.class, () -> write(true, writer -> writer.value(1).value(2)));
+    }
+
+    @Test
+    void invalidNumber()
+    {
+        assertThrows(RuntimeException.class, () -> write(true, writer -> writer.value(Double.NaN)));
+    }
+}
@@ -56,7 +56,7 @@ public class JacksonComponentEventResultProcessor<T> implements ComponentEventRe
 
     public void processResultValue(T object) throws IOException {
         PrintWriter pw = response.getPrintWriter(contentType.toString());
-        pw.write(objectMapperSource.get(entityClass).writeValueAsString(object));
+        objectMapperSource.get(entityClass).writeValue(pw, object);
         pw.close();
     }
 }
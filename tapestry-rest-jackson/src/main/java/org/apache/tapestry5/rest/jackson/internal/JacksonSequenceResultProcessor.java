@@ -0,0 +1,117 @@
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.apache.tapestry5.rest.jackson.internal;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.apache.tapestry5.SymbolConstants;
+import org.apache.tapestry5.http.TapestryHttpSymbolConstants;
+import org.apache.tapestry5.http.services.Request;
+import org.apache.tapestry5.http.services.Response;
+import org.apache.tapestry5.internal.services.SequenceResultProcessor;
+import org.apache.tapestry5.ioc.annotations.Symbol;
+import org.apache.tapestry5.jacksondatabind.services.ObjectMapperSource;
+import org.apache.tapestry5.json.JSONCollection;
+import org.apache.tapestry5.json.JSONObject;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Replaces {@link SequenceResultProcessor} so that the elements of an {@link Iterator}, a
+ * {@link java.util.stream.Stream} or a {@link org.apache.tapestry5.func.Flow} returned by an event handler method
+ * are serialized with Jackson Databind, one at a time, to a single {@link JsonGenerator} writing to the response.
+ * Each element is written using the {@link com.fasterxml.jackson.databind.ObjectMapper} provided by
+ * {@link ObjectMapperSource} for its class. Tapestry's own {@link JSONCollection}s are written as they are.
+ *
+ * @since 5.10
+ */
+public class JacksonSequenceResultProcessor extends SequenceResultProcessor
+{
+    private final ObjectMapperSource objectMapperSource;
+
+    public JacksonSequenceResultProcessor(Request request, Response response,
+            @Symbol(TapestryHttpSymbolConstants.CHARSET) String outputEncoding,
+            @Symbol(SymbolConstants.COMPACT_JSON) boolean compactJSON,
+            ObjectMapperSource objectMapperSource)
+    {
+        super(request, response, outputEncoding, compactJSON);
+        this.objectMapperSource = objectMapperSource;
+    }
+
+    @Override
+    protected void write(PrintWriter pw, Iterator<?> iterator, boolean delimited) throws IOException
+    {
+        // Looking up the ObjectMapper goes through a chain of command, so it is done once per class.
+        Map<Class<?>, ObjectWriter> writers = new HashMap<>();
+
+        JsonGenerator generator = objectMapperSource.get(Object.class).getFactory().createGenerator(pw);
+
+        // The response writer is closed by the caller.
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        if (delimited)
+        {
+            generator.setRootValueSeparator(null);
+        }
+        else
+        {
+            generator.writeStartArray();
+        }
+
+        int count = 0;
+
+        while (iterator.hasNext())
+        {
+            Object element = iterator.next();
+
+            if (element == null || element == JSONObject.NULL)
+            {
+                generator.writeNull();
+            }
+            else if (element instanceof JSONCollection)
+            {
+                generator.writeRawValue(((JSONCollection) element).toCompactString());
+            }
+            else
+            {
+                // By default, an ObjectWriter flushes after each value, which would send each element separately.
+                writers.computeIfAbsent(element.getClass(),
+                        type -> objectMapperSource.get(type).writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE))
+                        .writeValue(generator, element);
+            }
+
+            if (delimited)
+            {
+                generator.writeRaw('\n');
+            }
+
+            if (++count % FLUSH_INTERVAL == 0)
+            {
+                generator.flush();
+            }
+        }
+
+        if (!delimited)
+        {
+            generator.writeEndArray();
+        }
+
+        generator.close();
+    }
+}
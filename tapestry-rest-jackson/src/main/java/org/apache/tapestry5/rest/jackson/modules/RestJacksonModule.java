@@ -14,15 +14,19 @@
 
 package org.apache.tapestry5.rest.jackson.modules;
 
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 import org.apache.tapestry5.commons.Configuration;
 import org.apache.tapestry5.commons.MappedConfiguration;
 import org.apache.tapestry5.commons.OrderedConfiguration;
+import org.apache.tapestry5.func.Flow;
 import org.apache.tapestry5.http.TapestryHttpSymbolConstants;
 import org.apache.tapestry5.http.internal.TapestryHttpInternalConstants;
 import org.apache.tapestry5.http.services.HttpRequestBodyConverter;
 import org.apache.tapestry5.http.services.Response;
+import org.apache.tapestry5.ioc.annotations.Contribute;
 import org.apache.tapestry5.ioc.annotations.Symbol;
 import org.apache.tapestry5.ioc.services.ChainBuilder;
 import org.apache.tapestry5.jacksondatabind.services.ObjectMapperSource;
@@ -30,6 +34,8 @@ import org.apache.tapestry5.rest.jackson.internal.FallbackObjectMapperSource;
 import org.apache.tapestry5.rest.jackson.internal.JacksonComponentEventResultProcessor;
 import org.apache.tapestry5.rest.jackson.internal.JacksonHttpRequestBodyConverter;
 import org.apache.tapestry5.rest.jackson.internal.JacksonOpenApiTypeDescriber;
+import org.apache.tapestry5.rest.jackson.internal.JacksonSequenceResultProcessor;
+import org.apache.tapestry5.services.Ajax;
 import org.apache.tapestry5.services.ComponentEventResultProcessor;
 import org.apache.tapestry5.services.rest.MappedEntityManager;
 import org.apache.tapestry5.services.rest.OpenApiTypeDescriber;
@@ -62,7 +68,9 @@ public class RestJacksonModule
     
     /**
      * Adds a (entity class, JacksonComponentEventResultProcessor) for each entity class
-     * returned by {@link MappedEntityManager#getEntities()}.
+     * returned by {@link MappedEntityManager#getEntities()}, and overrides the processors
+     * for {@link Iterator}, {@link Stream} and {@link Flow} with {@link JacksonSequenceResultProcessor},
+     * so that their elements are serialized with Jackson Databind.
      */
     @SuppressWarnings({ "rawtypes", "unchecked" })
     public static void contributeComponentEventResultProcessor(
@@ -77,6 +85,31 @@ public class RestJacksonModule
             configuration.add(entityClass, 
                     new JacksonComponentEventResultProcessor(entityClass, response, outputEncoding, objectMapperSource));
         }
+
+        overrideSequenceResultProcessors(configuration);
+    }
+
+    /**
+     * Overrides the processors for {@link Iterator}, {@link Stream} and {@link Flow} with
+     * {@link JacksonSequenceResultProcessor} for Ajax requests too.
+     * @since 5.10
+     */
+    @Contribute(ComponentEventResultProcessor.class)
+    @Ajax
+    @SuppressWarnings("rawtypes")
+    public static void overrideAjaxSequenceResultProcessors(
+            MappedConfiguration<Class, ComponentEventResultProcessor> configuration)
+    {
+        overrideSequenceResultProcessors(configuration);
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static void overrideSequenceResultProcessors(
+            MappedConfiguration<Class, ComponentEventResultProcessor> configuration)
+    {
+        configuration.overrideInstance(Iterator.class, JacksonSequenceResultProcessor.class);
+        configuration.overrideInstance(Stream.class, JacksonSequenceResultProcessor.class);
+        configuration.overrideInstance(Flow.class, JacksonSequenceResultProcessor.class);
     }
     
     /**
@@ -16,12 +16,16 @@ import org.apache.commons.io.IOUtils;
 import org.apache.tapestry5.annotations.Path;
 import org.apache.tapestry5.commons.Resource;
 import org.apache.tapestry5.commons.util.CollectionFactory;
+import org.apache.tapestry5.commons.util.TimeInterval;
 import org.apache.tapestry5.http.ContentType;
 import org.apache.tapestry5.internal.InternalConstants;
 import org.apache.tapestry5.ioc.OperationTracker;
+import org.apache.tapestry5.ioc.annotations.IntermediateType;
+import org.apache.tapestry5.ioc.annotations.Symbol;
 import org.apache.tapestry5.ioc.internal.util.InternalUtils;
 import org.apache.tapestry5.services.assets.ResourceDependencies;
 import org.apache.tapestry5.services.assets.ResourceTransformer;
+import org.apache.tapestry5.webresources.WebResourcesSymbols;
 import org.mozilla.javascript.Context;
 import org.mozilla.javascript.NativeObject;
 
@@ -46,10 +50,16 @@ public class CoffeeScriptCompiler implements ResourceTransformer
                                 Resource mainCompiler,
                                 @Path("classpath:org/apache/tapestry5/webresources/internal/invoke-coffeescript.js")
                                 Resource shim,
-                                OperationTracker tracker)
+                                OperationTracker tracker,
+                                @Symbol(WebResourcesSymbols.RHINO_POOL_SIZE)
+                                int poolSize,
+                                @Symbol(WebResourcesSymbols.RHINO_POOL_IDLE_TIMEOUT)
+                                @IntermediateType(TimeInterval.class)
+                                long idleTimeout)
     {
 
-        executorPool = new RhinoExecutorPool(tracker, toList(mainCompiler, shim));
+        executorPool = new RhinoExecutorPool(tracker, toList(mainCompiler, shim), Context.VERSION_DEFAULT,
+                poolSize, idleTimeout);
     }
 
     private List<Resource> toList(Resource... resources)
@@ -19,6 +19,7 @@ import org.apache.tapestry5.commons.util.CollectionFactory;
 import org.apache.tapestry5.services.assets.ResourceDependencies;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.Map;
 
 /**
@@ -38,6 +39,16 @@ public class ContentChangeTracker implements ResourceDependencies
         checksums.put(dependency, checksum);
     }
 
+    /**
+     * Returns the tracked resources, and the checksum of each as of when it was added.
+     *
+     * @since 5.10
+     */
+    public Map<Resource, Long> getChecksums()
+    {
+        return Collections.unmodifiableMap(checksums);
+    }
+
     /**
      * Checks all resources tracked by this instance and returns true if any resource's content has changed.
      *
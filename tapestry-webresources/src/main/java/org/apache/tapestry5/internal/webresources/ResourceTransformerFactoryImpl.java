@@ -28,10 +28,20 @@ import org.apache.tapestry5.webresources.WebResourcesSymbols;
 import org.slf4j.Logger;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
 import java.util.Map;
+import java.util.zip.Adler32;
 
 public class ResourceTransformerFactoryImpl implements ResourceTransformerFactory
 {
+    private static final String MANIFEST_SUFFIX = ".deps";
+
     private final Logger logger;
 
     private final OperationTracker tracker;
@@ -40,22 +50,26 @@ public class ResourceTransformerFactoryImpl implements ResourceTransformerFactor
 
     private final File cacheDir;
 
+    private final String tapestryVersion;
+
+    private boolean cacheDirAvailable;
+
     public ResourceTransformerFactoryImpl(Logger logger, OperationTracker tracker,
                                           @Symbol(TapestryHttpSymbolConstants.PRODUCTION_MODE)
                                           boolean productionMode,
                                           @Symbol(WebResourcesSymbols.CACHE_DIR)
-                                          String cacheDir)
+                                          String cacheDir,
+                                          @Symbol(SymbolConstants.TAPESTRY_VERSION)
+                                          String tapestryVersion)
     {
         this.logger = logger;
         this.tracker = tracker;
         this.productionMode = productionMode;
+        this.tapestryVersion = tapestryVersion;
 
         this.cacheDir = new File(cacheDir);
 
-        if (!productionMode)
-        {
-            logger.info(String.format("Using %s to store compiled assets (development mode only).", cacheDir));
-        }
+        logger.info(String.format("Using %s to store compiled assets.", cacheDir));
     }
 
     @PostInjection
@@ -64,6 +78,8 @@ public class ResourceTransformerFactoryImpl implements ResourceTransformerFactor
         if (!restrictive)
         {
             cacheDir.mkdirs();
+
+            cacheDirAvailable = cacheDir.isDirectory();
         }
     }
 
@@ -100,9 +116,14 @@ public class ResourceTransformerFactoryImpl implements ResourceTransformerFactor
     {
         ResourceTransformer trackingCompiler = wrapWithTracking(sourceName, targetName, transformer);
 
+        String cacheKey = toCacheKey(targetName, transformer);
+
         if (productionMode)
         {
-            return trackingCompiler;
+            // Compiled output is otherwise cached at a higher level, in memory; the file system cache
+            // spares recompiling everything after each restart or redeploy.
+
+            return cacheMode == CacheMode.NONE ? trackingCompiler : wrapWithFileSystemCaching(trackingCompiler, targetName, cacheKey);
         }
 
         ResourceTransformer timingCompiler = wrapWithTiming(targetName, trackingCompiler);
@@ -115,11 +136,11 @@ public class ResourceTransformerFactoryImpl implements ResourceTransformerFactor
 
             case SINGLE_FILE:
 
-                return wrapWithFileSystemCaching(timingCompiler, targetName);
+                return wrapWithFileSystemCaching(timingCompiler, targetName, cacheKey);
 
             case MULTIPLE_FILE:
 
-                return wrapWithInMemoryCaching(timingCompiler, targetName);
+                return wrapWithInMemoryCaching(wrapWithFileSystemCaching(timingCompiler, targetName, cacheKey), targetName);
 
             default:
 
@@ -127,6 +148,21 @@ public class ResourceTransformerFactoryImpl implements ResourceTransformerFactor
         }
     }
 
+    /**
+     * The cache directory may be shared by applications (it defaults to a subdirectory of the temporary directory), and
+     * outlives upgrades: the compiled output depends on the compiler (and the version of it bundled with Tapestry),
+     * and on the target, as well as on the source.
+     */
+    private String toCacheKey(String targetName, ResourceTransformer compiler)
+    {
+        Adler32 checksum = new Adler32();
+
+        checksum.update(String.join("\n", tapestryVersion, targetName, compiler.getClass().getName())
+                .getBytes(StandardCharsets.UTF_8));
+
+        return Long.toHexString(checksum.getValue());
+    }
+
     private ResourceTransformer wrapWithTracking(final String sourceName, final String targetName, ResourceTransformer core)
     {
         return new DelegatingResourceTransformer(core)
@@ -171,7 +207,7 @@ public class ResourceTransformerFactoryImpl implements ResourceTransformerFactor
     }
 
     /**
-     * Caching is not needed in production, because caching of streamable resources occurs at a higher level
+     * In-memory caching is not needed in production, because caching of streamable resources occurs at a higher level
      * (possibly after sources have been aggregated and minimized and gzipped). However, in development, it is
      * very important to avoid costly CoffeeScript compilation (or similar operations); Tapestry's caching is
      * somewhat primitive: a change to *any* resource in a given domain results in the cache of all of those resources
@@ -211,8 +247,18 @@ public class ResourceTransformerFactoryImpl implements ResourceTransformerFactor
         };
     }
 
-    private ResourceTransformer wrapWithFileSystemCaching( ResourceTransformer core, final String targetName)
+    /**
+     * Stores the compiled output in the cache directory, alongside a manifest of the checksums of the resources the
+     * source depends upon (for example, Less imports); the cached output is used as long as the source, and each of
+     * its dependencies, is unchanged.
+     */
+    private ResourceTransformer wrapWithFileSystemCaching( ResourceTransformer core, final String targetName, final String cacheKey)
     {
+        if (!cacheDirAvailable)
+        {
+            return core;
+        }
+
         return new DelegatingResourceTransformer(core)
         {
             @Override
@@ -220,18 +266,29 @@ public class ResourceTransformerFactoryImpl implements ResourceTransformerFactor
             {
                 long checksum = ResourceTransformUtils.toChecksum(source);
 
-                String fileName = Long.toHexString(checksum) + "-" + source.getFile();
+                String fileName = Long.toHexString(checksum) + "-" + cacheKey + "-" + source.getFile();
 
                 File cacheFile = new File(cacheDir, fileName);
 
-                if (cacheFile.exists())
+                File manifestFile = new File(cacheDir, fileName + MANIFEST_SUFFIX);
+
+                List<Resource> cachedDependencies = readManifest(source, manifestFile);
+
+                if (cachedDependencies != null && cacheFile.exists())
                 {
                     logger.debug(String.format("Serving up compiled %s content for %s from file system cache", targetName, source));
 
+                    for (Resource dependency : cachedDependencies)
+                    {
+                        dependencies.addDependency(dependency);
+                    }
+
                     return new BufferedInputStream(new FileInputStream(cacheFile));
                 }
 
-                InputStream compiled = delegate.transform(source, dependencies);
+                ContentChangeTracker changeTracker = new ContentChangeTracker();
+
+                InputStream compiled = delegate.transform(source, new ResourceDependenciesSplitter(dependencies, changeTracker));
 
                 // We need the InputStream twice; once to return, and once to write out to the cache file for later.
 
@@ -243,19 +300,100 @@ public class ResourceTransformerFactoryImpl implements ResourceTransformerFactor
 
                 BytestreamCache cache = new BytestreamCache(bos);
 
+                // The manifest is written last, as a cache entry without one is ignored.
+
                 writeToCacheFile(cacheFile, cache.openStream());
 
+                writeManifest(manifestFile, source, changeTracker);
+
                 return cache.openStream();
             }
         };
     }
 
+    /**
+     * Reads the dependencies recorded for the source, returning null if the manifest is missing or unreadable, or
+     * if any dependency no longer exists or has changed.
+     */
+    private List<Resource> readManifest(Resource source, File manifestFile)
+    {
+        if (!manifestFile.exists())
+        {
+            return null;
+        }
+
+        List<Resource> result = CollectionFactory.newList();
+
+        try
+        {
+            for (String line : Files.readAllLines(manifestFile.toPath(), StandardCharsets.UTF_8))
+            {
+                if (line.isEmpty())
+                {
+                    continue;
+                }
+
+                int space = line.indexOf(' ');
+
+                long checksum = Long.parseLong(line.substring(0, space), 16);
+
+                Resource dependency = source.forFile(line.substring(space + 1));
+
+                if (!dependency.exists() || ResourceTransformUtils.toChecksum(dependency) != checksum)
+                {
+                    return null;
+                }
+
+                result.add(dependency);
+            }
+        } catch (IOException | RuntimeException ex)
+        {
+            logger.warn(String.format("Unable to read compiled asset cache manifest %s: %s", manifestFile, ex));
+
+            return null;
+        }
+
+        return result;
+    }
+
+    private void writeManifest(File manifestFile, Resource source, ContentChangeTracker changeTracker) throws IOException
+    {
+        Path folder = Paths.get(source.getFolder());
+
+        StringBuilder builder = new StringBuilder();
+
+        for (Map.Entry<Resource, Long> e : changeTracker.getChecksums().entrySet())
+        {
+            // Dependencies are recorded relative to the source, and resolved the same way Less resolves imports.
+
+            String relativePath = folder.relativize(Paths.get(e.getKey().getPath())).toString();
+
+            builder.append(Long.toHexString(e.getValue())).append(' ').append(relativePath).append('\n');
+        }
+
+        writeToCacheFile(manifestFile,
+                new ByteArrayInputStream(builder.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Writes to a temporary file which is then moved into place, so that other threads (or other instances of the
+     * application sharing the cache directory) never see a partially written file.
+     */
     private void writeToCacheFile(File file, InputStream stream) throws IOException
     {
-        OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(file));
+        File temp = File.createTempFile(file.getName(), ".tmp", cacheDir);
 
-        TapestryInternalUtils.copy(stream, outputStream);
+        try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(temp)))
+        {
+            TapestryInternalUtils.copy(stream, outputStream);
+        }
 
-        outputStream.close();
+        try
+        {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex)
+        {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
     }
 }
@@ -15,13 +15,14 @@
 package org.apache.tapestry5.internal.webresources;
 
 import org.apache.tapestry5.commons.Resource;
+import org.apache.tapestry5.commons.util.CollectionFactory;
 import org.apache.tapestry5.commons.util.ExceptionUtils;
-import org.apache.tapestry5.ioc.Invokable;
 import org.apache.tapestry5.ioc.OperationTracker;
 import org.apache.tapestry5.ioc.internal.util.InternalUtils;
 import org.mozilla.javascript.Context;
 import org.mozilla.javascript.ContextFactory;
 import org.mozilla.javascript.NativeFunction;
+import org.mozilla.javascript.Script;
 import org.mozilla.javascript.ScriptableObject;
 
 import java.io.IOException;
@@ -29,25 +30,49 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.nio.charset.StandardCharsets;
+import java.util.Deque;
 import java.util.List;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Manages a pool of initialized {@link RhinoExecutor} instances.  The instances are initialized for a particular
+ * set of scripts; each script is compiled just once, and the compiled {@link Script} is shared by all the executors,
+ * each of which executes it in a scope of its own.
+ *
+ * The pool is bounded: when all the executors are in use, a thread needing one waits until another thread discards
+ * its executor. Executors that have been idle for longer than the idle timeout are evicted, so that the memory held
+ * by their scopes is reclaimed once a burst of compilations is over.
  */
 public class RhinoExecutorPool
 {
+    /**
+     * Maximum number of executors used when not otherwise specified.
+     */
+    public static final int DEFAULT_MAX_SIZE = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Idle timeout, in milliseconds, used when not otherwise specified.
+     */
+    public static final long DEFAULT_IDLE_TIMEOUT = TimeUnit.MINUTES.toMillis(5);
+
     private final OperationTracker tracker;
 
     private final List<Resource> scripts;
 
-    private final Queue<RhinoExecutor> executors = new ConcurrentLinkedQueue<RhinoExecutor>();
+    private final Deque<PooledExecutor> idleExecutors = new ConcurrentLinkedDeque<PooledExecutor>();
+
+    private final Semaphore permits;
+
+    private final long idleTimeoutNanos;
 
     private final ContextFactory contextFactory = new ContextFactory();
 
     private final int languageVersion;
 
+    private volatile List<Script> compiledScripts;
+
     public RhinoExecutorPool(OperationTracker tracker, List<Resource> scripts)
     {
         this(tracker, scripts, Context.VERSION_DEFAULT);
@@ -55,122 +80,226 @@ public class RhinoExecutorPool
 
     public RhinoExecutorPool(OperationTracker tracker, List<Resource> scripts, int languageVersion)
     {
+        this(tracker, scripts, languageVersion, DEFAULT_MAX_SIZE, DEFAULT_IDLE_TIMEOUT);
+    }
+
+    /**
+     * @param tracker
+     *         used to track the compilation of the scripts, and the creation of executors
+     * @param scripts
+     *         scripts loaded into each executor, in order
+     * @param languageVersion
+     *         JavaScript language version, as per {@link Context#setLanguageVersion(int)}
+     * @param maxSize
+     *         maximum number of executors that may exist at any time
+     * @param idleTimeout
+     *         time, in milliseconds, after which an unused executor is discarded
+     * @since 5.10
+     */
+    public RhinoExecutorPool(OperationTracker tracker, List<Resource> scripts, int languageVersion, int maxSize,
+                             long idleTimeout)
+    {
+        assert maxSize > 0;
+
         this.tracker = tracker;
         this.scripts = scripts;
         this.languageVersion = languageVersion;
+
+        permits = new Semaphore(maxSize, true);
+        idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeout);
+    }
+
+    private final class PooledExecutor implements RhinoExecutor
+    {
+        private final Context context;
+
+        private final ScriptableObject scope;
+
+        private volatile long lastUsed;
+
+        PooledExecutor(Context context, ScriptableObject scope)
+        {
+            this.context = context;
+            this.scope = scope;
+        }
+
+        @Override
+        public ScriptableObject invokeFunction(String functionName, Object... arguments)
+        {
+            contextFactory.enterContext(context);
+
+            try
+            {
+                NativeFunction function = (NativeFunction) scope.get(functionName, scope);
+
+                return (ScriptableObject) function.call(context, scope, null, arguments);
+            } finally
+            {
+                Context.exit();
+            }
+        }
+
+        @Override
+        public void discard()
+        {
+            lastUsed = System.nanoTime();
+
+            put(this);
+        }
     }
 
     /**
-     * Gets or creates an available executor. It is expected that {@link #put(RhinoExecutor)} will
-     * be invoked after the executor completes.
+     * Gets or creates an available executor, waiting for one to be discarded if the pool is exhausted.
+     * It is expected that {@link RhinoExecutor#discard()} will be invoked after the executor completes.
      *
      * @return executor
      */
     public RhinoExecutor get()
     {
+        permits.acquireUninterruptibly();
+
+        try
+        {
+            evictIdleExecutors();
+
+            RhinoExecutor executor = idleExecutors.pollFirst();
+
+            return executor != null ? executor : createExecutor();
+        } catch (RuntimeException ex)
+        {
+            permits.release();
+
+            throw ex;
+        }
+    }
+
+    private void put(PooledExecutor executor)
+    {
+        // Most recently used first, so that the executors at the end of the deque are the ones to time out.
+
+        idleExecutors.addFirst(executor);
+
+        permits.release();
+
+        evictIdleExecutors();
+    }
+
+    private void evictIdleExecutors()
+    {
+        long now = System.nanoTime();
+
+        while (true)
+        {
+            PooledExecutor oldest = idleExecutors.peekLast();
+
+            if (oldest == null || now - oldest.lastUsed < idleTimeoutNanos)
+            {
+                return;
+            }
+
+            idleExecutors.removeLastOccurrence(oldest);
+        }
+    }
+
+    private List<Script> getCompiledScripts()
+    {
+        List<Script> result = compiledScripts;
 
-        RhinoExecutor executor = executors.poll();
-        if (executor != null)
+        if (result == null)
         {
-            return executor;
+            synchronized (this)
+            {
+                result = compiledScripts;
+
+                if (result == null)
+                {
+                    result = compiledScripts = compileScripts();
+                }
+            }
         }
 
-        return createExecutor();
+        return result;
     }
 
-    private void put(RhinoExecutor executor)
+    private List<Script> compileScripts()
     {
-        executors.add(executor);
+        Context context = contextFactory.enterContext();
+
+        try
+        {
+            // Interpreted scripts hold no per-execution state, and so may be executed in any number of scopes.
+
+            context.setOptimizationLevel(-1);
+            context.setLanguageVersion(languageVersion);
+
+            List<Script> result = CollectionFactory.newList();
+
+            for (Resource script : scripts)
+            {
+                result.add(compileScript(context, script));
+            }
+
+            return result;
+        } finally
+        {
+            Context.exit();
+        }
     }
 
     private RhinoExecutor createExecutor()
     {
-        return tracker.invoke(String.format("Creating Rhino executor for source(s) %s.",
-                InternalUtils.join(scripts)),
-                new Invokable<RhinoExecutor>()
-                {
-                    @Override
-                    public RhinoExecutor invoke()
-                    {
-                        final Context context = contextFactory.enterContext();
+        final List<Script> compiled = getCompiledScripts();
 
-                        final ScriptableObject scope = context.initStandardObjects();
+        return tracker.invoke(() -> String.format("Creating Rhino executor for source(s) %s.",
+                InternalUtils.join(scripts)),
+                () -> {
+                    Context context = contextFactory.enterContext();
 
-                        try
-                        {
-                            context.setOptimizationLevel(-1);
-                            context.setLanguageVersion(languageVersion);
+                    ScriptableObject scope = context.initStandardObjects();
 
-                            for (Resource script : scripts)
-                            {
-                                loadScript(context, scope, script);
-                            }
+                    try
+                    {
+                        context.setOptimizationLevel(-1);
+                        context.setLanguageVersion(languageVersion);
 
-                        } finally
+                        for (Script script : compiled)
                         {
-                            Context.exit();
+                            script.exec(context, scope);
                         }
 
-                        return new RhinoExecutor()
-                        {
-                            @Override
-                            public ScriptableObject invokeFunction(String functionName, Object... arguments)
-                            {
-                                contextFactory.enterContext(context);
-
-                                try
-                                {
-                                    NativeFunction function = (NativeFunction) scope.get(functionName, scope);
-
-                                    return (ScriptableObject) function.call(context, scope, null, arguments);
-                                } finally
-                                {
-                                    Context.exit();
-                                }
-                            }
-
-                            @Override
-                            public void discard()
-                            {
-                                put(this);
-                            }
-                        };
+                    } finally
+                    {
+                        Context.exit();
                     }
+
+                    return new PooledExecutor(context, scope);
                 });
     }
 
-    private void loadScript(final Context context, final ScriptableObject scope, final Resource script)
+    private Script compileScript(final Context context, final Resource script)
     {
-        tracker.run(String.format("Loading script %s.", script),
-                new Runnable()
-                {
-                    @Override
-                    public void run()
-                    {
-                        InputStream in = null;
-                        Reader r = null;
+        return tracker.invoke(() -> String.format("Compiling script %s.", script),
+                () -> {
+                    InputStream in = null;
+                    Reader r = null;
 
-                        try
-                        {
-                            in = script.openStream();
-                            r = new InputStreamReader(in, StandardCharsets.UTF_8);
+                    try
+                    {
+                        in = script.openStream();
+                        r = new InputStreamReader(in, StandardCharsets.UTF_8);
 
-                            context.evaluateReader(scope, r, script.toString(), 1, null);
-                        } catch (IOException ex)
-                        {
-                            throw new RuntimeException(String.format("Unable to read script %s: %s",
-                                    script,
-                                    ExceptionUtils.toMessage(ex)
-                            ), ex);
-                        } finally
-                        {
-                            InternalUtils.close(r);
-                            InternalUtils.close(in);
-                        }
+                        return context.compileReader(r, script.toString(), 1, null);
+                    } catch (IOException ex)
+                    {
+                        throw new RuntimeException(String.format("Unable to read script %s: %s",
+                                script,
+                                ExceptionUtils.toMessage(ex)
+                        ), ex);
+                    } finally
+                    {
+                        InternalUtils.close(r);
+                        InternalUtils.close(in);
                     }
                 });
-
     }
-
-
 }
@@ -9,13 +9,19 @@ import java.util.Arrays;
 import org.apache.commons.io.IOUtils;
 import org.apache.tapestry5.annotations.Path;
 import org.apache.tapestry5.commons.Resource;
+import org.apache.tapestry5.commons.util.TimeInterval;
 import org.apache.tapestry5.http.ContentType;
 import org.apache.tapestry5.internal.InternalConstants;
 import org.apache.tapestry5.ioc.OperationTracker;
+import org.apache.tapestry5.ioc.annotations.Inject;
+import org.apache.tapestry5.ioc.annotations.IntermediateType;
+import org.apache.tapestry5.ioc.annotations.Symbol;
 import org.apache.tapestry5.ioc.internal.util.ClasspathResource;
 import org.apache.tapestry5.ioc.internal.util.InternalUtils;
 import org.apache.tapestry5.services.assets.ResourceDependencies;
 import org.apache.tapestry5.services.assets.ResourceTransformer;
+import org.apache.tapestry5.webresources.WebResourcesSymbols;
+import org.mozilla.javascript.Context;
 import org.mozilla.javascript.NativeObject;
 
 public class TypeScriptCompiler implements ResourceTransformer {
@@ -29,11 +35,20 @@ public class TypeScriptCompiler implements ResourceTransformer {
       return InternalConstants.JAVASCRIPT_CONTENT_TYPE;
   }
 
+  public TypeScriptCompiler(final OperationTracker tracker, final Resource typescript)
+  {
+      this(tracker, typescript, RhinoExecutorPool.DEFAULT_MAX_SIZE, RhinoExecutorPool.DEFAULT_IDLE_TIMEOUT);
+  }
+
+  @Inject
   public TypeScriptCompiler(final OperationTracker tracker,
-      @Path("classpath:org/apache/tapestry5/webresources/internal/typescript.js") final Resource typescript)
+      @Path("classpath:org/apache/tapestry5/webresources/internal/typescript.js") final Resource typescript,
+      @Symbol(WebResourcesSymbols.RHINO_POOL_SIZE) final int poolSize,
+      @Symbol(WebResourcesSymbols.RHINO_POOL_IDLE_TIMEOUT) @IntermediateType(TimeInterval.class) final long idleTimeout)
   {
       this.executorPool = new RhinoExecutorPool(tracker, Arrays.<Resource> asList(typescript,
-          new ClasspathResource("org/apache/tapestry5/webresources/internal/invoke-typescript.js")));
+          new ClasspathResource("org/apache/tapestry5/webresources/internal/invoke-typescript.js")),
+          Context.VERSION_DEFAULT, poolSize, idleTimeout);
 
   }
 
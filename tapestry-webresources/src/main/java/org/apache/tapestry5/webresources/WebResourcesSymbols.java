@@ -30,4 +30,21 @@ public class WebResourcesSymbols
      * with Closure.
      */
     public static final String COMPILATION_LEVEL  = "tapestry.closure-compiler-level";
+
+    /**
+     * The maximum number of Rhino executors kept by each of the Rhino based compilers (CoffeeScript and TypeScript);
+     * this bounds the number of compilations of a given kind that may run concurrently, and the memory used by
+     * their scopes. The default is the number of available processors.
+     *
+     * @since 5.10
+     */
+    public static final String RHINO_POOL_SIZE = "tapestry.rhino-executor-pool-size";
+
+    /**
+     * The time interval after which an unused Rhino executor is discarded, as a
+     * {@link org.apache.tapestry5.commons.util.TimeInterval} string. The default is "5 m".
+     *
+     * @since 5.10
+     */
+    public static final String RHINO_POOL_IDLE_TIMEOUT = "tapestry.rhino-executor-idle-timeout";
 }
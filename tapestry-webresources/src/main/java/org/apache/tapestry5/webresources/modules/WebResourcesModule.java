@@ -61,6 +61,8 @@ public class WebResourcesModule
     {
         configuration.add(WebResourcesSymbols.CACHE_DIR, "${java.io.tmpdir}/tapestry-asset-cache");
         configuration.add(WebResourcesSymbols.COMPILATION_LEVEL, CompilationLevel.WHITESPACE_ONLY);
+        configuration.add(WebResourcesSymbols.RHINO_POOL_SIZE, Runtime.getRuntime().availableProcessors());
+        configuration.add(WebResourcesSymbols.RHINO_POOL_IDLE_TIMEOUT, "5 m");
     }
 
 
@@ -0,0 +1,234 @@
+package t5.webresources.tests
+
+import org.apache.tapestry5.commons.Resource
+import org.apache.tapestry5.http.ContentType
+import org.apache.tapestry5.internal.webresources.CacheMode
+import org.apache.tapestry5.internal.webresources.ContentChangeTracker
+import org.apache.tapestry5.internal.webresources.ResourceTransformerFactoryImpl
+import org.apache.tapestry5.ioc.internal.QuietOperationTracker
+import org.apache.tapestry5.ioc.internal.util.ClasspathResource
+import org.apache.tapestry5.services.assets.ResourceDependencies
+import org.apache.tapestry5.services.assets.ResourceTransformer
+import org.slf4j.LoggerFactory
+
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.charset.StandardCharsets
+import java.nio.file.Path
+
+class ResourceTransformerFactoryImplSpec extends Specification {
+
+  /**
+   * Stands in for the Less compiler: appends the imported file to the source.
+   */
+  static class ImportingCompiler implements ResourceTransformer {
+
+    int count
+
+    @Override
+    ContentType getTransformedContentType() {
+      new ContentType("text/css")
+    }
+
+    @Override
+    InputStream transform(Resource source, ResourceDependencies dependencies) throws IOException {
+      count++
+
+      def imported = source.forFile("imported.less")
+
+      dependencies.addDependency(imported)
+
+      new ByteArrayInputStream((source.openStream().text + imported.openStream().text).getBytes(StandardCharsets.UTF_8))
+    }
+  }
+
+  @TempDir
+  Path folder
+
+  File sources
+
+  File cacheDir
+
+  Resource source
+
+  def setup() {
+    sources = folder.resolve("sources").toFile()
+    cacheDir = folder.resolve("cache").toFile()
+
+    new File(sources, "styles").mkdirs()
+    new File(sources, "styles/main.less").text = "main;"
+    new File(sources, "styles/imported.less").text = "imported;"
+
+    def loader = new URLClassLoader([sources.toURI().toURL()] as URL[], (ClassLoader) null)
+
+    source = new ClasspathResource(loader, "styles/main.less")
+  }
+
+  /**
+   * Compiles the source as an application would, just after starting up.
+   */
+  def compile(ResourceTransformer compiler, String targetName = "CSS", String tapestryVersion = "5.10.0") {
+    def factory = new ResourceTransformerFactoryImpl(LoggerFactory.getLogger(ResourceTransformerFactoryImpl),
+        new QuietOperationTracker(), true, cacheDir.path, tapestryVersion)
+
+    factory.createCacheDir(false)
+
+    def dependencies = new ContentChangeTracker()
+
+    def output = factory.createCompiler("text/css", "Less", targetName, compiler, CacheMode.SINGLE_FILE)
+        .transform(source, dependencies).text
+
+    return [output, dependencies.checksums.keySet()*.path]
+  }
+
+  def "compiled output and its dependencies are read back from the cache"() {
+    def compiler = new ImportingCompiler()
+
+    compile(compiler)
+
+    when:
+
+    def (output, dependencies) = compile(compiler)
+
+    then:
+
+    compiler.count == 1
+    output == "main;imported;"
+    dependencies == ["styles/imported.less"]
+  }
+
+  def "a changed dependency invalidates the cached output"() {
+    def compiler = new ImportingCompiler()
+
+    compile(compiler)
+
+    new File(sources, "styles/imported.less").text = "changed;"
+
+    when:
+
+    def (output, dependencies) = compile(compiler)
+
+    then:
+
+    compiler.count == 2
+    output == "main;changed;"
+
+    when:
+
+    compile(compiler)
+
+    then:
+
+    compiler.count == 2
+  }
+
+  def "cached output without a manifest is ignored"() {
+    def compiler = new ImportingCompiler()
+
+    compile(compiler)
+
+    cacheDir.listFiles().findAll { it.name.endsWith(".deps") }*.delete()
+
+    when:
+
+    compile(compiler)
+
+    then:
+
+    compiler.count == 2
+  }
+
+  def "cached output is specific to the target and the Tapestry version"() {
+    def compiler = new ImportingCompiler()
+
+    compile(compiler)
+
+    when:
+
+    compile(compiler, "JavaScript")
+
+    then:
+
+    compiler.count == 2
+
+    when:
+
+    compile(compiler, "CSS", "5.10.1")
+
+    then:
+
+    compiler.count == 3
+
+    when:
+
+    compile(compiler, "CSS", "5.10.0")
+
+    then:
+
+    compiler.count == 3
+  }
+
+  def "an unreadable manifest is ignored, and replaced"() {
+    def compiler = new ImportingCompiler()
+
+    compile(compiler)
+
+    cacheDir.listFiles().find { it.name.endsWith(".deps") }.text = "not a manifest"
+
+    when:
+
+    def (output, dependencies) = compile(compiler)
+
+    then:
+
+    compiler.count == 2
+    output == "main;imported;"
+    dependencies == ["styles/imported.less"]
+
+    when:
+
+    compile(compiler)
+
+    then:
+
+    compiler.count == 2
+  }
+
+  def "a manifest without its cached output is ignored"() {
+    def compiler = new ImportingCompiler()
+
+    compile(compiler)
+
+    cacheDir.listFiles().findAll { !it.name.endsWith(".deps") }*.delete()
+
+    when:
+
+    def output = compile(compiler)[0]
+
+    then:
+
+    compiler.count == 2
+    output == "main;imported;"
+  }
+
+  def "a dependency that no longer exists invalidates the cached output"() {
+    def compiler = new ImportingCompiler()
+
+    compile(compiler)
+
+    // The manifest now refers to an import that has since been removed.
+
+    def manifest = cacheDir.listFiles().find { it.name.endsWith(".deps") }
+
+    manifest.text = manifest.text.replace("imported.less", "removed.less")
+
+    when:
+
+    compile(compiler)
+
+    then:
+
+    compiler.count == 2
+  }
+}
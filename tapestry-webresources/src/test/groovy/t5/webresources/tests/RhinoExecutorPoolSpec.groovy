@@ -0,0 +1,208 @@
+package t5.webresources.tests
+
+import org.apache.tapestry5.internal.webresources.RhinoExecutorPool
+import org.apache.tapestry5.ioc.Invokable
+import org.apache.tapestry5.ioc.internal.QuietOperationTracker
+import org.apache.tapestry5.ioc.internal.util.ClasspathResource
+import org.mozilla.javascript.Context
+
+import spock.lang.Specification
+
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.function.Supplier
+
+class RhinoExecutorPoolSpec extends Specification {
+
+  static class RecordingOperationTracker extends QuietOperationTracker {
+
+    final List<String> descriptions = [].asSynchronized()
+
+    @Override
+    <T> T invoke(Supplier<String> description, Invokable<T> operation) {
+      descriptions << description.get()
+
+      return operation.invoke()
+    }
+
+    int count(String prefix) {
+      descriptions.count { it.startsWith(prefix) }
+    }
+  }
+
+  def tracker = new RecordingOperationTracker()
+
+  def script = new ClasspathResource("t5/webresources/counter.js")
+
+  def createPool(int maxSize, long idleTimeout, List scripts = [script]) {
+    new RhinoExecutorPool(tracker, scripts, Context.VERSION_DEFAULT, maxSize, idleTimeout)
+  }
+
+  def increment(executor, int by) {
+    def result = executor.invokeFunction("increment", by)
+
+    return result.get("count", result) as int
+  }
+
+  def "scripts are compiled once, and executed in a scope of each executor"() {
+    def pool = createPool(2, 60000)
+
+    when:
+
+    def first = pool.get()
+    def second = pool.get()
+
+    then:
+
+    increment(first, 1) == 1
+    increment(first, 1) == 2
+    increment(second, 5) == 5
+
+    tracker.count("Compiling script") == 1
+    tracker.count("Creating Rhino executor") == 2
+
+    cleanup:
+
+    first?.discard()
+    second?.discard()
+  }
+
+  def "discarded executors are reused"() {
+    def pool = createPool(2, 60000)
+
+    when:
+
+    def first = pool.get()
+    increment(first, 3)
+    first.discard()
+
+    def second = pool.get()
+
+    then:
+
+    second.is(first)
+    increment(second, 1) == 4
+    tracker.count("Creating Rhino executor") == 1
+
+    cleanup:
+
+    second?.discard()
+  }
+
+  def "a thread waits for an executor once the pool is exhausted"() {
+    def pool = createPool(1, 60000)
+    def first = pool.get()
+    def second = null
+
+    when:
+
+    def thread = Thread.start { second = pool.get() }
+    thread.join(200)
+
+    then:
+
+    thread.alive
+
+    when:
+
+    first.discard()
+    thread.join(5000)
+
+    then:
+
+    !thread.alive
+    second.is(first)
+    tracker.count("Creating Rhino executor") == 1
+
+    cleanup:
+
+    second?.discard()
+  }
+
+  def "idle executors are evicted"() {
+    def pool = createPool(2, 0)
+
+    when:
+
+    def first = pool.get()
+    first.discard()
+
+    def second = pool.get()
+    second.discard()
+
+    then:
+
+    !second.is(first)
+    tracker.count("Creating Rhino executor") == 2
+
+    // The compiled script is kept, and shared by the new executor
+
+    tracker.count("Compiling script") == 1
+  }
+
+  def "no more executors than the maximum exist at any time"() {
+    def pool = createPool(2, 60000)
+    def inUse = new AtomicInteger()
+    def maxInUse = new AtomicInteger()
+    def failures = [].asSynchronized()
+
+    when:
+
+    def threads = (1..8).collect {
+      Thread.start {
+        try {
+          20.times {
+            def executor = pool.get()
+
+            maxInUse.accumulateAndGet(inUse.incrementAndGet(), { a, b -> Math.max(a, b) })
+
+            try {
+              increment(executor, 1)
+            } finally {
+              inUse.decrementAndGet()
+              executor.discard()
+            }
+          }
+        } catch (Throwable t) {
+          failures << t
+        }
+      }
+    }
+
+    threads*.join(10000)
+
+    then:
+
+    failures.empty
+    threads.every { !it.alive }
+    maxInUse.get() <= 2
+    tracker.count("Creating Rhino executor") <= 2
+  }
+
+  def "an executor that can't be created doesn't use up the pool"() {
+    def pool = createPool(1, 60000, [new ClasspathResource("t5/webresources/missing.js")])
+    def failures = [].asSynchronized()
+
+    when:
+
+    // With a single permit, a permit kept by a failure would block the second thread forever.
+
+    def threads = (1..2).collect {
+      def thread = Thread.start {
+        try {
+          pool.get()
+        } catch (RuntimeException ex) {
+          failures << ex
+        }
+      }
+
+      thread.join(5000)
+
+      return thread
+    }
+
+    then:
+
+    threads.every { !it.alive }
+    failures.size() == 2
+  }
+}
@@ -0,0 +1,7 @@
+var count = 0;
+
+function increment(by) {
+  count += by;
+
+  return { count: count };
+}